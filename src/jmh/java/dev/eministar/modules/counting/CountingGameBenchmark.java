@@ -0,0 +1,40 @@
+package dev.eministar.modules.counting;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prüfung und Auswertung jeder Nachricht im Counting-Channel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountingGameBenchmark {
+    // Mischung wie im Channel: meist Zahlen, einige Rechnungen, etwas Chat
+    private static final String[] INPUTS = {
+            "1234", "1235", " 1236 ", "600+637", "1240 - 2", "619*2", "2478/2", "lol", "1239", "gg 1240"
+    };
+
+    @Benchmark
+    public void isValidNumber(Blackhole bh) {
+        for (String input : INPUTS) bh.consume(CountingGame.isValidNumber(input));
+    }
+
+    @Benchmark
+    public void evaluateExpression(Blackhole bh) {
+        for (String input : INPUTS) bh.consume(CountingGame.evaluateExpression(input));
+    }
+}
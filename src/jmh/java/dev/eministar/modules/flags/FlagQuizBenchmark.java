@@ -0,0 +1,65 @@
+package dev.eministar.modules.flags;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Antwortprüfung im Flaggenquiz: Normalisieren der Eingabe, Auflösen auf einen ISO-Code (auch mit Tippfehlern)
+ * und das Aufbauen der akzeptierten Antworten beim Start einer Runde.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlagQuizBenchmark {
+    private static final String[] GUESSES = {
+            "Deutschland", "  österreich ", "Côte d'Ivoire", "USA", "vereinigte staaten", "Brasilien!!",
+            "de", "Türkei", "south korea", "keine ahnung", "São Tomé und Príncipe", "UK"
+    };
+    private static final String[] TYPOS = {
+            "Kolumbein", "Phillipines", "Niederlnade", "Vereinigte Staten", "Brasilen", "Östereich"
+    };
+
+    private String[] codes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        codes = Locale.getISOCountries();
+    }
+
+    @Benchmark
+    public void normalize(Blackhole bh) {
+        for (String guess : GUESSES) bh.consume(FlagQuizService.normalize(guess));
+    }
+
+    @Benchmark
+    public void resolveToCode(Blackhole bh) {
+        for (String guess : GUESSES) bh.consume(FlagQuizService.resolveToCode(guess));
+    }
+
+    @Benchmark
+    public void resolveTypos(Blackhole bh) {
+        for (String guess : TYPOS) bh.consume(FlagQuizService.resolveToCode(guess));
+    }
+
+    @Benchmark
+    public Object buildAcceptedAnswers() {
+        String code = codes[next++ % codes.length];
+        return FlagQuizService.buildAcceptedAnswers(code);
+    }
+}
@@ -0,0 +1,71 @@
+package dev.eministar.modules.giveaway.v2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vollständiger Snapshot des Giveaway-Stores (wie bei jeder Kompaktierung), geschrieben in einen Null-Writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GiveawayStoreBenchmark {
+    @Param({"20", "200"})
+    public int giveaways;
+
+    @Param({"1000", "10000"})
+    public int entrantsPerGiveaway;
+
+    private GiveawayStore store;
+
+    @Setup
+    public void setup() throws IOException {
+        // relativ zum Arbeitsverzeichnis des Benchmarks (target/jmh-work), nie die echten Daten
+        Path dir = Files.createTempDirectory(Path.of("."), "giveaways");
+        store = new GiveawayStore(dir.resolve("giveaways.json").toString());
+        Instant start = Instant.parse("2025-01-01T18:00:00Z");
+        for (int i = 0; i < giveaways; i++) {
+            GiveawayData gaw = new GiveawayData();
+            gaw.id = String.format("G-20250101-%03d", i % 1000);
+            gaw.guildId = "1100000000000000000";
+            gaw.channelId = "1200000000000000000";
+            gaw.messageId = Long.toString(1_300_000_000_000_000_000L + i);
+            gaw.hostId = "1400000000000000000";
+            gaw.title = "Nitro Giveaway #" + i;
+            gaw.prize = "Discord Nitro (1 Monat)";
+            gaw.winnersCount = 3;
+            gaw.startedAt = start.toString();
+            gaw.endsAt = start.plus(7, ChronoUnit.DAYS).toString();
+            gaw.status = "running";
+            gaw.visibility = "live";
+            // Teilnehmer liegen in eigenen Segment-Dateien, im Snapshot steht nur noch die Anzahl
+            gaw.entrantCount = entrantsPerGiveaway;
+            store.put(gaw.guildId + ":" + gaw.messageId, gaw);
+        }
+    }
+
+    @Benchmark
+    public void writeSnapshot() {
+        store.writeSnapshot(Writer.nullWriter());
+    }
+}
@@ -0,0 +1,69 @@
+package dev.eministar.modules.giveaway.v2;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gewinnerziehung bei großen Giveaways; Lose wie beim Beitritt aus {@link GiveawayData.EntriesConfig#bonusByRole}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeightedPickerBenchmark {
+    private static final String[] ROLES = {"1200000000000000001", "1200000000000000002", "1200000000000000003"};
+
+    @Param({"100000", "1000000"})
+    public int entrants;
+
+    @Param({"1", "10"})
+    public int winners;
+
+    private List<String> users;
+    private int[] weights;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        GiveawayData.EntriesConfig config = new GiveawayData.EntriesConfig();
+        config.bonusByRole.put(ROLES[0], 1); // Booster
+        config.bonusByRole.put(ROLES[1], 2); // Level 20
+        config.bonusByRole.put(ROLES[2], 4); // Supporter
+
+        Random random = new Random(42);
+        users = new ArrayList<>(entrants);
+        weights = new int[entrants];
+        for (int i = 0; i < entrants; i++) {
+            // wie RequirementsChecker.Compiled#entries: Basis plus Bonus je Rolle
+            int entries = config.base;
+            for (String role : ROLES) {
+                if (random.nextInt(10) < 2) entries += config.bonusByRole.get(role);
+            }
+            String userId = Long.toString(300_000_000_000_000_000L + i);
+            users.add(userId);
+            weights[i] = entries;
+        }
+        seed = random.nextLong();
+    }
+
+    @Benchmark
+    public List<String> pickWeighted() {
+        return WeightedPicker.pickWeighted(users, weights, winners, seed);
+    }
+}
@@ -0,0 +1,67 @@
+package dev.eministar.modules.poll;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendern der Poll-Nachricht, das bei jeder Stimme (entprellt) neu passiert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PollRenderBenchmark {
+    @Param({"2", "5", "10"})
+    public int options;
+
+    private PollData poll;
+    private PollModule module;
+    private PollTally tally;
+    private long voter;
+
+    @Setup
+    public void setup() throws IOException {
+        poll = PollStoreBenchmark.poll(0, options, 250);
+        poll.endsAt = Instant.now().plus(1, ChronoUnit.DAYS).toString();
+        // relativ zum Arbeitsverzeichnis des Benchmarks (target/jmh-work), nie die echten Daten
+        Path dir = Files.createTempDirectory(Path.of("."), "polls");
+        module = new PollModule(new PollStore(dir.resolve("polls.json").toString()));
+        tally = PollTally.of(poll);
+    }
+
+    @Benchmark
+    public void formatOptionLine(Blackhole bh) {
+        int total = poll.getTotalVotes();
+        for (PollData.PollOption option : poll.options) {
+            bh.consume(PercentBarRenderer.formatOptionLine(option.id + ": " + option.label,
+                    poll.totals.getOrDefault(option.id, 0), total, true));
+        }
+    }
+
+    /** Wie nach einer Stimme: neue Tally-Version, die Zeilen-Cache-Einträge der unveränderten Optionen greifen. */
+    @Benchmark
+    public MessageEmbed buildPollEmbed() {
+        tally.vote(1_600_000_000_000_000_000L + voter++, (int) (voter % options));
+        return module.buildPollEmbed(poll, tally.snapshot()).build();
+    }
+}
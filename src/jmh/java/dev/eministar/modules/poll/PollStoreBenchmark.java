@@ -0,0 +1,85 @@
+package dev.eministar.modules.poll;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vollständiger Snapshot des Poll-Stores (wie bei jeder Kompaktierung), geschrieben in einen Null-Writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PollStoreBenchmark {
+    @Param({"100", "1000"})
+    public int polls;
+
+    @Param({"200"})
+    public int votersPerPoll;
+
+    private PollStore store;
+
+    @Setup
+    public void setup() throws IOException {
+        // relativ zum Arbeitsverzeichnis des Benchmarks (target/jmh-work), nie die echten Daten
+        Path dir = Files.createTempDirectory(Path.of("."), "polls");
+        store = new PollStore(dir.resolve("polls.json").toString());
+        for (int i = 0; i < polls; i++) {
+            PollData poll = poll(i, 4, votersPerPoll);
+            store.put(poll.guildId + ":" + poll.messageId, poll);
+        }
+    }
+
+    @Benchmark
+    public void writeSnapshot() {
+        store.writeSnapshot(Writer.nullWriter());
+    }
+
+    static PollData poll(int n, int options, int voters) {
+        PollData poll = new PollData();
+        poll.id = String.format("P-20250101-%03d", n % 1000);
+        poll.guildId = "1100000000000000000";
+        poll.channelId = "1200000000000000000";
+        poll.messageId = Long.toString(1_300_000_000_000_000_000L + n);
+        poll.creatorId = "1400000000000000000";
+        poll.title = "Welches Event machen wir am Wochenende? #" + n;
+        poll.description = "Stimmt ab, die Option mit den meisten Stimmen gewinnt.";
+        poll.visibility = "live";
+        poll.status = "open";
+        poll.startedAt = Instant.parse("2025-01-01T18:00:00Z").toString();
+        poll.endsAt = Instant.parse("2025-01-01T18:00:00Z").plus(2, ChronoUnit.DAYS).toString();
+        for (int o = 1; o <= options; o++) {
+            String id = Integer.toString(o);
+            poll.options.add(new PollData.PollOption(id, "Option " + o + " – Spieleabend"));
+            poll.totals.put(id, 0);
+        }
+        poll.votes = new HashMap<>(); // altes Format, wird beim ersten Speichern in Bitmaps umgewandelt
+        for (int v = 0; v < voters; v++) {
+            String option = Integer.toString(1 + (v * 7 + n) % options);
+            poll.votes.put(Long.toString(1_500_000_000_000_000_000L + v), List.of(option));
+            poll.totals.merge(option, 1, Integer::sum);
+        }
+        return poll;
+    }
+}
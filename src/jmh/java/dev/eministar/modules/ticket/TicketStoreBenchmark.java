@@ -0,0 +1,60 @@
+package dev.eministar.modules.ticket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vollständiger Snapshot des JSON-Ticket-Stores, den {@link TicketService} im JSON-Modus benutzt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketStoreBenchmark {
+    @Param({"1000", "20000"})
+    public int tickets;
+
+    private JsonTicketRepository repository;
+
+    @Setup
+    public void setup() throws IOException {
+        // relativ zum Arbeitsverzeichnis des Benchmarks (target/jmh-work), nie die echten Daten
+        Path dir = Files.createTempDirectory(Path.of("."), "tickets");
+        repository = new JsonTicketRepository(dir.resolve("tickets.json"));
+        TicketCategory[] categories = TicketCategory.values();
+        for (int i = 0; i < tickets; i++) {
+            Ticket ticket = new Ticket(repository.nextTicketId(), Long.toString(1_500_000_000_000_000_000L + i % 500),
+                    "110000000000000000" + i % 3, categories[i % categories.length]);
+            ticket.setChannelId(Long.toString(1_200_000_000_000_000_000L + i));
+            ticket.setReason("Ich habe ein Problem mit meinem Account, bitte um Hilfe.");
+            if (i % 4 != 0) {
+                ticket.setClaimedBy("1400000000000000000");
+                ticket.setStatus(Ticket.TicketStatus.CLOSED);
+                ticket.setClosedAt(1_735_754_400_000L + i * 60_000L);
+            }
+            repository.save(ticket);
+        }
+    }
+
+    @Benchmark
+    public void writeSnapshot() {
+        repository.writeSnapshot(Writer.nullWriter());
+    }
+}
@@ -0,0 +1,72 @@
+package dev.eministar.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TextNormalizer} gegen die Regex-Ketten, die vorher in Flaggenquiz, DPQ und TempVoice standen
+ * ({@code regex*} sind die alten Varianten als Vergleich).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextNormalizerBenchmark {
+    // Quiz-Antworten wie im Channel: meist kurz, einige mit Akzenten und Satzzeichen
+    private static final String[] ANSWERS = {
+            "Deutschland", "  österreich ", "Côte d'Ivoire", "USA", "vereinigte staaten", "Brasilien!!",
+            "de", "Türkei", "south korea", "keine ahnung", "São Tomé und Príncipe", "UK"
+    };
+    private static final String[] NAMES = {
+            "dpq-12-Jürgen_", "🗣┃ Lea's Runde", "🗣┃ ★ xX_Gamer_Xx ★", "🗣┃ Müde Möwe"
+    };
+
+    @Benchmark
+    public void regexFold(Blackhole bh) {
+        for (String s : ANSWERS) {
+            String x = s.trim().toLowerCase(Locale.ROOT);
+            x = Normalizer.normalize(x, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            x = x.replaceAll("[^a-z0-9 ]", " ");
+            bh.consume(x.replaceAll("\\s+", " ").trim());
+        }
+    }
+
+    @Benchmark
+    public void fold(Blackhole bh) {
+        for (String s : ANSWERS) bh.consume(TextNormalizer.fold(s));
+    }
+
+    @Benchmark
+    public void regexSlug(Blackhole bh) {
+        for (String s : NAMES) bh.consume(s.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-"));
+    }
+
+    @Benchmark
+    public void slug(Blackhole bh) {
+        for (String s : NAMES) bh.consume(TextNormalizer.slug(s));
+    }
+
+    @Benchmark
+    public void regexKeepText(Blackhole bh) {
+        for (String s : NAMES) bh.consume(s.replaceAll("[^\\p{L}\\p{N}\\p{P}\\p{Z}🗣]", ""));
+    }
+
+    @Benchmark
+    public void keepText(Blackhole bh) {
+        for (String s : NAMES) bh.consume(TextNormalizer.keepText(s, 0x1F5E3));
+    }
+}
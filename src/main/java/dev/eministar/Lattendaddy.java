@@ -1,21 +1,24 @@
 package dev.eministar;
 
+import dev.eministar.cache.MemberCache;
 import dev.eministar.command.Command;
 import dev.eministar.command.CommandManager;
 import dev.eministar.config.Config;
+import dev.eministar.event.EventRouter;
+import dev.eministar.event.RoutedListener;
+import dev.eministar.metrics.JdaMetrics;
+import dev.eministar.metrics.MetricsServer;
 import dev.eministar.modules.ModuleLoader;
-import dev.eministar.modules.goodbye.GoodbyeListener;
-import dev.eministar.modules.welcome.WelcomeListener;
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.PersistenceEngine;
+import dev.eministar.scheduler.Scheduler;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
-import net.dv8tion.jda.api.requests.GatewayIntent;
-import net.dv8tion.jda.api.utils.ChunkingFilter;
-import net.dv8tion.jda.api.utils.MemberCachePolicy;
-import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Set;
+import java.util.List;
 
 public class Lattendaddy {
     private static final Logger logger = LoggerFactory.getLogger(Lattendaddy.class);
@@ -35,6 +38,16 @@ public class Lattendaddy {
             return;
         }
 
+        // Timer stoppen, danach ausstehende Journal-Einträge flushen und Snapshots schreiben
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Config.stopWatching();
+            MetricsServer.stop();
+            Scheduler.shutdown();
+            dev.eministar.modules.flags.FlagQuizService.flush();
+            PersistenceEngine.shutdown();
+            Database.shutdown();
+        }, "persistence-shutdown"));
+
         try {
             // FlagQuiz Persistenz laden
             dev.eministar.modules.flags.FlagQuizService.load();
@@ -42,67 +55,58 @@ public class Lattendaddy {
             dev.eministar.modules.dpq.DpqService.loadState();
 
             JDABuilder builder = JDABuilder.createDefault(token);
-            builder.enableIntents(
-                    GatewayIntent.GUILD_MESSAGES,
-                    GatewayIntent.MESSAGE_CONTENT,
-                    GatewayIntent.GUILD_MEMBERS,
-                    GatewayIntent.GUILD_VOICE_STATES,
-                    GatewayIntent.GUILD_PRESENCES
-            );
-            // WICHTIG: Präsenzdaten und vollständiges Member-Chaunking aktivieren, sonst bleibt Online-Count 0
-            builder.enableCache(CacheFlag.ONLINE_STATUS);
-            builder.setMemberCachePolicy(MemberCachePolicy.ALL);
-            builder.setChunkingFilter(ChunkingFilter.ALL);
+            // Intents und Member-Cache je nach memberCache.mode (full: alles inkl. Präsenzen, lean: nur bei Bedarf)
+            MemberCache.install(builder);
+            // REST-Queue-Tiefe und 429er messen
+            JdaMetrics.install(builder);
 
             CommandManager manager = new CommandManager(Config.getPrefix());
 
-            // Load modules automatically
-            Set<Class<? extends Command>> commandClasses = ModuleLoader.loadCommands();
-            for (Class<? extends Command> clazz : commandClasses) {
-                try {
-                    Command cmd = clazz.getDeclaredConstructor().newInstance();
+            // Module aus der beim Build generierten Registry laden (kein Classpath-Scan, keine Reflection)
+            long loadStart = System.nanoTime();
+            List<ModuleLoader.LoadedModule> modules = ModuleLoader.load();
+            int commandCount = 0;
+            for (ModuleLoader.LoadedModule module : modules) {
+                if (module.instance() instanceof Command cmd) {
                     manager.register(cmd);
+                    commandCount++;
                     logger.info("Command geladen: {}", cmd.name());
-                } catch (Exception e) {
-                    logger.error("Fehler beim Laden des Commands: {}", clazz.getSimpleName(), e);
                 }
             }
 
-            // Register core listeners (welcome/goodbye)
-            WelcomeListener welcome = new WelcomeListener();
-            GoodbyeListener goodbye = new GoodbyeListener();
-            dev.eministar.modules.birthday.BirthdayListener birthday = new dev.eministar.modules.birthday.BirthdayListener();
-            dev.eministar.modules.ticket.TicketListener ticket = new dev.eministar.modules.ticket.TicketListener();
-            dev.eministar.modules.suggestion.SuggestionListener suggestion = new dev.eministar.modules.suggestion.SuggestionListener();
-            dev.eministar.modules.tempvoice.TempVoiceModule tempVoice = new dev.eministar.modules.tempvoice.TempVoiceModule();
-            dev.eministar.modules.hymn.HymnModule hymn = new dev.eministar.modules.hymn.HymnModule();
-            dev.eministar.modules.counting.CountingListener counting = new dev.eministar.modules.counting.CountingListener();
-            dev.eministar.modules.misc.PingReactionListener pingReaction = new dev.eministar.modules.misc.PingReactionListener();
-            dev.eministar.modules.channelcounts.ChannelCountListener channelCounts = new dev.eministar.modules.channelcounts.ChannelCountListener();
-            dev.eministar.modules.flags.FlagQuizListener flagQuiz = new dev.eministar.modules.flags.FlagQuizListener();
-            dev.eministar.modules.dpq.DpqAnswerListener dpqAnswer = new dev.eministar.modules.dpq.DpqAnswerListener();
-            builder.addEventListeners(manager, welcome, goodbye, birthday, ticket, suggestion, tempVoice, hymn, counting, pingReaction, channelCounts, flagQuiz, dpqAnswer);
-
-            JDA jda = builder.build().awaitReady();
+            // Alle Listener laufen über den EventRouter; deaktivierte Module wurden gar nicht erst geladen,
+            // kanalgebundene Module melden sich selbst nur für ihren Channel an.
+            EventRouter router = EventRouter.get();
+            router.register("commands", manager);
+            for (ModuleLoader.LoadedModule module : modules) {
+                if (module.instance() instanceof RoutedListener routed) {
+                    routed.bind(router);
+                } else if (module.instance() instanceof ListenerAdapter listener) {
+                    router.register(module.descriptor().name(), listener);
+                }
+            }
+            logger.info("{} Module in {} ms geladen", modules.size(), (System.nanoTime() - loadStart) / 1_000_000);
+            builder.addEventListeners(router);
+
+            JDA jda = builder.build();
+            JdaMetrics.bind(jda, router);
+            MemberCache.bind(jda, router);
+            if (Config.getMetricsEnabled()) {
+                MetricsServer.start(Config.getMetricsBind(), Config.getMetricsPort());
+            }
+            jda.awaitReady();
             manager.registerToJda(jda);
 
             // FlagQuiz Dashboard sicherstellen
             dev.eministar.modules.flags.FlagQuizService.bootstrapDashboards(jda);
 
-            // Auto-start Hymn module if enabled
-            if (Config.getHymnEnabled()) {
-                String guildId = Config.getGuildId();
-                if (!guildId.isEmpty()) {
-                    try {
-                        hymn.startPlaying(jda.getGuildById(guildId));
-                        logger.info("Auto-started Hymn module");
-                    } catch (Exception e) {
-                        logger.error("Failed to auto-start Hymn module", e);
-                    }
-                }
-            }
+            // Änderungen an config.json ab jetzt ohne Neustart übernehmen
+            Config.onChange((old, now) -> {
+                if (!old.prefix().equals(now.prefix())) manager.setPrefix(now.prefix());
+            });
+            Config.watch();
 
-            logger.info("Lattendaddy erfolgreich gestartet mit {} Commands.", commandClasses.size());
+            logger.info("Lattendaddy erfolgreich gestartet mit {} Commands.", commandCount);
         } catch (Exception e) {
             logger.error("Fehler beim Starten des Bots", e);
         }
@@ -0,0 +1,141 @@
+package dev.eministar.cache;
+
+import dev.eministar.config.Config;
+import dev.eministar.config.ConfigSnapshot;
+import dev.eministar.event.EventRouter;
+import dev.eministar.scheduler.Scheduler;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Member-Cache-Strategie für den Bot.
+ * <p>
+ * {@code full}: alle Mitglieder samt Online-Status werden beim Start geladen (bisheriges Verhalten).
+ * {@code lean}: kein Chunking und keine Präsenzen; im Cache landen nur Mitglieder im Voice, der Owner,
+ * Mitglieder mit Team-Rollen und wer in den letzten {@code activeMinutes} geschrieben oder interagiert hat.
+ * Alle anderen werden bei Bedarf per REST bzw. {@code Guild#loadMembers(Consumer)} geholt. Startzeit und Heap
+ * hängen damit nicht mehr von der Servergröße ab.
+ */
+public final class MemberCache {
+    private static final Logger logger = LoggerFactory.getLogger(MemberCache.class);
+    private static final long PRUNE_INTERVAL_MINUTES = 5;
+
+    // User-ID -> letzte Aktivität (System.currentTimeMillis)
+    private static final Map<Long, Long> lastActive = new ConcurrentHashMap<>();
+    private static volatile Set<String> relevantRoles = Set.of();
+    private static boolean lean;
+
+    private MemberCache() {}
+
+    /** Ob der Bot im Lean-Modus läuft; steht ab {@link #install(JDABuilder)} fest. */
+    public static boolean isLean() {
+        return lean;
+    }
+
+    /** Setzt Intents, Cache-Flags, Chunking und Cache-Policy; muss vor {@link JDABuilder#build()} aufgerufen werden. */
+    public static void install(JDABuilder builder) {
+        lean = Config.getMemberCacheLean();
+        builder.enableIntents(
+                GatewayIntent.GUILD_MESSAGES,
+                GatewayIntent.MESSAGE_CONTENT,
+                GatewayIntent.GUILD_MEMBERS,
+                GatewayIntent.GUILD_VOICE_STATES
+        );
+
+        if (!lean) {
+            // Präsenzdaten und vollständiges Member-Chunking, sonst bleibt der Online-Count 0
+            builder.enableIntents(GatewayIntent.GUILD_PRESENCES);
+            builder.enableCache(CacheFlag.ONLINE_STATUS);
+            builder.setMemberCachePolicy(MemberCachePolicy.ALL);
+            builder.setChunkingFilter(ChunkingFilter.ALL);
+            return;
+        }
+
+        updateRelevantRoles(Config.get());
+        Config.onChange((old, now) -> updateRelevantRoles(now));
+        builder.disableIntents(GatewayIntent.GUILD_PRESENCES);
+        builder.disableCache(CacheFlag.ONLINE_STATUS, CacheFlag.ACTIVITY, CacheFlag.CLIENT_STATUS);
+        builder.setChunkingFilter(ChunkingFilter.NONE);
+        builder.setMemberCachePolicy(MemberCachePolicy.VOICE
+                .or(MemberCachePolicy.OWNER)
+                .or(MemberCache::hasRelevantRole)
+                .or(MemberCache::isRecentlyActive));
+        logger.info("Member-Cache im Lean-Modus (aktiv: {} min)", Config.getMemberCacheActiveMinutes());
+    }
+
+    /**
+     * Merkt sich Aktivität über den Router und räumt inaktive Mitglieder regelmäßig aus dem Cache.
+     * Im Full-Modus ein No-op.
+     */
+    public static void bind(JDA jda, EventRouter router) {
+        if (!lean) return;
+        // JDA prüft die Policy schon beim Bauen des Members; gecacht wird also ab der nächsten Aktivität
+        router.on(MessageReceivedEvent.class, "member-cache/message", e -> touch(e.getAuthor()));
+        router.on(GenericInteractionCreateEvent.class, "member-cache/interaction", e -> touch(e.getUser()));
+        router.on(MessageReactionAddEvent.class, "member-cache/reaction", e -> touch(e.getUserIdLong()));
+
+        Scheduler.group("member-cache").scheduleWithFixedDelay(() -> prune(jda),
+                PRUNE_INTERVAL_MINUTES, PRUNE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private static void touch(User user) {
+        if (!user.isBot()) touch(user.getIdLong());
+    }
+
+    private static void touch(long userId) {
+        lastActive.put(userId, System.currentTimeMillis());
+    }
+
+    private static boolean isRecentlyActive(Member member) {
+        Long last = lastActive.get(member.getIdLong());
+        return last != null && System.currentTimeMillis() - last < activeWindowMillis();
+    }
+
+    private static boolean hasRelevantRole(Member member) {
+        Set<String> roles = relevantRoles;
+        if (roles.isEmpty()) return false;
+        for (Role role : member.getRoles()) {
+            if (roles.contains(role.getId())) return true;
+        }
+        return false;
+    }
+
+    // Team-Rollen aus Tickets und DPQ plus frei konfigurierbare Rollen
+    private static void updateRelevantRoles(ConfigSnapshot config) {
+        Set<String> roles = new HashSet<>();
+        roles.addAll(config.ticketClaimRoleIds());
+        roles.addAll(config.memberCache().roleIds());
+        if (!config.dpq().teamRoleId().isEmpty()) roles.add(config.dpq().teamRoleId());
+        relevantRoles = Set.copyOf(roles);
+    }
+
+    private static long activeWindowMillis() {
+        return TimeUnit.MINUTES.toMillis(Config.getMemberCacheActiveMinutes());
+    }
+
+    private static void prune(JDA jda) {
+        long cutoff = System.currentTimeMillis() - activeWindowMillis();
+        lastActive.values().removeIf(last -> last < cutoff);
+        // wendet die Policy erneut auf alle gecachten Mitglieder an und wirft den Rest raus
+        jda.getGuildCache().forEach(guild -> guild.pruneMemberCache());
+        logger.debug("Member-Cache geprunt, {} aktive User gemerkt", lastActive.size());
+    }
+}
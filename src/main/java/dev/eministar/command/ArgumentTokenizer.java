@@ -0,0 +1,44 @@
+package dev.eministar.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zerlegt den Rest einer Prefix-Command-Zeile in Argumente. Trennzeichen ist beliebiger Whitespace,
+ * ein mit {@code "} beginnendes Argument reicht bis zum nächsten {@code "} und darf Leerzeichen enthalten.
+ * Ein nicht geschlossenes Anführungszeichen wird als normales Zeichen behandelt.
+ */
+public final class ArgumentTokenizer {
+    public static final String[] NO_ARGS = new String[0];
+
+    private ArgumentTokenizer() {}
+
+    public static String[] tokenize(String raw, int from) {
+        int len = raw.length();
+        int i = skipWhitespace(raw, from);
+        if (i >= len) return NO_ARGS;
+
+        List<String> args = new ArrayList<>();
+        while (i < len) {
+            if (raw.charAt(i) == '"') {
+                int close = raw.indexOf('"', i + 1);
+                if (close > 0) {
+                    args.add(raw.substring(i + 1, close));
+                    i = skipWhitespace(raw, close + 1);
+                    continue;
+                }
+            }
+            int end = i;
+            while (end < len && !Character.isWhitespace(raw.charAt(end))) end++;
+            args.add(raw.substring(i, end));
+            i = skipWhitespace(raw, end);
+        }
+        return args.toArray(NO_ARGS);
+    }
+
+    static int skipWhitespace(String s, int i) {
+        int len = s.length();
+        while (i < len && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+}
@@ -4,10 +4,17 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 
+import java.util.List;
+
 public interface Command {
     String name();
     String description();
 
+    // weitere Namen für den Prefix-Command (nicht als Slash-Command registriert)
+    default List<String> aliases() {
+        return List.of();
+    }
+
     // prefix command
     void execute(MessageReceivedEvent event, String[] args);
 
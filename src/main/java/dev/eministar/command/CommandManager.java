@@ -16,20 +16,73 @@ import java.util.Map;
 
 public class CommandManager extends ListenerAdapter {
     private final Map<String, Command> commands = new HashMap<>();
-    private final String prefix;
+    private volatile String prefix;
     private static final Logger logger = LoggerFactory.getLogger(CommandManager.class);
 
+    private record Entry(String key, Command command, CommandMetrics metrics) {}
+
+    // Open-Addressing-Tabelle über Namen und Aliase (lowercase), wird bei register() neu aufgebaut.
+    // Der Lookup hasht direkt den Ausschnitt der Rohnachricht, ohne Substring oder toLowerCase.
+    private volatile Entry[] table = new Entry[1];
+    private final Map<String, Entry> entries = new HashMap<>();
+
     public CommandManager(String prefix) {
         this.prefix = prefix;
     }
 
-    public void register(Command cmd) {
-        commands.put(cmd.name().toLowerCase(), cmd);
+    /** Neuer Prefix nach einem Config-Reload; gilt ab der nächsten Nachricht. */
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public synchronized void register(Command cmd) {
+        String name = cmd.name().toLowerCase();
+        commands.put(name, cmd);
+        CommandMetrics metrics = CommandMetrics.forCommand(name);
+        entries.put(name, new Entry(name, cmd, metrics));
+        for (String alias : cmd.aliases()) {
+            String key = alias.toLowerCase();
+            if (entries.containsKey(key)) {
+                logger.warn("Alias {} von {} ist bereits vergeben und wird ignoriert", key, name);
+                continue;
+            }
+            entries.put(key, new Entry(key, cmd, metrics));
+        }
+        rebuildTable();
+    }
+
+    private void rebuildTable() {
+        int size = Integer.highestOneBit(Math.max(4, entries.size() * 4) - 1) << 1; // Füllgrad <= 25 %
+        Entry[] next = new Entry[size];
+        for (Entry e : entries.values()) {
+            int i = hash(e.key(), 0, e.key().length()) & (size - 1);
+            while (next[i] != null) i = (i + 1) & (size - 1);
+            next[i] = e;
+        }
+        table = next;
+    }
+
+    private static int hash(String s, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + Character.toLowerCase(s.charAt(i));
+        return h ^ (h >>> 16);
+    }
+
+    private Entry lookup(String raw, int from, int to) {
+        Entry[] t = table;
+        int len = to - from;
+        int i = hash(raw, from, to) & (t.length - 1);
+        Entry e;
+        while ((e = t[i]) != null) {
+            if (e.key().length() == len && raw.regionMatches(true, from, e.key(), 0, len)) return e;
+            i = (i + 1) & (t.length - 1);
+        }
+        return null;
     }
 
     public void registerToJda(JDA jda) {
-        // Manager is already registered via builder.addEventListeners()
-        // So we don't need jda.addEventListener(this) here anymore!
+        // Manager is already registered via the EventRouter
+        // so we don't need jda.addEventListener(this) here
 
         var slashCommands = commands.values().stream()
                 .map(cmd -> {
@@ -58,25 +111,47 @@ public class CommandManager extends ListenerAdapter {
 
     @Override
     public void onMessageReceived(MessageReceivedEvent event) {
-        if (event.getAuthor().isBot()) return;
+        // Normaler Chat fällt hier ohne jede Allokation raus
         String raw = event.getMessage().getContentRaw();
+        String prefix = this.prefix;
         if (!raw.startsWith(prefix)) return;
-        String without = raw.substring(prefix.length()).trim();
-        if (without.isEmpty()) return;
-        String[] parts = without.split(" ");
-        String cmdName = parts[0].toLowerCase();
-        Command cmd = commands.get(cmdName);
-        if (cmd == null) return;
-        String[] args = new String[Math.max(0, parts.length-1)];
-        System.arraycopy(parts, 1, args, 0, args.length);
-        cmd.execute(event, args);
+        if (event.getAuthor().isBot()) return;
+
+        int start = ArgumentTokenizer.skipWhitespace(raw, prefix.length());
+        int end = start;
+        while (end < raw.length() && !Character.isWhitespace(raw.charAt(end))) end++;
+        if (start == end) return;
+
+        Entry entry = lookup(raw, start, end);
+        if (entry == null) return;
+
+        String[] args = ArgumentTokenizer.tokenize(raw, end);
+        long begin = System.nanoTime();
+        boolean failed = false;
+        try {
+            entry.command().execute(event, args);
+        } catch (RuntimeException e) {
+            failed = true;
+            logger.error("Command {} fehlgeschlagen", entry.command().name(), e);
+        } finally {
+            entry.metrics().record(System.nanoTime() - begin, failed);
+        }
     }
 
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
         Command cmd = commands.get(event.getName().toLowerCase());
-        if (cmd != null) {
+        if (cmd == null) return;
+        CommandMetrics metrics = CommandMetrics.forCommand(cmd.name().toLowerCase());
+        long begin = System.nanoTime();
+        boolean failed = false;
+        try {
             cmd.executeSlash(event.getInteraction());
+        } catch (RuntimeException e) {
+            failed = true;
+            logger.error("Slash-Command {} fehlgeschlagen", cmd.name(), e);
+        } finally {
+            metrics.record(System.nanoTime() - begin, failed);
         }
     }
 }
@@ -0,0 +1,83 @@
+package dev.eministar.command;
+
+import dev.eministar.metrics.Histogram;
+import dev.eministar.metrics.MetricWriter;
+import dev.eministar.metrics.Metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Laufzeit-Histogramm und Fehlerzähler pro Command.
+ * <p>
+ * Die Laufzeiten landen in einem log-linearen {@link Histogram}; Aufzeichnen ist lock-frei. Exportiert werden
+ * sie als {@code lattendaddy_command_duration_seconds} auf dem Metrics-Endpunkt.
+ */
+public final class CommandMetrics {
+    private static final Map<String, CommandMetrics> REGISTRY = new ConcurrentHashMap<>();
+
+    static {
+        Metrics.collector(CommandMetrics::collect);
+    }
+
+    private final String command;
+    private final Histogram latency = new Histogram();
+    private final LongAdder errors = new LongAdder();
+
+    private CommandMetrics(String command) {
+        this.command = command;
+    }
+
+    public static CommandMetrics forCommand(String name) {
+        return REGISTRY.computeIfAbsent(name, CommandMetrics::new);
+    }
+
+    /** Alle bisher angelegten Metriken, Schlüssel ist der Command-Name. */
+    public static Map<String, CommandMetrics> all() {
+        return Collections.unmodifiableMap(REGISTRY);
+    }
+
+    public void record(long nanos, boolean failed) {
+        latency.record(nanos);
+        if (failed) errors.increment();
+    }
+
+    public String command() {
+        return command;
+    }
+
+    public long count() {
+        return latency.count();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long totalNanos() {
+        return latency.sumNanos();
+    }
+
+    public long maxNanos() {
+        return latency.maxNanos();
+    }
+
+    /**
+     * Obere Bucket-Grenze, unter der mindestens der Anteil {@code quantile} der Ausführungen liegt,
+     * in Mikrosekunden. 0 wenn noch nichts aufgezeichnet wurde.
+     */
+    public long quantileMicros(double quantile) {
+        return latency.quantileNanos(quantile) / 1000;
+    }
+
+    private static void collect(MetricWriter out) {
+        String duration = Metrics.PREFIX + "command_duration_seconds";
+        out.family(duration, "histogram", "Ausführungsdauer pro Command");
+        REGISTRY.forEach((name, m) -> out.histogram(duration, m.latency, "command", name));
+        String errors = Metrics.PREFIX + "command_errors_total";
+        out.family(errors, "counter", "Fehlgeschlagene Command-Ausführungen");
+        REGISTRY.forEach((name, m) -> out.sample(errors, m.errors(), "command", name));
+    }
+}
@@ -4,20 +4,29 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 public class Config {
-    private static JsonObject root;
+    private static final Logger logger = LoggerFactory.getLogger(Config.class);
     private static final Path CONFIG_PATH = Paths.get("config/config.json");
 
+    // Gson-Baum nur für Wizard und Neuladen; alle Getter lesen den unveränderlichen Snapshot
+    private static JsonObject root;
+    private static volatile ConfigSnapshot current;
+    private static final List<BiConsumer<ConfigSnapshot, ConfigSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private static ConfigWatcher watcher;
+
     static {
         loadConfig();
     }
@@ -27,17 +36,107 @@ public class Config {
             if (!Files.exists(CONFIG_PATH)) {
                 createDefaultConfig();
             }
-            try (InputStreamReader r = new InputStreamReader(Files.newInputStream(CONFIG_PATH), StandardCharsets.UTF_8)) {
-                root = new Gson().fromJson(r, JsonObject.class);
-            }
+            JsonObject tree = readTree();
 
             // Ensure any newly introduced keys are present in existing configs (merge defaults)
-            ensureDefaults();
+            if (ensureDefaults(tree)) {
+                // create a backup of the existing config before overwriting
+                Path backup = CONFIG_PATH.resolveSibling(CONFIG_PATH.getFileName().toString() + ".bak");
+                Files.copy(CONFIG_PATH, backup, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+                try (Writer w = Files.newBufferedWriter(CONFIG_PATH, StandardCharsets.UTF_8)) {
+                    new GsonBuilder().setPrettyPrinting().create().toJson(tree, w);
+                }
+            }
+            current = ConfigSnapshot.parse(tree);
+            root = tree;
         } catch (Exception e) {
             throw new RuntimeException("Failed to load config.json", e);
         }
     }
 
+    private static JsonObject readTree() throws IOException {
+        try (InputStreamReader r = new InputStreamReader(Files.newInputStream(CONFIG_PATH), StandardCharsets.UTF_8)) {
+            JsonObject tree = new Gson().fromJson(r, JsonObject.class);
+            return tree != null ? tree : new JsonObject();
+        }
+    }
+
+    /**
+     * Aktueller Config-Stand. Einmal holen und lokal halten, wenn mehrere Werte zusammenpassen müssen.
+     */
+    public static ConfigSnapshot get() {
+        return current;
+    }
+
+    /**
+     * Meldet einen Listener an, der nach jedem erfolgreichen Neuladen mit (alt, neu) aufgerufen wird.
+     * Läuft auf dem Scheduler-Worker, der das Neuladen ausführt (Gruppe {@code config}), darf also nicht blockieren.
+     */
+    public static void onChange(BiConsumer<ConfigSnapshot, ConfigSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Liest {@code config/config.json} neu ein, prüft sie und tauscht den Snapshot aus.
+     * Bei Fehlern bleibt der alte Stand aktiv. Die Datei selbst wird dabei nie geschrieben.
+     *
+     * @return true, wenn sich etwas geändert hat
+     */
+    public static synchronized boolean reload() {
+        ConfigSnapshot next;
+        JsonObject tree;
+        try {
+            tree = readTree();
+            ensureDefaults(tree);
+            next = ConfigSnapshot.parse(tree);
+            if (next.prefix().isEmpty()) throw new IllegalArgumentException("prefix darf nicht leer sein");
+        } catch (Exception e) {
+            logger.error("Config nicht neu geladen, alter Stand bleibt aktiv: {}", e.getMessage());
+            return false;
+        }
+
+        ConfigSnapshot previous = current;
+        if (next.equals(previous)) return false;
+        root = tree;
+        current = next;
+        logger.info("Config neu geladen");
+
+        if (!next.token().equals(previous.token())
+                || !next.database().equals(previous.database())
+                || !next.metrics().equals(previous.metrics())
+                || next.memberCache().lean() != previous.memberCache().lean()) {
+            logger.warn("Token, Datenbank-, Metrics- und Member-Cache-Modus werden erst nach einem Neustart übernommen");
+        }
+        for (BiConsumer<ConfigSnapshot, ConfigSnapshot> listener : listeners) {
+            try {
+                listener.accept(previous, next);
+            } catch (Exception e) {
+                logger.error("Config-Listener fehlgeschlagen", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Beobachtet {@code config/config.json} und lädt bei Änderungen automatisch neu.
+     */
+    public static synchronized void watch() {
+        if (watcher != null) return;
+        try {
+            watcher = ConfigWatcher.start(CONFIG_PATH);
+            logger.info("Beobachte {} auf Änderungen", CONFIG_PATH);
+        } catch (IOException e) {
+            logger.warn("Config-Watcher konnte nicht gestartet werden: {}", e.getMessage());
+        }
+    }
+
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
     private static void createDefaultConfig() {
         JsonObject config = new JsonObject();
         config.addProperty("token", "PUT_YOUR_TOKEN_HERE");
@@ -45,6 +144,9 @@ public class Config {
         config.addProperty("ownerId", "");
 
         JsonObject db = new JsonObject();
+        // type: json (Dateien unter data/), h2 (eingebettete Datenbank) oder mysql (MariaDB/MySQL-Server)
+        db.addProperty("type", "json");
+        db.addProperty("url", "");
         db.addProperty("host", "localhost");
         db.addProperty("port", 3306);
         db.addProperty("database", "lattendaddy");
@@ -71,8 +173,27 @@ public class Config {
         // flag quiz defaults
         JsonObject flagQuiz = new JsonObject();
         flagQuiz.addProperty("enabled", true);
+        JsonArray flagQuizLocales = new JsonArray();
+        flagQuizLocales.add("de");
+        flagQuizLocales.add("en");
+        flagQuiz.add("locales", flagQuizLocales);
+        flagQuiz.addProperty("maxTypos", 2);
         config.add("flagQuiz", flagQuiz);
 
+        // Prometheus-Endpunkt (/metrics), standardmäßig aus und nur lokal erreichbar
+        JsonObject metrics = new JsonObject();
+        metrics.addProperty("enabled", false);
+        metrics.addProperty("bind", "127.0.0.1");
+        metrics.addProperty("port", 9464);
+        config.add("metrics", metrics);
+
+        // Member-Cache: "full" hält alle Mitglieder samt Präsenz, "lean" nur Voice-, aktive und Team-Mitglieder
+        JsonObject memberCache = new JsonObject();
+        memberCache.addProperty("mode", "full");
+        memberCache.addProperty("activeMinutes", 30);
+        memberCache.add("roleIds", new JsonArray());
+        config.add("memberCache", memberCache);
+
         // defaults for roles arrays
         config.add("joinRoleIds", new JsonArray());
         config.add("ticketClaimRoleIds", new JsonArray());
@@ -138,6 +259,10 @@ public class Config {
 
         // Database Setup
         System.out.println("\n--- Datenbank-Konfiguration ---");
+        System.out.print("Speicher-Typ json/h2/mysql (Standard: json): ");
+        String dbType = scanner.nextLine().trim().toLowerCase();
+        if (!dbType.equals("h2") && !dbType.equals("mysql")) dbType = "json";
+
         System.out.print("Datenbank-Host (Standard: localhost): ");
         String dbHost = scanner.nextLine().trim();
         if (dbHost.isEmpty() || dbHost.equalsIgnoreCase("skip")) dbHost = "localhost";
@@ -173,6 +298,7 @@ public class Config {
         System.out.println("Guild ID: " + (guildId.isEmpty() ? "Nicht gesetzt" : guildId));
         System.out.println("Welcome Channel ID: " + (welcomeChannelId.isEmpty() ? "Nicht gesetzt" : welcomeChannelId));
         System.out.println("Goodbye Channel ID: " + (goodbyeChannelId.isEmpty() ? "Nicht gesetzt" : goodbyeChannelId));
+        System.out.println("DB Typ: " + dbType);
         System.out.println("DB Host: " + dbHost);
         System.out.println("DB Port: " + dbPort);
         System.out.println("DB Name: " + dbName);
@@ -194,6 +320,8 @@ public class Config {
         if (!goodbyeChannelId.isEmpty()) root.addProperty("goodbyeChannelId", goodbyeChannelId);
 
         JsonObject db = new JsonObject();
+        db.addProperty("type", dbType);
+        db.addProperty("url", "");
         db.addProperty("host", dbHost);
         db.addProperty("port", dbPort);
         db.addProperty("database", dbName);
@@ -213,12 +341,11 @@ public class Config {
         System.out.println("Starte den Bot neu, um die Änderungen zu übernehmen.");
     }
 
-    // Ensure that missing keys are added to an existing config.json without overwriting existing values
-    private static void ensureDefaults() {
+    // Ensure that missing keys are added to an existing config.json without overwriting existing values.
+    // Returns true if the tree was changed; writing the file is up to the caller.
+    private static boolean ensureDefaults(JsonObject root) {
         boolean changed = false;
 
-        if (root == null) root = new JsonObject();
-
         if (!root.has("token")) { root.addProperty("token", "PUT_YOUR_TOKEN_HERE"); changed = true; }
         if (!root.has("prefix")) { root.addProperty("prefix", "!"); changed = true; }
         if (!root.has("ownerId")) { root.addProperty("ownerId", ""); changed = true; }
@@ -285,11 +412,54 @@ public class Config {
         if (!root.has("flagQuiz") || root.get("flagQuiz").isJsonNull()) {
             JsonObject fq = new JsonObject();
             fq.addProperty("enabled", true);
+            JsonArray locales = new JsonArray();
+            locales.add("de");
+            locales.add("en");
+            fq.add("locales", locales);
+            fq.addProperty("maxTypos", 2);
             root.add("flagQuiz", fq);
             changed = true;
         } else {
             JsonObject fq = root.getAsJsonObject("flagQuiz");
             if (!fq.has("enabled")) { fq.addProperty("enabled", true); changed = true; }
+            if (!fq.has("locales")) {
+                JsonArray locales = new JsonArray();
+                locales.add("de");
+                locales.add("en");
+                fq.add("locales", locales);
+                changed = true;
+            }
+            if (!fq.has("maxTypos")) { fq.addProperty("maxTypos", 2); changed = true; }
+        }
+
+        // Metrics defaults
+        if (!root.has("metrics") || root.get("metrics").isJsonNull()) {
+            JsonObject m = new JsonObject();
+            m.addProperty("enabled", false);
+            m.addProperty("bind", "127.0.0.1");
+            m.addProperty("port", 9464);
+            root.add("metrics", m);
+            changed = true;
+        } else {
+            JsonObject m = root.getAsJsonObject("metrics");
+            if (!m.has("enabled")) { m.addProperty("enabled", false); changed = true; }
+            if (!m.has("bind")) { m.addProperty("bind", "127.0.0.1"); changed = true; }
+            if (!m.has("port")) { m.addProperty("port", 9464); changed = true; }
+        }
+
+        // Member cache defaults
+        if (!root.has("memberCache") || root.get("memberCache").isJsonNull()) {
+            JsonObject mc = new JsonObject();
+            mc.addProperty("mode", "full");
+            mc.addProperty("activeMinutes", 30);
+            mc.add("roleIds", new JsonArray());
+            root.add("memberCache", mc);
+            changed = true;
+        } else {
+            JsonObject mc = root.getAsJsonObject("memberCache");
+            if (!mc.has("mode")) { mc.addProperty("mode", "full"); changed = true; }
+            if (!mc.has("activeMinutes")) { mc.addProperty("activeMinutes", 30); changed = true; }
+            if (!mc.has("roleIds")) { mc.add("roleIds", new JsonArray()); changed = true; }
         }
 
         // Roles arrays defaults
@@ -305,6 +475,8 @@ public class Config {
 
         if (!root.has("database") || root.get("database").isJsonNull()) {
             JsonObject db = new JsonObject();
+            db.addProperty("type", "json");
+            db.addProperty("url", "");
             db.addProperty("host", "localhost");
             db.addProperty("port", 3306);
             db.addProperty("database", "lattendaddy");
@@ -314,6 +486,8 @@ public class Config {
             changed = true;
         } else {
             JsonObject db = root.getAsJsonObject("database");
+            if (!db.has("type")) { db.addProperty("type", "json"); changed = true; }
+            if (!db.has("url")) { db.addProperty("url", ""); changed = true; }
             if (!db.has("host")) { db.addProperty("host", "localhost"); changed = true; }
             if (!db.has("port")) { db.addProperty("port", 3306); changed = true; }
             if (!db.has("database")) { db.addProperty("database", "lattendaddy"); changed = true; }
@@ -321,203 +495,80 @@ public class Config {
             if (!db.has("password")) { db.addProperty("password", ""); changed = true; }
         }
 
-        if (changed) {
-            try {
-                // create a backup of the existing config before overwriting
-                if (Files.exists(CONFIG_PATH)) {
-                    Path backup = CONFIG_PATH.resolveSibling(CONFIG_PATH.getFileName().toString() + ".bak");
-                    Files.copy(CONFIG_PATH, backup, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                }
-                try (Writer w = Files.newBufferedWriter(CONFIG_PATH, StandardCharsets.UTF_8)) {
-                    new GsonBuilder().setPrettyPrinting().create().toJson(root, w);
-                }
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to update config.json with defaults", e);
-            }
-        }
+        return changed;
     }
 
     public static boolean needsSetup() {
         return getToken().equals("PUT_YOUR_TOKEN_HERE") || getPrefix().isEmpty();
     }
 
-    public static String getToken() {
-        return root.get("token").getAsString();
-    }
-
-    public static String getPrefix() {
-        return root.get("prefix").getAsString();
-    }
-
-    public static String getOwnerId() {
-        return root.has("ownerId") ? root.get("ownerId").getAsString() : "";
-    }
-
-    public static String getGuildId() {
-        return root.has("guildId") ? root.get("guildId").getAsString() : "";
-    }
-
-    public static String getWelcomeChannelId() {
-        return root.has("welcomeChannelId") ? root.get("welcomeChannelId").getAsString() : "";
-    }
-
-    public static String getGoodbyeChannelId() {
-        return root.has("goodbyeChannelId") ? root.get("goodbyeChannelId").getAsString() : "";
-    }
-
-    public static String getBirthdayCongratsChannelId() {
-        return root.has("birthdayCongratsChannelId") ? root.get("birthdayCongratsChannelId").getAsString() : "";
-    }
-
-    public static String getBirthdayListChannelId() {
-        return root.has("birthdayListChannelId") ? root.get("birthdayListChannelId").getAsString() : "";
-    }
-
-    public static String getTicketLogChannelId() {
-        return root.has("ticketLogChannelId") ? root.get("ticketLogChannelId").getAsString() : "";
-    }
-
-    public static String getSuggestionChannelId() {
-        return root.has("suggestionChannelId") ? root.get("suggestionChannelId").getAsString() : "";
-    }
+    public static String getToken() { return current.token(); }
+    public static String getPrefix() { return current.prefix(); }
+    public static String getOwnerId() { return current.ownerId(); }
+    public static String getGuildId() { return current.guildId(); }
+    public static String getWelcomeChannelId() { return current.welcomeChannelId(); }
+    public static String getGoodbyeChannelId() { return current.goodbyeChannelId(); }
+    public static String getBirthdayCongratsChannelId() { return current.birthdayCongratsChannelId(); }
+    public static String getBirthdayListChannelId() { return current.birthdayListChannelId(); }
+    public static String getTicketLogChannelId() { return current.ticketLogChannelId(); }
+    public static String getSuggestionChannelId() { return current.suggestionChannelId(); }
 
     // TempVoice getters
-    public static boolean getTempVoiceEnabled() {
-        if (!root.has("tempVoice")) return false;
-        JsonObject tv = root.getAsJsonObject("tempVoice");
-        return tv.has("enabled") && tv.get("enabled").getAsBoolean();
-    }
-
-    public static String getTempVoiceSourceChannelId() {
-        if (!root.has("tempVoice")) return "";
-        JsonObject tv = root.getAsJsonObject("tempVoice");
-        return tv.has("sourceChannelId") ? tv.get("sourceChannelId").getAsString() : "";
-    }
-
-    public static String getTempVoiceFallbackCategoryId() {
-        if (!root.has("tempVoice")) return "";
-        JsonObject tv = root.getAsJsonObject("tempVoice");
-        return tv.has("fallbackCategoryId") ? tv.get("fallbackCategoryId").getAsString() : "";
-    }
+    public static boolean getTempVoiceEnabled() { return current.tempVoice().enabled(); }
+    public static String getTempVoiceSourceChannelId() { return current.tempVoice().sourceChannelId(); }
+    public static String getTempVoiceFallbackCategoryId() { return current.tempVoice().fallbackCategoryId(); }
+    public static int getTempVoiceDeleteGraceSeconds() { return current.tempVoice().deleteGraceSeconds(); }
+    public static int getTempVoiceDefaultMaxMembers() { return current.tempVoice().defaultMaxMembers(); }
+    public static int getTempVoiceDefaultBitrateKbps() { return current.tempVoice().defaultBitrateKbps(); }
 
-    public static int getTempVoiceDeleteGraceSeconds() {
-        if (!root.has("tempVoice")) return 10;
-        JsonObject tv = root.getAsJsonObject("tempVoice");
-        return tv.has("deleteGraceSeconds") ? tv.get("deleteGraceSeconds").getAsInt() : 10;
-    }
     // Hymn getters
-    public static boolean getHymnEnabled() {
-        if (!root.has("hymn")) return false;
-        JsonObject hymn = root.getAsJsonObject("hymn");
-        return hymn.has("enabled") && hymn.get("enabled").getAsBoolean();
-    }
-
-    public static String getHymnChannelId() {
-        if (!root.has("hymn")) return "";
-        JsonObject hymn = root.getAsJsonObject("hymn");
-        return hymn.has("channelId") ? hymn.get("channelId").getAsString() : "";
-    }
+    public static boolean getHymnEnabled() { return current.hymn().enabled(); }
+    public static String getHymnChannelId() { return current.hymn().channelId(); }
 
     // Counting getters
-    public static boolean getCountingEnabled() {
-        if (!root.has("counting")) return false;
-        JsonObject counting = root.getAsJsonObject("counting");
-        return counting.has("enabled") && counting.get("enabled").getAsBoolean();
-    }
-
-    public static String getCountingChannelId() {
-        if (!root.has("counting")) return "";
-        JsonObject counting = root.getAsJsonObject("counting");
-        return counting.has("channelId") ? counting.get("channelId").getAsString() : "";
-    }
+    public static boolean getCountingEnabled() { return current.counting().enabled(); }
+    public static String getCountingChannelId() { return current.counting().channelId(); }
 
     // Database getters
-    public static int getTempVoiceDefaultMaxMembers() {
-        if (!root.has("tempVoice")) return 5;
-        JsonObject tv = root.getAsJsonObject("tempVoice");
-        return tv.has("defaultMaxMembers") ? tv.get("defaultMaxMembers").getAsInt() : 5;
-    }
-
-    public static int getTempVoiceDefaultBitrateKbps() {
-        if (!root.has("tempVoice")) return 64;
-        JsonObject tv = root.getAsJsonObject("tempVoice");
-        return tv.has("defaultBitrateKbps") ? tv.get("defaultBitrateKbps").getAsInt() : 64;
-    }
-
-    // Database getters
-    public static String getDbHost() {
-        return root.getAsJsonObject("database").get("host").getAsString();
-    }
-
-    public static int getDbPort() {
-        return root.getAsJsonObject("database").get("port").getAsInt();
-    }
-
-    public static String getDbDatabase() {
-        return root.getAsJsonObject("database").get("database").getAsString();
-    }
-
-    public static String getDbUser() {
-        return root.getAsJsonObject("database").get("user").getAsString();
-    }
-
-    public static String getDbPassword() {
-        return root.getAsJsonObject("database").get("password").getAsString();
-    }
+    public static String getDbType() { return current.database().type(); }
+    public static String getDbUrl() { return current.database().url(); }
+    public static String getDbHost() { return current.database().host(); }
+    public static int getDbPort() { return current.database().port(); }
+    public static String getDbDatabase() { return current.database().database(); }
+    public static String getDbUser() { return current.database().user(); }
+    public static String getDbPassword() { return current.database().password(); }
+
+    // Metrics getters
+    public static boolean getMetricsEnabled() { return current.metrics().enabled(); }
+    public static String getMetricsBind() { return current.metrics().bind(); }
+    public static int getMetricsPort() { return current.metrics().port(); }
+
+    // Member cache getters
+    public static boolean getMemberCacheLean() { return current.memberCache().lean(); }
+    public static int getMemberCacheActiveMinutes() { return current.memberCache().activeMinutes(); }
 
     // Channel Counts getters
-    public static boolean getChannelCountsEnabled() {
-        if (!root.has("channelCounts")) return false;
-        JsonObject cc = root.getAsJsonObject("channelCounts");
-        return cc.has("enabled") && cc.get("enabled").getAsBoolean();
-    }
-
-    public static String getChannelCountsOnlineChannelId() {
-        if (!root.has("channelCounts")) return "";
-        JsonObject cc = root.getAsJsonObject("channelCounts");
-        return cc.has("onlineChannelId") ? cc.get("onlineChannelId").getAsString() : "";
-    }
-
-    public static String getChannelCountsMemberChannelId() {
-        if (!root.has("channelCounts")) return "";
-        JsonObject cc = root.getAsJsonObject("channelCounts");
-        return cc.has("memberChannelId") ? cc.get("memberChannelId").getAsString() : "";
-    }
-
-    public static boolean getChannelCountsIncludeBots() {
-        if (!root.has("channelCounts")) return false;
-        JsonObject cc = root.getAsJsonObject("channelCounts");
-        return cc.has("includeBots") && cc.get("includeBots").getAsBoolean();
-    }
+    public static boolean getChannelCountsEnabled() { return current.channelCounts().enabled(); }
+    public static String getChannelCountsOnlineChannelId() { return current.channelCounts().onlineChannelId(); }
+    public static String getChannelCountsMemberChannelId() { return current.channelCounts().memberChannelId(); }
+    public static boolean getChannelCountsIncludeBots() { return current.channelCounts().includeBots(); }
 
     // FlagQuiz getters
-    public static boolean getFlagQuizEnabled() {
-        if (!root.has("flagQuiz")) return true;
-        JsonObject fq = root.getAsJsonObject("flagQuiz");
-        return fq.has("enabled") && fq.get("enabled").getAsBoolean();
-    }
+    public static boolean getFlagQuizEnabled() { return current.flagQuiz().enabled(); }
+    public static List<String> getFlagQuizLocales() { return current.flagQuiz().locales(); }
+    public static int getFlagQuizMaxTypos() { return current.flagQuiz().maxTypos(); }
 
-    // Roles getters
-    public static List<String> getJoinRoleIds() {
-        List<String> out = new ArrayList<>();
-        if (root.has("joinRoleIds") && root.get("joinRoleIds").isJsonArray()) {
-            root.getAsJsonArray("joinRoleIds").forEach(e -> out.add(e.getAsString()));
-        }
-        return out;
-    }
+    // Generischer Boolean-Schalter über einen Punkt-Pfad, z.B. "counting.enabled" (für @BotModule.enabledKey)
+    public static boolean getBoolean(String path, boolean def) { return current.getBoolean(path, def); }
 
-    public static List<String> getTicketClaimRoleIds() {
-        List<String> out = new ArrayList<>();
-        if (root.has("ticketClaimRoleIds") && root.get("ticketClaimRoleIds").isJsonArray()) {
-            root.getAsJsonArray("ticketClaimRoleIds").forEach(e -> out.add(e.getAsString()));
-        }
-        return out;
-    }
+    // Roles getters (unveränderliche Listen aus dem Snapshot)
+    public static List<String> getJoinRoleIds() { return current.joinRoleIds(); }
+    public static List<String> getTicketClaimRoleIds() { return current.ticketClaimRoleIds(); }
 
     // DPQ getters
-    public static String getDpqChannelId() { return root.has("dpqChannelId") ? root.get("dpqChannelId").getAsString() : ""; }
-    public static String getDpqCategoryId() { return root.has("dpqCategoryId") ? root.get("dpqCategoryId").getAsString() : ""; }
-    public static String getDpqPingRoleId() { return root.has("dpqPingRoleId") ? root.get("dpqPingRoleId").getAsString() : ""; }
-    public static String getDpqTeamRoleId() { return root.has("dpqTeamRoleId") ? root.get("dpqTeamRoleId").getAsString() : ""; }
-    public static String getDpqQaUrl() { return root.has("dpqQaUrl") ? root.get("dpqQaUrl").getAsString() : ""; }
+    public static String getDpqChannelId() { return current.dpq().channelId(); }
+    public static String getDpqCategoryId() { return current.dpq().categoryId(); }
+    public static String getDpqPingRoleId() { return current.dpq().pingRoleId(); }
+    public static String getDpqTeamRoleId() { return current.dpq().teamRoleId(); }
+    public static String getDpqQaUrl() { return current.dpq().qaUrl(); }
 }
@@ -0,0 +1,256 @@
+package dev.eministar.config;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unveränderlicher, typisierter Stand von {@code config/config.json}.
+ * <p>
+ * Wird beim Laden bzw. Neuladen einmal aus dem Gson-Baum gebaut und geprüft; danach sind alle Werte einfache
+ * Feldzugriffe. {@link Config#get()} liefert immer den zuletzt gültigen Stand.
+ */
+public record ConfigSnapshot(
+        String token,
+        String prefix,
+        String ownerId,
+        String guildId,
+        String welcomeChannelId,
+        String goodbyeChannelId,
+        String birthdayCongratsChannelId,
+        String birthdayListChannelId,
+        String ticketLogChannelId,
+        String suggestionChannelId,
+        List<String> joinRoleIds,
+        List<String> ticketClaimRoleIds,
+        TempVoice tempVoice,
+        Hymn hymn,
+        Counting counting,
+        ChannelCounts channelCounts,
+        FlagQuiz flagQuiz,
+        Database database,
+        MetricsEndpoint metrics,
+        MemberCache memberCache,
+        Dpq dpq,
+        Map<String, Boolean> flags
+) {
+    private static final Set<String> DB_TYPES = Set.of("json", "h2", "mysql", "mariadb");
+
+    public record TempVoice(boolean enabled, String sourceChannelId, String fallbackCategoryId,
+                            int deleteGraceSeconds, int defaultMaxMembers, int defaultBitrateKbps) {}
+
+    public record Hymn(boolean enabled, String channelId) {}
+
+    public record Counting(boolean enabled, String channelId) {}
+
+    public record ChannelCounts(boolean enabled, String onlineChannelId, String memberChannelId, boolean includeBots) {}
+
+    /** {@code locales}: Sprachen, deren Ländernamen als Antwort zählen; {@code maxTypos}: Tippfehler-Budget für lange Namen. */
+    public record FlagQuiz(boolean enabled, List<String> locales, int maxTypos) {}
+
+    public record Database(String type, String url, String host, int port, String database, String user, String password) {}
+
+    public record MetricsEndpoint(boolean enabled, String bind, int port) {}
+
+    /** {@code roleIds}: zusätzliche Rollen, deren Mitglieder im Lean-Modus immer im Cache bleiben. */
+    public record MemberCache(String mode, int activeMinutes, List<String> roleIds) {
+        public boolean lean() {
+            return "lean".equals(mode);
+        }
+    }
+
+    public record Dpq(String channelId, String categoryId, String pingRoleId, String teamRoleId, String qaUrl) {}
+
+    /**
+     * Boolean-Schalter über einen Punkt-Pfad, z.B. {@code "counting.enabled"} (für {@code @BotModule.enabledKey}).
+     */
+    public boolean getBoolean(String path, boolean def) {
+        Boolean value = flags.get(path);
+        return value != null ? value : def;
+    }
+
+    /**
+     * Baut einen Snapshot aus dem Gson-Baum.
+     *
+     * @throws IllegalArgumentException wenn ein Wert den falschen Typ hat oder ungültig ist
+     */
+    static ConfigSnapshot parse(JsonObject root) {
+        try {
+            JsonObject tv = section(root, "tempVoice");
+            JsonObject hymn = section(root, "hymn");
+            JsonObject counting = section(root, "counting");
+            JsonObject cc = section(root, "channelCounts");
+            JsonObject fq = section(root, "flagQuiz");
+            JsonObject db = section(root, "database");
+            JsonObject metrics = section(root, "metrics");
+            JsonObject mc = section(root, "memberCache");
+
+            String dbType = string(db, "type", "json").toLowerCase();
+            if (!DB_TYPES.contains(dbType)) throw new IllegalArgumentException("database.type: unbekannter Typ " + dbType);
+            String cacheMode = string(mc, "mode", "full").toLowerCase();
+            if (!cacheMode.equals("full") && !cacheMode.equals("lean")) {
+                throw new IllegalArgumentException("memberCache.mode: \"full\" oder \"lean\" erwartet, nicht " + cacheMode);
+            }
+
+            Map<String, Boolean> flags = new HashMap<>();
+            collectFlags("", root, flags);
+
+            return new ConfigSnapshot(
+                    string(root, "token", ""),
+                    string(root, "prefix", ""),
+                    snowflake(root, "ownerId"),
+                    snowflake(root, "guildId"),
+                    snowflake(root, "welcomeChannelId"),
+                    snowflake(root, "goodbyeChannelId"),
+                    snowflake(root, "birthdayCongratsChannelId"),
+                    snowflake(root, "birthdayListChannelId"),
+                    snowflake(root, "ticketLogChannelId"),
+                    snowflake(root, "suggestionChannelId"),
+                    snowflakes(root, "joinRoleIds"),
+                    snowflakes(root, "ticketClaimRoleIds"),
+                    new TempVoice(
+                            bool(tv, "enabled", false),
+                            snowflake(tv, "sourceChannelId"),
+                            snowflake(tv, "fallbackCategoryId"),
+                            range(tv, "deleteGraceSeconds", 10, 0, 86_400),
+                            range(tv, "defaultMaxMembers", 5, 0, 99),
+                            range(tv, "defaultBitrateKbps", 64, 8, 384)),
+                    new Hymn(bool(hymn, "enabled", false), snowflake(hymn, "channelId")),
+                    new Counting(bool(counting, "enabled", false), snowflake(counting, "channelId")),
+                    new ChannelCounts(
+                            bool(cc, "enabled", false),
+                            snowflake(cc, "onlineChannelId"),
+                            snowflake(cc, "memberChannelId"),
+                            bool(cc, "includeBots", false)),
+                    // fehlt der Abschnitt ganz, ist das Quiz an; fehlt nur "enabled", aus (wie bisher)
+                    new FlagQuiz(
+                            bool(fq, "enabled", !root.has("flagQuiz")),
+                            languageTags(fq, "locales", List.of("de", "en")),
+                            range(fq, "maxTypos", 2, 0, 3)),
+                    new Database(
+                            dbType,
+                            string(db, "url", ""),
+                            string(db, "host", "localhost"),
+                            range(db, "port", 3306, 1, 65_535),
+                            string(db, "database", "lattendaddy"),
+                            string(db, "user", "root"),
+                            string(db, "password", "")),
+                    new MetricsEndpoint(
+                            bool(metrics, "enabled", false),
+                            string(metrics, "bind", "127.0.0.1"),
+                            range(metrics, "port", 9464, 1, 65_535)),
+                    new MemberCache(
+                            cacheMode,
+                            range(mc, "activeMinutes", 30, 1, 1440),
+                            snowflakes(mc, "roleIds")),
+                    new Dpq(
+                            snowflake(root, "dpqChannelId"),
+                            snowflake(root, "dpqCategoryId"),
+                            snowflake(root, "dpqPingRoleId"),
+                            snowflake(root, "dpqTeamRoleId"),
+                            string(root, "dpqQaUrl", "")),
+                    Map.copyOf(flags));
+        } catch (IllegalStateException | UnsupportedOperationException | ClassCastException e) {
+            // Gson wirft diese bei falschen Typen, z.B. ein Objekt statt eines Strings
+            throw new IllegalArgumentException("Ungültiger Wert in config.json: " + e.getMessage(), e);
+        }
+    }
+
+    private static JsonObject section(JsonObject root, String key) {
+        JsonElement e = root.get(key);
+        if (e == null || e.isJsonNull()) return new JsonObject();
+        if (!e.isJsonObject()) throw new IllegalArgumentException(key + ": Objekt erwartet");
+        return e.getAsJsonObject();
+    }
+
+    private static String string(JsonObject node, String key, String def) {
+        JsonElement e = node.get(key);
+        return e == null || e.isJsonNull() ? def : e.getAsString();
+    }
+
+    private static boolean bool(JsonObject node, String key, boolean def) {
+        JsonElement e = node.get(key);
+        return e == null || e.isJsonNull() ? def : e.getAsBoolean();
+    }
+
+    private static int range(JsonObject node, String key, int def, int min, int max) {
+        JsonElement e = node.get(key);
+        int value = e == null || e.isJsonNull() ? def : e.getAsInt();
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(key + ": " + value + " liegt nicht zwischen " + min + " und " + max);
+        }
+        return value;
+    }
+
+    /** Discord-ID oder leer; alles andere würde später erst beim Parsen im Listener auffallen. */
+    private static String snowflake(JsonObject node, String key) {
+        String value = string(node, key, "").trim();
+        if (!value.isEmpty() && !isSnowflake(value)) {
+            throw new IllegalArgumentException(key + ": \"" + value + "\" ist keine gültige Discord-ID");
+        }
+        return value;
+    }
+
+    private static List<String> snowflakes(JsonObject node, String key) {
+        JsonElement e = node.get(key);
+        if (e == null || e.isJsonNull()) return List.of();
+        if (!e.isJsonArray()) throw new IllegalArgumentException(key + ": Liste erwartet");
+        JsonArray array = e.getAsJsonArray();
+        List<String> out = new ArrayList<>(array.size());
+        for (JsonElement item : array) {
+            String value = item.getAsString().trim();
+            if (!isSnowflake(value)) throw new IllegalArgumentException(key + ": \"" + value + "\" ist keine gültige Discord-ID");
+            out.add(value);
+        }
+        return List.copyOf(out);
+    }
+
+    private static List<String> languageTags(JsonObject node, String key, List<String> def) {
+        JsonElement e = node.get(key);
+        if (e == null || e.isJsonNull()) return def;
+        if (!e.isJsonArray()) throw new IllegalArgumentException(key + ": Liste erwartet");
+        List<String> out = new ArrayList<>();
+        for (JsonElement item : e.getAsJsonArray()) {
+            String value = item.getAsString().trim();
+            if (Locale.forLanguageTag(value).getLanguage().isEmpty()) {
+                throw new IllegalArgumentException(key + ": \"" + value + "\" ist kein gültiges Sprach-Tag");
+            }
+            out.add(value);
+        }
+        return List.copyOf(out);
+    }
+
+    // nur Ziffern und als long darstellbar, die Module lesen die IDs später mit Long.parseLong
+    private static boolean isSnowflake(String value) {
+        if (value.isEmpty()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void collectFlags(String prefix, JsonObject node, Map<String, Boolean> out) {
+        for (Map.Entry<String, JsonElement> e : node.entrySet()) {
+            JsonElement value = e.getValue();
+            String path = prefix + e.getKey();
+            if (value.isJsonObject()) {
+                collectFlags(path + ".", value.getAsJsonObject(), out);
+            } else if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isBoolean()) {
+                out.put(path, value.getAsBoolean());
+            }
+        }
+    }
+}
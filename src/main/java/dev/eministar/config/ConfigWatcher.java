@@ -0,0 +1,89 @@
+package dev.eministar.config;
+
+import dev.eministar.scheduler.ScheduledTask;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Beobachtet das Config-Verzeichnis und ruft {@link Config#reload()} auf, sobald sich die Datei geändert hat.
+ * <p>
+ * Editoren schreiben oft in mehreren Schritten (truncate, write, rename), daher wird kurz entprellt und erst
+ * nach Ruhe neu geladen.
+ */
+final class ConfigWatcher implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigWatcher.class);
+    private static final long DEBOUNCE_MS = 300;
+
+    private final WatchService watchService;
+    private final Path fileName;
+    private final TaskGroup tasks = Scheduler.group("config");
+    private final Thread thread;
+    private volatile ScheduledTask pending;
+
+    private ConfigWatcher(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        this.fileName = file.getFileName();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "config-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    static ConfigWatcher start(Path file) throws IOException {
+        ConfigWatcher watcher = new ConfigWatcher(file);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        relevant = true;
+                    }
+                }
+                if (relevant) scheduleReload();
+                if (!key.reset()) {
+                    logger.warn("Config-Verzeichnis ist nicht mehr erreichbar, Watcher beendet");
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // beendet
+        }
+    }
+
+    private synchronized void scheduleReload() {
+        ScheduledTask previous = pending;
+        if (previous != null) previous.cancel();
+        pending = tasks.schedule(Config::reload, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        ScheduledTask previous = pending;
+        if (previous != null) previous.cancel();
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        thread.interrupt();
+    }
+}
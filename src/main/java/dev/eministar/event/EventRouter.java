@@ -0,0 +1,322 @@
+package dev.eministar.event;
+
+import dev.eministar.metrics.Histogram;
+import dev.eministar.metrics.MetricWriter;
+import dev.eministar.metrics.Metrics;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+import net.dv8tion.jda.api.events.message.GenericMessageEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Einziger bei JDA registrierter Listener. Handler werden nach Event-Typ und optional nach Channel- bzw.
+ * Guild-Snowflake indiziert; pro Event gibt es einen Lookup der Route für die Event-Klasse und je einen
+ * Long-Lookup für Channel und Guild, statt jeden Listener aufzurufen und dort Config-Strings zu vergleichen.
+ * <p>
+ * Module, die deaktiviert sind, werden gar nicht erst registriert. Für jeden Handler werden Aufrufe, Fehler
+ * und Laufzeit mitgezählt ({@link #handlers()}), zusätzlich die Gesamtdauer pro Event-Typ; beides ist auch
+ * auf dem Metrics-Endpunkt zu sehen.
+ */
+public final class EventRouter implements EventListener {
+    private static final Logger logger = LoggerFactory.getLogger(EventRouter.class);
+    private static final EventRouter INSTANCE = new EventRouter();
+
+    private static final Handler[] NONE = new Handler[0];
+
+    /** Ein registrierter Handler samt Statistik. */
+    public static final class Handler {
+        private final String name;
+        private final Class<? extends GenericEvent> type;
+        private final Consumer<GenericEvent> action;
+        private final long channelId;
+        private final long guildId;
+        private final Histogram latency = new Histogram();
+        private final LongAdder errors = new LongAdder();
+
+        private Handler(String name, Class<? extends GenericEvent> type, Consumer<GenericEvent> action, long channelId, long guildId) {
+            this.name = name;
+            this.type = type;
+            this.action = action;
+            this.channelId = channelId;
+            this.guildId = guildId;
+        }
+
+        private void invoke(GenericEvent event) {
+            long begin = System.nanoTime();
+            try {
+                action.accept(event);
+            } catch (RuntimeException e) {
+                errors.increment();
+                logger.error("Handler {} ist bei {} fehlgeschlagen", name, event.getClass().getSimpleName(), e);
+            } finally {
+                latency.record(System.nanoTime() - begin);
+            }
+        }
+
+        public String name() { return name; }
+        public Class<? extends GenericEvent> type() { return type; }
+        public long count() { return latency.count(); }
+        public long errors() { return errors.sum(); }
+        public long totalNanos() { return latency.sumNanos(); }
+        public long maxNanos() { return latency.maxNanos(); }
+        public Histogram latency() { return latency; }
+    }
+
+    /** Vorberechnete Handler für genau eine Event-Klasse. */
+    private record Route(Handler[] global, LongTable byGuild, LongTable byChannel) {
+        boolean isEmpty() {
+            return global.length == 0 && byGuild.isEmpty() && byChannel.isEmpty();
+        }
+    }
+
+    private static final Route EMPTY = new Route(NONE, new LongTable(List.of(), true), new LongTable(List.of(), false));
+
+    private final List<Handler> handlers = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, Route> routes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Histogram> dispatchLatency = new ConcurrentHashMap<>();
+
+    private EventRouter() {
+        Metrics.collector(this::collect);
+    }
+
+    public static EventRouter get() {
+        return INSTANCE;
+    }
+
+    // ---- Registrierung ----
+
+    public <E extends GenericEvent> Handler on(Class<E> type, String name, Consumer<? super E> action) {
+        return add(type, name, action, 0, 0);
+    }
+
+    public <E extends GenericEvent> Handler onChannel(Class<E> type, long channelId, String name, Consumer<? super E> action) {
+        return add(type, name, action, channelId, 0);
+    }
+
+    public <E extends GenericEvent> Handler onGuild(Class<E> type, long guildId, String name, Consumer<? super E> action) {
+        return add(type, name, action, 0, guildId);
+    }
+
+    /**
+     * Registriert alle {@code on*}-Methoden, die der Listener selbst überschreibt, für alle Channels.
+     */
+    public List<Handler> register(String name, ListenerAdapter listener) {
+        return registerAdapter(name, listener, 0);
+    }
+
+    /**
+     * Wie {@link #register(String, ListenerAdapter)}, der Listener bekommt aber nur Events aus diesem Channel.
+     */
+    public List<Handler> registerChannel(String name, long channelId, ListenerAdapter listener) {
+        return registerAdapter(name, listener, channelId);
+    }
+
+    public void unregister(Handler handler) {
+        if (handlers.remove(handler)) routes.clear();
+    }
+
+    public List<Handler> handlers() {
+        return List.copyOf(handlers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends GenericEvent> Handler add(Class<E> type, String name, Consumer<? super E> action, long channelId, long guildId) {
+        Handler handler = new Handler(name, type, (Consumer<GenericEvent>) action, channelId, guildId);
+        handlers.add(handler);
+        routes.clear();
+        return handler;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Handler> registerAdapter(String name, ListenerAdapter listener, long channelId) {
+        List<Handler> added = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> c = listener.getClass(); c != ListenerAdapter.class && c != null; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if (!m.getName().startsWith("on") || m.getParameterCount() != 1 || Modifier.isStatic(m.getModifiers())) continue;
+                Class<?> param = m.getParameterTypes()[0];
+                if (!GenericEvent.class.isAssignableFrom(param) || !isListenerAdapterMethod(m)) continue;
+                if (!seen.add(m.getName())) continue; // in Unterklasse überschrieben
+                Class<? extends GenericEvent> type = (Class<? extends GenericEvent>) param;
+                // Direkt die überschriebene Methode aufrufen, nicht ListenerAdapter#onEvent: sonst liefe ein Listener mit
+                // onGenericMessage und onMessageReceived für dieselbe Nachricht doppelt
+                MethodHandle target = handleFor(m, listener);
+                added.add(add(type, name + "/" + type.getSimpleName(), event -> invoke(target, event), channelId, 0));
+            }
+        }
+        if (added.isEmpty()) logger.warn("Listener {} überschreibt keine Event-Methode", name);
+        return added;
+    }
+
+    private static MethodHandle handleFor(Method m, ListenerAdapter listener) {
+        try {
+            m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m).bindTo(listener)
+                    .asType(MethodType.methodType(void.class, GenericEvent.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Kein Zugriff auf " + m, e);
+        }
+    }
+
+    private static void invoke(MethodHandle target, GenericEvent event) {
+        try {
+            target.invokeExact(event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static boolean isListenerAdapterMethod(Method m) {
+        try {
+            ListenerAdapter.class.getMethod(m.getName(), m.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // ---- Dispatch ----
+
+    @Override
+    public void onEvent(@NotNull GenericEvent event) {
+        Class<?> eventClass = event.getClass();
+        Route route = routes.get(eventClass);
+        if (route == null) route = routes.computeIfAbsent(eventClass, this::compile);
+        if (route == EMPTY) return;
+
+        long begin = System.nanoTime();
+        dispatch(route, event);
+        Histogram latency = dispatchLatency.get(eventClass);
+        if (latency == null) latency = dispatchLatency.computeIfAbsent(eventClass, c -> new Histogram());
+        latency.record(System.nanoTime() - begin);
+    }
+
+    private void dispatch(Route route, GenericEvent event) {
+        for (Handler h : route.global()) h.invoke(event);
+        if (!route.byGuild().isEmpty()) {
+            long guildId = guildOf(event);
+            if (guildId != 0) for (Handler h : route.byGuild().get(guildId)) h.invoke(event);
+        }
+        if (!route.byChannel().isEmpty()) {
+            long channelId = channelOf(event);
+            if (channelId != 0) for (Handler h : route.byChannel().get(channelId)) h.invoke(event);
+        }
+    }
+
+    private void collect(MetricWriter out) {
+        String dispatch = Metrics.PREFIX + "event_dispatch_seconds";
+        out.family(dispatch, "histogram", "Gesamtdauer aller Handler pro Gateway-Event-Typ");
+        dispatchLatency.forEach((type, h) -> out.histogram(dispatch, h, "event", type.getSimpleName()));
+
+        // kanal-/guildgebundene Handler eines Moduls (z.B. ein FlagQuiz-Channel pro Guild) zu einer Serie zusammenfassen
+        Map<List<String>, Histogram> latency = new LinkedHashMap<>();
+        Map<List<String>, Long> errorCounts = new LinkedHashMap<>();
+        for (Handler h : handlers) {
+            List<String> key = List.of(h.name, h.type.getSimpleName());
+            latency.computeIfAbsent(key, k -> new Histogram()).add(h.latency);
+            errorCounts.merge(key, h.errors(), Long::sum);
+        }
+        String listener = Metrics.PREFIX + "listener_duration_seconds";
+        out.family(listener, "histogram", "Laufzeit pro Listener-Handler auf dem Event-Thread");
+        latency.forEach((key, h) -> out.histogram(listener, h, "handler", key.get(0), "event", key.get(1)));
+        String errors = Metrics.PREFIX + "listener_errors_total";
+        out.family(errors, "counter", "Exceptions in Listener-Handlern");
+        errorCounts.forEach((key, n) -> out.sample(errors, n, "handler", key.get(0), "event", key.get(1)));
+    }
+
+    private Route compile(Class<?> eventClass) {
+        List<Handler> global = new ArrayList<>();
+        List<Handler> byGuild = new ArrayList<>();
+        List<Handler> byChannel = new ArrayList<>();
+        for (Handler h : handlers) {
+            if (!h.type.isAssignableFrom(eventClass)) continue;
+            if (h.channelId != 0) byChannel.add(h);
+            else if (h.guildId != 0) byGuild.add(h);
+            else global.add(h);
+        }
+        Route route = new Route(global.toArray(NONE), new LongTable(byGuild, true), new LongTable(byChannel, false));
+        return route.isEmpty() ? EMPTY : route;
+    }
+
+    private static long channelOf(GenericEvent event) {
+        if (event instanceof GenericMessageEvent e) return e.getChannel().getIdLong();
+        if (event instanceof GenericInteractionCreateEvent e) return e.getChannelIdLong();
+        return 0;
+    }
+
+    private static long guildOf(GenericEvent event) {
+        if (event instanceof GenericGuildEvent e) return e.getGuild().getIdLong();
+        if (event instanceof GenericMessageEvent e) return e.isFromGuild() ? e.getGuild().getIdLong() : 0;
+        if (event instanceof GenericInteractionCreateEvent e) return e.getGuild() != null ? e.getGuild().getIdLong() : 0;
+        return 0;
+    }
+
+    /**
+     * Unveränderliche Open-Addressing-Tabelle Snowflake -> Handler[], ohne Boxing beim Lookup.
+     */
+    private static final class LongTable {
+        private final long[] keys;
+        private final Handler[][] values;
+        private final int mask;
+
+        LongTable(List<Handler> handlers, boolean byGuild) {
+            Map<Long, List<Handler>> grouped = new java.util.LinkedHashMap<>();
+            for (Handler h : handlers) {
+                grouped.computeIfAbsent(byGuild ? h.guildId : h.channelId, k -> new ArrayList<>()).add(h);
+            }
+            int size = Integer.highestOneBit(Math.max(2, grouped.size() * 2) - 1) << 1;
+            keys = new long[size];
+            values = new Handler[size][];
+            mask = size - 1;
+            grouped.forEach((key, list) -> {
+                int i = slot(key);
+                while (values[i] != null) i = (i + 1) & mask;
+                keys[i] = key;
+                values[i] = list.toArray(NONE);
+            });
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        boolean isEmpty() {
+            for (Handler[] v : values) if (v != null) return false;
+            return true;
+        }
+
+        Handler[] get(long key) {
+            int i = slot(key);
+            Handler[] v;
+            while ((v = values[i]) != null) {
+                if (keys[i] == key) return v;
+                i = (i + 1) & mask;
+            }
+            return NONE;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dev.eministar.event;
+
+/**
+ * Listener, der sich selbst am {@link EventRouter} anmeldet, z.B. nur für seinen Channel.
+ * Alle anderen Listener-Module werden global per {@link EventRouter#register} registriert.
+ */
+public interface RoutedListener {
+    void bind(EventRouter router);
+}
@@ -0,0 +1,20 @@
+package dev.eministar.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Monoton steigender Zähler, lock-frei über {@link LongAdder}. */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long value() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,116 @@
+package dev.eministar.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-lineares Latenz-Histogramm im Stil von HdrHistogram: jede Zweierpotenz (in Mikrosekunden) ist in
+ * {@value #SUB_BUCKETS} gleich breite Unter-Buckets geteilt, der relative Fehler liegt also unter 12,5 %
+ * bei fester Größe und ohne Allokation beim Aufzeichnen.
+ * <p>
+ * Werte werden in Nanosekunden übergeben, Auflösung ist 1 µs. Alles über ~2^40 µs landet im letzten Bucket.
+ */
+public final class Histogram {
+    static final int SUB_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_OCTAVE = 40;
+    static final int BUCKETS = (MAX_OCTAVE - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(index(nanos / 1000));
+        count.incrementAndGet();
+        sumNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // retry
+        }
+    }
+
+    /** Misst {@code task} und zeichnet die Dauer auf, auch wenn er wirft. */
+    public void time(Runnable task) {
+        long begin = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            record(System.nanoTime() - begin);
+        }
+    }
+
+    /** Addiert alle Werte von {@code other}, z.B. um mehrere Quellen zu einer Serie zusammenzufassen. */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = other.buckets.get(i);
+            if (n != 0) buckets.addAndGet(i, n);
+        }
+        count.addAndGet(other.count());
+        sumNanos.addAndGet(other.sumNanos());
+        long nanos = other.maxNanos(), max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // retry
+        }
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int octave = 63 - Long.numberOfLeadingZeros(micros);
+        int index = (octave - SUB_BITS + 1) * SUB_BUCKETS + (int) ((micros >>> (octave - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    /** Exklusive obere Grenze von Bucket {@code i} in Mikrosekunden. */
+    static long upperMicros(int i) {
+        if (i < SUB_BUCKETS) return i + 1;
+        int octave = i / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + i % SUB_BUCKETS + 1) << (octave - SUB_BITS);
+    }
+
+    /** Letzter Bucket, dessen obere Grenze genau {@code 2^exponent} µs ist. */
+    static int lastBucketBelowPowerOfTwo(int exponent) {
+        return exponent <= SUB_BITS ? (1 << exponent) - 1 : (exponent - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS - 1;
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long sumNanos() {
+        return sumNanos.get();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public long averageNanos() {
+        long n = count.get();
+        return n == 0 ? 0 : sumNanos.get() / n;
+    }
+
+    long bucket(int i) {
+        return buckets.get(i);
+    }
+
+    /**
+     * Obere Bucket-Grenze, unter der mindestens der Anteil {@code quantile} der Werte liegt, in Nanosekunden.
+     * 0 wenn noch nichts aufgezeichnet wurde.
+     */
+    public long quantileNanos(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) total += (snapshot[i] = buckets.get(i));
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(total * quantile));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target) return upperMicros(i) * 1000;
+        }
+        return upperMicros(BUCKETS - 1) * 1000;
+    }
+}
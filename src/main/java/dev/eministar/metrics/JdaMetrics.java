@@ -0,0 +1,59 @@
+package dev.eministar.metrics;
+
+import dev.eministar.event.EventRouter;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.events.http.HttpRequestEvent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Gateway- und REST-Metriken von JDA: Ping, Cache-Größen, REST-Queue-Tiefe und Antworten pro Route.
+ */
+public final class JdaMetrics {
+    private static final List<MeteredRateLimiter> limiters = new CopyOnWriteArrayList<>();
+
+    private JdaMetrics() {}
+
+    /** Hängt den messenden Rate-Limiter ein; muss vor {@link JDABuilder#build()} aufgerufen werden. */
+    public static void install(JDABuilder builder) {
+        builder.setRestConfig(new RestConfig().setRateLimiterFactory(config -> {
+            MeteredRateLimiter limiter = new MeteredRateLimiter(new SequentialRestRateLimiter(config));
+            limiters.add(limiter);
+            return limiter;
+        }));
+        Metrics.gauge(Metrics.PREFIX + "rest_queue_depth", "REST-Anfragen, die im Rate-Limiter auf Ausführung warten",
+                () -> limiters.stream().mapToLong(MeteredRateLimiter::queued).sum());
+    }
+
+    /** Registriert Gauges auf {@code jda} und zählt REST-Antworten über den Router. */
+    public static void bind(JDA jda, EventRouter router) {
+        Metrics.gauge(Metrics.PREFIX + "gateway_ping_seconds", "Letzter Heartbeat-Ping zum Discord-Gateway",
+                () -> jda.getGatewayPing() / 1000.0);
+        Metrics.gauge(Metrics.PREFIX + "gateway_connected", "1 wenn die Gateway-Verbindung steht",
+                () -> jda.getStatus() == JDA.Status.CONNECTED ? 1 : 0);
+        Metrics.gauge(Metrics.PREFIX + "jda_cache_size", "Einträge in JDAs Entity-Caches",
+                () -> jda.getGuildCache().size(), "cache", "guilds");
+        Metrics.gauge(Metrics.PREFIX + "jda_cache_size", "Einträge in JDAs Entity-Caches",
+                () -> jda.getUserCache().size(), "cache", "users");
+        Metrics.gauge(Metrics.PREFIX + "jda_cache_size", "Einträge in JDAs Entity-Caches",
+                () -> jda.getGuildCache().applyStream(s -> s.mapToLong(g -> g.getMemberCache().size()).sum()), "cache", "members");
+        Metrics.gauge(Metrics.PREFIX + "jda_cache_size", "Einträge in JDAs Entity-Caches",
+                () -> jda.getChannelCache().size(), "cache", "channels");
+
+        router.on(HttpRequestEvent.class, "metrics", JdaMetrics::onHttpRequest);
+    }
+
+    private static void onHttpRequest(HttpRequestEvent event) {
+        Route route = event.getRoute().getBaseRoute();
+        int code = event.getResponse().code;
+        // Basis-Route ohne IDs, damit die Label-Anzahl begrenzt bleibt
+        Metrics.counter(Metrics.PREFIX + "rest_requests_total", "Abgeschlossene REST-Anfragen nach Route und Status",
+                "method", route.getMethod().name(), "route", route.getRoute(), "status", code < 0 ? "error" : Integer.toString(code))
+                .increment();
+    }
+}
@@ -0,0 +1,128 @@
+package dev.eministar.metrics;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import okhttp3.Response;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Umschließt JDAs Rate-Limiter und misst, wie viele REST-Anfragen gerade in den Bucket-Queues warten,
+ * wie lange sie dort liegen und wie lange der eigentliche HTTP-Aufruf dauert.
+ * Das Verhalten des Limiters selbst bleibt unverändert.
+ */
+final class MeteredRateLimiter implements RestRateLimiter {
+    private final RestRateLimiter delegate;
+    private final AtomicLong queued = new AtomicLong();
+    private final Histogram queueWait;
+    private final Histogram execute;
+    private final Counter rateLimited;
+
+    MeteredRateLimiter(RestRateLimiter delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.queueWait = Metrics.histogram(Metrics.PREFIX + "rest_queue_wait_seconds",
+                "Zeit vom Einreihen einer REST-Anfrage bis zum ersten Versuch");
+        this.execute = Metrics.histogram(Metrics.PREFIX + "rest_execute_seconds",
+                "Dauer einzelner HTTP-Aufrufe an die Discord-API");
+        this.rateLimited = Metrics.counter(Metrics.PREFIX + "rest_rate_limit_hits_total",
+                "Antworten mit Status 429; der Limiter plant diese Anfragen selbst neu ein");
+    }
+
+    long queued() {
+        return queued.get();
+    }
+
+    @Override
+    public void enqueue(Work task) {
+        queued.incrementAndGet();
+        delegate.enqueue(new MeteredWork(task));
+    }
+
+    @Override
+    public void stop(boolean shutdown, Runnable callback) {
+        delegate.stop(shutdown, callback);
+    }
+
+    @Override
+    public boolean isStopped() {
+        return delegate.isStopped();
+    }
+
+    @Override
+    public int cancelRequests() {
+        return delegate.cancelRequests();
+    }
+
+    private final class MeteredWork implements Work {
+        private final Work work;
+        private final long enqueuedAt = System.nanoTime();
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        MeteredWork(Work work) {
+            this.work = work;
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) queued.decrementAndGet();
+        }
+
+        @Override
+        public Route.CompiledRoute getRoute() {
+            return work.getRoute();
+        }
+
+        @Override
+        public JDA getJDA() {
+            return work.getJDA();
+        }
+
+        @Override
+        public Response execute() {
+            long begin = System.nanoTime();
+            if (started.compareAndSet(false, true)) queueWait.record(begin - enqueuedAt);
+            try {
+                Response response = work.execute();
+                if (response != null && response.code() == 429) rateLimited.increment();
+                return response;
+            } finally {
+                execute.record(System.nanoTime() - begin);
+                if (work.isDone()) finish();
+            }
+        }
+
+        @Override
+        public boolean isSkipped() {
+            // übersprungene Anfragen werden vom Limiter verworfen, ohne execute() aufzurufen
+            boolean skipped = work.isSkipped();
+            if (skipped) finish();
+            return skipped;
+        }
+
+        @Override
+        public boolean isDone() {
+            boolean done = work.isDone();
+            if (done) finish();
+            return done;
+        }
+
+        @Override
+        public boolean isPriority() {
+            return work.isPriority();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return work.isCancelled();
+        }
+
+        @Override
+        public void cancel() {
+            work.cancel();
+            finish();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package dev.eministar.metrics;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Schreibt Metriken im Prometheus-Textformat (Version 0.0.4).
+ * <p>
+ * Labels werden als abwechselnde Schlüssel/Wert-Paare übergeben: {@code sample("x_total", 3, "command", "ping")}.
+ * Alle Samples einer Familie müssen direkt hinter ihrem {@link #family} stehen.
+ */
+public final class MetricWriter {
+    /** Histogramm-Grenzen als Zweierpotenzen in µs: 2^4 µs (16 µs) bis 2^26 µs (~67 s). */
+    private static final int MIN_LE_EXPONENT = 4;
+    private static final int MAX_LE_EXPONENT = 26;
+
+    private final StringBuilder out = new StringBuilder(16 * 1024);
+    private final Set<String> families = new HashSet<>();
+
+    MetricWriter() {}
+
+    /**
+     * Beginnt eine Familie. Wird dieselbe Familie mehrfach begonnen, zählt nur der erste Aufruf.
+     *
+     * @param type {@code counter}, {@code gauge} oder {@code histogram}
+     */
+    public MetricWriter family(String name, String type, String help) {
+        if (families.add(name)) {
+            out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+        return this;
+    }
+
+    public MetricWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        appendLabels(labels, null);
+        out.append(' ');
+        appendValue(value);
+        out.append('\n');
+        return this;
+    }
+
+    /** Schreibt {@code _bucket}, {@code _sum} und {@code _count} eines Histogramms, Werte in Sekunden. */
+    public MetricWriter histogram(String name, Histogram histogram, String... labels) {
+        int next = 0;
+        long cumulative = 0;
+        for (int exponent = MIN_LE_EXPONENT; exponent <= MAX_LE_EXPONENT; exponent++) {
+            int last = Histogram.lastBucketBelowPowerOfTwo(exponent);
+            for (; next <= last; next++) cumulative += histogram.bucket(next);
+            out.append(name).append("_bucket");
+            appendLabels(labels, formatValue((1L << exponent) / 1e6));
+            out.append(' ').append(cumulative).append('\n');
+        }
+        // count zuletzt lesen: mindestens so groß wie die Summe der Buckets, damit +Inf monoton bleibt
+        for (; next < Histogram.BUCKETS; next++) cumulative += histogram.bucket(next);
+        long count = Math.max(cumulative, histogram.count());
+        out.append(name).append("_bucket");
+        appendLabels(labels, "+Inf");
+        out.append(' ').append(count).append('\n');
+        out.append(name).append("_sum");
+        appendLabels(labels, null);
+        out.append(' ');
+        appendValue(histogram.sumNanos() / 1e9);
+        out.append('\n');
+        out.append(name).append("_count");
+        appendLabels(labels, null);
+        out.append(' ').append(count).append('\n');
+        return this;
+    }
+
+    private void appendLabels(String[] labels, String le) {
+        if (labels.length == 0 && le == null) return;
+        out.append('{');
+        boolean first = true;
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            if (!first) out.append(',');
+            first = false;
+            out.append(labels[i]).append("=\"");
+            escape(labels[i + 1]);
+            out.append('"');
+        }
+        if (le != null) {
+            if (!first) out.append(',');
+            out.append("le=\"").append(le).append('"');
+        }
+        out.append('}');
+    }
+
+    private void escape(String value) {
+        if (value == null) return;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private void appendValue(double value) {
+        out.append(formatValue(value));
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return Double.toString(value);
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
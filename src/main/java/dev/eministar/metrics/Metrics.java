@@ -0,0 +1,115 @@
+package dev.eministar.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Zentrale Metrik-Registry für den {@code /metrics}-Endpunkt.
+ * <p>
+ * Feste Metriken (Zähler, Gauges, Histogramme) werden einmal angelegt und danach direkt beschrieben; gleiche
+ * Namen und Labels liefern dieselbe Instanz. Dienste mit eigener Statistik (Commands, EventRouter, Scheduler)
+ * melden stattdessen einen {@link Collector} an, der erst beim Abruf liest.
+ */
+public final class Metrics {
+    private static final Logger logger = LoggerFactory.getLogger(Metrics.class);
+
+    public static final String PREFIX = "lattendaddy_";
+
+    /** Schreibt beim Abruf eigene Familien in den {@link MetricWriter}. */
+    @FunctionalInterface
+    public interface Collector {
+        void collect(MetricWriter out);
+    }
+
+    private record Family(String name, String type, String help, Map<List<String>, Object> children) {}
+
+    private static final Map<String, Family> families = new ConcurrentSkipListMap<>();
+    private static final List<Collector> collectors = new CopyOnWriteArrayList<>();
+
+    private Metrics() {}
+
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) child(name, "counter", help, labels, Counter::new);
+    }
+
+    public static Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) child(name, "histogram", help, labels, Histogram::new);
+    }
+
+    /** Gauge, deren Wert beim Abruf gelesen wird. Eine erneute Anmeldung ersetzt die alte Quelle. */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        Family family = family(name, "gauge", help);
+        family.children().put(key(labels), value);
+    }
+
+    public static void collector(Collector collector) {
+        collectors.add(collector);
+    }
+
+    private static Object child(String name, String type, String help, String[] labels, java.util.function.Supplier<Object> factory) {
+        return family(name, type, help).children().computeIfAbsent(key(labels), k -> factory.get());
+    }
+
+    private static Family family(String name, String type, String help) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, type, help, new ConcurrentHashMap<>()));
+        if (!family.type().equals(type)) {
+            throw new IllegalArgumentException("Metrik " + name + " ist bereits als " + family.type() + " registriert");
+        }
+        return family;
+    }
+
+    private static List<String> key(String[] labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("Labels müssen Schlüssel/Wert-Paare sein");
+        return List.of(labels);
+    }
+
+    /** Alle Metriken im Prometheus-Textformat. */
+    public static String scrape() {
+        MetricWriter out = new MetricWriter();
+        for (Family family : families.values()) {
+            out.family(family.name(), family.type(), family.help());
+            // sortiert, damit die Ausgabe zwischen Abrufen stabil bleibt
+            Map<String, Map.Entry<List<String>, Object>> sorted = new TreeMap<>();
+            for (Map.Entry<List<String>, Object> e : family.children().entrySet()) {
+                sorted.put(String.join("\u0000", e.getKey()), e);
+            }
+            for (Map.Entry<List<String>, Object> e : sorted.values()) {
+                String[] labels = e.getKey().toArray(new String[0]);
+                Object child = e.getValue();
+                if (child instanceof Counter c) {
+                    out.sample(family.name(), c.value(), labels);
+                } else if (child instanceof Histogram h) {
+                    out.histogram(family.name(), h, labels);
+                } else if (child instanceof DoubleSupplier g) {
+                    double value;
+                    try {
+                        value = g.getAsDouble();
+                    } catch (RuntimeException ex) {
+                        logger.debug("Gauge {}{} nicht lesbar", family.name(), Arrays.toString(labels), ex);
+                        continue;
+                    }
+                    out.sample(family.name(), value, labels);
+                }
+            }
+        }
+        List<Collector> snapshot = new ArrayList<>(collectors);
+        for (Collector collector : snapshot) {
+            try {
+                collector.collect(out);
+            } catch (RuntimeException e) {
+                logger.warn("Metrics: Collector {} fehlgeschlagen", collector, e);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package dev.eministar.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimaler HTTP-Endpunkt ({@code GET /metrics}) auf Basis des JDK-{@link HttpServer}, ohne zusätzliche
+ * Abhängigkeiten. Läuft auf einem eigenen Daemon-Thread, damit ein Scrape nie einen JDA-Thread blockiert.
+ */
+public final class MetricsServer {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static HttpServer server;
+
+    private MetricsServer() {}
+
+    public static synchronized void start(String bind, int port) {
+        if (server != null) return;
+        try {
+            HttpServer s = HttpServer.create(new InetSocketAddress(bind, port), 0);
+            s.createContext("/metrics", MetricsServer::handle);
+            s.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-http");
+                t.setDaemon(true);
+                return t;
+            }));
+            s.start();
+            server = s;
+            logger.info("Metrics: Endpunkt läuft auf http://{}:{}/metrics", bind, port);
+        } catch (IOException e) {
+            logger.error("Metrics: Endpunkt auf {}:{} konnte nicht gestartet werden", bind, port, e);
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server == null) return;
+        server.stop(0);
+        server = null;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body;
+            try {
+                body = Metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                logger.error("Metrics: Abruf fehlgeschlagen", e);
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+}
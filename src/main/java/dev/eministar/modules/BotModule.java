@@ -0,0 +1,27 @@
+package dev.eministar.modules;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert einen Command oder Listener als Modul. Der {@code BotModuleProcessor} erzeugt daraus beim Kompilieren
+ * die {@code GeneratedModuleRegistry}, zur Laufzeit wird also weder der Classpath gescannt noch per Reflection
+ * instanziiert. Die Klasse braucht dafür einen öffentlichen parameterlosen Konstruktor.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface BotModule {
+    /** Eindeutiger Modulname (Logs, {@link #dependsOn()}). */
+    String value();
+
+    /** Punkt-getrennter Config-Pfad eines Boolean-Schalters, z.B. {@code counting.enabled}; leer = immer aktiv. */
+    String enabledKey() default "";
+
+    /** Wert, wenn der Schalter in der Config fehlt. */
+    boolean enabledByDefault() default false;
+
+    /** Module, die geladen sein müssen; sonst wird dieses Modul übersprungen. */
+    String[] dependsOn() default {};
+}
@@ -0,0 +1,20 @@
+package dev.eministar.modules;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Metadaten eines {@link BotModule} aus der generierten Registry.
+ *
+ * @param command  Klasse implementiert {@link dev.eministar.command.Command}
+ * @param listener Klasse erweitert {@link net.dv8tion.jda.api.hooks.ListenerAdapter}
+ * @param factory  Konstruktor-Referenz, keine Reflection
+ */
+public record ModuleDescriptor(String name,
+                               String enabledKey,
+                               boolean enabledByDefault,
+                               List<String> dependsOn,
+                               boolean command,
+                               boolean listener,
+                               Supplier<Object> factory) {
+}
@@ -1,13 +1,69 @@
 package dev.eministar.modules;
 
-import dev.eministar.command.Command;
-import org.reflections.Reflections;
+import dev.eministar.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Lädt alle {@link BotModule}s aus der beim Kompilieren erzeugten {@link GeneratedModuleRegistry}.
+ * Module mit ausgeschaltetem {@code enabledKey} oder fehlender Abhängigkeit werden gar nicht erst instanziiert.
+ */
 public class ModuleLoader {
-    public static Set<Class<? extends Command>> loadCommands() {
-        Reflections reflections = new Reflections("dev.eministar.modules");
-        return reflections.getSubTypesOf(Command.class);
+    private static final Logger logger = LoggerFactory.getLogger(ModuleLoader.class);
+
+    public record LoadedModule(ModuleDescriptor descriptor, Object instance) {
+    }
+
+    public static List<ModuleDescriptor> descriptors() {
+        return new GeneratedModuleRegistry().modules();
+    }
+
+    /**
+     * Instanziiert alle aktiven Module, Abhängigkeiten jeweils vor den Modulen, die sie brauchen.
+     */
+    public static List<LoadedModule> load() {
+        Map<String, ModuleDescriptor> byName = new HashMap<>();
+        for (ModuleDescriptor d : descriptors()) byName.put(d.name(), d);
+
+        Map<String, Boolean> state = new HashMap<>();
+        List<LoadedModule> loaded = new ArrayList<>();
+        for (ModuleDescriptor d : descriptors()) {
+            load(d, byName, state, loaded);
+        }
+        return loaded;
+    }
+
+    // state: fehlt = noch offen, TRUE = geladen, FALSE = übersprungen/fehlgeschlagen bzw. gerade in Arbeit (Zyklus)
+    private static boolean load(ModuleDescriptor d, Map<String, ModuleDescriptor> byName,
+                                Map<String, Boolean> state, List<LoadedModule> loaded) {
+        Boolean done = state.get(d.name());
+        if (done != null) return done;
+        state.put(d.name(), false);
+
+        if (!d.enabledKey().isEmpty() && !Config.getBoolean(d.enabledKey(), d.enabledByDefault())) {
+            logger.info("Modul {} ist deaktiviert ({})", d.name(), d.enabledKey());
+            return false;
+        }
+        for (String dependency : d.dependsOn()) {
+            ModuleDescriptor dep = byName.get(dependency);
+            if (dep == null || !load(dep, byName, state, loaded)) {
+                logger.info("Modul {} übersprungen, Abhängigkeit {} ist nicht aktiv", d.name(), dependency);
+                return false;
+            }
+        }
+
+        try {
+            loaded.add(new LoadedModule(d, d.factory().get()));
+        } catch (Exception e) {
+            logger.error("Fehler beim Laden des Moduls: {}", d.name(), e);
+            return false;
+        }
+        state.put(d.name(), true);
+        return true;
     }
 }
@@ -0,0 +1,10 @@
+package dev.eministar.modules;
+
+import java.util.List;
+
+/**
+ * Wird vom {@code BotModuleProcessor} als {@code GeneratedModuleRegistry} implementiert.
+ */
+public interface ModuleRegistry {
+    List<ModuleDescriptor> modules();
+}
@@ -1,6 +1,8 @@
 package dev.eministar.modules.birthday;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Scheduler;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -8,6 +10,9 @@ import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 
+import java.util.concurrent.TimeUnit;
+
+@BotModule("birthday/birthday")
 public class BirthdayCommand implements Command {
     @Override
     public String name() {
@@ -110,14 +115,13 @@ public class BirthdayCommand implements Command {
                 // Update list asynchronously, completely independent of the interaction
                 final String finalGuildId = guildId;
                 final JDA finalJDA = event.getJDA();
-                new Thread(() -> {
+                Scheduler.group("birthday").schedule(() -> {
                     try {
-                        Thread.sleep(500); // Small delay to ensure interaction is fully processed
                         BirthdayListener.updateListEmbed(finalGuildId, finalJDA);
                     } catch (Exception ignored) {
                         // Silent fail, list will be updated on next bot restart
                     }
-                }).start();
+                }, 500, TimeUnit.MILLISECONDS); // Small delay to ensure interaction is fully processed
             }
             case "remove" -> {
                 String guildId = event.getGuild().getId();
@@ -136,14 +140,13 @@ public class BirthdayCommand implements Command {
                 // Update list asynchronously, completely independent of the interaction
                 final String finalGuildId = guildId;
                 final JDA finalJDA = event.getJDA();
-                new Thread(() -> {
+                Scheduler.group("birthday").schedule(() -> {
                     try {
-                        Thread.sleep(500); // Small delay to ensure interaction is fully processed
                         BirthdayListener.updateListEmbed(finalGuildId, finalJDA);
                     } catch (Exception ignored) {
                         // Silent fail, list will be updated on next bot restart
                     }
-                }).start();
+                }, 500, TimeUnit.MILLISECONDS); // Small delay to ensure interaction is fully processed
             }
             case "list" -> {
                 String guildId = event.getGuild().getId();
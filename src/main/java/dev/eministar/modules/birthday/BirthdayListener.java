@@ -1,6 +1,9 @@
 package dev.eministar.modules.birthday;
 
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -15,9 +18,10 @@ import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.*;
 
+@BotModule("birthday")
 public class BirthdayListener extends ListenerAdapter {
     private static final Logger logger = LoggerFactory.getLogger(BirthdayListener.class);
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final TaskGroup timers = Scheduler.group("birthday");
 
     @Override
     public void onReady(ReadyEvent event) {
@@ -38,7 +42,7 @@ public class BirthdayListener extends ListenerAdapter {
     // Public start so we can call it if needed
     public void start(JDA jda) {
         long initialDelay = computeInitialDelaySeconds();
-        scheduler.scheduleAtFixedRate(() -> runDaily(jda), initialDelay, 24 * 60 * 60, TimeUnit.SECONDS);
+        timers.scheduleAtFixedRate(() -> runDaily(jda), initialDelay, 24 * 60 * 60, TimeUnit.SECONDS);
         logger.info("Geburtstags-Checker gestartet. Nächste Prüfung in {} Sekunden.", initialDelay);
     }
 
@@ -0,0 +1,31 @@
+package dev.eministar.modules.birthday;
+
+import com.google.gson.JsonObject;
+import dev.eministar.persistence.Database;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Speicher für Geburtstage. Einträge sind JSON-Objekte
+ * ({@code day}, {@code month}, optional {@code year}, {@code lastCongratsId}, {@code lastCongratsDate});
+ * zurückgegebene Objekte sind Kopien und dürfen vom Aufrufer verändert werden.
+ */
+public interface BirthdayRepository {
+    String getListMessageId(String guildId);
+
+    void setListMessageId(String guildId, String messageId);
+
+    Optional<JsonObject> find(String guildId, String userId);
+
+    /** userId -> Eintrag */
+    Map<String, JsonObject> findByGuild(String guildId);
+
+    void save(String guildId, String userId, JsonObject entry);
+
+    void delete(String guildId, String userId);
+
+    static BirthdayRepository create() {
+        return Database.isEnabled() ? new JdbcBirthdayRepository(Database.get()) : new JsonBirthdayRepository();
+    }
+}
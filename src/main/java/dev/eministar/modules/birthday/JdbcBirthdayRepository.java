@@ -0,0 +1,74 @@
+package dev.eministar.modules.birthday;
+
+import com.google.gson.JsonObject;
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.DocumentTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class JdbcBirthdayRepository implements BirthdayRepository, DocumentTable.Mapping<JsonObject> {
+    private static final String LIST_SETTING = "birthday.listMessageId.";
+
+    private final Database db;
+    private final DocumentTable<JsonObject> table;
+
+    public JdbcBirthdayRepository(Database db) {
+        this.db = db;
+        this.table = new DocumentTable<>(db, "birthdays", JsonObject.class, this);
+    }
+
+    // Guild und User werden beim Speichern ins Dokument geschrieben, damit sie indiziert werden können
+    @Override
+    public String id(JsonObject entry) {
+        return guildId(entry) + "/" + userId(entry);
+    }
+
+    @Override
+    public String guildId(JsonObject entry) {
+        return entry.get("guildId").getAsString();
+    }
+
+    @Override
+    public String userId(JsonObject entry) {
+        return entry.get("userId").getAsString();
+    }
+
+    @Override
+    public String getListMessageId(String guildId) {
+        return db.getSetting(LIST_SETTING + guildId, "");
+    }
+
+    @Override
+    public void setListMessageId(String guildId, String messageId) {
+        db.setSetting(LIST_SETTING + guildId, messageId == null ? "" : messageId);
+    }
+
+    @Override
+    public Optional<JsonObject> find(String guildId, String userId) {
+        return table.find(guildId + "/" + userId);
+    }
+
+    @Override
+    public Map<String, JsonObject> findByGuild(String guildId) {
+        Map<String, JsonObject> result = new HashMap<>();
+        for (JsonObject entry : table.findByGuild(guildId)) {
+            result.put(userId(entry), entry);
+        }
+        return result;
+    }
+
+    @Override
+    public void save(String guildId, String userId, JsonObject entry) {
+        JsonObject doc = entry.deepCopy();
+        doc.addProperty("guildId", guildId);
+        doc.addProperty("userId", userId);
+        table.save(doc);
+    }
+
+    @Override
+    public void delete(String guildId, String userId) {
+        table.delete(guildId + "/" + userId);
+    }
+}
@@ -0,0 +1,138 @@
+package dev.eministar.modules.birthday;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import dev.eministar.persistence.Journal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Simple persistent store for birthdays per guild. Data format:
+ * {
+ *   "<guildId>": {
+ *     "listMessageId": "<messageId>",
+ *     "birthdays": {
+ *        "<userId>": { "day": 1, "month": 1, "year": 1990, "lastCongratsId": "..." }
+ *     }
+ *   }
+ * }
+ * Änderungen werden als Journal-Einträge angehängt (put/del mit Key {@code <guildId>/<userId>},
+ * list mit Key {@code <guildId>}) und periodisch als Snapshot in diese Datei kompaktiert.
+ */
+public class JsonBirthdayRepository implements BirthdayRepository {
+    private static final Path DATA_PATH = Paths.get("data/birthdays.json");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private JsonObject root;
+    private final Journal journal;
+
+    public JsonBirthdayRepository() {
+        this.journal = Journal.open(DATA_PATH, this::writeSnapshot, this::replay);
+        load();
+    }
+
+    private synchronized void load() {
+        try {
+            if (Files.exists(DATA_PATH)) {
+                try (Reader r = Files.newBufferedReader(DATA_PATH, StandardCharsets.UTF_8)) {
+                    root = GSON.fromJson(r, JsonObject.class);
+                }
+            } else {
+                Files.createDirectories(DATA_PATH.getParent());
+            }
+            if (root == null) root = new JsonObject();
+
+            journal.recover();
+            if (!Files.exists(DATA_PATH)) {
+                journal.compact();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load birthdays.json", e);
+        }
+    }
+
+    private synchronized void writeSnapshot(Writer w) {
+        GSON.toJson(root, w);
+    }
+
+    private void replay(String op, String key, JsonElement value) {
+        int slash = key.indexOf('/');
+        String guildId = slash < 0 ? key : key.substring(0, slash);
+        JsonObject guild = ensureGuild(guildId);
+        switch (op) {
+            case Journal.OP_PUT -> guild.getAsJsonObject("birthdays").add(key.substring(slash + 1), value);
+            case Journal.OP_DELETE -> guild.getAsJsonObject("birthdays").remove(key.substring(slash + 1));
+            case "list" -> guild.add("listMessageId", value);
+        }
+    }
+
+    // Leere Guild-Knoten werden nicht journaliert, sie entstehen beim Replay bzw. im nächsten Snapshot von selbst
+    private JsonObject ensureGuild(String guildId) {
+        if (!root.has(guildId) || root.get(guildId).isJsonNull()) {
+            JsonObject node = new JsonObject();
+            node.add("birthdays", new JsonObject());
+            node.addProperty("listMessageId", "");
+            root.add(guildId, node);
+        }
+        return root.getAsJsonObject(guildId);
+    }
+
+    @Override
+    public synchronized String getListMessageId(String guildId) {
+        JsonObject guild = ensureGuild(guildId);
+        return guild.has("listMessageId") ? guild.get("listMessageId").getAsString() : "";
+    }
+
+    @Override
+    public synchronized void setListMessageId(String guildId, String messageId) {
+        JsonObject guild = ensureGuild(guildId);
+        String value = messageId == null ? "" : messageId;
+        guild.addProperty("listMessageId", value);
+        journal.append("list", guildId, new JsonPrimitive(value));
+    }
+
+    @Override
+    public synchronized Optional<JsonObject> find(String guildId, String userId) {
+        JsonObject birthdays = ensureGuild(guildId).getAsJsonObject("birthdays");
+        if (!birthdays.has(userId)) return Optional.empty();
+        return Optional.of(birthdays.getAsJsonObject(userId).deepCopy());
+    }
+
+    @Override
+    public synchronized Map<String, JsonObject> findByGuild(String guildId) {
+        JsonObject birthdays = ensureGuild(guildId).getAsJsonObject("birthdays");
+        Map<String, JsonObject> result = new HashMap<>();
+        for (Map.Entry<String, JsonElement> e : birthdays.entrySet()) {
+            result.put(e.getKey(), e.getValue().getAsJsonObject().deepCopy());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void save(String guildId, String userId, JsonObject entry) {
+        JsonObject copy = entry.deepCopy();
+        ensureGuild(guildId).getAsJsonObject("birthdays").add(userId, copy);
+        journal.put(guildId + "/" + userId, copy);
+    }
+
+    @Override
+    public synchronized void delete(String guildId, String userId) {
+        JsonObject birthdays = ensureGuild(guildId).getAsJsonObject("birthdays");
+        if (birthdays.has(userId)) {
+            birthdays.remove(userId);
+            journal.remove(guildId + "/" + userId);
+        }
+    }
+}
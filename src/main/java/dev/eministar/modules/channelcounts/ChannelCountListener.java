@@ -1,6 +1,11 @@
 package dev.eministar.modules.channelcounts;
 
+import dev.eministar.cache.MemberCache;
 import dev.eministar.config.Config;
+import dev.eministar.config.ConfigSnapshot;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
@@ -13,53 +18,67 @@ import net.dv8tion.jda.api.events.user.update.UserUpdateOnlineStatusEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Aktualisiert zwei Kanäle mit den gewünschten Namen:
  * "🌐・[Zahl] ᴏɴʟɪɴᴇ ᴍᴇᴍʙᴇʀ" und
  * "🔥・[Zahl] ᴍᴇᴍʙᴇʀ"
+ * <p>
+ * Im Lean-Modus des Member-Caches gibt es weder Präsenzen noch alle Mitglieder im Speicher; dann kommen die Zahlen
+ * aus den ungefähren Zählern von Discord ({@link Guild#retrieveMetaData()}), die Bots immer mitzählen.
  */
+@BotModule(value = "channel-counts", enabledKey = "channelCounts.enabled")
 public class ChannelCountListener extends ListenerAdapter {
-    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+    private final TaskGroup timers = Scheduler.group("channel-counts");
     private final Set<Long> loadedGuilds = ConcurrentHashMap.newKeySet();
+    // Lean-Modus: zuletzt von Discord gemeldete Online-Zahl pro Guild
+    private final Map<Long, Integer> approximatePresences = new ConcurrentHashMap<>();
 
     @Override
     public void onReady(@NotNull ReadyEvent event) {
-        if (!Config.getChannelCountsEnabled()) return;
         event.getJDA().getGuilds().forEach(this::ensureMembersLoaded);
-        scheduler.scheduleWithFixedDelay(() -> event.getJDA().getGuilds().forEach(this::updateForGuildSafe), 0, 60, TimeUnit.SECONDS);
+        timers.scheduleWithFixedDelay(() -> event.getJDA().getGuilds().forEach(this::refreshGuild), 0, 60, TimeUnit.SECONDS);
     }
 
     @Override
     public void onGuildReady(@NotNull GuildReadyEvent event) {
-        if (!Config.getChannelCountsEnabled()) return;
         ensureMembersLoaded(event.getGuild());
         updateForGuildSafe(event.getGuild());
     }
 
     @Override
     public void onGuildMemberJoin(@NotNull GuildMemberJoinEvent event) {
-        if (!Config.getChannelCountsEnabled()) return;
         updateForGuildSafe(event.getGuild());
     }
 
     @Override
     public void onGuildMemberRemove(@NotNull GuildMemberRemoveEvent event) {
-        if (!Config.getChannelCountsEnabled()) return;
         updateForGuildSafe(event.getGuild());
     }
 
     @Override
     public void onUserUpdateOnlineStatus(@NotNull UserUpdateOnlineStatusEvent event) {
-        if (!Config.getChannelCountsEnabled()) return;
         event.getJDA().getGuilds().forEach(this::updateForGuildSafe);
     }
 
+    private void refreshGuild(Guild guild) {
+        if (!MemberCache.isLean()) {
+            updateForGuildSafe(guild);
+            return;
+        }
+        guild.retrieveMetaData().queue(meta -> {
+            approximatePresences.put(guild.getIdLong(), meta.getApproximatePresences());
+            updateForGuildSafe(guild);
+        }, throwable -> {});
+    }
+
     private void ensureMembersLoaded(Guild guild) {
+        // im Lean-Modus wird bewusst nichts vorgeladen
+        if (MemberCache.isLean()) return;
         long id = guild.getIdLong();
         if (loadedGuilds.contains(id)) return;
         guild.loadMembers()
@@ -75,11 +94,20 @@ public class ChannelCountListener extends ListenerAdapter {
     }
 
     private void updateForGuild(Guild guild) {
-        String onlineId = Config.getChannelCountsOnlineChannelId();
-        String memberId = Config.getChannelCountsMemberChannelId();
-        if ((onlineId == null || onlineId.isEmpty()) && (memberId == null || memberId.isEmpty())) return;
+        // ein Snapshot pro Durchlauf, damit IDs und includeBots zusammenpassen, auch wenn parallel neu geladen wird
+        ConfigSnapshot.ChannelCounts cfg = Config.get().channelCounts();
+        String onlineId = cfg.onlineChannelId();
+        String memberId = cfg.memberChannelId();
+        if (onlineId.isEmpty() && memberId.isEmpty()) return;
+
+        boolean includeBots = cfg.includeBots();
 
-        boolean includeBots = Config.getChannelCountsIncludeBots();
+        if (MemberCache.isLean()) {
+            Integer online = approximatePresences.get(guild.getIdLong());
+            if (!onlineId.isEmpty() && online != null) renameById(guild, onlineId, onlineName(online));
+            if (!memberId.isEmpty()) renameById(guild, memberId, memberName(guild.getMemberCount()));
+            return;
+        }
 
         long totalMembers = includeBots ? guild.getMemberCount() : guild.getMembers().stream().filter(m -> !m.getUser().isBot()).count();
         long onlineMembers = guild.getMembers().stream()
@@ -87,11 +115,16 @@ public class ChannelCountListener extends ListenerAdapter {
                 .filter(m -> isConsideredOnline(m.getOnlineStatus()))
                 .count();
 
-        String onlineName = "🌐・" + onlineMembers + " ᴏɴʟɪɴᴇ ᴍᴇᴍʙᴇʀ";
-        String memberName = "🔥・" + totalMembers + " ᴍᴇᴍʙᴇʀ";
+        if (!onlineId.isEmpty()) renameById(guild, onlineId, onlineName(onlineMembers));
+        if (!memberId.isEmpty()) renameById(guild, memberId, memberName(totalMembers));
+    }
+
+    private static String onlineName(long count) {
+        return "🌐・" + count + " ᴏɴʟɪɴᴇ ᴍᴇᴍʙᴇʀ";
+    }
 
-        if (onlineId != null && !onlineId.isEmpty()) renameById(guild, onlineId, onlineName);
-        if (memberId != null && !memberId.isEmpty()) renameById(guild, memberId, memberName);
+    private static String memberName(long count) {
+        return "🔥・" + count + " ᴍᴇᴍʙᴇʀ";
     }
 
     private boolean isConsideredOnline(OnlineStatus status) {
@@ -1,6 +1,7 @@
 package dev.eministar.modules.counting;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
@@ -14,6 +15,7 @@ import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import java.awt.Color;
 import java.time.Instant;
 
+@BotModule("counting/counting")
 public class CountingCommand implements Command {
 
     @Override
@@ -1,28 +1,25 @@
 package dev.eministar.modules.counting;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import dev.eministar.util.TextNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 public class CountingGame {
     private static final Logger logger = LoggerFactory.getLogger(CountingGame.class);
-    private static final Path DATA_FILE = Paths.get("data/counting.json");
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
     // channelId -> GameState
     private static final Map<String, GameState> games = new ConcurrentHashMap<>();
 
+    private static final CountingRepository repository = CountingRepository.create();
+
+    // läuft für jede Nachricht im Counting-Channel, daher einmal kompiliert
+    private static final Pattern NUMBER_OR_EXPRESSION = Pattern.compile("\\d+(?:\\s*[+\\-*/]\\s*\\d+)?");
+    private static final String OPERATORS = "+-*/";
+
     static {
         loadGames();
     }
@@ -93,108 +90,68 @@ public class CountingGame {
 
     private static void loadGames() {
         try {
-            if (!Files.exists(DATA_FILE)) {
-                Files.createDirectories(DATA_FILE.getParent());
-                saveGames();
-                return;
-            }
-
-            try (Reader reader = new InputStreamReader(Files.newInputStream(DATA_FILE), StandardCharsets.UTF_8)) {
-                Type type = new TypeToken<Map<String, GameState>>(){}.getType();
-                Map<String, GameState> loaded = gson.fromJson(reader, type);
-                if (loaded != null) {
-                    games.putAll(loaded);
-                }
-            }
+            games.putAll(repository.loadAll());
             logger.info("Loaded counting games for {} channels", games.size());
         } catch (Exception e) {
             logger.error("Failed to load counting games", e);
         }
     }
 
-    private static void saveGames() {
-        try {
-            Files.createDirectories(DATA_FILE.getParent());
-            try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(DATA_FILE), StandardCharsets.UTF_8))) {
-                gson.toJson(games, writer);
-            }
-        } catch (Exception e) {
-            logger.error("Failed to save counting games", e);
-        }
-    }
-
     public static GameState getOrCreateGame(String channelId) {
         return games.computeIfAbsent(channelId, k -> new GameState());
     }
 
     public static void updateGame(String channelId, GameState state) {
         games.put(channelId, state);
-        saveGames();
+        repository.save(channelId, state);
     }
 
     public static boolean isValidNumber(String input) {
-        input = input.trim();
-
-        // Prüfe auf einfache Zahl
-        if (input.matches("\\d+")) {
-            return true;
-        }
-
-        // Prüfe auf mathematischen Ausdruck (z.B. 5+3, 10-2, 4*2, 8/2)
-        if (input.matches("\\d+\\s*[+\\-*/]\\s*\\d+")) {
-            return true;
-        }
-
-        return false;
+        // Zahl oder einfache Rechnung (z.B. 5+3, 10 - 2, 4*2, 8/2)
+        return NUMBER_OR_EXPRESSION.matcher(input.trim()).matches();
     }
 
     public static Integer evaluateExpression(String input) {
+        String s = TextNormalizer.removeWhitespace(input);
         try {
-            input = input.trim().replaceAll("\\s+", "");
-
-            // Einfache Zahl
-            if (input.matches("\\d+")) {
-                return Integer.parseInt(input);
-            }
-
-            // Addition
-            if (input.contains("+")) {
-                String[] parts = input.split("\\+");
-                if (parts.length == 2) {
-                    return Integer.parseInt(parts[0]) + Integer.parseInt(parts[1]);
-                }
-            }
-
-            // Subtraktion
-            if (input.contains("-") && !input.startsWith("-")) {
-                String[] parts = input.split("-");
-                if (parts.length == 2) {
-                    return Integer.parseInt(parts[0]) - Integer.parseInt(parts[1]);
-                }
+            if (isDigits(s)) {
+                return Integer.parseInt(s);
             }
 
-            // Multiplikation
-            if (input.contains("*")) {
-                String[] parts = input.split("\\*");
-                if (parts.length == 2) {
-                    return Integer.parseInt(parts[0]) * Integer.parseInt(parts[1]);
-                }
-            }
-
-            // Division
-            if (input.contains("/")) {
-                String[] parts = input.split("/");
-                if (parts.length == 2) {
-                    int divisor = Integer.parseInt(parts[1]);
-                    if (divisor == 0) return null;
-                    return Integer.parseInt(parts[0]) / Integer.parseInt(parts[1]);
-                }
+            // Operatoren in dieser Reihenfolge, wie bisher per split: der Operator teilt genau zwei Teile,
+            // am Ende hängende Operatoren zählen nicht mit
+            for (int k = 0; k < OPERATORS.length(); k++) {
+                char op = OPERATORS.charAt(k);
+                int end = s.length();
+                while (end > 0 && s.charAt(end - 1) == op) end--;
+                int at = s.indexOf(op);
+                if (at < 0 || at >= end) continue;
+                int second = s.indexOf(op, at + 1);
+                if (second >= 0 && second < end) continue;
+                if (op == '-' && at == 0) continue;
+                int left = Integer.parseInt(s, 0, at, 10);
+                int right = Integer.parseInt(s, at + 1, end, 10);
+                return switch (op) {
+                    case '+' -> left + right;
+                    case '-' -> left - right;
+                    case '*' -> left * right;
+                    default -> right == 0 ? null : left / right;
+                };
             }
 
             return null;
-        } catch (Exception e) {
+        } catch (NumberFormatException e) {
             return null;
         }
     }
+
+    private static boolean isDigits(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
 }
 
@@ -1,6 +1,9 @@
 package dev.eministar.modules.counting;
 
 import dev.eministar.config.Config;
+import dev.eministar.event.EventRouter;
+import dev.eministar.event.RoutedListener;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
@@ -12,27 +15,36 @@ import org.slf4j.LoggerFactory;
 
 import java.awt.Color;
 import java.time.Instant;
+import java.util.List;
 
-public class CountingListener extends ListenerAdapter {
+@BotModule(value = "counting", enabledKey = "counting.enabled")
+public class CountingListener extends ListenerAdapter implements RoutedListener {
     private static final Logger logger = LoggerFactory.getLogger(CountingListener.class);
 
-    private boolean enabled;
-    private String countingChannelId;
+    private List<EventRouter.Handler> handlers = List.of();
 
     public CountingListener() {
-        loadConfig();
+        logger.info("Counting Module - Enabled: {}, Channel: {}", Config.getCountingEnabled(), Config.getCountingChannelId());
     }
 
-    private void loadConfig() {
-        enabled = Config.getCountingEnabled();
-        countingChannelId = Config.getCountingChannelId();
-        logger.info("Counting Module - Enabled: {}, Channel: {}", enabled, countingChannelId);
+    // Nur der konfigurierte Counting-Channel wird an den Listener geroutet
+    @Override
+    public void bind(EventRouter router) {
+        route(router, Config.getCountingChannelId());
+        // Channel lässt sich per Config-Reload ohne Neustart umstellen
+        Config.onChange((old, now) -> {
+            if (!old.counting().channelId().equals(now.counting().channelId())) route(router, now.counting().channelId());
+        });
+    }
+
+    private synchronized void route(EventRouter router, String channelId) {
+        handlers.forEach(router::unregister);
+        handlers = channelId.isEmpty() ? List.of() : router.registerChannel("counting", Long.parseLong(channelId), this);
     }
 
     @Override
     public void onMessageReceived(@NotNull MessageReceivedEvent event) {
-        if (!enabled || event.getAuthor().isBot()) return;
-        if (!event.getChannel().getId().equals(countingChannelId)) return;
+        if (event.getAuthor().isBot()) return;
 
         String content = event.getMessage().getContentRaw().trim();
         String userId = event.getAuthor().getId();
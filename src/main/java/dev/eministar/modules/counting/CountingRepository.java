@@ -0,0 +1,19 @@
+package dev.eministar.modules.counting;
+
+import dev.eministar.persistence.Database;
+
+import java.util.Map;
+
+/**
+ * Speicher für die Zählspiele pro Channel. {@link CountingGame} hält alle Stände im Speicher,
+ * das Repository lädt sie einmal beim Start und schreibt Änderungen einzeln zurück.
+ */
+public interface CountingRepository {
+    Map<String, CountingGame.GameState> loadAll();
+
+    void save(String channelId, CountingGame.GameState state);
+
+    static CountingRepository create() {
+        return Database.isEnabled() ? new JdbcCountingRepository(Database.get()) : new JsonCountingRepository();
+    }
+}
@@ -0,0 +1,27 @@
+package dev.eministar.modules.counting;
+
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.DocumentTable;
+
+import java.util.Map;
+
+public class JdbcCountingRepository implements CountingRepository {
+    // Zählspiele hängen am Channel, nicht an der Guild; guild_id bleibt daher leer
+    private static final String NO_GUILD = "";
+
+    private final DocumentTable<CountingGame.GameState> table;
+
+    public JdbcCountingRepository(Database db) {
+        this.table = new DocumentTable<>(db, "counting", CountingGame.GameState.class, new DocumentTable.Columns<>() {});
+    }
+
+    @Override
+    public Map<String, CountingGame.GameState> loadAll() {
+        return table.findAllById();
+    }
+
+    @Override
+    public void save(String channelId, CountingGame.GameState state) {
+        table.save(channelId, NO_GUILD, state);
+    }
+}
@@ -0,0 +1,74 @@
+package dev.eministar.modules.counting;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import dev.eministar.persistence.Journal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JsonCountingRepository implements CountingRepository {
+    private static final Logger logger = LoggerFactory.getLogger(JsonCountingRepository.class);
+    private static final Path DATA_FILE = Paths.get("data/counting.json");
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    // channelId -> GameState
+    private final Map<String, CountingGame.GameState> games = new ConcurrentHashMap<>();
+    private final Journal journal;
+
+    public JsonCountingRepository() {
+        this.journal = Journal.open(DATA_FILE, this::writeSnapshot, this::replay);
+    }
+
+    @Override
+    public Map<String, CountingGame.GameState> loadAll() {
+        try {
+            if (Files.exists(DATA_FILE)) {
+                try (Reader reader = new InputStreamReader(Files.newInputStream(DATA_FILE), StandardCharsets.UTF_8)) {
+                    Type type = new TypeToken<Map<String, CountingGame.GameState>>(){}.getType();
+                    Map<String, CountingGame.GameState> loaded = gson.fromJson(reader, type);
+                    if (loaded != null) {
+                        games.putAll(loaded);
+                    }
+                }
+            } else {
+                Files.createDirectories(DATA_FILE.getParent());
+            }
+
+            journal.recover();
+            if (!Files.exists(DATA_FILE)) {
+                journal.compact();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to load counting.json", e);
+        }
+        return new HashMap<>(games);
+    }
+
+    private void writeSnapshot(Writer writer) {
+        gson.toJson(games, writer);
+    }
+
+    private void replay(String op, String channelId, JsonElement value) {
+        if (Journal.OP_PUT.equals(op)) {
+            games.put(channelId, gson.fromJson(value, CountingGame.GameState.class));
+        }
+    }
+
+    @Override
+    public void save(String channelId, CountingGame.GameState state) {
+        games.put(channelId, state);
+        journal.put(channelId, gson.toJsonTree(state));
+    }
+}
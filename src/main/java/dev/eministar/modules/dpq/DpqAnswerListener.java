@@ -1,10 +1,12 @@
 package dev.eministar.modules.dpq;
 
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
+@BotModule("dpq")
 public class DpqAnswerListener extends ListenerAdapter {
     @Override
     public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
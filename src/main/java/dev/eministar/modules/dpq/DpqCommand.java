@@ -2,6 +2,7 @@ package dev.eministar.modules.dpq;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
@@ -16,6 +17,7 @@ import net.dv8tion.jda.api.EmbedBuilder;
 import java.awt.*;
 import java.time.Instant;
 
+@BotModule(value = "dpq/dpq", dependsOn = "dpq")
 public class DpqCommand implements Command {
     @Override
     public String name() { return "daily-politik-question"; }
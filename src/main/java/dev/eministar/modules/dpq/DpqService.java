@@ -3,6 +3,12 @@ package dev.eministar.modules.dpq;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import dev.eministar.config.Config;
+import dev.eministar.metrics.Histogram;
+import dev.eministar.metrics.Metrics;
+import dev.eministar.scheduler.ScheduledTask;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
+import dev.eministar.util.TextNormalizer;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
@@ -25,8 +31,6 @@ import java.time.Instant;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -46,12 +50,15 @@ public class DpqService {
     // Map ticket channelId -> dpq number
     private static final Map<String, Integer> ticketToNumber = new ConcurrentHashMap<>();
     private static final File STATE_FILE = new File("dpq-state.json");
-    private static final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
-    private static ScheduledFuture<?> pendingSave;
+    private static final Histogram saveDuration = Metrics.histogram(Metrics.PREFIX + "store_save_seconds",
+            "Dauer eines vollständigen Speichervorgangs pro Dienst", "store", "dpq");
+    private static final TaskGroup timers = Scheduler.group("dpq");
+    private static volatile ScheduledTask pendingSave;
 
     private static void markDirty() {
-        if (pendingSave != null) pendingSave.cancel(false);
-        pendingSave = scheduler.schedule(DpqService::saveState, 1, TimeUnit.SECONDS);
+        ScheduledTask previous = pendingSave;
+        if (previous != null) previous.cancel();
+        pendingSave = timers.schedule(DpqService::saveState, 1, TimeUnit.SECONDS);
     }
 
     public static synchronized void loadState() {
@@ -68,12 +75,16 @@ public class DpqService {
     }
 
     private static synchronized void saveState() {
+        long begin = System.nanoTime();
         try (FileWriter fw = new FileWriter(STATE_FILE)) {
             java.util.Map<String,Object> m = new java.util.HashMap<>();
             m.put("lastNumber", lastNumber);
             m.put("questionIndex", questionIndex);
             new Gson().toJson(m, fw);
-        } catch (IOException ignored) {}
+        } catch (IOException ignored) {
+        } finally {
+            saveDuration.record(System.nanoTime() - begin);
+        }
     }
 
     public static synchronized void loadQuestions() throws Exception {
@@ -160,7 +171,7 @@ public class DpqService {
     }
 
     private static void createDpqChannel(Guild guild, Category cat, Member member, int number) {
-        String base = ("dpq-" + number + "-" + member.getUser().getName()).toLowerCase(java.util.Locale.ROOT).replaceAll("[^a-z0-9]+","-");
+        String base = TextNormalizer.slug("dpq-" + number + "-" + member.getUser().getName());
         guild.createTextChannel(base, cat).queue(tc -> {
             tc.upsertPermissionOverride(guild.getPublicRole())
                     .deny(Permission.VIEW_CHANNEL)
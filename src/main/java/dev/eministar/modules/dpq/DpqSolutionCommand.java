@@ -2,6 +2,7 @@ package dev.eministar.modules.dpq;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
@@ -17,6 +18,7 @@ import java.awt.*;
 import java.time.Instant;
 import java.util.regex.Pattern;
 
+@BotModule(value = "dpq/solution", dependsOn = "dpq")
 public class DpqSolutionCommand implements Command {
     @Override
     public String name() { return "lösungen"; }
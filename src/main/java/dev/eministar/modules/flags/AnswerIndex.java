@@ -0,0 +1,193 @@
+package dev.eministar.modules.flags;
+
+import dev.eministar.util.TextNormalizer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unveränderlicher Index aller gültigen Antworten: normalisierter Ländername (in allen konfigurierten Sprachen) bzw.
+ * Alias -> ISO-Code und umgekehrt. Wird einmal aufgebaut; eine Antwort kostet danach einen Map-Zugriff statt
+ * {@code getDisplayCountry} für jedes Land.
+ * <p>
+ * Für Tippfehler liegen alle Namen zusätzlich in einem BK-Baum über die Levenshtein-Distanz. Eine Suche mit Budget k
+ * steigt nur in Kinder ab, deren Kantenlänge höchstens k von der Distanz zum Knoten abweicht; die Distanz selbst wird
+ * nur so weit ausgerechnet, wie es für diese Auswahl nötig ist. Das Budget wächst mit der Länge der Eingabe, kurze
+ * Namen ("iran", "oman") müssen exakt stimmen.
+ */
+final class AnswerIndex {
+    private final Map<String, String> codeByName;
+    private final Map<String, Set<String>> namesByCode;
+    private final Set<String> codes;
+    private final Node root;
+    private final int maxTypos;
+
+    private static final class Node {
+        final String name;
+        final String code;
+        Node[] children = new Node[0]; // Index = Distanz zum Elternknoten
+
+        Node(String name, String code) {
+            this.name = name;
+            this.code = code;
+        }
+    }
+
+    private AnswerIndex(Map<String, String> codeByName, Map<String, Set<String>> namesByCode, Set<String> codes, int maxTypos) {
+        this.codeByName = Map.copyOf(codeByName);
+        this.namesByCode = Map.copyOf(namesByCode);
+        this.codes = Set.copyOf(codes);
+        this.maxTypos = maxTypos;
+        Node tree = null;
+        for (Map.Entry<String, String> e : this.codeByName.entrySet()) {
+            Node node = new Node(e.getKey(), e.getValue());
+            if (tree == null) tree = node;
+            else insert(tree, node);
+        }
+        this.root = tree;
+    }
+
+    /**
+     * Namen aller ISO-Länder in den angegebenen Sprachen; bei gleichen Namen gewinnt die frühere Sprache, Aliase
+     * gehen immer vor.
+     */
+    static AnswerIndex build(List<String> isoCodes, List<Locale> locales, Map<String, String> aliases, int maxTypos) {
+        Map<String, String> codeByName = new HashMap<>();
+        Map<String, Set<String>> namesByCode = new HashMap<>();
+        for (String code : isoCodes) {
+            Locale country = new Locale("", code);
+            Set<String> names = new LinkedHashSet<>();
+            for (Locale locale : locales) {
+                String display = country.getDisplayCountry(locale);
+                if (display.isEmpty() || display.equalsIgnoreCase(code)) continue;
+                String name = TextNormalizer.fold(display);
+                if (name.isEmpty()) continue;
+                names.add(name);
+                codeByName.putIfAbsent(name, code);
+            }
+            namesByCode.put(code, names);
+        }
+        for (Map.Entry<String, String> e : aliases.entrySet()) {
+            String name = TextNormalizer.fold(e.getKey());
+            codeByName.put(name, e.getValue());
+            namesByCode.computeIfAbsent(e.getValue(), c -> new LinkedHashSet<>()).add(name);
+        }
+        Map<String, Set<String>> frozen = new HashMap<>();
+        namesByCode.forEach((code, names) -> frozen.put(code, Set.copyOf(names)));
+        return new AnswerIndex(codeByName, frozen, new HashSet<>(isoCodes), maxTypos);
+    }
+
+    boolean isCode(String upperIso2) {
+        return codes.contains(upperIso2);
+    }
+
+    /** Alle normalisierten Namen und Aliase, die für diesen Code zählen. */
+    Set<String> accepted(String code) {
+        return namesByCode.getOrDefault(code, Set.of());
+    }
+
+    String exact(String normalized) {
+        return codeByName.get(normalized);
+    }
+
+    /** Exakter Treffer, sonst ein eindeutiger Treffer innerhalb des Tippfehler-Budgets. */
+    String resolve(String normalized) {
+        String code = codeByName.get(normalized);
+        if (code != null) return code;
+        Set<String> near = fuzzy(normalized);
+        return near.size() == 1 ? near.iterator().next() : null;
+    }
+
+    /** Codes aller Namen mit der kleinsten Distanz innerhalb des Budgets; leer, wenn keiner nah genug ist. */
+    Set<String> fuzzy(String normalized) {
+        int budget = budget(normalized.length());
+        if (budget == 0 || root == null) return Set.of();
+        Search search = new Search(normalized, budget);
+        search.visit(root);
+        return search.codes;
+    }
+
+    private int budget(int length) {
+        int byLength = length <= 4 ? 0 : length <= 8 ? 1 : 2;
+        return Math.min(byLength, maxTypos);
+    }
+
+    private static void insert(Node tree, Node node) {
+        Node current = tree;
+        while (true) {
+            int d = distance(node.name, current.name, Integer.MAX_VALUE - 1);
+            if (d == 0) return;
+            if (d >= current.children.length) current.children = Arrays.copyOf(current.children, d + 1);
+            Node child = current.children[d];
+            if (child == null) {
+                current.children[d] = node;
+                return;
+            }
+            current = child;
+        }
+    }
+
+    private static final class Search {
+        final String query;
+        int best;
+        Set<String> codes = new HashSet<>();
+
+        Search(String query, int budget) {
+            this.query = query;
+            this.best = budget;
+        }
+
+        void visit(Node node) {
+            // weiter als children.length - 1 + best muss nicht gerechnet werden, dann passt kein Kind mehr
+            int cap = node.children.length - 1 + best;
+            int d = distance(query, node.name, Math.max(cap, best));
+            if (d < best) {
+                best = d;
+                codes = new HashSet<>();
+            }
+            if (d == best) codes.add(node.code);
+            int from = Math.max(1, d - best);
+            int to = Math.min(node.children.length - 1, d + best);
+            for (int i = from; i <= to; i++) {
+                Node child = node.children[i];
+                if (child != null) visit(child);
+            }
+        }
+    }
+
+    /** Levenshtein-Distanz, abgebrochen sobald sie sicher größer als {@code cap} ist (dann {@code cap + 1}). */
+    static int distance(String a, String b, int cap) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > cap) return cap + 1;
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                cur[j] = v;
+                if (v < rowMin) rowMin = v;
+            }
+            if (rowMin > cap) return cap + 1;
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return Math.min(prev[m], cap + 1);
+    }
+
+    int size() {
+        return codeByName.size();
+    }
+}
@@ -2,12 +2,14 @@ package dev.eministar.modules.flags;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import dev.eministar.util.EmojiUtil;
 
+@BotModule(value = "flagquiz/daily", dependsOn = "flagquiz")
 public class DailyFlagCommand implements Command {
     @Override
     public String name() { return "dailyflag"; }
@@ -2,6 +2,7 @@ package dev.eministar.modules.flags;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -14,6 +15,7 @@ import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import java.awt.*;
 import java.util.Locale;
 
+@BotModule("flagquiz/info")
 public class FlagInfoCommand implements Command {
     @Override
     public String name() { return "flaginfo"; }
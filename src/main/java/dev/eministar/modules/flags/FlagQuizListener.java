@@ -1,24 +1,48 @@
 package dev.eministar.modules.flags;
 
 import dev.eministar.config.Config;
+import dev.eministar.event.EventRouter;
+import dev.eministar.event.RoutedListener;
+import dev.eministar.modules.BotModule;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
-public class FlagQuizListener extends ListenerAdapter {
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bekommt vom {@link EventRouter} nur Events aus den Quiz-Channels (siehe {@link #bind(EventRouter)}),
+ * Feature-Flag und Channel müssen hier daher nicht mehr geprüft werden.
+ */
+@BotModule(value = "flagquiz", enabledKey = "flagQuiz.enabled", enabledByDefault = true)
+public class FlagQuizListener extends ListenerAdapter implements RoutedListener {
+
+    private final Map<String, List<EventRouter.Handler>> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * Hängt den Listener an alle konfigurierten Quiz-Channels und folgt späteren Änderungen über /flagsetup.
+     */
+    @Override
+    public void bind(EventRouter router) {
+        FlagQuizService.getQuizChannelIds().forEach((guildId, channelId) -> rebind(router, guildId, channelId));
+        FlagQuizService.onQuizChannelChange((guildId, channelId) -> rebind(router, guildId, channelId));
+    }
+
+    private synchronized void rebind(EventRouter router, String guildId, String channelId) {
+        List<EventRouter.Handler> old = bindings.remove(guildId);
+        if (old != null) old.forEach(router::unregister);
+        if (channelId == null || channelId.isEmpty()) return;
+        bindings.put(guildId, router.registerChannel("flagquiz", Long.parseLong(channelId), this));
+    }
 
     @Override
     public void onMessageReceived(@NotNull MessageReceivedEvent event) {
-        if (!Config.getFlagQuizEnabled()) return; // Feature-Flag
         if (event.getAuthor().isBot()) return;
         var channel = event.getChannel();
         var guild = event.getGuild();
-        if (guild == null) return;
-
-        // Nur im konfigurierten Kanal
-        String quizChannelId = FlagQuizService.getQuizChannelId(guild.getId());
-        if (quizChannelId == null || !quizChannelId.equals(channel.getId())) return;
 
         String content = event.getMessage().getContentRaw();
         String prefix = Config.getPrefix();
@@ -38,13 +62,9 @@ public class FlagQuizListener extends ListenerAdapter {
 
     @Override
     public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
-        if (!Config.getFlagQuizEnabled()) return;
         var guild = event.getGuild();
         if (guild == null) return;
-        var chUnion = event.getChannel();
-        String channelId = chUnion.getId();
-        String quizChannelId = FlagQuizService.getQuizChannelId(guild.getId());
-        if (quizChannelId == null || !quizChannelId.equals(channelId)) return;
+        String channelId = event.getChannel().getId();
 
         var msgChannel = event.getMessageChannel(); // zuverlässiger MessageChannel
         FlagQuizService.handleButton(guild.getId(), channelId, msgChannel, event.getMember(), event.getComponentId());
@@ -1,8 +1,5 @@
 package dev.eministar.modules.flags;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Member;
@@ -15,20 +12,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.*;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.lang.reflect.Type;
-import java.text.Normalizer;
 import java.time.*;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import dev.eministar.metrics.Histogram;
+import dev.eministar.metrics.Metrics;
+import dev.eministar.scheduler.ScheduledTask;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
 import dev.eministar.util.EmojiUtil;
+import dev.eministar.util.TextNormalizer;
 
 /**
  * Zentrale Logik für das Flaggenquiz: Rundenzustand, Punkte, Streaks, Leaderboard, Channel-Bindung und Persistenz.
@@ -42,14 +41,29 @@ public class FlagQuizService {
     public static final int POINTS_EASY = 8; // etwas weniger wegen Multiple-Choice
     public static final int POINTS_DAILY_BONUS = 15; // zusätzlich zu NORMAL
 
-    private static final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+    private static final TaskGroup timers = Scheduler.group("flagquiz");
 
     // Datenhaltung pro Guild
     private static final Map<String, GuildData> guilds = new ConcurrentHashMap<>();
-
-    // Persistenz
-    private static final File DATA_FILE = new File("flagquiz-stats.json");
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    // laufende Runden, nur Laufzeit: pro Channel je Ziel-User eine Runde, nach Channel auf Shards verteilt
+    private static final RoundTable rounds = new RoundTable();
+    private static final Histogram saveDuration = Metrics.histogram(Metrics.PREFIX + "store_save_seconds",
+            "Dauer eines vollständigen Speichervorgangs pro Dienst", "store", "flagquiz");
+
+    static {
+        Metrics.gauge(Metrics.PREFIX + "cache_entries", "Einträge in den In-Memory-Caches der Module",
+                guilds::size, "cache", "flagquiz_guilds");
+        Metrics.gauge(Metrics.PREFIX + "cache_entries", "Einträge in den In-Memory-Caches der Module",
+                rounds::size, "cache", "flagquiz_rounds");
+    }
+
+    // Persistenz: geänderte Guilds werden markiert und gesammelt geschrieben, höchstens ein Flush steht aus
+    private static final FlagStatsRepository repository = FlagStatsRepository.create();
+    private static final long FLUSH_DELAY_MS = 500;
+    private static final long FLUSH_RETRY_MAX_MS = 60_000;
+    private static final Set<String> dirtyGuilds = ConcurrentHashMap.newKeySet();
+    private static final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private static int failedFlushes; // aufeinanderfolgende Fehlschläge, nur unter dem Lock von flush()
 
     // Alias für häufige Sonderfälle
     private static final Map<String, String> ALIAS_TO_CODE = buildAliasMap();
@@ -57,8 +71,18 @@ public class FlagQuizService {
     // ISO-Länderliste (alpha-2)
     private static final List<String> ISO_CODES = List.of(Locale.getISOCountries());
 
+    // Alle gültigen Antworten; Standard Deutsch/Englisch, mit load() aus der Config (flagQuiz.locales/maxTypos)
+    private static volatile AnswerIndex answers =
+            AnswerIndex.build(ISO_CODES, List.of(Locale.GERMAN, Locale.ENGLISH), ALIAS_TO_CODE, 2);
+
     private static final Map<String, Long> lastDashboardUpdate = new ConcurrentHashMap<>();
 
+    // Ranglisten und Dashboard-Zähler pro Guild, beim ersten Zugriff aus den Stats aufgebaut und danach mitgeführt
+    private static final Map<String, Boards> boards = new ConcurrentHashMap<>();
+
+    // Wird bei Änderung des Quiz-Channels aufgerufen (guildId, channelId), z.B. zum Umhängen im EventRouter
+    private static volatile java.util.function.BiConsumer<String, String> quizChannelListener = (g, c) -> {};
+
     public enum Mode { NORMAL, EASY, DAILY }
 
     public record ActiveRound(String guildId,
@@ -69,7 +93,7 @@ public class FlagQuizService {
                               Map<String, String> buttonIdToCode,
                               long messageId,
                               long startEpochMillis,
-                              ScheduledFuture<?> timeoutTask,
+                              ScheduledTask timeoutTask,
                               Set<String> answeredUsers,
                               String targetUserId) {
     }
@@ -90,9 +114,33 @@ public class FlagQuizService {
         public int wrong;
     }
 
+    private static final class Boards {
+        final Leaderboard points = new Leaderboard();
+        final Leaderboard streaks = new Leaderboard();
+        int totalAsked;
+        int bestStreak;
+
+        static Boards build(GuildData g) {
+            Boards b = new Boards();
+            g.statsByUser.forEach(b::track);
+            for (FlagStats fs : g.flagStats.values()) b.totalAsked += fs.asked;
+            return b;
+        }
+
+        void track(String userId, PlayerStats ps) {
+            points.update(userId, ps.totalPoints);
+            streaks.update(userId, ps.currentStreak);
+            synchronized (this) {
+                bestStreak = Math.max(bestStreak, ps.bestStreak);
+            }
+        }
+
+        synchronized void asked() {
+            totalAsked++;
+        }
+    }
+
     public static class GuildData {
-        // pro Channel mehrere Runden: je Ziel-User eine Runde
-        public Map<String, Map<String, ActiveRound>> roundsByChannel = new ConcurrentHashMap<>();
         public Map<String, PlayerStats> statsByUser = new ConcurrentHashMap<>();
         public String quizChannelId = null; // in welchem Kanal gespielt wird
         public Long dashboardMessageId = null; // persistente Dashboard-Nachricht
@@ -102,29 +150,74 @@ public class FlagQuizService {
     // ---- Initialisierung / Persistenz ----
 
     public static void load() {
-        if (!DATA_FILE.exists()) return;
-        try (FileReader fr = new FileReader(DATA_FILE)) {
-            Type type = new TypeToken<Map<String, GuildData>>() {}.getType();
-            Map<String, GuildData> loaded = GSON.fromJson(fr, type);
-            if (loaded != null) {
-                guilds.clear();
-                guilds.putAll(loaded);
-            }
+        try {
+            Map<String, GuildData> loaded = repository.loadAll();
+            guilds.clear();
+            guilds.putAll(loaded);
+            boards.clear();
             logger.info("FlagQuiz: Stats geladen ({} Guilds)", guilds.size());
         } catch (Exception e) {
             logger.error("FlagQuiz: Konnte Stats nicht laden", e);
         }
+        configureAnswers(dev.eministar.config.Config.get().flagQuiz());
+        dev.eministar.config.Config.onChange((old, now) -> {
+            if (!old.flagQuiz().equals(now.flagQuiz())) configureAnswers(now.flagQuiz());
+        });
     }
 
-    public static void saveAsync() {
-        scheduler.schedule(FlagQuizService::saveNow, 500, TimeUnit.MILLISECONDS);
+    private static void configureAnswers(dev.eministar.config.ConfigSnapshot.FlagQuiz config) {
+        List<Locale> locales = config.locales().stream().map(Locale::forLanguageTag).toList();
+        answers = AnswerIndex.build(ISO_CODES, locales, ALIAS_TO_CODE, config.maxTypos());
+        logger.info("FlagQuiz: {} Antworten indiziert (Sprachen {}, max. {} Tippfehler)",
+                answers.size(), config.locales(), config.maxTypos());
     }
 
-    private static synchronized void saveNow() {
-        try (FileWriter fw = new FileWriter(DATA_FILE)) {
-            GSON.toJson(guilds, fw);
+    /** Markiert die Guild als geändert; geschrieben wird gesammelt mit dem nächsten {@link #flush()}. */
+    public static void saveAsync(String guildId) {
+        dirtyGuilds.add(guildId);
+        if (flushScheduled.compareAndSet(false, true)) {
+            timers.schedule(FlagQuizService::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Schreibt alle seit dem letzten Flush geänderten Guilds. Was während des Schreibens wieder geändert wird, ist
+     * danach erneut markiert; schlägt das Speichern fehl, bleiben die Guilds markiert und der nächste Versuch wird
+     * mit wachsendem Abstand (bis {@value #FLUSH_RETRY_MAX_MS} ms) eingeplant.
+     */
+    public static synchronized void flush() {
+        flushScheduled.set(false);
+        if (dirtyGuilds.isEmpty()) return;
+        Map<String, GuildData> changed = new HashMap<>();
+        for (Iterator<String> it = dirtyGuilds.iterator(); it.hasNext(); ) {
+            String guildId = it.next();
+            it.remove();
+            GuildData data = guilds.get(guildId);
+            if (data != null) changed.put(guildId, data);
+        }
+        long begin = System.nanoTime();
+        try {
+            repository.save(changed);
+            failedFlushes = 0;
         } catch (Exception e) {
-            logger.error("FlagQuiz: Speichern fehlgeschlagen", e);
+            dirtyGuilds.addAll(changed.keySet());
+            long retryMs = Math.min(FLUSH_DELAY_MS << Math.min(failedFlushes++, 7), FLUSH_RETRY_MAX_MS);
+            logger.error("FlagQuiz: Speichern fehlgeschlagen ({} Guilds bleiben markiert, neuer Versuch in {} ms)",
+                    changed.size(), retryMs, e);
+            scheduleRetry(retryMs);
+        } finally {
+            saveDuration.record(System.nanoTime() - begin);
+        }
+    }
+
+    private static void scheduleRetry(long delayMs) {
+        // steht schon ein Flush aus, übernimmt der den neuen Versuch
+        if (!flushScheduled.compareAndSet(false, true)) return;
+        try {
+            timers.schedule(FlagQuizService::flush, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Scheduler ist beim Herunterfahren schon beendet, der abschließende flush() bleibt der letzte Versuch
+            flushScheduled.set(false);
         }
     }
 
@@ -133,19 +226,52 @@ public class FlagQuizService {
     }
 
     public static PlayerStats stats(String guildId, String userId) {
-        return gd(guildId).statsByUser.computeIfAbsent(userId, k -> new PlayerStats());
+        Map<String, PlayerStats> byUser = gd(guildId).statsByUser;
+        PlayerStats ps = byUser.get(userId);
+        if (ps != null) return ps;
+        ps = byUser.computeIfAbsent(userId, k -> new PlayerStats());
+        boards(guildId).track(userId, ps);
+        return ps;
+    }
+
+    private static Boards boards(String guildId) {
+        return boards.computeIfAbsent(guildId, id -> Boards.build(gd(id)));
     }
 
     private static FlagStats flagStats(String guildId, String code) {
         return gd(guildId).flagStats.computeIfAbsent(code, k -> new FlagStats());
     }
 
+    // Zählt und liest den "Bisher"-Text in einem Schritt; Runden aus mehreren Channels teilen sich die FlagStats
+    private static String countFlag(String guildId, String code, int asked, int correct, int wrong) {
+        FlagStats fs = flagStats(guildId, code);
+        synchronized (fs) {
+            fs.asked += asked;
+            fs.correct += correct;
+            fs.wrong += wrong;
+            return "Gestellt: **" + fs.asked + "** • Richtig: **" + fs.correct + "** • Falsch: **" + fs.wrong + "**";
+        }
+    }
+
     // ---- Channel-Bindung / Dashboard ----
 
     public static void setQuizChannel(String guildId, String channelId) {
         GuildData g = gd(guildId);
         g.quizChannelId = channelId;
-        saveAsync();
+        saveAsync(guildId);
+        quizChannelListener.accept(guildId, channelId);
+    }
+
+    public static void onQuizChannelChange(java.util.function.BiConsumer<String, String> listener) {
+        quizChannelListener = listener;
+    }
+
+    public static Map<String, String> getQuizChannelIds() {
+        Map<String, String> result = new HashMap<>();
+        guilds.forEach((guildId, g) -> {
+            if (g.quizChannelId != null) result.put(guildId, g.quizChannelId);
+        });
+        return result;
     }
 
     public static String getQuizChannelId(String guildId) {
@@ -156,7 +282,7 @@ public class FlagQuizService {
     public static void setDashboardMessageId(String guildId, Long messageId) {
         GuildData g = gd(guildId);
         g.dashboardMessageId = messageId;
-        saveAsync();
+        saveAsync(guildId);
     }
 
     public static Long getDashboardMessageId(String guildId) {
@@ -218,17 +344,23 @@ public class FlagQuizService {
         SelfUser self = jda.getSelfUser();
         String avatar = self.getEffectiveAvatarUrl();
         GuildData g = gd(guildId);
+        Boards b = boards(guildId);
 
         // Live-Stats
         int uniquePlayers = g.statsByUser.size();
-        int totalAsked = g.flagStats.values().stream().mapToInt(fs -> fs.asked).sum();
-        int bestStreak = g.statsByUser.values().stream().mapToInt(ps -> ps.bestStreak).max().orElse(0);
-        var topEntry = g.statsByUser.entrySet().stream().max(Comparator.comparingInt(e -> e.getValue().totalPoints)).orElse(null);
+        int totalAsked;
+        int bestStreak;
+        synchronized (b) {
+            totalAsked = b.totalAsked;
+            bestStreak = b.bestStreak;
+        }
+        List<Leaderboard.Entry> top = b.points.top(1);
         String topLine;
-        if (topEntry != null) {
-            var topUser = jda.getUserById(topEntry.getKey());
-            String topName = topUser != null ? topUser.getName() : ("<" + topEntry.getKey() + ">");
-            topLine = "#1 " + topName + " — " + topEntry.getValue().totalPoints + " Punkte";
+        if (!top.isEmpty()) {
+            Leaderboard.Entry topEntry = top.get(0);
+            var topUser = jda.getUserById(topEntry.userId());
+            String topName = topUser != null ? topUser.getName() : ("<" + topEntry.userId() + ">");
+            topLine = "#1 " + topName + " — " + topEntry.score() + " Punkte";
         } else {
             topLine = "Noch kein Leader";
         }
@@ -275,25 +407,13 @@ public class FlagQuizService {
 
     // ---- Rundensteuerung ----
 
-    // Helpers für Rundenzugriff
-    private static Map<String, ActiveRound> channelRounds(GuildData data, String channelId) {
-        return data.roundsByChannel.computeIfAbsent(channelId, k -> new ConcurrentHashMap<>());
-    }
-
-    private static ActiveRound getRound(GuildData data, String channelId, String userId) {
-        return channelRounds(data, channelId).get(userId);
-    }
-
-    private static void putRound(GuildData data, ActiveRound round) {
-        channelRounds(data, round.channelId).put(round.targetUserId, round);
-    }
+    /*
+     * Start und Ende einer Runde sperren nur den Shard ihres Channels in der RoundTable und kurz die betroffenen
+     * Stats-Objekte; Embeds bauen und Nachrichten senden passiert danach ohne Sperre. Das Timeout ist ein Eintrag im
+     * Timer-Rad des Schedulers, Abbrechen kostet O(1).
+     */
 
-    private static void removeRound(GuildData data, String channelId, String userId) {
-        Map<String, ActiveRound> map = data.roundsByChannel.get(channelId);
-        if (map != null) map.remove(userId);
-    }
-
-    public static synchronized boolean startRound(String guildId, String channelId, MessageChannel channel, Mode mode, String targetUserId) {
+    public static boolean startRound(String guildId, String channelId, MessageChannel channel, Mode mode, String targetUserId) {
         GuildData data = gd(guildId);
         // Channel-Check
         if (data.quizChannelId != null && !Objects.equals(data.quizChannelId, channelId)) {
@@ -302,20 +422,14 @@ public class FlagQuizService {
             return false;
         }
 
-        // Prüfe nur pro Zielspieler in diesem Channel
-        if (getRound(data, channelId, targetUserId) != null) {
-            channel.sendMessage(EmojiUtil.wrap("ℹ️") + "Für dich läuft in diesem Kanal bereits eine Runde.")
-                    .queue(m -> m.delete().queueAfter(10, TimeUnit.SECONDS, s -> {}, f -> {}));
+        // Prüfe nur pro Zielspieler in diesem Channel; verbindlich ist erst claim() weiter unten
+        if (rounds.contains(channelId, targetUserId)) {
+            sendRoundRunning(channel);
             return false;
         }
         String code = (mode == Mode.DAILY) ? dailyCodeForGuild(guildId, LocalDate.now(ZoneOffset.UTC)) : randomCode();
         Set<String> accepted = buildAcceptedAnswers(code);
 
-        // Flaggen-Stat updaten (gestellt)
-        FlagStats fs = flagStats(guildId, code);
-        fs.asked++;
-        saveAsync();
-
         Map<String, String> buttons = null;
         if (mode == Mode.EASY) {
             // 3 Distraktoren + richtige Antwort
@@ -333,6 +447,35 @@ public class FlagQuizService {
             }
         }
 
+        // Timeout -> schließt gezielt diese Runde; läuft sie nicht mehr, ist remove() im Timeout ein No-op
+        long start = System.currentTimeMillis();
+        AtomicReference<ActiveRound> self = new AtomicReference<>();
+        ScheduledTask timeout = timers.schedule(() -> endRoundTimeout(self.get(), channel), TIME_LIMIT_SECONDS, TimeUnit.SECONDS);
+        ActiveRound round = new ActiveRound(
+                guildId,
+                channelId,
+                mode,
+                code,
+                accepted,
+                buttons,
+                0L,
+                start,
+                timeout,
+                ConcurrentHashMap.newKeySet(),
+                targetUserId
+        );
+        self.set(round);
+        if (!rounds.claim(round)) {
+            timeout.cancel();
+            sendRoundRunning(channel);
+            return false;
+        }
+
+        // Flaggen-Stat updaten (gestellt)
+        String hist = countFlag(guildId, code, 1, 0, 0);
+        boards(guildId).asked();
+        saveAsync(guildId);
+
         // Nachricht absenden
         String flag = flagEmojiFor(code);
         EmbedBuilder eb = new EmbedBuilder();
@@ -343,7 +486,6 @@ public class FlagQuizService {
         eb.setImage(flagImageUrl(code));
         eb.addField("Für", "<@" + targetUserId + ">", true);
         eb.addField("Flagge", flag, true);
-        String hist = "Gestellt: **" + fs.asked + "** • Richtig: **" + fs.correct + "** • Falsch: **" + fs.wrong + "**";
         eb.addField("Bisher", hist, false);
         eb.setFooter("Nur die Antworten von <@" + targetUserId + "> zählen • Nachricht wird gelöscht", null);
         eb.setTimestamp(java.time.Instant.now());
@@ -357,73 +499,50 @@ public class FlagQuizService {
             }
             action = action.setActionRow(btns);
         }
-
-        long start = System.currentTimeMillis();
         action.queue(msg -> msg.delete().queueAfter(TIME_LIMIT_SECONDS, TimeUnit.SECONDS, s -> {}, f -> {}));
-
-        // Timeout task -> muss gezielt die Runde dieses Users schließen
-        ScheduledFuture<?> future = scheduler.schedule(() -> endRoundTimeout(guildId, channelId, targetUserId, channel, code), TIME_LIMIT_SECONDS, TimeUnit.SECONDS);
-
-        // Runde registrieren, ohne blockierend zu warten
-        ActiveRound round = new ActiveRound(
-                guildId,
-                channelId,
-                mode,
-                code,
-                accepted,
-                buttons,
-                0L,
-                start,
-                future,
-                ConcurrentHashMap.newKeySet(),
-                targetUserId
-        );
-        putRound(data, round);
         return true;
     }
 
-    private static void endRoundTimeout(String guildId, String channelId, String targetUserId, MessageChannel channel, String code) {
-        GuildData data = gd(guildId);
-        ActiveRound round = getRound(data, channelId, targetUserId);
-        if (round == null) return;
-        removeRound(data, channelId, targetUserId);
+    private static void sendRoundRunning(MessageChannel channel) {
+        channel.sendMessage(EmojiUtil.wrap("ℹ️") + "Für dich läuft in diesem Kanal bereits eine Runde.")
+                .queue(m -> m.delete().queueAfter(10, TimeUnit.SECONDS, s -> {}, f -> {}));
+    }
+
+    private static void endRoundTimeout(ActiveRound round, MessageChannel channel) {
+        if (!rounds.remove(round)) return;
         // Flaggenstats: falsch erhöhen (Timeout)
-        FlagStats fs = flagStats(guildId, code);
-        fs.wrong++;
-        saveAsync();
-        String answer = countryName(code, Locale.GERMAN) + " / " + countryName(code, Locale.ENGLISH);
+        String hist = countFlag(round.guildId, round.code, 0, 0, 1);
+        saveAsync(round.guildId);
+        String answer = countryName(round.code, Locale.GERMAN) + " / " + countryName(round.code, Locale.ENGLISH);
         EmbedBuilder eb = new EmbedBuilder();
         eb.setColor(new Color(0xED4245));
         eb.setAuthor("Flaggenquiz", null, channel.getJDA().getSelfUser().getEffectiveAvatarUrl());
         eb.setTitle(EmojiUtil.wrap("⏱️") + "Zeit abgelaufen!");
         eb.setDescription("Richtige Antwort: **" + answer + "**");
-        eb.setImage(flagImageUrl(code));
-        String hist = "Gestellt: **" + fs.asked + "** • Richtig: **" + fs.correct + "** • Falsch: **" + fs.wrong + "**";
+        eb.setImage(flagImageUrl(round.code));
         eb.addField("Bisher", hist, false);
         eb.setTimestamp(java.time.Instant.now());
         channel.sendMessageEmbeds(eb.build())
                 .queue(m -> m.delete().queueAfter(30, java.util.concurrent.TimeUnit.SECONDS, s -> {}, f -> {}));
-        if (channel instanceof TextChannel tc) tryEnsureDashboardMessage(guildId, tc);
+        if (channel instanceof TextChannel tc) tryEnsureDashboardMessage(round.guildId, tc);
     }
 
     public static void handleMessageAnswer(String guildId, String channelId, MessageChannel channel, Member member, String contentRaw) {
-        GuildData data = gd(guildId);
         if (member == null || member.getUser().isBot()) return;
-        ActiveRound round = getRound(data, channelId, member.getId());
+        ActiveRound round = rounds.get(channelId, member.getId());
         if (round == null) return; // nur Zielspieler
 
         String normalized = normalize(contentRaw);
         if (matches(round, normalized)) {
             if (!round.answeredUsers.add(member.getId())) { return; }
-            finishRoundWin(data, round, channel, member.getUser());
+            finishRoundWin(round, channel, member.getUser());
         } else {
             if (!round.answeredUsers.add(member.getId())) { return; }
-            finishRoundLose(data, round, channel, member.getUser());
+            finishRoundLose(round, channel, member.getUser());
         }
     }
 
     public static void handleButton(String guildId, String channelId, MessageChannel channel, Member member, String buttonId) {
-        GuildData data = gd(guildId);
         if (buttonId.startsWith("flag-act-")) {
             if (member == null || member.getUser().isBot()) return;
             switch (buttonId) {
@@ -457,7 +576,7 @@ public class FlagQuizService {
 
         // Easy-Buttons: nur Zielspieler, und nur seine Runde im Channel
         if (member == null || member.getUser().isBot()) return;
-        ActiveRound round = getRound(data, channelId, member.getId());
+        ActiveRound round = rounds.get(channelId, member.getId());
         if (round == null) return;
         if (round.buttonIdToCode == null) return;
         String chosen = round.buttonIdToCode.get(buttonId);
@@ -465,21 +584,23 @@ public class FlagQuizService {
 
         if (!round.answeredUsers.add(member.getId())) { return; }
         if (round.code.equalsIgnoreCase(chosen)) {
-            finishRoundWin(data, round, channel, member.getUser());
+            finishRoundWin(round, channel, member.getUser());
         } else {
-            finishRoundLose(data, round, channel, member.getUser());
+            finishRoundLose(round, channel, member.getUser());
         }
     }
 
-    private static void finishRoundLose(GuildData data, ActiveRound round, MessageChannel channel, User offender) {
-        if (round.timeoutTask != null) round.timeoutTask.cancel(false);
-        removeRound(data, round.channelId, round.targetUserId);
+    private static void finishRoundLose(ActiveRound round, MessageChannel channel, User offender) {
+        if (!rounds.remove(round)) return; // Timeout war schneller
+        if (round.timeoutTask != null) round.timeoutTask.cancel();
         PlayerStats ps = stats(round.guildId, offender.getId());
-        ps.currentStreak = 0;
-        ps.wrong++;
-        FlagStats fs = flagStats(round.guildId, round.code);
-        fs.wrong++;
-        saveAsync();
+        synchronized (ps) {
+            ps.currentStreak = 0;
+            ps.wrong++;
+            boards(round.guildId).track(offender.getId(), ps);
+        }
+        String hist = countFlag(round.guildId, round.code, 0, 0, 1);
+        saveAsync(round.guildId);
 
         String answer = countryName(round.code, Locale.GERMAN) + " / " + countryName(round.code, Locale.ENGLISH);
         EmbedBuilder eb = new EmbedBuilder();
@@ -488,16 +609,15 @@ public class FlagQuizService {
         eb.setTitle(EmojiUtil.wrap("❌") + "Falsche Antwort – Runde beendet");
         eb.setDescription(offender.getAsMention() + " lag daneben.\nRichtige Antwort: **" + answer + "**");
         eb.setImage(flagImageUrl(round.code));
-        String hist = "Gestellt: **" + fs.asked + "** • Richtig: **" + fs.correct + "** • Falsch: **" + fs.wrong + "**";
         eb.addField("Bisher", hist, false);
         eb.setTimestamp(java.time.Instant.now());
         channel.sendMessageEmbeds(eb.build()).queue(m -> m.delete().queueAfter(30, java.util.concurrent.TimeUnit.SECONDS, s -> {}, f -> {}));
         if (channel instanceof TextChannel tc) tryEnsureDashboardMessage(round.guildId, tc);
     }
 
-    private static void finishRoundWin(GuildData data, ActiveRound round, MessageChannel channel, User winner) {
-        if (round.timeoutTask != null) round.timeoutTask.cancel(false);
-        removeRound(data, round.channelId, round.targetUserId);
+    private static void finishRoundWin(ActiveRound round, MessageChannel channel, User winner) {
+        if (!rounds.remove(round)) return; // Timeout war schneller
+        if (round.timeoutTask != null) round.timeoutTask.cancel();
 
         PlayerStats ps = stats(round.guildId, winner.getId());
         int gained = switch (round.mode) {
@@ -505,17 +625,23 @@ public class FlagQuizService {
             case DAILY -> POINTS_NORMAL + POINTS_DAILY_BONUS;
             default -> POINTS_NORMAL;
         };
-        if (round.mode == Mode.DAILY) {
-            ps.lastDaily = LocalDate.now(ZoneOffset.UTC).toString();
+        int streak;
+        List<Integer> unlocked;
+        synchronized (ps) {
+            if (round.mode == Mode.DAILY) {
+                ps.lastDaily = LocalDate.now(ZoneOffset.UTC).toString();
+            }
+            ps.totalPoints += gained;
+            ps.correct++;
+            ps.currentStreak++;
+            ps.bestStreak = Math.max(ps.bestStreak, ps.currentStreak);
+            streak = ps.currentStreak;
+            boards(round.guildId).track(winner.getId(), ps);
+            unlocked = unlockAchievements(ps);
         }
-        ps.totalPoints += gained;
-        ps.correct++;
-        ps.currentStreak++;
-        ps.bestStreak = Math.max(ps.bestStreak, ps.currentStreak);
-        FlagStats fs = flagStats(round.guildId, round.code);
-        fs.correct++;
-        checkAchievements(ps, channel, winner);
-        saveAsync();
+        String hist = countFlag(round.guildId, round.code, 0, 1, 0);
+        saveAsync(round.guildId);
+        announceAchievements(unlocked, channel, winner);
 
         String answer = countryName(round.code, Locale.GERMAN) + " / " + countryName(round.code, Locale.ENGLISH);
         EmbedBuilder eb = new EmbedBuilder();
@@ -524,9 +650,8 @@ public class FlagQuizService {
         eb.setTitle(EmojiUtil.wrap("✅") + "Richtig!");
         eb.setDescription(winner.getAsMention() + " hat korrekt geantwortet.\n" +
                 "Lösung: **" + answer + "**\n" +
-                "Punkte: +" + gained + " (Streak: " + ps.currentStreak + ")");
+                "Punkte: +" + gained + " (Streak: " + streak + ")");
         eb.setImage(flagImageUrl(round.code));
-        String hist = "Gestellt: **" + fs.asked + "** • Richtig: **" + fs.correct + "** • Falsch: **" + fs.wrong + "**";
         eb.addField("Bisher", hist, false);
         eb.setTimestamp(java.time.Instant.now());
         channel.sendMessageEmbeds(eb.build()).queue(m -> m.delete().queueAfter(30, java.util.concurrent.TimeUnit.SECONDS, s -> {}, f -> {}));
@@ -539,22 +664,14 @@ public class FlagQuizService {
         if (round == null) return false;
         if (round.acceptedAnswers.contains(normalizedUser)) return true;
         // auch ISO Code direkt erlauben (z.B. DE, US)
-        return normalizedUser.equalsIgnoreCase(round.code);
-    }
-
-    private static Set<String> buildAcceptedAnswers(String code) {
-        Set<String> set = new HashSet<>();
-        String de = countryName(code, Locale.GERMAN);
-        String en = countryName(code, Locale.ENGLISH);
-        set.add(normalize(de));
-        set.add(normalize(en));
-        // häufige Aliase für diesen Code
-        for (Map.Entry<String, String> e : ALIAS_TO_CODE.entrySet()) {
-            if (e.getValue().equalsIgnoreCase(code)) {
-                set.add(normalize(e.getKey()));
-            }
-        }
-        return set;
+        if (normalizedUser.equalsIgnoreCase(round.code)) return true;
+        // exakt ein anderes Land ist falsch; sonst zählt, wenn die Lösung unter den nächsten Namen ist
+        AnswerIndex index = answers;
+        return index.exact(normalizedUser) == null && index.fuzzy(normalizedUser).contains(round.code);
+    }
+
+    static Set<String> buildAcceptedAnswers(String code) {
+        return answers.accepted(code);
     }
 
     public static String countryName(String iso2, Locale locale) {
@@ -566,11 +683,7 @@ public class FlagQuizService {
     }
 
     public static String normalize(String s) {
-        String x = s.trim().toLowerCase(Locale.ROOT);
-        x = Normalizer.normalize(x, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
-        x = x.replaceAll("[^a-z0-9 ]", " ");
-        x = x.replaceAll("\\s+", " ").trim();
-        return x;
+        return TextNormalizer.fold(s);
     }
 
     private static String randomCode() {
@@ -669,34 +782,35 @@ public class FlagQuizService {
         return m;
     }
 
-    private static void checkAchievements(PlayerStats ps, MessageChannel channel, User user) {
+    // nur unter dem Lock von ps aufrufen; Rückgabe: neu erreichte Streak-Stufen
+    private static List<Integer> unlockAchievements(PlayerStats ps) {
         int[] thresholds = {5, 10, 25, 50};
+        List<Integer> unlocked = new ArrayList<>(0);
         for (int t : thresholds) {
             String key = "streak-" + t;
-            if (ps.currentStreak >= t && ps.achievements.add(key)) {
-                channel.sendMessage(EmojiUtil.wrap("🏅") + "Achievement freigeschaltet für " + user.getAsMention() + ": " + t + "-er Streak!")
-                        .queue(m -> m.delete().queueAfter(30, TimeUnit.SECONDS, s -> {}, f -> {}));
-            }
+            if (ps.currentStreak >= t && ps.achievements.add(key)) unlocked.add(t);
+        }
+        return unlocked;
+    }
+
+    private static void announceAchievements(List<Integer> unlocked, MessageChannel channel, User user) {
+        for (int t : unlocked) {
+            channel.sendMessage(EmojiUtil.wrap("🏅") + "Achievement freigeschaltet für " + user.getAsMention() + ": " + t + "-er Streak!")
+                    .queue(m -> m.delete().queueAfter(30, TimeUnit.SECONDS, s -> {}, f -> {}));
         }
     }
 
     // ---- Leaderboards / Streaks ----
 
     public static String leaderboardText(String guildId, JDA jda, int limit) {
-        Map<String, PlayerStats> map = gd(guildId).statsByUser;
-        List<Map.Entry<String, PlayerStats>> top = map.entrySet().stream()
-                .sorted((a,b) -> Integer.compare(b.getValue().totalPoints, a.getValue().totalPoints))
-                .limit(limit)
-                .toList();
         StringBuilder sb = new StringBuilder();
         int rank = 1;
-        for (var e : top) {
-            String userId = e.getKey();
-            PlayerStats ps = e.getValue();
+        for (Leaderboard.Entry e : boards(guildId).points.top(limit)) {
+            String userId = e.userId();
             User u = jda.getUserById(userId);
             String name = u != null ? u.getName() : ("<" + userId + ">");
             sb.append("#").append(rank++).append(" ").append(name)
-                    .append(" — ").append(ps.totalPoints).append(" Punkte").append("\n");
+                    .append(" — ").append(e.score()).append(" Punkte").append("\n");
         }
         if (sb.isEmpty()) sb.append("Noch keine Einträge.");
         return sb.toString();
@@ -704,20 +818,16 @@ public class FlagQuizService {
 
     public static String streaksText(String guildId, JDA jda, int limit) {
         Map<String, PlayerStats> map = gd(guildId).statsByUser;
-        List<Map.Entry<String, PlayerStats>> top = map.entrySet().stream()
-                .sorted((a,b) -> Integer.compare(b.getValue().currentStreak, a.getValue().currentStreak))
-                .limit(limit)
-                .toList();
         StringBuilder sb = new StringBuilder();
         int rank = 1;
-        for (var e : top) {
-            String userId = e.getKey();
-            PlayerStats ps = e.getValue();
+        for (Leaderboard.Entry e : boards(guildId).streaks.top(limit)) {
+            String userId = e.userId();
+            PlayerStats ps = map.get(userId);
             User u = jda.getUserById(userId);
             String name = u != null ? u.getName() : ("<" + userId + ">");
             sb.append("#").append(rank++).append(" ").append(name)
-                    .append(" — Streak ").append(ps.currentStreak)
-                    .append(" (Best: ").append(ps.bestStreak).append(")\n");
+                    .append(" — Streak ").append(e.score())
+                    .append(" (Best: ").append(ps != null ? ps.bestStreak : e.score()).append(")\n");
         }
         if (sb.isEmpty()) sb.append("Noch keine Einträge.");
         return sb.toString();
@@ -727,24 +837,27 @@ public class FlagQuizService {
         return stats(guildId, userId);
     }
 
+    /** Platz in der Punkte-Rangliste ab 1, 0 ohne Eintrag. */
+    public static int pointsRank(String guildId, String userId) {
+        return boards(guildId).points.rankOf(userId);
+    }
+
+    public static int playerCount(String guildId) {
+        return boards(guildId).points.size();
+    }
+
     public static FlagStats getFlagStatsPublic(String guildId, String code) {
         return flagStats(guildId, code);
     }
 
     public static Optional<String> resolveToCode(String userInput) {
         String norm = normalize(userInput);
+        AnswerIndex index = answers;
         if (norm.length() == 2) {
             String up = norm.toUpperCase(Locale.ROOT);
-            if (ISO_CODES.contains(up)) return Optional.of(up);
-        }
-        // Alias direkt
-        if (ALIAS_TO_CODE.containsKey(norm)) return Optional.of(ALIAS_TO_CODE.get(norm));
-        // Namen de/en durchgehen
-        for (String iso : ISO_CODES) {
-            String de = normalize(countryName(iso, Locale.GERMAN));
-            String en = normalize(countryName(iso, Locale.ENGLISH));
-            if (norm.equals(de) || norm.equals(en)) return Optional.of(iso);
+            if (index.isCode(up)) return Optional.of(up);
         }
-        return Optional.empty();
+        // Name oder Alias, notfalls mit Tippfehlern
+        return Optional.ofNullable(index.resolve(norm));
     }
 }
@@ -2,6 +2,7 @@ package dev.eministar.modules.flags;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
@@ -9,6 +10,7 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import dev.eministar.util.EmojiUtil;
 
+@BotModule(value = "flagquiz/setup", dependsOn = "flagquiz")
 public class FlagSetupCommand implements Command {
     @Override
     public String name() { return "flagsetup"; }
@@ -0,0 +1,20 @@
+package dev.eministar.modules.flags;
+
+import dev.eministar.persistence.Database;
+
+import java.util.Map;
+
+/**
+ * Speicher für die Flaggenquiz-Daten pro Guild. Standard ist {@link JsonFlagStatsRepository}
+ * (eine Datei pro Guild unter data/flagquiz), bei konfigurierter Datenbank {@link JdbcFlagStatsRepository}.
+ */
+public interface FlagStatsRepository {
+    Map<String, FlagQuizService.GuildData> loadAll();
+
+    /** Schreibt nur die übergebenen (geänderten) Guilds, die übrigen bleiben unangetastet. */
+    void save(Map<String, FlagQuizService.GuildData> changed);
+
+    static FlagStatsRepository create() {
+        return Database.isEnabled() ? new JdbcFlagStatsRepository(Database.get()) : new JsonFlagStatsRepository();
+    }
+}
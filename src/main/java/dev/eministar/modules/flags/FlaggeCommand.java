@@ -2,6 +2,7 @@ package dev.eministar.modules.flags;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
@@ -10,6 +11,7 @@ import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import dev.eministar.util.EmojiUtil;
 
+@BotModule(value = "flagquiz/flagge", dependsOn = "flagquiz")
 public class FlaggeCommand implements Command {
     @Override
     public String name() { return "flagge"; }
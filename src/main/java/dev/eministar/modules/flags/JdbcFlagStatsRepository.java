@@ -0,0 +1,25 @@
+package dev.eministar.modules.flags;
+
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.DocumentTable;
+
+import java.util.Map;
+
+public class JdbcFlagStatsRepository implements FlagStatsRepository {
+    private final DocumentTable<FlagQuizService.GuildData> table;
+
+    public JdbcFlagStatsRepository(Database db) {
+        // eine Zeile pro Guild, Schlüssel ist die Guild-ID
+        this.table = new DocumentTable<>(db, "flag_stats", FlagQuizService.GuildData.class, new DocumentTable.Columns<>() {});
+    }
+
+    @Override
+    public Map<String, FlagQuizService.GuildData> loadAll() {
+        return table.findAllById();
+    }
+
+    @Override
+    public void save(Map<String, FlagQuizService.GuildData> changed) {
+        changed.forEach((guildId, data) -> table.save(guildId, guildId, data));
+    }
+}
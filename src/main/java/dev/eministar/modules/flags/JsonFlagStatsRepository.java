@@ -0,0 +1,100 @@
+package dev.eministar.modules.flags;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Eine JSON-Datei pro Guild ({@code data/flagquiz/<guildId>.json}), jeweils über tmp-Datei, fsync und atomaren Rename
+ * geschrieben. Ein Flush fasst nur die Dateien geänderter Guilds an. Die alte Sammeldatei flagquiz-stats.json wird
+ * beim ersten Laden aufgeteilt und danach umbenannt.
+ */
+public class JsonFlagStatsRepository implements FlagStatsRepository {
+    private static final Logger logger = LoggerFactory.getLogger(JsonFlagStatsRepository.class);
+    private static final File LEGACY_FILE = new File("flagquiz-stats.json");
+    private static final Path DATA_DIR = Path.of("./data/flagquiz");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    @Override
+    public Map<String, FlagQuizService.GuildData> loadAll() {
+        if (LEGACY_FILE.exists()) migrateLegacy();
+        Map<String, FlagQuizService.GuildData> loaded = new HashMap<>();
+        if (!Files.isDirectory(DATA_DIR)) return loaded;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(DATA_DIR, "*.json")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    FlagQuizService.GuildData data = GSON.fromJson(reader, FlagQuizService.GuildData.class);
+                    if (data != null) loaded.put(name.substring(0, name.length() - ".json".length()), data);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("data/flagquiz konnte nicht gelesen werden", e);
+        }
+        return loaded;
+    }
+
+    @Override
+    public synchronized void save(Map<String, FlagQuizService.GuildData> changed) {
+        try {
+            Files.createDirectories(DATA_DIR);
+            for (Map.Entry<String, FlagQuizService.GuildData> e : changed.entrySet()) {
+                write(DATA_DIR.resolve(e.getKey() + ".json"), e.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("data/flagquiz konnte nicht geschrieben werden", e);
+        }
+    }
+
+    private static void write(Path file, FlagQuizService.GuildData data) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer w = Channels.newWriter(ch, StandardCharsets.UTF_8);
+            GSON.toJson(data, w);
+            w.flush();
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Sammeldatei aufteilen; erst wenn alle Guild-Dateien geschrieben sind, wird sie beiseitegelegt
+    private void migrateLegacy() {
+        try (FileReader fr = new FileReader(LEGACY_FILE, StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<Map<String, FlagQuizService.GuildData>>() {}.getType();
+            Map<String, FlagQuizService.GuildData> legacy = GSON.fromJson(fr, type);
+            if (legacy != null) save(legacy);
+        } catch (IOException e) {
+            throw new IllegalStateException("flagquiz-stats.json konnte nicht gelesen werden", e);
+        }
+        File migrated = new File(LEGACY_FILE.getPath() + ".migrated");
+        if (!LEGACY_FILE.renameTo(migrated)) {
+            logger.warn("FlagQuiz: {} konnte nicht umbenannt werden", LEGACY_FILE);
+        } else {
+            logger.info("FlagQuiz: {} in Dateien pro Guild unter {} aufgeteilt", LEGACY_FILE, DATA_DIR);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dev.eministar.modules.flags;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Rangliste einer Kennzahl (Punkte, Streak) als indizierte Skip-List, sortiert nach (Wert absteigend, User-ID).
+ * Jeder Vorwärtszeiger merkt sich, wie viele Einträge er überspringt; damit kosten Ändern und "welcher Platz bin
+ * ich" O(log n), die Top-N O(log n + N). Ein geänderter Wert wird als Entfernen + Einfügen verbucht.
+ */
+final class Leaderboard {
+    private static final int MAX_LEVEL = 32;
+
+    record Entry(String userId, int score) {}
+
+    private static final class Node {
+        final String userId;
+        final int score;
+        final Node[] next;
+        final int[] span;
+
+        Node(String userId, int score, int level) {
+            this.userId = userId;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private final Map<String, Integer> scores = new HashMap<>();
+    private int level = 1;
+    private int size;
+
+    /** Setzt den Wert eines Users; unverändert ist ein No-op. */
+    synchronized void update(String userId, int score) {
+        Integer old = scores.put(userId, score);
+        if (old != null) {
+            if (old == score) return;
+            delete(old, userId);
+        }
+        insert(score, userId);
+    }
+
+    synchronized void remove(String userId) {
+        Integer old = scores.remove(userId);
+        if (old != null) delete(old, userId);
+    }
+
+    /** Platz ab 1, 0 wenn der User nicht in der Liste steht. */
+    synchronized int rankOf(String userId) {
+        Integer score = scores.get(userId);
+        if (score == null) return 0;
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !after(x.next[i], score, userId)) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && x.userId.equals(userId)) return rank;
+        }
+        return 0;
+    }
+
+    synchronized List<Entry> top(int limit) {
+        List<Entry> top = new ArrayList<>(Math.min(limit, size));
+        for (Node x = head.next[0]; x != null && top.size() < limit; x = x.next[0]) {
+            top.add(new Entry(x.userId, x.score));
+        }
+        return top;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void insert(int score, String userId) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], score, userId)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        Node node = new Node(userId, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) update[i].span[i]++;
+        size++;
+    }
+
+    private void delete(int score, String userId) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], score, userId)) x = x.next[i];
+            update[i] = x;
+        }
+        Node target = x.next[0];
+        if (target == null || target.score != score || !target.userId.equals(userId)) return;
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) level--;
+        size--;
+    }
+
+    // liegt der Knoten in der Sortierung vor (score, userId)?
+    private static boolean before(Node node, int score, String userId) {
+        return node.score > score || (node.score == score && node.userId.compareTo(userId) < 0);
+    }
+
+    private static boolean after(Node node, int score, String userId) {
+        return node.score < score || (node.score == score && node.userId.compareTo(userId) > 0);
+    }
+
+    // Ebene k mit Wahrscheinlichkeit 1/4^(k-1)
+    private static int randomLevel() {
+        int level = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && random.nextInt(4) == 0) level++;
+        return level;
+    }
+}
@@ -2,6 +2,7 @@ package dev.eministar.modules.flags;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
@@ -12,6 +13,7 @@ import java.awt.*;
 import java.util.concurrent.TimeUnit;
 import dev.eministar.util.EmojiUtil;
 
+@BotModule("flagquiz/leaderboard")
 public class LeaderboardCommand implements Command {
     @Override
     public String name() { return "leaderboard"; }
@@ -0,0 +1,79 @@
+package dev.eministar.modules.flags;
+
+import dev.eministar.modules.flags.FlagQuizService.ActiveRound;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Laufende Runden, aufgeteilt in Shards nach Channel-ID. Jeder Shard hat seinen eigenen Monitor und hält die
+ * Runden seiner Channels (pro Channel je Ziel-User eine Runde); Runden in verschiedenen Channels treffen sich damit
+ * nur zufällig auf demselben Shard und auch dann nur für einen Map-Zugriff.
+ * <p>
+ * {@link #remove} entfernt nur genau die übergebene Runde und meldet, ob es geklappt hat: Von Timeout, Antwort und
+ * Button gewinnt so genau einer das Beenden, auch wenn alle gleichzeitig kommen.
+ */
+final class RoundTable {
+    private static final int SHARDS = 64;
+
+    private static final class Shard {
+        final Map<String, Map<String, ActiveRound>> byChannel = new HashMap<>();
+        int size;
+    }
+
+    private final Shard[] shards = new Shard[SHARDS];
+
+    RoundTable() {
+        for (int i = 0; i < SHARDS; i++) shards[i] = new Shard();
+    }
+
+    /** Trägt die Runde ein, wenn für ihren Ziel-User in diesem Channel noch keine läuft. */
+    boolean claim(ActiveRound round) {
+        Shard shard = shard(round.channelId());
+        synchronized (shard) {
+            Map<String, ActiveRound> channel = shard.byChannel.computeIfAbsent(round.channelId(), k -> new HashMap<>(4));
+            if (channel.putIfAbsent(round.targetUserId(), round) != null) return false;
+            shard.size++;
+            return true;
+        }
+    }
+
+    ActiveRound get(String channelId, String userId) {
+        Shard shard = shard(channelId);
+        synchronized (shard) {
+            Map<String, ActiveRound> channel = shard.byChannel.get(channelId);
+            return channel != null ? channel.get(userId) : null;
+        }
+    }
+
+    boolean contains(String channelId, String userId) {
+        return get(channelId, userId) != null;
+    }
+
+    /** Entfernt genau diese Runde; {@code false}, wenn sie schon beendet (oder ersetzt) wurde. */
+    boolean remove(ActiveRound round) {
+        Shard shard = shard(round.channelId());
+        synchronized (shard) {
+            Map<String, ActiveRound> channel = shard.byChannel.get(round.channelId());
+            if (channel == null || !channel.remove(round.targetUserId(), round)) return false;
+            if (channel.isEmpty()) shard.byChannel.remove(round.channelId());
+            shard.size--;
+            return true;
+        }
+    }
+
+    int size() {
+        int total = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                total += shard.size;
+            }
+        }
+        return total;
+    }
+
+    private Shard shard(String channelId) {
+        int h = channelId.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+}
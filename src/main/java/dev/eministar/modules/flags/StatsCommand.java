@@ -2,6 +2,7 @@ package dev.eministar.modules.flags;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
@@ -13,6 +14,7 @@ import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 
 import java.awt.*;
 
+@BotModule("flagquiz/stats")
 public class StatsCommand implements Command {
     @Override
     public String name() { return "stats"; }
@@ -27,13 +29,15 @@ public class StatsCommand implements Command {
         var guild = event.getGuild();
         var userId = event.getAuthor().getId();
         var ps = FlagQuizService.getPlayerStatsPublic(guild.getId(), userId);
+        int rank = FlagQuizService.pointsRank(guild.getId(), userId);
 
         EmbedBuilder eb = new EmbedBuilder();
         eb.setColor(new Color(0x2B2D31));
         eb.setTitle(EmojiUtil.wrap("📊") + " Deine Flaggen-Stats");
         eb.setDescription("Punkte: **" + ps.totalPoints + "**\n" +
                 "Richtig: **" + ps.correct + "** • Falsch: **" + ps.wrong + "**\n" +
-                "Streak: **" + ps.currentStreak + "** (Best: " + ps.bestStreak + ")");
+                "Streak: **" + ps.currentStreak + "** (Best: " + ps.bestStreak + ")\n" +
+                "Platz: **#" + rank + "** von " + FlagQuizService.playerCount(guild.getId()));
         event.getChannel().sendMessageEmbeds(eb.build()).queue();
     }
 
@@ -53,6 +57,7 @@ public class StatsCommand implements Command {
                 ? event.getOption("user").getAsUser().getId()
                 : event.getUser().getId();
         var ps = FlagQuizService.getPlayerStatsPublic(guild.getId(), userId);
+        int rank = FlagQuizService.pointsRank(guild.getId(), userId);
         var targetUser = event.getJDA().getUserById(userId);
         String username = targetUser != null ? targetUser.getName() : userId;
 
@@ -61,7 +66,8 @@ public class StatsCommand implements Command {
         eb.setTitle(EmojiUtil.wrap("📊") + " Stats von " + username);
         eb.setDescription("Punkte: **" + ps.totalPoints + "**\n" +
                 "Richtig: **" + ps.correct + "** • Falsch: **" + ps.wrong + "**\n" +
-                "Streak: **" + ps.currentStreak + "** (Best: " + ps.bestStreak + ")");
+                "Streak: **" + ps.currentStreak + "** (Best: " + ps.bestStreak + ")\n" +
+                "Platz: **#" + rank + "** von " + FlagQuizService.playerCount(guild.getId()));
         event.replyEmbeds(eb.build()).queue();
     }
 }
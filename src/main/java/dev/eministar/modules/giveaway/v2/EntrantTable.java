@@ -0,0 +1,249 @@
+package dev.eministar.modules.giveaway.v2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Teilnehmer eines Giveaways spaltenweise in primitiven Arrays: User-ID als {@code long}, Lose als {@code int},
+ * Beitritt als Epoch-Sekunden ({@code int}, vorzeichenlos gelesen). Das sind 16 Byte pro Teilnehmer statt einer
+ * Map mit String-Key und Entrant-Objekt.
+ * <p>
+ * Der Hauptteil ist nach User-ID sortiert und exakt so groß wie nötig ({@link #contains} per Binärsuche). Neue
+ * Teilnehmer kommen in einen kleinen Anhang mit eigenem Hash-Index; ist er voll, wird er sortiert eingemischt.
+ * Sortiert ist auch die Reihenfolge für die Ziehung, damit sie mit dem gespeicherten Seed reproduzierbar bleibt.
+ * <p>
+ * Persistiert wird als Segment-Datei: 8 Byte Header, danach ein 16-Byte-Datensatz pro Teilnehmer, nur angehängt.
+ * Neue Datensätze sammelt {@link #drainPending()} für das nächste {@link #append}. Alles unter "this".
+ */
+final class EntrantTable {
+    static final int RECORD_BYTES = 16;
+    private static final int MAGIC = 0x47415745; // "GAWE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int TAIL_CAPACITY = 4096;
+
+    // sortierter Hauptteil
+    private long[] ids;
+    private int[] entries;
+    private int[] joined;
+
+    // unsortierter Anhang, Index: Slot -> Zeile + 1 (0 = frei)
+    private final long[] tailIds = new long[TAIL_CAPACITY];
+    private final int[] tailEntries = new int[TAIL_CAPACITY];
+    private final int[] tailJoined = new int[TAIL_CAPACITY];
+    private final int[] tailIndex = new int[TAIL_CAPACITY * 2];
+    private int tailSize;
+
+    // noch nicht geschriebene Datensätze
+    private ByteBuffer pending = ByteBuffer.allocate(0);
+
+    private long totalEntries;
+
+    /** Sortierte Kopie von IDs und Losen, z.B. für eine Ziehung. */
+    record Columns(long[] ids, int[] entries) {}
+
+    EntrantTable() {
+        this(new long[0], new int[0], new int[0]);
+    }
+
+    private EntrantTable(long[] ids, int[] entries, int[] joined) {
+        this.ids = ids;
+        this.entries = entries;
+        this.joined = joined;
+        for (int e : entries) totalEntries += e;
+    }
+
+    synchronized int size() {
+        return ids.length + tailSize;
+    }
+
+    /** Gesamtzahl der Lose, wird beim Hinzufügen mitgezählt. */
+    synchronized long totalEntries() {
+        return totalEntries;
+    }
+
+    synchronized boolean contains(long userId) {
+        return Arrays.binarySearch(ids, userId) >= 0 || tailRow(userId) >= 0;
+    }
+
+    /**
+     * Fügt einen Teilnehmer hinzu und merkt ihn für das nächste Schreiben vor.
+     *
+     * @return false, wenn die User-ID schon drin ist
+     */
+    synchronized boolean add(long userId, int entryCount, long joinedAtEpochSecond) {
+        if (contains(userId)) return false;
+        if (tailSize == TAIL_CAPACITY) mergeTail();
+        int row = tailSize++;
+        tailIds[row] = userId;
+        tailEntries[row] = entryCount;
+        tailJoined[row] = (int) joinedAtEpochSecond;
+        int slot = slot(userId);
+        while (tailIndex[slot] != 0) slot = (slot + 1) & (tailIndex.length - 1);
+        tailIndex[slot] = row + 1;
+        totalEntries += entryCount;
+
+        if (pending.remaining() < RECORD_BYTES) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(RECORD_BYTES * 64, pending.capacity() * 2));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        pending.putLong(userId).putInt(entryCount).putInt((int) joinedAtEpochSecond);
+        return true;
+    }
+
+    /** Nimmt die seit dem letzten Aufruf hinzugekommenen Datensätze heraus (leer, wenn es keine gibt). */
+    synchronized ByteBuffer drainPending() {
+        ByteBuffer out = pending.flip();
+        pending = ByteBuffer.allocate(0);
+        return out;
+    }
+
+    /** Legt nicht geschriebene Datensätze wieder vor die neuen, z.B. wenn {@link #append} fehlgeschlagen ist. */
+    synchronized void unread(ByteBuffer records) {
+        records.rewind();
+        ByteBuffer merged = ByteBuffer.allocate(records.remaining() + pending.position() + RECORD_BYTES * 64);
+        merged.put(records).put(pending.flip());
+        pending = merged;
+    }
+
+    synchronized Columns columns() {
+        mergeTail();
+        return new Columns(ids.clone(), entries.clone());
+    }
+
+    private int tailRow(long userId) {
+        int slot = slot(userId);
+        int row;
+        while ((row = tailIndex[slot]) != 0) {
+            if (tailIds[row - 1] == userId) return row - 1;
+            slot = (slot + 1) & (tailIndex.length - 1);
+        }
+        return -1;
+    }
+
+    private int slot(long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> 32) & (tailIndex.length - 1);
+    }
+
+    // Anhang sortieren und in einen neuen, exakt großen Hauptteil einmischen
+    private void mergeTail() {
+        if (tailSize == 0) return;
+        sort(tailIds, tailEntries, tailJoined, tailSize);
+        int n = ids.length, m = tailSize;
+        long[] mergedIds = new long[n + m];
+        int[] mergedEntries = new int[n + m];
+        int[] mergedJoined = new int[n + m];
+        int i = 0, j = 0, k = 0;
+        while (i < n || j < m) {
+            if (j >= m || (i < n && ids[i] < tailIds[j])) {
+                mergedIds[k] = ids[i];
+                mergedEntries[k] = entries[i];
+                mergedJoined[k++] = joined[i++];
+            } else {
+                mergedIds[k] = tailIds[j];
+                mergedEntries[k] = tailEntries[j];
+                mergedJoined[k++] = tailJoined[j++];
+            }
+        }
+        ids = mergedIds;
+        entries = mergedEntries;
+        joined = mergedJoined;
+        tailSize = 0;
+        Arrays.fill(tailIndex, 0);
+    }
+
+    /** Hängt Datensätze aus {@link #drainPending()} an die Segment-Datei an, legt sie bei Bedarf an. */
+    static void append(Path file, ByteBuffer records) throws IOException {
+        if (!records.hasRemaining()) return;
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip());
+            } else if ((size - HEADER_BYTES) % RECORD_BYTES != 0) {
+                // abgeschnittenen Datensatz vom letzten Absturz entfernen, sonst verrutscht alles Folgende
+                channel.truncate(size - (size - HEADER_BYTES) % RECORD_BYTES);
+            }
+            while (records.hasRemaining()) channel.write(records);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Liest eine Segment-Datei. Ein abgeschnittener letzter Datensatz (Absturz beim Schreiben) wird ignoriert,
+     * doppelte IDs werden verworfen.
+     */
+    static EntrantTable load(Path file) throws IOException {
+        if (!Files.exists(file)) return new EntrantTable();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_BYTES) return new EntrantTable();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Unbekanntes Segment-Format: " + file);
+        }
+
+        int n = buffer.remaining() / RECORD_BYTES;
+        long[] ids = new long[n];
+        int[] entries = new int[n];
+        int[] joined = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = buffer.getLong();
+            entries[i] = buffer.getInt();
+            joined[i] = buffer.getInt();
+        }
+        sort(ids, entries, joined, n);
+
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique > 0 && ids[unique - 1] == ids[i]) continue;
+            ids[unique] = ids[i];
+            entries[unique] = entries[i];
+            joined[unique++] = joined[i];
+        }
+        if (unique < n) {
+            ids = Arrays.copyOf(ids, unique);
+            entries = Arrays.copyOf(entries, unique);
+            joined = Arrays.copyOf(joined, unique);
+        }
+        return new EntrantTable(ids, entries, joined);
+    }
+
+    // Heapsort über die ersten n Zeilen, nach ID; stabil muss er nicht sein, IDs sind eindeutig
+    private static void sort(long[] ids, int[] entries, int[] joined, int n) {
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(ids, entries, joined, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(ids, entries, joined, 0, end);
+            siftDown(ids, entries, joined, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] ids, int[] entries, int[] joined, int i, int n) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) return;
+            if (child + 1 < n && ids[child + 1] > ids[child]) child++;
+            if (ids[i] >= ids[child]) return;
+            swap(ids, entries, joined, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(long[] ids, int[] entries, int[] joined, int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        int e = entries[a];
+        entries[a] = entries[b];
+        entries[b] = e;
+        int j = joined[a];
+        joined[a] = joined[b];
+        joined[b] = j;
+    }
+}
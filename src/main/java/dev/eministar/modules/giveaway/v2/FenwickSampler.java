@@ -0,0 +1,71 @@
+package dev.eministar.modules.giveaway.v2;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Gewichtetes Ziehen ohne Zurücklegen über einen Fenwick-Baum (Binary Indexed Tree) auf primitiven Arrays.
+ * <p>
+ * Aufbau O(n), Ziehen und Entfernen je O(log n). Das Ergebnis hängt nur von der Reihenfolge der Gewichte und
+ * dem Zufallsgenerator ab, mit gleichem Seed ist eine Ziehung also exakt reproduzierbar.
+ */
+final class FenwickSampler {
+    private final int[] weights;
+    private final long[] tree; // 1-basiert
+    private final int highestStep;
+    private long total;
+
+    FenwickSampler(int[] weights) {
+        int n = weights.length;
+        this.weights = weights.clone();
+        this.tree = new long[n + 1];
+        for (int i = 1; i <= n; i++) {
+            int w = this.weights[i - 1];
+            if (w < 0) throw new IllegalArgumentException("Negatives Gewicht an Position " + (i - 1));
+            tree[i] += w;
+            total += w;
+            int parent = i + (i & -i);
+            if (parent <= n) tree[parent] += tree[i];
+        }
+        this.highestStep = n == 0 ? 0 : Integer.highestOneBit(n);
+    }
+
+    long total() {
+        return total;
+    }
+
+    int size() {
+        return weights.length;
+    }
+
+    /** Position, deren kumulierter Bereich {@code r} enthält ({@code 0 <= r < total}). */
+    int find(long r) {
+        int pos = 0;
+        for (int step = highestStep; step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] <= r) {
+                pos = next;
+                r -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    /** Setzt das Gewicht an {@code index} auf 0, es kann danach nicht mehr gezogen werden. */
+    void remove(int index) {
+        long delta = -weights[index];
+        if (delta == 0) return;
+        weights[index] = 0;
+        total += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /** Zieht eine Position proportional zu ihrem Gewicht und entfernt sie; -1 wenn nichts mehr übrig ist. */
+    int next(RandomGenerator rng) {
+        if (total <= 0) return -1;
+        int index = find(rng.nextLong(total));
+        remove(index);
+        return index;
+    }
+}
@@ -23,13 +23,15 @@ public class GiveawayData {
     public String visibility; // live, final
     public Requirements requirements;
     public EntriesConfig entriesConfig;
+    /** Nur noch zum Einlesen alter Daten; Teilnehmer liegen in Segment-Dateien (siehe {@link GiveawayEntries}). */
     public Map<String, Entrant> entrants;
+    public int entrantCount;
     public List<String> winners;
     public Map<String, ClaimData> claimed;
+    public List<Draw> draws;
     public String lastEditAt;
 
     public GiveawayData() {
-        this.entrants = new HashMap<>();
         this.claimed = new HashMap<>();
         this.requirements = new Requirements();
         this.entriesConfig = new EntriesConfig();
@@ -52,6 +54,22 @@ public class GiveawayData {
         public String joinedAt;
     }
 
+    /**
+     * Protokoll einer Ziehung. Mit den nach User-ID sortierten Teilnehmern, ihren Losen und dem Seed lässt sich
+     * das Ergebnis über {@link WeightedPicker#pickIndices(int[], int, long)} exakt nachrechnen; bei einem
+     * Reroll sind die Gewinner aller vorherigen Ziehungen ausgeschlossen (Gewicht 0), ebenso die bei der Ziehung
+     * nicht mehr berechtigten Teilnehmer ({@code disqualified}).
+     */
+    public static class Draw {
+        public String at;
+        public long seed;
+        public boolean reroll;
+        public int entrants;
+        public long totalEntries;
+        public List<String> winners;
+        public List<String> disqualified;
+    }
+
     public static class ClaimData {
         public String at;
         public String method; // dm, thread
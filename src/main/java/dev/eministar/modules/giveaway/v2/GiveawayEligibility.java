@@ -0,0 +1,100 @@
+package dev.eministar.modules.giveaway.v2;
+
+import dev.eministar.cache.MemberCache;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Teilnahmeberechtigung pro (Giveaway, Member), vorkompiliert und gecacht.
+ * <p>
+ * Die Anforderungen eines Giveaways werden einmal per {@link RequirementsChecker#compile} übersetzt. Ergebnisse
+ * liegen pro User und Giveaway im Cache, bis sich die Rollen des Users ändern oder er den Server verlässt
+ * ({@link #invalidate}); scheitert es nur am Alter, läuft der Eintrag zu dem Zeitpunkt ab, ab dem es reichen würde.
+ * Vor einer Ziehung prüft {@link #revalidate} alle Teilnehmer in einem Durchgang; im Lean-Modus werden die nicht
+ * gecachten vorher mit {@link #loadMissing} gebündelt nachgeladen.
+ */
+class GiveawayEligibility {
+    private final Map<String, RequirementsChecker.Compiled> compiled = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Eligibility>> byUser = new ConcurrentHashMap<>();
+
+    record Eligibility(boolean passed, String message, int entries, long validUntil) {}
+
+    /** Prüft (oder liefert aus dem Cache), ob der Member teilnehmen darf und mit wie vielen Losen. */
+    Eligibility evaluate(String key, GiveawayData data, Member member) {
+        long now = System.currentTimeMillis();
+        Map<String, Eligibility> cached = byUser.computeIfAbsent(member.getIdLong(), id -> new ConcurrentHashMap<>());
+        Eligibility result = cached.get(key);
+        if (result != null && result.validUntil > now) return result;
+
+        RequirementsChecker.Compiled req = compiled(key, data);
+        RequirementsChecker.CheckResult check = req.check(member, now);
+        long eligibleFrom = req.eligibleFrom(member);
+        long validUntil = !check.passed && eligibleFrom > now ? eligibleFrom : Long.MAX_VALUE;
+        result = new Eligibility(check.passed, check.message, check.passed ? req.entries(member) : 0, validUntil);
+        cached.put(key, result);
+        return result;
+    }
+
+    /** Rollen geändert oder Server verlassen: alle Ergebnisse dieses Users verwerfen. */
+    void invalidate(long userId) {
+        byUser.remove(userId);
+    }
+
+    /**
+     * Lean-Modus: lädt alle Teilnehmer, die nicht im Cache liegen, gebündelt nach (siehe
+     * {@link RequirementsChecker#retrieveMembers}); das Ergebnis geht an {@link #revalidate}. Im Full-Modus ist
+     * der Cache vollständig, dann gibt es nichts zu laden.
+     */
+    CompletableFuture<Map<Long, Member>> loadMissing(Guild guild, long[] userIds) {
+        if (guild == null || !MemberCache.isLean()) return CompletableFuture.completedFuture(Map.of());
+        long[] missing = Arrays.stream(userIds).filter(id -> guild.getMemberById(id) == null).toArray();
+        if (missing.length == 0) return CompletableFuture.completedFuture(Map.of());
+        return RequirementsChecker.retrieveMembers(guild, missing);
+    }
+
+    /**
+     * Prüft alle Teilnehmer vor der Ziehung und setzt das Gewicht nicht mehr berechtigter auf 0.
+     * <p>
+     * Geprüft wird der Member aus dem Cache, sonst der aus {@code loaded} ({@link #loadMissing}). Fehlt er in beiden,
+     * hat er den Server verlassen; nur wenn er im Lean-Modus gar nicht nachgeladen werden konnte (Anfrage
+     * fehlgeschlagen oder erst nach dem Laden beigetreten), gilt die Prüfung beim Beitritt weiter.
+     *
+     * @return die ausgeschlossenen User-IDs
+     */
+    List<String> revalidate(String key, GiveawayData data, Guild guild, long[] userIds, int[] weights, Map<Long, Member> loaded) {
+        List<String> disqualified = new ArrayList<>();
+        if (guild == null) return disqualified;
+        boolean lean = MemberCache.isLean();
+        for (int i = 0; i < userIds.length; i++) {
+            if (weights[i] == 0) continue;
+            Member member = guild.getMemberById(userIds[i]);
+            if (member == null) member = loaded.get(userIds[i]);
+            boolean passed = member != null ? evaluate(key, data, member).passed : lean && !loaded.containsKey(userIds[i]);
+            if (!passed) {
+                weights[i] = 0;
+                disqualified.add(Long.toString(userIds[i]));
+            }
+        }
+        return disqualified;
+    }
+
+    /** Räumt nach dem Ende eines Giveaways auf. */
+    void forget(String key) {
+        compiled.remove(key);
+        byUser.values().removeIf(results -> {
+            results.remove(key);
+            return results.isEmpty();
+        });
+    }
+
+    private RequirementsChecker.Compiled compiled(String key, GiveawayData data) {
+        return compiled.computeIfAbsent(key, k -> RequirementsChecker.compile(data.requirements, data.entriesConfig));
+    }
+}
@@ -0,0 +1,136 @@
+package dev.eministar.modules.giveaway.v2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Teilnahmen über den {@code gaw:enter}-Button.
+ * <p>
+ * Die Teilnehmer eines Giveaways liegen als {@link EntrantTable} (primitive Spalten) im Speicher und in einer
+ * eigenen Segment-Datei unter {@code dir}, nicht mehr im Giveaway-JSON; dort steht nur noch
+ * {@link GiveawayData#entrantCount}. Neue Teilnehmer werden gesammelt (spätestens nach {@link #FLUSH_INTERVAL_MS})
+ * an die Datei angehängt, statt den Store bei jedem Klick anzufassen. Vor einer Ziehung wird immer geschrieben.
+ * Den Takt und das Giveaway-Dokument verwaltet {@link GiveawayLifecycle}, damit kein Flush eine Ziehung überschreibt.
+ * <p>
+ * Tabellen werden erst beim ersten Zugriff geladen. Nach dem Ende eines Giveaways fliegt sie wieder aus dem
+ * Speicher ({@link #forget}) und wird nur für einen Reroll noch einmal gelesen.
+ */
+class GiveawayEntries {
+    private static final Logger logger = LoggerFactory.getLogger(GiveawayEntries.class);
+    static final long FLUSH_INTERVAL_MS = 1000;
+
+    private final GiveawayRepository store;
+    private final Path dir;
+    private final Map<String, EntrantTable> tables = new ConcurrentHashMap<>();
+
+    GiveawayEntries(GiveawayRepository store, Path dir) {
+        this.store = store;
+        this.dir = dir;
+        migrateLegacy();
+    }
+
+    boolean contains(String key, String userId) {
+        return table(key).contains(Long.parseLong(userId));
+    }
+
+    /**
+     * Merkt eine Teilnahme vor.
+     *
+     * @return false, wenn der User bereits teilnimmt
+     */
+    boolean enter(String key, String userId, int entries) {
+        return table(key).add(Long.parseLong(userId), entries, Instant.now().getEpochSecond());
+    }
+
+    /** Sortierte Teilnehmer für eine Ziehung; bei beendeten Giveaways wird das Segment dafür neu gelesen. */
+    EntrantTable.Columns columns(String key) {
+        return table(key).columns();
+    }
+
+    /**
+     * Hängt alle vorgemerkten Teilnahmen dieses Giveaways ans Segment an. Das Giveaway-Dokument fasst nur
+     * {@link GiveawayLifecycle#flushEntries} an, unter dessen Lock.
+     *
+     * @return false, wenn nichts anstand oder das Schreiben fehlschlug (dann bleibt es für den nächsten Flush vorgemerkt)
+     */
+    synchronized boolean appendPending(String key) {
+        EntrantTable table = tables.get(key);
+        if (table == null) return false;
+        ByteBuffer records = table.drainPending();
+        if (!records.hasRemaining()) return false;
+        try {
+            EntrantTable.append(segment(key), records);
+        } catch (IOException e) {
+            logger.error("Teilnehmer für Giveaway {} konnten nicht geschrieben werden, neuer Versuch beim nächsten Flush", key, e);
+            table.unread(records);
+            return false;
+        }
+        return true;
+    }
+
+    /** Verwirft vorgemerkte Teilnahmen; zu spät geklickt, die Ziehung ist schon gelaufen. */
+    synchronized void discardPending(String key) {
+        EntrantTable table = tables.get(key);
+        if (table != null) table.drainPending();
+    }
+
+    int size(String key) {
+        return table(key).size();
+    }
+
+    /** Giveaways, deren Tabelle gerade im Speicher liegt. */
+    Set<String> loaded() {
+        return tables.keySet();
+    }
+
+    /** Nimmt die Tabelle eines beendeten Giveaways aus dem Speicher, das Segment bleibt für Rerolls. */
+    void forget(String key) {
+        tables.remove(key);
+    }
+
+    private EntrantTable table(String key) {
+        return tables.computeIfAbsent(key, k -> {
+            try {
+                return EntrantTable.load(segment(k));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Teilnehmer von " + k + " nicht lesbar", e);
+            }
+        });
+    }
+
+    private Path segment(String key) {
+        return dir.resolve(key.replace(':', '-') + ".entrants");
+    }
+
+    // Teilnehmer aus dem alten JSON-Format einmalig in Segmente umziehen
+    private void migrateLegacy() {
+        int migrated = 0;
+        for (Map.Entry<String, GiveawayData> e : store.getAll().entrySet()) {
+            GiveawayData data = e.getValue();
+            if (data.entrants == null || data.entrants.isEmpty()) continue;
+            EntrantTable table = new EntrantTable();
+            data.entrants.forEach((userId, entrant) -> table.add(Long.parseLong(userId), entrant.entries,
+                    entrant.joinedAt != null ? Instant.parse(entrant.joinedAt).getEpochSecond() : 0));
+            try {
+                EntrantTable.append(segment(e.getKey()), table.drainPending());
+            } catch (IOException ex) {
+                logger.error("Teilnehmer von Giveaway {} konnten nicht migriert werden", data.id, ex);
+                continue;
+            }
+            data.entrantCount = table.size();
+            data.entrants = null;
+            store.put(e.getKey(), data);
+            migrated++;
+        }
+        if (migrated > 0) logger.info("Teilnehmer von {} Giveaways in Segment-Dateien migriert", migrated);
+    }
+}
@@ -0,0 +1,431 @@
+package dev.eministar.modules.giveaway.v2;
+
+import dev.eministar.scheduler.ScheduledTask;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Treibt Giveaways durch ihre Zustände: scheduled -> running -> (paused <-> running) -> ended.
+ * <p>
+ * Geplante und laufende Giveaways liegen nach Fälligkeit sortiert im Index, ein einziger Timer steht auf dem
+ * frühesten Eintrag. Wird er fällig, werden alle Giveaways bis {@link #BATCH_WINDOW_MS} danach in einem Durchgang
+ * ausgelost; die Nachrichten-Edits gehen gesammelt raus, die Gewinner-Ankündigung ist eine Nachricht pro Channel.
+ * Beim Start werden überfällige Giveaways nachgeholt.
+ * <p>
+ * Vor jeder Ziehung werden im Lean-Modus die nicht gecachten Teilnehmer gebündelt nachgeladen
+ * ({@link GiveawayEligibility#loadMissing}); gezogen wird erst danach, auf den Scheduler-Workern. Schlägt das
+ * Nachladen oder die Ziehung fehl, kommt das Giveaway nach {@link #RETRY_DELAY_MS} wieder an die Reihe.
+ */
+class GiveawayLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(GiveawayLifecycle.class);
+    private static final long BATCH_WINDOW_MS = 1000;
+    private static final int MAX_MESSAGE_LENGTH = 2000;
+    private static final long RETRY_DELAY_MS = 60_000;
+
+    private final GiveawayRepository store;
+    private final GiveawayEntries entries;
+    private final GiveawayEligibility eligibility;
+    private final TaskGroup timers = Scheduler.group("giveaway");
+    // Ziehungen nach dem Nachladen nicht auf dem Gateway-Thread ausführen, der die Member geliefert hat
+    private final Executor drawExecutor = task -> timers.schedule(task, 0, TimeUnit.MILLISECONDS);
+
+    // alles unter "this"
+    private final TreeSet<Due> index = new TreeSet<>();
+    private final Map<String, Due> byKey = new HashMap<>();
+    private ScheduledTask timer;
+    private long timerAt = Long.MAX_VALUE;
+    private JDA jda;
+
+    private record Due(long at, String key) implements Comparable<Due> {
+        @Override
+        public int compareTo(Due o) {
+            int c = Long.compare(at, o.at);
+            return c != 0 ? c : key.compareTo(o.key);
+        }
+    }
+
+    GiveawayLifecycle(GiveawayRepository store, GiveawayEntries entries, GiveawayEligibility eligibility) {
+        this.store = store;
+        this.entries = entries;
+        this.eligibility = eligibility;
+        timers.scheduleWithFixedDelay(this::flushAllEntries, GiveawayEntries.FLUSH_INTERVAL_MS,
+                GiveawayEntries.FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Baut den Index aus dem Store auf und holt überfällige Giveaways nach. Nur beim ersten Ready wirksam. */
+    synchronized void start(JDA jda) {
+        if (this.jda != null) return;
+        this.jda = jda;
+        long now = System.currentTimeMillis();
+        int overdue = 0;
+        for (Map.Entry<String, GiveawayData> e : store.getAll().entrySet()) {
+            Due due = track(e.getKey(), e.getValue());
+            if (due != null && due.at <= now) overdue++;
+        }
+        logger.info("Giveaways: {} im Zeitplan, davon {} überfällig", index.size(), overdue);
+        arm();
+    }
+
+    /** Nimmt ein neues oder geändertes Giveaway in den Zeitplan auf (bzw. entfernt es daraus). */
+    synchronized void schedule(String key, GiveawayData data) {
+        track(key, data);
+        arm();
+    }
+
+    /**
+     * Beendet sofort und lost aus, sobald die Teilnehmer nachgeladen sind. Entschieden wird mit dem frisch gelesenen
+     * Stand; hat der Zeitplan das Giveaway inzwischen selbst beendet, wird nicht noch einmal gezogen.
+     *
+     * @return das beendete Giveaway (null, wenn es nicht mehr existiert)
+     */
+    CompletableFuture<GiveawayData> endNow(String key, GiveawayData data) {
+        synchronized (this) {
+            untrack(key);
+            arm();
+        }
+        CompletableFuture<Map<Long, Member>> load;
+        try {
+            load = loadEntrants(key, data);
+        } catch (Exception e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        return load.thenApplyAsync(loaded -> {
+            GiveawayData current;
+            boolean ending;
+            synchronized (this) {
+                current = store.get(key);
+                ending = current != null && !current.isEnded();
+                if (ending) finish(key, current, loaded);
+            }
+            if (ending) announce(List.of(current));
+            return current;
+        }, drawExecutor).whenComplete((ended, e) -> {
+            // fehlgeschlagen: zurück in den Zeitplan, sonst bliebe es bis zum Neustart laufend
+            if (e == null) return;
+            GiveawayData current = store.get(key);
+            if (current != null) schedule(key, current);
+        });
+    }
+
+    /** Hält die Uhr an; die Restzeit ergibt sich später aus {@code endsAt - pausedAt}. */
+    void pause(String key, GiveawayData data) {
+        synchronized (this) {
+            untrack(key);
+            data.status = "paused";
+            data.pausedAt = Instant.now().toString();
+            store.put(key, data);
+            arm();
+        }
+        refreshMessage(data);
+    }
+
+    /** Läuft mit exakt der Restzeit weiter, die beim Pausieren übrig war. */
+    void resume(String key, GiveawayData data) {
+        synchronized (this) {
+            Instant now = Instant.now();
+            Duration remaining = remaining(data);
+            data.endsAt = now.plus(remaining).toString();
+            data.pausedAt = null;
+            data.status = "running";
+            store.put(key, data);
+            track(key, data);
+            arm();
+        }
+        refreshMessage(data);
+    }
+
+    /**
+     * Zieht {@code count} neue Gewinner, bisherige Gewinner sind ausgeschlossen.
+     *
+     * @return die neuen Gewinner (leer, wenn keine Teilnehmer mehr übrig sind)
+     */
+    CompletableFuture<List<String>> reroll(String key, GiveawayData data, int count) {
+        return loadEntrants(key, data).thenApplyAsync(loaded -> {
+            List<String> picked;
+            synchronized (this) {
+                picked = draw(key, data, count, true, loaded);
+                if (!picked.isEmpty()) {
+                    data.winners = picked;
+                    store.put(key, data);
+                }
+                entries.forget(key);
+                eligibility.forget(key);
+            }
+            if (!picked.isEmpty()) refreshMessage(data);
+            return picked;
+        }, drawExecutor);
+    }
+
+    /**
+     * Schreibt die vorgemerkten Teilnahmen und die neue Anzahl. Unter dem Lock und mit frisch gelesenem Dokument,
+     * damit ein Flush während einer Ziehung nie einen Stand von davor zurückschreibt; nach dem Ende verfallen sie.
+     */
+    synchronized void flushEntries(String key) {
+        GiveawayData data = store.get(key);
+        if (data == null || data.isEnded()) {
+            entries.discardPending(key);
+            return;
+        }
+        if (!entries.appendPending(key)) return;
+        data.entrantCount = entries.size(key);
+        store.put(key, data);
+    }
+
+    private void flushAllEntries() {
+        entries.loaded().forEach(this::flushEntries);
+    }
+
+    /** Restzeit eines pausierten Giveaways, bei laufenden die Zeit bis zum Ende. */
+    static Duration remaining(GiveawayData data) {
+        Instant from = data.isPaused() && data.getPausedAtInstant() != null ? data.getPausedAtInstant() : Instant.now();
+        Duration remaining = Duration.between(from, data.getEndsAtInstant());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private Due track(String key, GiveawayData data) {
+        untrack(key);
+        String at;
+        if ("running".equals(data.status)) at = data.endsAt;
+        else if ("scheduled".equals(data.status)) at = data.startedAt;
+        else return null;
+        Due due = new Due(Instant.parse(at).toEpochMilli(), key);
+        index.add(due);
+        byKey.put(key, due);
+        return due;
+    }
+
+    private void untrack(String key) {
+        Due old = byKey.remove(key);
+        if (old != null) index.remove(old);
+    }
+
+    // Timer auf den frühesten Eintrag stellen; steht er schon früher oder gleich, bleibt er
+    private void arm() {
+        if (jda == null || index.isEmpty()) return;
+        long at = index.first().at;
+        if (timer != null && timerAt <= at) return;
+        if (timer != null) timer.cancel();
+        timerAt = at;
+        timer = timers.schedule(this::fire, Math.max(0, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void fire() {
+        Map<String, GiveawayData> ending = new LinkedHashMap<>();
+        List<GiveawayData> started = new ArrayList<>();
+        synchronized (this) {
+            timer = null;
+            timerAt = Long.MAX_VALUE;
+            long horizon = System.currentTimeMillis() + BATCH_WINDOW_MS;
+            while (!index.isEmpty() && index.first().at <= horizon) {
+                Due due = index.pollFirst();
+                byKey.remove(due.key);
+                GiveawayData data = store.get(due.key);
+                if (data == null) continue;
+                try {
+                    if ("scheduled".equals(data.status)) {
+                        data.status = "running";
+                        store.put(due.key, data);
+                        track(due.key, data);
+                        started.add(data);
+                    } else if ("running".equals(data.status)) {
+                        ending.put(due.key, data);
+                    }
+                } catch (Exception e) {
+                    logger.error("Giveaway {} konnte nicht verarbeitet werden", data.id, e);
+                }
+            }
+            arm();
+        }
+        if (!started.isEmpty()) {
+            started.forEach(this::refreshMessage);
+            logger.info("{} geplante Giveaways gestartet", started.size());
+        }
+        if (!ending.isEmpty()) finishAll(ending);
+    }
+
+    // lädt die Teilnehmer aller fälligen Giveaways parallel nach und lost sie dann in einem Durchgang aus
+    private void finishAll(Map<String, GiveawayData> ending) {
+        Map<String, CompletableFuture<Map<Long, Member>>> loads = new LinkedHashMap<>();
+        ending.forEach((key, data) -> {
+            try {
+                loads.put(key, loadEntrants(key, data));
+            } catch (Exception e) {
+                logger.error("Teilnehmer von Giveaway {} konnten nicht geladen werden, neuer Versuch in {} s",
+                        data.id, RETRY_DELAY_MS / 1000, e);
+                retryLater(key);
+            }
+        });
+        if (loads.isEmpty()) return;
+        // auch wenn einzelne Ladevorgänge scheitern, werden die übrigen ausgelost
+        CompletableFuture.allOf(loads.values().toArray(CompletableFuture[]::new)).handleAsync((v, failure) -> {
+            List<GiveawayData> ended = new ArrayList<>();
+            synchronized (this) {
+                for (Map.Entry<String, CompletableFuture<Map<Long, Member>>> load : loads.entrySet()) {
+                    String key = load.getKey();
+                    GiveawayData data = store.get(key);
+                    // inzwischen pausiert, per Befehl beendet oder mit neuer Endzeit wieder im Zeitplan
+                    if (data == null || !"running".equals(data.status) || byKey.containsKey(key)) continue;
+                    try {
+                        finish(key, data, load.getValue().join());
+                        ended.add(data);
+                    } catch (Exception e) {
+                        logger.error("Giveaway {} konnte nicht ausgelost werden, neuer Versuch in {} s",
+                                data.id, RETRY_DELAY_MS / 1000, e);
+                        retryLater(key);
+                    }
+                }
+            }
+            if (!ended.isEmpty()) {
+                announce(ended);
+                logger.info("{} Giveaways beendet", ended.size());
+            }
+            return null;
+        }, drawExecutor);
+    }
+
+    // fällig gewesenes Giveaway nach einem Fehler wieder in den Zeitplan, sofern es nicht schon neu eingeplant ist
+    private synchronized void retryLater(String key) {
+        if (byKey.containsKey(key)) return;
+        Due due = new Due(System.currentTimeMillis() + RETRY_DELAY_MS, key);
+        index.add(due);
+        byKey.put(key, due);
+        arm();
+    }
+
+    // Lean-Modus: Teilnehmer ohne Cache-Eintrag vor der Ziehung gebündelt nachladen
+    private CompletableFuture<Map<Long, Member>> loadEntrants(String key, GiveawayData data) {
+        flushEntries(key);
+        return eligibility.loadMissing(guild(data), entries.columns(key).ids());
+    }
+
+    private void finish(String key, GiveawayData data, Map<Long, Member> loaded) {
+        // noch vorgemerkte Klicks zählen mit
+        if (entries.appendPending(key)) data.entrantCount = entries.size(key);
+        data.winners = draw(key, data, data.winnersCount, false, loaded);
+        data.status = "ended";
+        data.visibility = "final";
+        data.pausedAt = null;
+        store.put(key, data);
+        entries.forget(key);
+        eligibility.forget(key);
+    }
+
+    // Teilnehmer nach User-ID sortiert, damit die Ziehung mit dem gespeicherten Seed reproduzierbar ist
+    private List<String> draw(String key, GiveawayData data, int count, boolean reroll, Map<Long, Member> loaded) {
+        EntrantTable.Columns columns = entries.columns(key);
+        long[] users = columns.ids();
+        if (users.length == 0) return List.of();
+        Set<Long> exclude = new HashSet<>();
+        if (reroll && data.draws != null) data.draws.forEach(d -> d.winners.forEach(id -> exclude.add(Long.parseLong(id))));
+        if (reroll && data.winners != null) data.winners.forEach(id -> exclude.add(Long.parseLong(id)));
+
+        int[] weights = columns.entries();
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = exclude.contains(users[i]) ? 0 : Math.max(1, weights[i]);
+        }
+        // Rollen können sich seit dem Beitritt geändert haben
+        List<String> disqualified = eligibility.revalidate(key, data, guild(data), users, weights, loaded);
+        long totalEntries = 0;
+        for (int weight : weights) totalEntries += weight;
+
+        long seed = WeightedPicker.newSeed();
+        List<String> winners = new ArrayList<>();
+        for (int index : WeightedPicker.pickIndices(weights, count, seed)) winners.add(Long.toString(users[index]));
+
+        GiveawayData.Draw record = new GiveawayData.Draw();
+        record.at = Instant.now().toString();
+        record.seed = seed;
+        record.reroll = reroll;
+        record.entrants = users.length;
+        record.totalEntries = totalEntries;
+        record.winners = List.copyOf(winners);
+        record.disqualified = disqualified;
+        if (data.draws == null) data.draws = new ArrayList<>();
+        data.draws.add(record);
+        logger.info("Giveaway {}: {} Gewinner aus {} Losen gezogen, {} Teilnehmer nicht mehr berechtigt (Seed {})",
+                data.id, winners.size(), totalEntries, disqualified.size(), seed);
+        return record.winners;
+    }
+
+    // Nachrichten-Edits werden alle auf einmal eingereiht, Gewinner gehen als eine Nachricht pro Channel raus
+    private void announce(List<GiveawayData> ended) {
+        ended.forEach(this::refreshMessage);
+        Map<String, List<GiveawayData>> byChannel = ended.stream()
+                .collect(Collectors.groupingBy(d -> d.channelId, LinkedHashMap::new, Collectors.toList()));
+        byChannel.forEach((channelId, gaws) -> {
+            GuildMessageChannel channel = channel(channelId);
+            if (channel == null) return;
+            StringBuilder message = new StringBuilder();
+            for (GiveawayData data : gaws) {
+                String line = resultLine(data);
+                if (message.length() + line.length() + 1 > MAX_MESSAGE_LENGTH) {
+                    channel.sendMessage(message.toString()).queue(null, e -> logger.warn("Gewinner-Nachricht fehlgeschlagen: {}", e.getMessage()));
+                    message.setLength(0);
+                }
+                if (message.length() > 0) message.append('\n');
+                message.append(line);
+            }
+            if (message.length() > 0) {
+                channel.sendMessage(message.toString()).queue(null, e -> logger.warn("Gewinner-Nachricht fehlgeschlagen: {}", e.getMessage()));
+            }
+        });
+    }
+
+    static String resultLine(GiveawayData data) {
+        if (data.winners == null || data.winners.isEmpty()) {
+            return "😢 **" + data.title + "** ist beendet – keine gültigen Teilnehmer.";
+        }
+        String mentions = data.winners.stream().map(id -> "<@" + id + ">").collect(Collectors.joining(", "));
+        return "🎉 **" + data.title + "** ist beendet! Gewinner: " + mentions + " – Preis: **" + data.prize + "**";
+    }
+
+    /**
+     * Live-Update nach neuen Teilnehmern: liest das Giveaway frisch (beim JDBC-Store hat nur die neue Kopie den
+     * aktuellen {@code entrantCount}) und zeichnet nur, solange es läuft. Unter dem Lock, damit das Edit nie nach
+     * dem finalen Edit eines gerade beendeten Giveaways eingereiht wird.
+     */
+    synchronized void refreshIfRunning(String key) {
+        GiveawayData data = store.get(key);
+        if (data != null && "running".equals(data.status)) refreshMessage(data);
+    }
+
+    void refreshMessage(GiveawayData data) {
+        if (data.messageId == null) return;
+        GuildMessageChannel channel = channel(data.channelId);
+        if (channel == null) return;
+        channel.editMessageEmbedsById(data.messageId, GiveawayModuleV2.buildEmbed(data).build())
+                .setComponents(GiveawayModuleV2.buildComponents(data))
+                .queue(null, e -> logger.warn("Giveaway-Nachricht {} nicht aktualisiert: {}", data.id, e.getMessage()));
+    }
+
+    private Guild guild(GiveawayData data) {
+        JDA jda = this.jda;
+        return jda != null ? jda.getGuildById(data.guildId) : null;
+    }
+
+    private GuildMessageChannel channel(String channelId) {
+        JDA jda = this.jda;
+        return jda != null ? jda.getChannelById(GuildMessageChannel.class, channelId) : null;
+    }
+}
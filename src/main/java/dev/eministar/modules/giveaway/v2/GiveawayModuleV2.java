@@ -1,20 +1,34 @@
 package dev.eministar.modules.giveaway.v2;
 
 import dev.eministar.command.Command;
+import dev.eministar.event.EventRouter;
+import dev.eministar.event.RoutedListener;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Debouncer;
+import dev.eministar.scheduler.Scheduler;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.awt.*;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -24,15 +38,74 @@ import java.util.List;
  * Professional Giveaway Module V2
  * Features: Button-based entry, live stats, requirements, bonus entries, claim system, pause/resume
  */
-public class GiveawayModuleV2 implements Command {
-    private final GiveawayStore store;
+@BotModule("giveaway")
+public class GiveawayModuleV2 implements Command, RoutedListener {
+    private static final Logger logger = LoggerFactory.getLogger(GiveawayModuleV2.class);
+
+    private final GiveawayRepository store;
+    private final GiveawayEntries entries;
+    private final GiveawayEligibility eligibility;
+    private final GiveawayLifecycle lifecycle;
     private final Debouncer updateDebouncer;
-    private final Map<String, Long> userCooldowns;
 
     public GiveawayModuleV2() {
-        this.store = new GiveawayStore("./data/giveaways.json");
-        this.updateDebouncer = new Debouncer(2000); // 2s debounce for UI updates
-        this.userCooldowns = new HashMap<>();
+        this.store = GiveawayRepository.create("./data/giveaways.json");
+        this.entries = new GiveawayEntries(store, Path.of("./data/giveaways"));
+        this.eligibility = new GiveawayEligibility();
+        this.lifecycle = new GiveawayLifecycle(store, entries, eligibility);
+        this.updateDebouncer = new Debouncer(2000, Scheduler.group("giveaway")); // max. ein Embed-Edit pro 2s, der letzte Stand kommt immer an
+    }
+
+    // Zeitplan erst mit JDA aufbauen, damit nachgeholte Enden ihre Nachrichten bearbeiten können
+    @Override
+    public void bind(EventRouter router) {
+        router.on(ReadyEvent.class, "giveaway/lifecycle", event -> lifecycle.start(event.getJDA()));
+        router.on(ButtonInteractionEvent.class, "giveaway/enter", this::onEnterButton);
+        router.on(GuildMemberRoleAddEvent.class, "giveaway/eligibility", event -> eligibility.invalidate(event.getMember().getIdLong()));
+        router.on(GuildMemberRoleRemoveEvent.class, "giveaway/eligibility", event -> eligibility.invalidate(event.getMember().getIdLong()));
+        router.on(GuildMemberRemoveEvent.class, "giveaway/eligibility", event -> eligibility.invalidate(event.getUser().getIdLong()));
+    }
+
+    // Alles im Speicher: direkt antworten statt erst zu deferren, gespeichert wird gesammelt in GiveawayEntries
+    private void onEnterButton(ButtonInteractionEvent event) {
+        if (!event.getComponentId().startsWith("gaw:enter:") || event.getGuild() == null) return;
+
+        String key = event.getGuild().getId() + ":" + event.getMessageId();
+        GiveawayData data = store.get(key);
+        if (data == null) {
+            event.reply("❌ Giveaway nicht gefunden!").setEphemeral(true).queue();
+            return;
+        }
+        if (!"running".equals(data.status)) {
+            event.reply("❌ Dieses Giveaway läuft gerade nicht.").setEphemeral(true).queue();
+            return;
+        }
+
+        String userId = event.getUser().getId();
+        if (entries.contains(key, userId)) {
+            event.reply("ℹ️ Du nimmst bereits teil!").setEphemeral(true).queue();
+            return;
+        }
+
+        GiveawayEligibility.Eligibility check = eligibility.evaluate(key, data, event.getMember());
+        if (!check.passed()) {
+            event.reply("❌ " + check.message()).setEphemeral(true).queue();
+            return;
+        }
+
+        int tickets = check.entries();
+        if (!entries.enter(key, userId, tickets)) {
+            event.reply("ℹ️ Du nimmst bereits teil!").setEphemeral(true).queue();
+            return;
+        }
+        event.reply("✅ Du nimmst teil! Deine Lose: **" + tickets + "**").setEphemeral(true).queue();
+
+        if ("live".equals(data.visibility)) {
+            updateDebouncer.submit(key, () -> {
+                lifecycle.flushEntries(key);
+                lifecycle.refreshIfRunning(key);
+            });
+        }
     }
 
     @Override
@@ -67,6 +140,15 @@ public class GiveawayModuleV2 implements Command {
             case "end":
                 handleEnd(event);
                 break;
+            case "pause":
+                handlePause(event);
+                break;
+            case "resume":
+                handleResume(event);
+                break;
+            case "reroll":
+                handleReroll(event);
+                break;
             case "list":
                 handleList(event);
                 break;
@@ -97,8 +179,10 @@ public class GiveawayModuleV2 implements Command {
         }
 
         Duration duration;
+        Duration startDelay = Duration.ZERO;
         try {
             duration = TimeParser.parse(durationStr);
+            if (event.getOption("start") != null) startDelay = TimeParser.parse(event.getOption("start").getAsString());
         } catch (Exception e) {
             event.reply("❌ Ungültiges Format! Nutze: 45m, 2h, 1d").setEphemeral(true).queue();
             return;
@@ -115,13 +199,14 @@ public class GiveawayModuleV2 implements Command {
         data.title = title;
         data.prize = prize;
         data.winnersCount = winners;
-        data.startedAt = Instant.now().toString();
-        data.endsAt = Instant.now().plus(duration).toString();
-        data.status = "running";
+        Instant start = Instant.now().plus(startDelay);
+        data.startedAt = start.toString();
+        data.endsAt = start.plus(duration).toString();
+        data.status = startDelay.isZero() ? "running" : "scheduled";
         data.visibility = "live";
 
         // Create embed
-        EmbedBuilder embed = createGiveawayEmbed(data);
+        EmbedBuilder embed = buildEmbed(data);
 
         // Send message
         TextChannel channel = event.getGuild().getTextChannelById(data.channelId);
@@ -131,32 +216,49 @@ public class GiveawayModuleV2 implements Command {
         }
 
         channel.sendMessageEmbeds(embed.build())
-            .setActionRow(Button.primary("gaw:enter:" + data.id, "🎁 Teilnehmen"))
+            .setComponents(buildComponents(data))
             .queue(message -> {
                 data.messageId = message.getId();
                 String key = data.guildId + ":" + data.messageId;
                 store.put(key, data);
+                lifecycle.schedule(key, data);
 
                 event.getHook().editOriginal("✅ Giveaway erstellt: " + message.getJumpUrl()).queue();
             });
     }
 
-    private EmbedBuilder createGiveawayEmbed(GiveawayData data) {
+    static EmbedBuilder buildEmbed(GiveawayData data) {
         EmbedBuilder embed = new EmbedBuilder();
         embed.setTitle("🎉 " + data.title);
-        embed.setColor(Color.decode("#FF69B4"));
+        embed.setColor(data.isEnded() ? Color.decode("#747F8D") : Color.decode("#FF69B4"));
 
         StringBuilder desc = new StringBuilder();
         desc.append("**🎁 Preis:** ").append(data.prize).append("\n\n");
         desc.append("**👥 Gewinner:** ").append(data.winnersCount).append("\n");
-        desc.append("**⏰ Endet:** <t:").append(data.getEndsAtInstant().getEpochSecond()).append(":R>\n\n");
+        switch (data.status) {
+            case "scheduled" -> desc.append("**🕒 Startet:** <t:").append(data.getStartedAtInstant().getEpochSecond()).append(":R>\n\n");
+            case "paused" -> desc.append("**⏸️ Pausiert** – Restzeit: ")
+                    .append(TimeParser.formatDuration(GiveawayLifecycle.remaining(data))).append("\n\n");
+            case "ended", "cancelled" -> desc.append("**🏁 Beendet:** <t:").append(data.getEndsAtInstant().getEpochSecond()).append(":f>\n\n");
+            default -> desc.append("**⏰ Endet:** <t:").append(data.getEndsAtInstant().getEpochSecond()).append(":R>\n\n");
+        }
 
-        if ("live".equals(data.visibility)) {
-            int totalEntrants = data.entrants != null ? data.entrants.size() : 0;
-            desc.append("**📊 Teilnehmer:** ").append(totalEntrants).append("\n");
+        if ("live".equals(data.visibility) || data.isEnded()) {
+            desc.append("**📊 Teilnehmer:** ").append(data.entrantCount).append("\n");
         }
 
-        desc.append("\n*Klicke auf den Button um teilzunehmen!*");
+        if (data.isEnded()) {
+            if (data.winners == null || data.winners.isEmpty()) {
+                desc.append("\n**🏆 Gewinner:** keine gültigen Teilnehmer");
+            } else {
+                desc.append("\n**🏆 Gewinner:** ");
+                desc.append(String.join(", ", data.winners.stream().map(id -> "<@" + id + ">").toList()));
+            }
+        } else if (data.isPaused()) {
+            desc.append("\n*Das Giveaway ist pausiert.*");
+        } else {
+            desc.append("\n*Klicke auf den Button um teilzunehmen!*");
+        }
 
         embed.setDescription(desc.toString());
         embed.setFooter("Giveaway-ID: " + data.id, null);
@@ -165,8 +267,120 @@ public class GiveawayModuleV2 implements Command {
         return embed;
     }
 
+    // Teilnahme-Button nur solange das Giveaway läuft; geplant/pausiert deaktiviert, beendet ganz weg
+    static List<ActionRow> buildComponents(GiveawayData data) {
+        if (data.isEnded()) return List.of();
+        Button enter = Button.primary("gaw:enter:" + data.id, "🎁 Teilnehmen");
+        return List.of(ActionRow.of("running".equals(data.status) ? enter : enter.asDisabled()));
+    }
+
+    // Giveaway über seine ID im aktuellen Server suchen; Schlüssel im Store ist guildId:messageId
+    private Map.Entry<String, GiveawayData> findById(SlashCommandInteraction event) {
+        String id = event.getOption("id").getAsString().trim();
+        return store.getByGuild(event.getGuild().getId()).entrySet().stream()
+                .filter(e -> id.equalsIgnoreCase(e.getValue().id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean canManage(SlashCommandInteraction event) {
+        Member member = event.getMember();
+        if (member == null || !member.hasPermission(Permission.MANAGE_SERVER)) {
+            event.reply("❌ Du benötigst `Server verwalten` Berechtigung!").setEphemeral(true).queue();
+            return false;
+        }
+        return true;
+    }
+
     private void handleEnd(SlashCommandInteraction event) {
-        event.reply("🔄 End-Funktion in Entwicklung...").setEphemeral(true).queue();
+        if (!canManage(event)) return;
+        Map.Entry<String, GiveawayData> entry = findById(event);
+        if (entry == null) {
+            event.reply("❌ Giveaway nicht gefunden!").setEphemeral(true).queue();
+            return;
+        }
+        GiveawayData data = entry.getValue();
+        if (data.isEnded()) {
+            event.reply("❌ Das Giveaway ist bereits beendet. Nutze `/gaw reroll` für neue Gewinner.").setEphemeral(true).queue();
+            return;
+        }
+        // im Lean-Modus werden vor der Ziehung erst die Teilnehmer geladen, das kann dauern
+        event.deferReply(true).queue();
+        lifecycle.endNow(entry.getKey(), data).whenComplete((ended, e) -> {
+            if (e != null || ended == null) {
+                if (e != null) logger.error("Giveaway {} konnte nicht beendet werden", data.id, e);
+                event.getHook().editOriginal("❌ Giveaway konnte nicht beendet werden.").queue();
+                return;
+            }
+            event.getHook().editOriginal("✅ Giveaway `" + ended.id + "` beendet. " + GiveawayLifecycle.resultLine(ended)).queue();
+        });
+    }
+
+    private void handlePause(SlashCommandInteraction event) {
+        if (!canManage(event)) return;
+        Map.Entry<String, GiveawayData> entry = findById(event);
+        if (entry == null) {
+            event.reply("❌ Giveaway nicht gefunden!").setEphemeral(true).queue();
+            return;
+        }
+        GiveawayData data = entry.getValue();
+        if (!"running".equals(data.status)) {
+            event.reply("❌ Nur laufende Giveaways können pausiert werden!").setEphemeral(true).queue();
+            return;
+        }
+        lifecycle.pause(entry.getKey(), data);
+        event.reply("⏸️ Giveaway `" + data.id + "` pausiert (Restzeit: "
+                + TimeParser.formatDuration(GiveawayLifecycle.remaining(data)) + ").").setEphemeral(true).queue();
+    }
+
+    private void handleResume(SlashCommandInteraction event) {
+        if (!canManage(event)) return;
+        Map.Entry<String, GiveawayData> entry = findById(event);
+        if (entry == null) {
+            event.reply("❌ Giveaway nicht gefunden!").setEphemeral(true).queue();
+            return;
+        }
+        GiveawayData data = entry.getValue();
+        if (!data.isPaused()) {
+            event.reply("❌ Das Giveaway ist nicht pausiert!").setEphemeral(true).queue();
+            return;
+        }
+        lifecycle.resume(entry.getKey(), data);
+        event.reply("▶️ Giveaway `" + data.id + "` läuft weiter, endet <t:"
+                + data.getEndsAtInstant().getEpochSecond() + ":R>.").setEphemeral(true).queue();
+    }
+
+    private void handleReroll(SlashCommandInteraction event) {
+        if (!canManage(event)) return;
+        Map.Entry<String, GiveawayData> entry = findById(event);
+        if (entry == null) {
+            event.reply("❌ Giveaway nicht gefunden!").setEphemeral(true).queue();
+            return;
+        }
+        GiveawayData data = entry.getValue();
+        if (!"ended".equals(data.status)) {
+            event.reply("❌ Reroll ist nur bei beendeten Giveaways möglich!").setEphemeral(true).queue();
+            return;
+        }
+        int count = event.getOption("winners") != null ? event.getOption("winners").getAsInt() : data.winnersCount;
+        if (count < 1 || count > 20) {
+            event.reply("❌ Gewinner muss zwischen 1-20 liegen!").setEphemeral(true).queue();
+            return;
+        }
+        event.deferReply().queue();
+        lifecycle.reroll(entry.getKey(), data, count).whenComplete((winners, e) -> {
+            if (e != null) {
+                logger.error("Reroll für Giveaway {} fehlgeschlagen", data.id, e);
+                event.getHook().editOriginal("❌ Reroll fehlgeschlagen.").queue();
+                return;
+            }
+            if (winners.isEmpty()) {
+                event.getHook().editOriginal("❌ Keine weiteren Teilnehmer für einen Reroll übrig!").queue();
+                return;
+            }
+            String mentions = String.join(", ", winners.stream().map(id -> "<@" + id + ">").toList());
+            event.getHook().editOriginal("🔄 Neue Gewinner für **" + data.title + "**: " + mentions + " – Preis: **" + data.prize + "**").queue();
+        });
     }
 
     private void handleList(SlashCommandInteraction event) {
@@ -181,7 +395,7 @@ public class GiveawayModuleV2 implements Command {
         } else {
             StringBuilder desc = new StringBuilder();
             gaws.values().stream()
-                .filter(GiveawayData::isActive)
+                .filter(gaw -> !gaw.isEnded())
                 .forEach(gaw -> {
                     desc.append("**").append(gaw.title).append("**\n");
                     desc.append("└ Status: ").append(gaw.status).append("\n");
@@ -203,9 +417,17 @@ public class GiveawayModuleV2 implements Command {
                                 .addOption(OptionType.STRING, "title", "Titel des Giveaways", true)
                                 .addOption(OptionType.STRING, "prize", "Der Preis", true)
                                 .addOption(OptionType.STRING, "duration", "Dauer (z.B. 45m, 2h, 1d)", true)
-                                .addOption(OptionType.INTEGER, "winners", "Anzahl Gewinner (1-20)", false),
+                                .addOption(OptionType.INTEGER, "winners", "Anzahl Gewinner (1-20)", false)
+                                .addOption(OptionType.STRING, "start", "Startet erst in (z.B. 10m, 1h)", false),
                         new SubcommandData("end", "Beende ein Giveaway")
                                 .addOption(OptionType.STRING, "id", "Giveaway-ID", true),
+                        new SubcommandData("pause", "Pausiere ein laufendes Giveaway")
+                                .addOption(OptionType.STRING, "id", "Giveaway-ID", true),
+                        new SubcommandData("resume", "Setze ein pausiertes Giveaway fort")
+                                .addOption(OptionType.STRING, "id", "Giveaway-ID", true),
+                        new SubcommandData("reroll", "Ziehe neue Gewinner für ein beendetes Giveaway")
+                                .addOption(OptionType.STRING, "id", "Giveaway-ID", true)
+                                .addOption(OptionType.INTEGER, "winners", "Anzahl neuer Gewinner (Standard: wie beim Giveaway)", false),
                         new SubcommandData("list", "Liste alle aktiven Giveaways")
                 );
     }
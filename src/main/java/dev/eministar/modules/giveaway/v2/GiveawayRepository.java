@@ -0,0 +1,27 @@
+package dev.eministar.modules.giveaway.v2;
+
+import dev.eministar.persistence.Database;
+
+import java.util.Map;
+
+/**
+ * Speicher für Giveaways. Schlüssel ist {@code <guildId>:<messageId>}.
+ * Standard ist der JSON-{@link GiveawayStore}, bei konfigurierter Datenbank {@link JdbcGiveawayRepository}.
+ */
+public interface GiveawayRepository {
+    String generateId();
+
+    void put(String key, GiveawayData data);
+
+    GiveawayData get(String key);
+
+    void remove(String key);
+
+    Map<String, GiveawayData> getAll();
+
+    Map<String, GiveawayData> getByGuild(String guildId);
+
+    static GiveawayRepository create(String jsonPath) {
+        return Database.isEnabled() ? new JdbcGiveawayRepository(Database.get()) : new GiveawayStore(jsonPath);
+    }
+}
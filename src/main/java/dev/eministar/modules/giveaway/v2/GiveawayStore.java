@@ -2,19 +2,24 @@ package dev.eministar.modules.giveaway.v2;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
 import com.google.gson.reflect.TypeToken;
+import dev.eministar.persistence.Journal;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class GiveawayStore {
+public class GiveawayStore implements GiveawayRepository {
     private final String filePath;
     private final Gson gson;
     private final Map<String, GiveawayData> giveaways;
+    private final Journal journal;
     private int sequence;
 
     public GiveawayStore(String filePath) {
@@ -22,68 +27,87 @@ public class GiveawayStore {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.giveaways = new ConcurrentHashMap<>();
         this.sequence = 0;
+        this.journal = Journal.open(Paths.get(filePath), this::writeSnapshot, this::replay);
         load();
     }
 
     public synchronized void load() {
         File file = new File(filePath);
-        if (!file.exists()) {
+        if (file.exists()) {
+            try (Reader reader = new FileReader(file)) {
+                Type type = new TypeToken<StoreData>() {}.getType();
+                StoreData data = gson.fromJson(reader, type);
+                if (data != null) {
+                    this.sequence = data.seq;
+                    if (data.gaws != null) {
+                        this.giveaways.putAll(data.gaws);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to load giveaways: " + e.getMessage());
+            }
+        } else {
             file.getParentFile().mkdirs();
-            save();
-            return;
         }
 
-        try (Reader reader = new FileReader(file)) {
-            Type type = new TypeToken<StoreData>() {}.getType();
-            StoreData data = gson.fromJson(reader, type);
-            if (data != null) {
-                this.sequence = data.seq;
-                if (data.gaws != null) {
-                    this.giveaways.putAll(data.gaws);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to load giveaways: " + e.getMessage());
+        journal.recover();
+        if (!file.exists()) {
+            save();
         }
     }
 
-    public synchronized void save() {
-        try (Writer writer = new FileWriter(filePath)) {
-            StoreData data = new StoreData();
-            data.seq = sequence;
-            data.gaws = new HashMap<>(giveaways);
-            gson.toJson(data, writer);
-        } catch (Exception e) {
-            System.err.println("Failed to save giveaways: " + e.getMessage());
+    /** Erzwingt einen vollständigen Snapshot; normale Änderungen landen nur im Journal. */
+    public void save() {
+        journal.compact();
+    }
+
+    synchronized void writeSnapshot(Writer writer) {
+        StoreData data = new StoreData();
+        data.seq = sequence;
+        data.gaws = new HashMap<>(giveaways);
+        gson.toJson(data, writer);
+    }
+
+    private void replay(String op, String key, JsonElement value) {
+        switch (op) {
+            case Journal.OP_PUT -> giveaways.put(key, gson.fromJson(value, GiveawayData.class));
+            case Journal.OP_DELETE -> giveaways.remove(key);
+            case "seq" -> sequence = Math.max(sequence, value.getAsInt());
         }
     }
 
-    public String generateId() {
+    @Override
+    public synchronized String generateId() {
         sequence++;
-        save();
+        journal.append("seq", "", new JsonPrimitive(sequence));
         return String.format("GA-%s-%03d",
                 Instant.now().toString().substring(0, 10).replace("-", ""),
                 sequence % 1000);
     }
 
+    @Override
     public void put(String key, GiveawayData data) {
         giveaways.put(key, data);
-        save();
+        journal.put(key, gson.toJsonTree(data));
     }
 
+    @Override
     public GiveawayData get(String key) {
         return giveaways.get(key);
     }
 
+    @Override
     public void remove(String key) {
         giveaways.remove(key);
-        save();
+        journal.remove(key);
     }
 
+    @Override
     public Map<String, GiveawayData> getAll() {
         return new HashMap<>(giveaways);
     }
 
+    @Override
     public Map<String, GiveawayData> getByGuild(String guildId) {
         Map<String, GiveawayData> result = new HashMap<>();
         giveaways.forEach((key, data) -> {
@@ -99,4 +123,3 @@ public class GiveawayStore {
         Map<String, GiveawayData> gaws;
     }
 }
-
@@ -0,0 +1,75 @@
+package dev.eministar.modules.giveaway.v2;
+
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.DocumentTable;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class JdbcGiveawayRepository implements GiveawayRepository, DocumentTable.Mapping<GiveawayData> {
+    private final Database db;
+    private final DocumentTable<GiveawayData> table;
+
+    public JdbcGiveawayRepository(Database db) {
+        this.db = db;
+        this.table = new DocumentTable<>(db, "giveaways", GiveawayData.class, this);
+    }
+
+    @Override
+    public String id(GiveawayData data) {
+        return data.guildId + ":" + data.messageId;
+    }
+
+    @Override
+    public String guildId(GiveawayData data) {
+        return data.guildId;
+    }
+
+    @Override
+    public String userId(GiveawayData data) {
+        return data.hostId;
+    }
+
+    @Override
+    public String refId(GiveawayData data) {
+        return data.channelId;
+    }
+
+    @Override
+    public String status(GiveawayData data) {
+        return data.status;
+    }
+
+    @Override
+    public String generateId() {
+        long sequence = db.nextSequence("giveaways", 1);
+        return String.format("GA-%s-%03d",
+                Instant.now().toString().substring(0, 10).replace("-", ""),
+                sequence % 1000);
+    }
+
+    @Override
+    public void put(String key, GiveawayData data) {
+        table.save(key, data);
+    }
+
+    @Override
+    public GiveawayData get(String key) {
+        return table.find(key).orElse(null);
+    }
+
+    @Override
+    public void remove(String key) {
+        table.delete(key);
+    }
+
+    @Override
+    public Map<String, GiveawayData> getAll() {
+        return table.findAllById();
+    }
+
+    @Override
+    public Map<String, GiveawayData> getByGuild(String guildId) {
+        return table.findByGuildById(guildId);
+    }
+}
@@ -3,84 +3,174 @@ package dev.eministar.modules.giveaway.v2;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.utils.TimeUtil;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class RequirementsChecker {
 
-    public static CheckResult check(Member member, GiveawayData.Requirements req) {
-        if (member == null) {
-            return new CheckResult(false, "Mitglied nicht gefunden");
+    private static final int MEMBER_REQUEST_LIMIT = 100; // Gateway: höchstens 100 IDs pro Member-Request
+
+    /**
+     * Holt Member, die nicht im Cache liegen (Lean-Modus), gebündelt über das Gateway. Das Ergebnis enthält jede
+     * angefragte ID, die beantwortet wurde; {@code null} als Wert heißt, der User ist nicht mehr auf dem Server.
+     * IDs aus fehlgeschlagenen Anfragen fehlen ganz. Schlägt nie fehl.
+     */
+    public static CompletableFuture<Map<Long, Member>> retrieveMembers(Guild guild, long[] userIds) {
+        List<CompletableFuture<Map<Long, Member>>> batches = new ArrayList<>();
+        for (int from = 0; from < userIds.length; from += MEMBER_REQUEST_LIMIT) {
+            long[] batch = Arrays.copyOfRange(userIds, from, Math.min(userIds.length, from + MEMBER_REQUEST_LIMIT));
+            CompletableFuture<Map<Long, Member>> result = new CompletableFuture<>();
+            try {
+                guild.retrieveMembersByIds(batch)
+                        .onSuccess(members -> {
+                            Map<Long, Member> found = new HashMap<>();
+                            for (long id : batch) found.put(id, null);
+                            for (Member member : members) found.put(member.getIdLong(), member);
+                            result.complete(found);
+                        })
+                        .onError(e -> result.complete(Map.of()));
+            } catch (RuntimeException e) {
+                result.complete(Map.of());
+            }
+            batches.add(result);
+        }
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).thenApply(v -> {
+            Map<Long, Member> all = new HashMap<>();
+            for (CompletableFuture<Map<Long, Member>> batch : batches) all.putAll(batch.join());
+            return all;
+        });
+    }
+
+    /** Übersetzt Anforderungen und Bonus-Lose einmal in primitive Form, siehe {@link Compiled}. */
+    public static Compiled compile(GiveawayData.Requirements req, GiveawayData.EntriesConfig config) {
+        return new Compiled(req, config);
+    }
+
+    /**
+     * Vorkompilierte Anforderungen eines Giveaways: Rollen-IDs als sortierte {@code long[]} (Binärsuche statt
+     * {@code List.contains} auf Strings), Bonus-Lose als parallele Arrays Rolle -> Lose, Mindestalter in Millisekunden.
+     * Unveränderlich und damit ohne Synchronisation teilbar.
+     */
+    public static final class Compiled {
+        private final int minAccountAgeHours;
+        private final int minGuildJoinHours;
+        private final long minAccountAgeMillis;
+        private final long minGuildJoinMillis;
+        private final long[] denyRoles;
+        private final long[] requireRoles;
+        private final int base;
+        private final long[] bonusRoles;
+        private final int[] bonusValues;
+
+        private Compiled(GiveawayData.Requirements req, GiveawayData.EntriesConfig config) {
+            this.minAccountAgeHours = req != null ? req.minAccountAgeHours : 0;
+            this.minGuildJoinHours = req != null ? req.minGuildJoinHours : 0;
+            this.minAccountAgeMillis = TimeUnit.HOURS.toMillis(minAccountAgeHours);
+            this.minGuildJoinMillis = TimeUnit.HOURS.toMillis(minGuildJoinHours);
+            this.denyRoles = roleSet(req != null ? req.denyRoleIds : null);
+            this.requireRoles = roleSet(req != null ? req.requireRoleIds : null);
+
+            this.base = config != null ? config.base : 1;
+            Map<String, Integer> bonus = config != null && config.bonusByRole != null ? config.bonusByRole : Map.of();
+            long[] roles = new long[bonus.size()];
+            int i = 0;
+            for (String roleId : bonus.keySet()) roles[i++] = Long.parseLong(roleId);
+            Arrays.sort(roles);
+            this.bonusRoles = roles;
+            this.bonusValues = new int[roles.length];
+            bonus.forEach((roleId, value) -> {
+                if (value != null) bonusValues[Arrays.binarySearch(roles, Long.parseLong(roleId))] = value;
+            });
+        }
+
+        private static long[] roleSet(List<String> roleIds) {
+            if (roleIds == null || roleIds.isEmpty()) return new long[0];
+            return roleIds.stream().mapToLong(Long::parseLong).sorted().distinct().toArray();
+        }
+
+        public boolean hasRoleRules() {
+            return denyRoles.length > 0 || requireRoles.length > 0;
         }
 
-        // Check account age
-        if (req.minAccountAgeHours > 0) {
-            Duration accountAge = Duration.between(
-                    member.getUser().getTimeCreated().toInstant(),
-                    Instant.now()
-            );
-            if (accountAge.toHours() < req.minAccountAgeHours) {
+        public CheckResult check(Member member, long nowMillis) {
+            if (member == null) {
+                return new CheckResult(false, "Mitglied nicht gefunden");
+            }
+
+            // Check account age (Erstellzeit steckt in der Snowflake)
+            if (minAccountAgeMillis > 0 && nowMillis - createdAt(member) < minAccountAgeMillis) {
                 return new CheckResult(false,
-                        "Dein Account muss mindestens " + req.minAccountAgeHours + " Stunden alt sein.");
+                        "Dein Account muss mindestens " + minAccountAgeHours + " Stunden alt sein.");
             }
-        }
 
-        // Check guild join age
-        if (req.minGuildJoinHours > 0) {
-            Duration joinAge = Duration.between(
-                    member.getTimeJoined().toInstant(),
-                    Instant.now()
-            );
-            if (joinAge.toHours() < req.minGuildJoinHours) {
+            // Check guild join age
+            if (minGuildJoinMillis > 0 && nowMillis - joinedAt(member) < minGuildJoinMillis) {
                 return new CheckResult(false,
-                        "Du musst mindestens " + req.minGuildJoinHours + " Stunden auf diesem Server sein.");
+                        "Du musst mindestens " + minGuildJoinHours + " Stunden auf diesem Server sein.");
+            }
+
+            if (!hasRoleRules()) {
+                return new CheckResult(true, "OK");
             }
-        }
 
-        // Check deny roles
-        if (req.denyRoleIds != null && !req.denyRoleIds.isEmpty()) {
+            // Check deny roles, require roles (OR logic - needs at least one)
+            boolean hasRequired = requireRoles.length == 0;
             for (Role role : member.getRoles()) {
-                if (req.denyRoleIds.contains(role.getId())) {
+                long id = role.getIdLong();
+                if (denyRoles.length > 0 && Arrays.binarySearch(denyRoles, id) >= 0) {
                     return new CheckResult(false,
                             "Du hast eine gesperrte Rolle: " + role.getName());
                 }
-            }
-        }
-
-        // Check require roles (OR logic - needs at least one)
-        if (req.requireRoleIds != null && !req.requireRoleIds.isEmpty()) {
-            boolean hasRequired = false;
-            for (Role role : member.getRoles()) {
-                if (req.requireRoleIds.contains(role.getId())) {
+                if (!hasRequired && Arrays.binarySearch(requireRoles, id) >= 0) {
                     hasRequired = true;
-                    break;
                 }
             }
             if (!hasRequired) {
                 return new CheckResult(false,
                         "Du benötigst eine der erforderlichen Rollen.");
             }
-        }
 
-        return new CheckResult(true, "OK");
-    }
+            return new CheckResult(true, "OK");
+        }
 
-    public static int calculateEntries(Member member, GiveawayData.EntriesConfig config) {
-        int total = config.base;
+        /**
+         * Ab wann die Altersgrenzen erfüllt sind (Epoch-Millisekunden). Ein Ergebnis, das nur am Alter scheitert,
+         * kann bis dahin gecacht werden.
+         */
+        public long eligibleFrom(Member member) {
+            long from = 0;
+            if (minAccountAgeMillis > 0) from = Math.max(from, createdAt(member) + minAccountAgeMillis);
+            if (minGuildJoinMillis > 0) from = Math.max(from, joinedAt(member) + minGuildJoinMillis);
+            return from;
+        }
 
-        if (config.bonusByRole != null) {
-            List<Role> roles = member.getRoles();
-            for (Role role : roles) {
-                Integer bonus = config.bonusByRole.get(role.getId());
-                if (bonus != null) {
-                    total += bonus;
+        public int entries(Member member) {
+            int total = base;
+            if (bonusRoles.length > 0) {
+                for (Role role : member.getRoles()) {
+                    int i = Arrays.binarySearch(bonusRoles, role.getIdLong());
+                    if (i >= 0) {
+                        total += bonusValues[i];
+                    }
                 }
             }
+            return Math.max(1, total);
         }
 
-        return Math.max(1, total);
+        private static long createdAt(Member member) {
+            return (member.getIdLong() >>> TimeUtil.TIMESTAMP_OFFSET) + TimeUtil.DISCORD_EPOCH;
+        }
+
+        private static long joinedAt(Member member) {
+            return member.getTimeJoined().toInstant().toEpochMilli();
+        }
     }
 
     public static class CheckResult {
@@ -93,4 +183,3 @@ public class RequirementsChecker {
         }
     }
 }
-
@@ -1,46 +1,51 @@
 package dev.eministar.modules.giveaway.v2;
 
+import java.security.SecureRandom;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class WeightedPicker {
+    private static final SecureRandom SEEDS = new SecureRandom();
 
-    public static <T> List<T> pickWeighted(Map<T, Integer> weights, int count) {
-        if (weights.isEmpty() || count <= 0) {
-            return new ArrayList<>();
-        }
-
-        List<T> result = new ArrayList<>();
-        Map<T, Integer> remainingWeights = new HashMap<>(weights);
+    /** Neuer Seed für eine Ziehung; wird mit dem Ergebnis gespeichert, damit sie nachvollziehbar bleibt. */
+    public static long newSeed() {
+        return SEEDS.nextLong();
+    }
 
-        for (int i = 0; i < count && !remainingWeights.isEmpty(); i++) {
-            T picked = pickOne(remainingWeights);
-            if (picked != null) {
-                result.add(picked);
-                remainingWeights.remove(picked); // No duplicates
-            }
+    /**
+     * Zieht bis zu {@code count} verschiedene Einträge, Wahrscheinlichkeit proportional zum Gewicht.
+     * <p>
+     * Gleiche {@code items}-Reihenfolge, gleiche Gewichte und gleicher Seed ergeben immer dieselben Gewinner
+     * ({@link SplittableRandom} ist plattformunabhängig spezifiziert).
+     */
+    public static <T> List<T> pickWeighted(List<T> items, int[] weights, int count, long seed) {
+        if (items.size() != weights.length) {
+            throw new IllegalArgumentException("items und weights müssen gleich lang sein");
+        }
+        int[] indices = pickIndices(weights, count, seed);
+        List<T> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(items.get(index));
         }
-
         return result;
     }
 
-    private static <T> T pickOne(Map<T, Integer> weights) {
-        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
-        if (totalWeight <= 0) {
-            return null;
+    /** Wie {@link #pickWeighted(List, int[], int, long)}, liefert aber nur die gezogenen Positionen. */
+    public static int[] pickIndices(int[] weights, int count, long seed) {
+        if (weights.length == 0 || count <= 0) {
+            return new int[0];
         }
 
-        int random = ThreadLocalRandom.current().nextInt(totalWeight);
-        int cumulative = 0;
-
-        for (Map.Entry<T, Integer> entry : weights.entrySet()) {
-            cumulative += entry.getValue();
-            if (random < cumulative) {
-                return entry.getKey();
-            }
+        FenwickSampler sampler = new FenwickSampler(weights);
+        RandomGenerator rng = new SplittableRandom(seed);
+        int[] result = new int[Math.min(count, weights.length)];
+        int picked = 0;
+        while (picked < result.length) {
+            int index = sampler.next(rng);
+            if (index < 0) break;
+            result[picked++] = index;
         }
-
-        return null;
+        return picked == result.length ? result : Arrays.copyOf(result, picked);
     }
 
     public static <T> List<T> pickRandom(List<T> items, int count) {
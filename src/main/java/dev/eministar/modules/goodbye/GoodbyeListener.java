@@ -1,6 +1,7 @@
 package dev.eministar.modules.goodbye;
 
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
@@ -10,6 +11,7 @@ import net.dv8tion.jda.api.entities.User;
 
 import java.awt.Color;
 
+@BotModule("goodbye")
 public class GoodbyeListener extends ListenerAdapter {
     @Override
     public void onGuildMemberRemove(GuildMemberRemoveEvent event) {
@@ -1,6 +1,7 @@
 package dev.eministar.modules.hymn;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
@@ -8,6 +9,7 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 
+@BotModule(value = "hymn/hymn", dependsOn = "hymn")
 public class HymnCommand implements Command {
 
     @Override
@@ -9,9 +9,13 @@ import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import dev.eministar.config.Config;
+import dev.eministar.event.EventRouter;
+import dev.eministar.event.RoutedListener;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -24,7 +28,8 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
-public class HymnModule extends ListenerAdapter {
+@BotModule("hymn")
+public class HymnModule extends ListenerAdapter implements RoutedListener {
     private static final Logger logger = LoggerFactory.getLogger(HymnModule.class);
 
     private final AudioPlayerManager playerManager;
@@ -32,8 +37,9 @@ public class HymnModule extends ListenerAdapter {
     private TrackScheduler trackScheduler;
     private AudioManager audioManager;
 
-    private boolean enabled;
-    private String hymnChannelId;
+    // volatile: werden beim Config-Reload von einem Scheduler-Worker neu gesetzt
+    private volatile boolean enabled;
+    private volatile String hymnChannelId;
     private final List<String> hymns;
     private boolean isPlaying = false;
 
@@ -43,6 +49,9 @@ public class HymnModule extends ListenerAdapter {
 
         this.hymns = new ArrayList<>();
         loadConfig();
+        Config.onChange((old, now) -> {
+            if (!old.hymn().equals(now.hymn())) loadConfig();
+        });
         loadHymns();
     }
 
@@ -78,6 +87,32 @@ public class HymnModule extends ListenerAdapter {
         }
     }
 
+    // /hymn bleibt immer erreichbar, .skip und der Auto-Start nur bei aktiviertem Modul
+    // (erstmaliges Aktivieren per Config-Reload braucht daher einen Neustart)
+    @Override
+    public void bind(EventRouter router) {
+        router.on(SlashCommandInteractionEvent.class, "hymn/slash", this::onSlashCommandInteraction);
+        if (!enabled) return;
+        router.on(MessageReceivedEvent.class, "hymn/skip", this::onMessageReceived);
+        router.on(ReadyEvent.class, "hymn/autostart", this::autoStart);
+    }
+
+    private void autoStart(ReadyEvent event) {
+        String guildId = Config.getGuildId();
+        if (guildId.isEmpty()) return;
+        try {
+            Guild guild = event.getJDA().getGuildById(guildId);
+            if (guild == null) {
+                logger.warn("Hymn auto-start: guild {} not found", guildId);
+                return;
+            }
+            startPlaying(guild);
+            logger.info("Auto-started Hymn module");
+        } catch (Exception e) {
+            logger.error("Failed to auto-start Hymn module", e);
+        }
+    }
+
     public void startPlaying(Guild guild) {
         if (!enabled || hymnChannelId.isEmpty() || hymns.isEmpty()) {
             logger.warn("Cannot start playing - module disabled, no channel, or no hymns");
@@ -0,0 +1,149 @@
+package dev.eministar.modules.misc;
+
+import dev.eministar.command.Command;
+import dev.eministar.command.CommandMetrics;
+import dev.eministar.config.Config;
+import dev.eministar.event.EventRouter;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
+import dev.eministar.util.EmojiUtil;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Zeigt Aufrufe, Fehler und Laufzeit-Perzentile pro Command, mit {@code events} pro Event-Handler und mit
+ * {@code timers} pro Timer-Gruppe (Bot-Owner oder Administratoren).
+ */
+@BotModule("misc/cmdstats")
+public class CommandStatsCommand implements Command {
+    @Override
+    public String name() { return "cmdstats"; }
+
+    @Override
+    public String description() { return "Zeigt Laufzeit- und Fehlerstatistiken der Commands"; }
+
+    @Override
+    public CommandData getSlashCommandData() {
+        return Commands.slash(name(), description())
+                .addOptions(new OptionData(OptionType.STRING, "ansicht", "Was angezeigt werden soll", false)
+                        .addChoice("Commands", "commands")
+                        .addChoice("Events", "events")
+                        .addChoice("Timer", "timers"));
+    }
+
+    @Override
+    public void execute(MessageReceivedEvent event, String[] args) {
+        if (!allowed(event.getAuthor(), event.getMember())) {
+            event.getMessage().reply(EmojiUtil.wrap("⛔") + " Dafür fehlt dir die Berechtigung!").queue();
+            return;
+        }
+        event.getMessage().reply(render(args.length > 0 ? args[0] : "")).queue();
+    }
+
+    @Override
+    public void executeSlash(SlashCommandInteraction event) {
+        if (!allowed(event.getUser(), event.getMember())) {
+            event.reply(EmojiUtil.wrap("⛔") + " Dafür fehlt dir die Berechtigung!").setEphemeral(true).queue();
+            return;
+        }
+        var view = event.getOption("ansicht");
+        event.reply(render(view != null ? view.getAsString() : "")).setEphemeral(true).queue();
+    }
+
+    private static boolean allowed(User user, Member member) {
+        if (user.getId().equals(Config.getOwnerId())) return true;
+        return member != null && member.hasPermission(Permission.ADMINISTRATOR);
+    }
+
+    private static String render(String view) {
+        return switch (view.toLowerCase()) {
+            case "events" -> renderEvents();
+            case "timers" -> renderTimers();
+            default -> renderCommands();
+        };
+    }
+
+    private static String renderCommands() {
+        List<CommandMetrics> metrics = CommandMetrics.all().values().stream()
+                .filter(m -> m.count() > 0)
+                .sorted(Comparator.comparingLong(CommandMetrics::count).reversed())
+                .toList();
+        if (metrics.isEmpty()) {
+            return EmojiUtil.wrap("ℹ️") + " Noch keine Commands ausgeführt.";
+        }
+
+        StringBuilder sb = new StringBuilder("```\n");
+        sb.append(String.format("%-14s %7s %6s %9s %9s %9s%n", "Command", "Aufrufe", "Fehler", "p50", "p99", "max"));
+        for (CommandMetrics m : metrics) {
+            if (sb.length() > 1800) {
+                sb.append("…\n");
+                break;
+            }
+            sb.append(String.format("%-14s %7d %6d %9s %9s %9s%n",
+                    m.command(), m.count(), m.errors(),
+                    "<" + formatMicros(m.quantileMicros(0.5)), "<" + formatMicros(m.quantileMicros(0.99)),
+                    formatMicros(m.maxNanos() / 1000)));
+        }
+        return sb.append("```").toString();
+    }
+
+    private static String renderEvents() {
+        List<EventRouter.Handler> handlers = EventRouter.get().handlers().stream()
+                .filter(h -> h.count() > 0)
+                .sorted(Comparator.comparingLong(EventRouter.Handler::totalNanos).reversed())
+                .toList();
+        if (handlers.isEmpty()) {
+            return EmojiUtil.wrap("ℹ️") + " Noch keine Events verarbeitet.";
+        }
+
+        StringBuilder sb = new StringBuilder("```\n");
+        sb.append(String.format("%-34s %8s %6s %9s %9s%n", "Handler", "Aufrufe", "Fehler", "avg", "max"));
+        for (EventRouter.Handler h : handlers) {
+            if (sb.length() > 1800) {
+                sb.append("…\n");
+                break;
+            }
+            sb.append(String.format("%-34s %8d %6d %9s %9s%n",
+                    h.name(), h.count(), h.errors(),
+                    formatMicros(h.totalNanos() / h.count() / 1000), formatMicros(h.maxNanos() / 1000)));
+        }
+        return sb.append("```").toString();
+    }
+
+    private static String renderTimers() {
+        List<TaskGroup> groups = Scheduler.groups().stream()
+                .sorted(Comparator.comparing(TaskGroup::name))
+                .toList();
+        if (groups.isEmpty()) {
+            return EmojiUtil.wrap("ℹ️") + " Noch keine Timer geplant.";
+        }
+
+        StringBuilder sb = new StringBuilder("```\n");
+        sb.append(String.format("%-16s %8s %8s %7s %6s %9s %9s%n", "Gruppe", "offen", "gelaufen", "Abbruch", "Fehler", "Lag avg", "Lag max"));
+        for (TaskGroup g : groups) {
+            sb.append(String.format("%-16s %8d %8d %7d %6d %9s %9s%n",
+                    g.name(), g.pending(), g.executed(), g.cancelled(), g.failed(),
+                    formatMicros(g.averageLagNanos() / 1000), formatMicros(g.maxLagNanos() / 1000)));
+        }
+        sb.append("Tick: ").append(Scheduler.tickMillis()).append(" ms, Timeouts im Rad: ").append(Scheduler.pending()).append('\n');
+        return sb.append("```").toString();
+    }
+
+    // p50/p99 sind Bucket-Obergrenzen, daher "<" davor
+    private static String formatMicros(long micros) {
+        if (micros < 1000) return micros + "µs";
+        if (micros < 1_000_000) return (micros / 1000) + "ms";
+        return String.format("%.1fs", micros / 1_000_000.0);
+    }
+}
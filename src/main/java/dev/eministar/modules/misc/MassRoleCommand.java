@@ -1,10 +1,15 @@
 package dev.eministar.modules.misc;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.ScheduledTask;
+import dev.eministar.scheduler.Scheduler;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.UserSnowflake;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
@@ -14,10 +19,14 @@ import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 
 import java.awt.*;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+@BotModule("misc/massrole")
 public class MassRoleCommand implements Command {
     @Override
     public String name() { return "massrole"; }
@@ -86,37 +95,47 @@ public class MassRoleCommand implements Command {
             return;
         }
 
-        List<Member> members = event.getGuild().getMembers();
-
-        List<Member> filtered = members.stream().filter(m -> {
-            switch (filterRaw.toLowerCase()) {
-                case "all" -> { return true; }
-                case "no-role" -> { return m.getRoles().isEmpty(); }
-                default -> {
-                    if (filterRaw.startsWith("has:")) {
-                        String id = filterRaw.substring(4).trim();
-                        return m.getRoles().stream().anyMatch(r -> r.getId().equals(id));
-                    }
-                    return false;
-                }
+        // Mitglieder werden gestreamt statt aus dem Cache gelesen (im Lean-Modus ist der nicht vollständig);
+        // gemerkt werden nur die IDs, nicht die Member-Objekte
+        event.deferReply(true).queue();
+        Guild guild = event.getGuild();
+        String filter = filterRaw.toLowerCase();
+        List<Long> targetIds = Collections.synchronizedList(new ArrayList<>());
+        guild.loadMembers(m -> {
+            if (matches(m, filter) && m.getRoles().stream().noneMatch(r -> r.getIdLong() == roleToAdd.getIdLong())) {
+                targetIds.add(m.getIdLong());
             }
-        }).toList();
+        }).onSuccess(done -> startAssignment(event, guild, roleToAdd, filterRaw, dryRun, List.copyOf(targetIds)))
+                .onError(e -> event.getHook().editOriginal(EmojiUtil.wrap("❌") + " Mitglieder konnten nicht geladen werden: " + e.getMessage()).queue());
+    }
 
-        // Entferne alle, die die Rolle bereits haben
-        List<Member> targetMembers = filtered.stream().filter(m -> m.getRoles().stream().noneMatch(r -> r.getId().equals(roleToAdd.getId()))).toList();
+    private static boolean matches(Member m, String filter) {
+        switch (filter) {
+            case "all" -> { return true; }
+            case "no-role" -> { return m.getRoles().isEmpty(); }
+            default -> {
+                if (filter.startsWith("has:")) {
+                    String id = filter.substring(4).trim();
+                    return m.getRoles().stream().anyMatch(r -> r.getId().equals(id));
+                }
+                return false;
+            }
+        }
+    }
 
+    private void startAssignment(SlashCommandInteraction event, Guild guild, Role roleToAdd, String filterRaw, boolean dryRun, List<Long> targetMembers) {
         if (targetMembers.isEmpty()) {
-            event.reply(EmojiUtil.wrap("ℹ️") + " Keine passenden Mitglieder für Filter `" + filterRaw + "` (nach Entfernen von Duplikaten). ").setEphemeral(true).queue();
+            event.getHook().editOriginal(EmojiUtil.wrap("ℹ️") + " Keine passenden Mitglieder für Filter `" + filterRaw + "` (nach Entfernen von Duplikaten). ").queue();
             return;
         }
 
         if (dryRun) {
-            event.reply(EmojiUtil.wrap("🧪") + " Dry-Run: **" + targetMembers.size() + "** Mitglieder würden die Rolle erhalten.").setEphemeral(true).queue();
+            event.getHook().editOriginal(EmojiUtil.wrap("🧪") + " Dry-Run: **" + targetMembers.size() + "** Mitglieder würden die Rolle erhalten.").queue();
             return;
         }
 
         long start = System.currentTimeMillis();
-        event.reply(EmojiUtil.wrap("⚙️") + " Starte Massen-Rollenvergabe an **" + targetMembers.size() + "** Mitglieder...").queue();
+        event.getHook().editOriginal(EmojiUtil.wrap("⚙️") + " Starte Massen-Rollenvergabe an **" + targetMembers.size() + "** Mitglieder...").queue();
 
         AtomicInteger success = new AtomicInteger();
         AtomicInteger failed = new AtomicInteger();
@@ -127,47 +146,62 @@ public class MassRoleCommand implements Command {
         progress.setColor(new Color(0x5865F2));
         progress.setTimestamp(Instant.now());
 
-        event.getHook().sendMessageEmbeds(progress.setDescription("Fortschritt: 0/" + targetMembers.size()).build()).queue(statusMsg -> {
-            ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-            for (int i = 0; i < targetMembers.size(); i++) {
-                Member m = targetMembers.get(i);
-                int index = i;
-                scheduler.schedule(() -> {
-                    event.getGuild().addRoleToMember(m, roleToAdd).queue(
+        event.getHook().sendMessageEmbeds(progress.setDescription("Fortschritt: 0/" + targetMembers.size()).build()).setEphemeral(false).queue(statusMsg -> {
+            // Fortschritt und Abschluss erst in den Callbacks, wenn die Antwort von Discord da ist
+            Runnable processedOne = () -> {
+                int proc = processed.incrementAndGet();
+                if (proc % 25 == 0 || proc == targetMembers.size()) {
+                    statusMsg.editMessageEmbeds(progress.setDescription(
+                            "Fortschritt: " + proc + "/" + targetMembers.size() +
+                                    "\nErfolgreich: " + success.get() +
+                                    "\nFehlgeschlagen: " + failed.get()
+                    ).build()).queue();
+                }
+                if (proc == targetMembers.size()) {
+                    long durationMs = System.currentTimeMillis() - start;
+                    EmbedBuilder finish = new EmbedBuilder();
+                    finish.setTitle(EmojiUtil.wrap("✅") + " Massen-Rollenvergabe abgeschlossen");
+                    finish.setColor(new Color(0x57F287));
+                    finish.setTimestamp(Instant.now());
+                    finish.setDescription(
+                            "Mitglieder gesamt: **" + targetMembers.size() + "**\n" +
+                            "Erfolgreich: **" + success.get() + "**\n" +
+                            "Fehlgeschlagen: **" + failed.get() + "**\n" +
+                            "Dauer: **" + (durationMs / 1000) + "s**"
+                    );
+                    event.getHook().sendMessageEmbeds(finish.build()).setEphemeral(false).queue();
+                }
+            };
+
+            // Ein einziger periodischer Timer statt eines Timeouts pro Mitglied
+            AtomicInteger next = new AtomicInteger();
+            AtomicReference<ScheduledTask> handle = new AtomicReference<>();
+            handle.set(Scheduler.group("massrole").scheduleAtFixedRate(() -> {
+                int index = next.getAndIncrement();
+                if (index >= targetMembers.size()) {
+                    // alle Anfragen sind raus, den Abschluss meldet der letzte Callback
+                    ScheduledTask self = handle.get();
+                    if (self != null) self.cancel();
+                    return;
+                }
+                UserSnowflake m = UserSnowflake.fromId(targetMembers.get(index));
+                try {
+                    guild.addRoleToMember(m, roleToAdd).queue(
                             s -> {
-                                int done = success.incrementAndGet();
-                                int proc = processed.incrementAndGet();
-                                if (proc % 25 == 0 || proc == targetMembers.size()) {
-                                    statusMsg.editMessageEmbeds(progress.setDescription(
-                                            "Fortschritt: " + proc + "/" + targetMembers.size() +
-                                                    "\nErfolgreich: " + success.get() +
-                                                    "\nFehlgeschlagen: " + failed.get()
-                                    ).build()).queue();
-                                }
+                                success.incrementAndGet();
+                                processedOne.run();
                             },
                             e -> {
                                 failed.incrementAndGet();
-                                processed.incrementAndGet();
+                                processedOne.run();
                             }
                     );
-
-                    if (processed.get() == targetMembers.size()) {
-                        scheduler.shutdown();
-                        long durationMs = System.currentTimeMillis() - start;
-                        EmbedBuilder finish = new EmbedBuilder();
-                        finish.setTitle(EmojiUtil.wrap("✅") + " Massen-Rollenvergabe abgeschlossen");
-                        finish.setColor(new Color(0x57F287));
-                        finish.setTimestamp(Instant.now());
-                        finish.setDescription(
-                                "Mitglieder gesamt: **" + targetMembers.size() + "**\n" +
-                                "Erfolgreich: **" + success.get() + "**\n" +
-                                "Fehlgeschlagen: **" + failed.get() + "**\n" +
-                                "Dauer: **" + (durationMs / 1000) + "s**"
-                        );
-                        event.getHook().sendMessageEmbeds(finish.build()).queue();
-                    }
-                }, index * 300L, TimeUnit.MILLISECONDS); // 300ms Abstand pro Aktion zur Entschärfung von Rate-Limits
-            }
+                } catch (RuntimeException e) {
+                    // z. B. fehlende Berechtigung oder Rollen-Hierarchie, wird schon vor dem Senden geprüft
+                    failed.incrementAndGet();
+                    processedOne.run();
+                }
+            }, 0, 300, TimeUnit.MILLISECONDS)); // 300ms Abstand pro Aktion zur Entschärfung von Rate-Limits
         });
     }
 }
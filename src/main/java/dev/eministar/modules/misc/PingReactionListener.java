@@ -1,5 +1,6 @@
 package dev.eministar.modules.misc;
 
+import dev.eministar.modules.BotModule;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -7,6 +8,7 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@BotModule("ping-reaction")
 public class PingReactionListener extends ListenerAdapter {
     private static final Logger logger = LoggerFactory.getLogger(PingReactionListener.class);
     private static final String CUSTOM_EMOJI_ID = "1434377271027699893";
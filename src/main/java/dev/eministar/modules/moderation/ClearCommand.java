@@ -1,6 +1,7 @@
 package dev.eministar.modules.moderation;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
@@ -13,6 +14,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+@BotModule("moderation/clear")
 public class ClearCommand implements Command {
 
     @Override
@@ -1,6 +1,7 @@
 package dev.eministar.modules.moderation;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
@@ -9,6 +10,7 @@ import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import org.jetbrains.annotations.NotNull;
 
+@BotModule("moderation/kick")
 public class KickCommand implements Command {
 
     @Override
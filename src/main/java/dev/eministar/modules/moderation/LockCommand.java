@@ -1,6 +1,7 @@
 package dev.eministar.modules.moderation;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
@@ -12,6 +13,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.EnumSet;
 
+@BotModule("moderation/lock")
 public class LockCommand implements Command {
 
     @Override
@@ -1,10 +1,12 @@
 package dev.eministar.modules.ping;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 
+@BotModule("ping/ping")
 public class PingCommand implements Command {
     @Override
     public String name() {
@@ -0,0 +1,86 @@
+package dev.eministar.modules.poll;
+
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.DocumentTable;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class JdbcPollRepository implements PollRepository, DocumentTable.Mapping<PollData> {
+    private final Database db;
+    private final DocumentTable<PollData> table;
+
+    public JdbcPollRepository(Database db) {
+        this.db = db;
+        this.table = new DocumentTable<>(db, "polls", PollData.class, this);
+    }
+
+    @Override
+    public String id(PollData data) {
+        return data.guildId + ":" + data.messageId;
+    }
+
+    @Override
+    public String guildId(PollData data) {
+        return data.guildId;
+    }
+
+    @Override
+    public String userId(PollData data) {
+        return data.creatorId;
+    }
+
+    @Override
+    public String refId(PollData data) {
+        return data.channelId;
+    }
+
+    @Override
+    public String status(PollData data) {
+        return data.status;
+    }
+
+    @Override
+    public void beforeWrite(PollData data) {
+        data.encodeVotes();
+    }
+
+    @Override
+    public String generateId() {
+        long sequence = db.nextSequence("polls", 1);
+        return String.format("P-%s-%03d",
+                Instant.now().toString().substring(0, 10).replace("-", ""),
+                sequence % 1000);
+    }
+
+    @Override
+    public void put(String key, PollData data) {
+        table.save(key, data);
+    }
+
+    /** Pro Klick nur vormerken; kodiert und serialisiert wird der Poll einmal pro Flush der Tabelle. */
+    @Override
+    public void votesChanged(String key, PollData data) {
+        table.saveLater(key, data.guildId, data);
+    }
+
+    @Override
+    public PollData get(String key) {
+        return table.find(key).orElse(null);
+    }
+
+    @Override
+    public void remove(String key) {
+        table.delete(key);
+    }
+
+    @Override
+    public Map<String, PollData> getAll() {
+        return table.findAllById();
+    }
+
+    @Override
+    public Map<String, PollData> getByGuild(String guildId) {
+        return table.findByGuildById(guildId);
+    }
+}
@@ -14,6 +14,7 @@ public class PollData {
     public String description;
     public List<PollOption> options;
     public MultiConfig multi;
+    public boolean ranked; // Rangfolge mit Instant-Runoff statt Einzel-/Mehrfachauswahl
     public boolean anonymous;
     public boolean allowVoteChange;
     public List<String> allowedVoterRoles;
@@ -22,13 +23,21 @@ public class PollData {
     public String startedAt;
     public String endsAt;
     public String status; // open, closed, archived
-    public Map<String, List<String>> votes; // userId -> [optionIds]
-    public Map<String, Integer> totals; // optionId -> count
+    public Map<String, List<String>> votes; // userId -> [optionIds], nur altes Format und Journal-Einträge seit dem letzten Snapshot
+    public String voters; // Base64, sortierte User-IDs als Varint-Deltas
+    public Map<String, String> ballots; // optionId -> Base64-VoterBitmap der Positionen in voters
+    public Map<String, String> rankings; // userId -> "C,A,B", nur bei Rangfolge-Polls
+    public Map<String, Integer> rankingGroups; // "C,A,B" -> Anzahl, statt rankings bei geschlossenen anonymen Polls
+    public Map<String, Integer> totals; // optionId -> count, Endstand beim Schließen (bei Rangfolge: Erststimmen)
     public String lastEditAt;
 
+    // Optionen nach ID, einmal aufgebaut; Optionen ändern sich nach dem Erstellen nicht mehr
+    private transient Map<String, Integer> optionIndex;
+    transient PollTally tally;
+    transient RankedTally rankedTally;
+
     public PollData() {
         this.options = new ArrayList<>();
-        this.votes = new HashMap<>();
         this.totals = new HashMap<>();
         this.allowedVoterRoles = new ArrayList<>();
         this.multi = new MultiConfig();
@@ -71,12 +80,35 @@ public class PollData {
         return Instant.parse(startedAt);
     }
 
+    /**
+     * Überträgt den Stand der Tally in {@link #voters}/{@link #ballots} bzw. {@link #rankings}; vor jedem
+     * Serialisieren aufrufen.
+     */
+    void encodeVotes() {
+        PollTally current = tally;
+        if (current != null) current.encodeInto(this);
+        RankedTally currentRanked = rankedTally;
+        if (currentRanked != null) currentRanked.encodeInto(this);
+    }
+
     public int getTotalVotes() {
         return totals.values().stream().mapToInt(Integer::intValue).sum();
     }
 
     public PollOption getOptionById(String id) {
-        return options.stream().filter(o -> o.id.equals(id)).findFirst().orElse(null);
+        int index = indexOf(id);
+        return index >= 0 ? options.get(index) : null;
+    }
+
+    /** Position der Option in {@link #options}, -1 wenn es sie nicht gibt. */
+    public int indexOf(String optionId) {
+        Map<String, Integer> index = optionIndex;
+        if (index == null || index.size() != options.size()) {
+            index = new HashMap<>();
+            for (int i = 0; i < options.size(); i++) index.put(options.get(i).id, i);
+            optionIndex = index;
+        }
+        return index.getOrDefault(optionId, -1);
     }
 }
 
@@ -0,0 +1,47 @@
+package dev.eministar.modules.poll;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gerenderte Options-Zeilen pro Poll. Eine Zeile hängt nur von Stimmen, gerundetem Prozentwert und Sichtbarkeit ab;
+ * solange die gleich bleiben, wird sie aus dem Cache genommen. Bei großen Polls ändert eine Stimme also meist genau
+ * eine Zeile, statt alle mit {@code String.format} neu zu bauen. Der ganze Satz Zeilen gilt für eine Tally-Version.
+ */
+final class PollLineCache {
+    private record Line(int votes, long tenths, boolean stats, String text) {}
+
+    private record Lines(long version, boolean stats, String[] text, Line[] lines) {}
+
+    private final Map<PollData, Lines> cache = new ConcurrentHashMap<>();
+
+    /** Die Zeilen aller Optionen zum Snapshot, in Options-Reihenfolge. */
+    String[] lines(PollData poll, PollTally.Snapshot tally, boolean stats) {
+        Lines cached = cache.get(poll);
+        if (cached != null && cached.version == tally.version() && cached.stats == stats) return cached.text;
+
+        int n = poll.options.size();
+        Line[] lines = new Line[n];
+        String[] text = new String[n];
+        for (int i = 0; i < n; i++) {
+            // ohne Stats steht nur "Verborgen" da, dann zählt keine Stimme
+            int votes = stats ? tally.votes(i) : 0;
+            long tenths = stats && tally.total() > 0 ? Math.round(votes * 1000.0 / tally.total()) : 0;
+            Line old = cached != null ? cached.lines[i] : null;
+            if (old != null && old.votes == votes && old.tenths == tenths && old.stats == stats) {
+                lines[i] = old;
+            } else {
+                PollData.PollOption option = poll.options.get(i);
+                lines[i] = new Line(votes, tenths, stats,
+                        PercentBarRenderer.formatOptionLine(option.id + ": " + option.label, votes, tally.total(), stats));
+            }
+            text[i] = lines[i].text;
+        }
+        cache.put(poll, new Lines(tally.version(), stats, text, lines));
+        return text;
+    }
+
+    void forget(PollData poll) {
+        cache.remove(poll);
+    }
+}
@@ -1,12 +1,17 @@
 package dev.eministar.modules.poll;
 
 import dev.eministar.command.Command;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Debouncer;
+import dev.eministar.scheduler.Scheduler;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
@@ -16,7 +21,9 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.ComponentInteraction;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.interactions.components.selections.StringSelectMenu;
 
 import java.awt.Color;
 import java.time.Duration;
@@ -24,14 +31,23 @@ import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@BotModule("poll")
 public class PollModule extends ListenerAdapter implements Command {
-    private final PollStore store;
-    private final Map<String, Long> updateDebounce;
+    private final PollRepository store;
+    private final PollRegistry registry;
+    private final PollLineCache lineCache;
+    private final Debouncer refresher;
     private static final long DEBOUNCE_MS = 2000;
 
     public PollModule() {
-        this.store = new PollStore("./data/polls.json");
-        this.updateDebounce = new HashMap<>();
+        this(PollRepository.create("./data/polls.json"));
+    }
+
+    PollModule(PollRepository store) {
+        this.store = store;
+        this.registry = new PollRegistry(store);
+        this.lineCache = new PollLineCache();
+        this.refresher = new Debouncer(DEBOUNCE_MS, Scheduler.group("poll")); // max. ein Edit pro Fenster, immer der neueste Stand
     }
 
     @Override
@@ -108,7 +124,10 @@ public class PollModule extends ListenerAdapter implements Command {
         String durationStr = event.getOption("duration") != null ?
             event.getOption("duration").getAsString() : "60m";
 
-        boolean multi = event.getOption("multi") != null &&
+        boolean ranked = event.getOption("ranked") != null &&
+            event.getOption("ranked").getAsBoolean();
+
+        boolean multi = !ranked && event.getOption("multi") != null &&
             event.getOption("multi").getAsBoolean();
 
         int maxChoices = event.getOption("max-choices") != null ?
@@ -143,6 +162,7 @@ public class PollModule extends ListenerAdapter implements Command {
         poll.startedAt = Instant.now().toString();
         poll.endsAt = Instant.now().plus(duration).toString();
         poll.status = "open";
+        poll.ranked = ranked;
         poll.multi.enabled = multi;
         if (multi) {
             poll.multi.maxChoices = Math.min(maxChoices, optionsList.size());
@@ -158,15 +178,21 @@ public class PollModule extends ListenerAdapter implements Command {
             optionId++;
         }
 
-        EmbedBuilder embed = buildPollEmbed(poll);
+        EmbedBuilder embed = buildPollEmbed(poll, registry.snapshot(poll));
 
+        // Die Buttons tragen nur noch die Aktion (und den Options-Index), den Poll liefert die Nachrichten-ID
         List<Button> buttons = new ArrayList<>();
-        for (PollData.PollOption option : poll.options) {
-            String label = option.label.length() > 20 ? option.label.substring(0, 20) + "..." : option.label;
-            buttons.add(Button.primary("poll:vote:" + poll.id + ":" + option.id, option.id + ": " + label));
+        if (ranked) {
+            buttons.add(Button.primary("poll:k", "🗳️ Rangfolge abgeben"));
+        } else {
+            for (int i = 0; i < poll.options.size(); i++) {
+                PollData.PollOption option = poll.options.get(i);
+                String label = option.label.length() > 20 ? option.label.substring(0, 20) + "..." : option.label;
+                buttons.add(Button.primary("poll:v:" + i, option.id + ": " + label));
+            }
         }
-        buttons.add(Button.secondary("poll:myvote:" + poll.id, "🗳️ Meine Stimme"));
-        buttons.add(Button.danger("poll:end:" + poll.id, "🛑 Beenden"));
+        buttons.add(Button.secondary("poll:m", "🗳️ Meine Stimme"));
+        buttons.add(Button.danger("poll:e", "🛑 Beenden"));
 
         List<ActionRow> rows = new ArrayList<>();
         for (int i = 0; i < buttons.size(); i += 5) {
@@ -183,21 +209,21 @@ public class PollModule extends ListenerAdapter implements Command {
             .setComponents(rows)
             .queue(message -> {
                 poll.messageId = message.getId();
-                store.put(poll.guildId + ":" + poll.messageId, poll);
+                registry.put(poll);
 
                 message.pin().queue(null, e -> {});
 
                 message.createThreadChannel(title + " - Diskussion")
                     .queue(thread -> {
                         poll.threadId = thread.getId();
-                        store.put(poll.guildId + ":" + poll.messageId, poll);
+                        registry.put(poll);
                     }, e -> {});
 
                 event.getHook().editOriginal("✅ Umfrage erstellt: " + message.getJumpUrl()).queue();
             });
     }
 
-    private EmbedBuilder buildPollEmbed(PollData poll) {
+    EmbedBuilder buildPollEmbed(PollData poll, PollTally.Snapshot tally) {
         EmbedBuilder embed = new EmbedBuilder();
         embed.setTitle("📊 " + poll.title);
         embed.setColor(Color.decode("#5865F2"));
@@ -209,7 +235,9 @@ public class PollModule extends ListenerAdapter implements Command {
         }
 
         desc.append("**📋 Modus:** ");
-        if (poll.multi.enabled) {
+        if (poll.ranked) {
+            desc.append("Rangfolge (Instant-Runoff)");
+        } else if (poll.multi.enabled) {
             desc.append("Multi-Choice (max ").append(poll.multi.maxChoices).append(")");
         } else {
             desc.append("Single-Choice");
@@ -218,20 +246,21 @@ public class PollModule extends ListenerAdapter implements Command {
         desc.append("\n\n");
 
         boolean showStats = "live".equals(poll.visibility) || poll.isClosed();
-        int totalVotes = poll.getTotalVotes();
+        int totalVotes = tally.total();
 
-        for (PollData.PollOption option : poll.options) {
-            int votes = poll.totals.getOrDefault(option.id, 0);
-            desc.append(PercentBarRenderer.formatOptionLine(
-                option.id + ": " + option.label,
-                votes,
-                totalVotes,
-                showStats
-            )).append("\n\n");
+        for (String line : lineCache.lines(poll, tally, showStats)) {
+            desc.append(line).append("\n\n");
         }
 
         desc.append("━━━━━━━━━━━━━━━━━━━━\n");
-        desc.append("**📊 Gesamt:** ").append(totalVotes).append(" Stimmen\n");
+        desc.append("**📊 Gesamt:** ").append(totalVotes).append(poll.ranked ? " Stimmzettel (Erststimmen)\n" : " Stimmen\n");
+
+        if (poll.ranked && showStats && totalVotes > 0) {
+            RankedTally.Result runoff = registry.ranked(poll).result();
+            desc.append(poll.isClosed() ? "**🏆 Gewinner:** " : "**🏁 Führend nach Runoff:** ")
+                .append(poll.options.get(runoff.winner()).label)
+                .append(" (").append(runoff.rounds().size()).append(runoff.rounds().size() == 1 ? " Runde)\n" : " Runden)\n");
+        }
 
         if (!poll.isClosed()) {
             Duration remaining = Duration.between(Instant.now(), poll.getEndsAtInstant());
@@ -249,7 +278,7 @@ public class PollModule extends ListenerAdapter implements Command {
 
     private void handleClose(SlashCommandInteraction event) {
         String pollId = event.getOption("id").getAsString();
-        PollData poll = findPollById(event.getGuild().getId(), pollId);
+        PollData poll = registry.find(event.getGuild().getId(), pollId);
 
         if (poll == null) {
             event.reply("❌ Umfrage nicht gefunden!").setEphemeral(true).queue();
@@ -265,19 +294,18 @@ public class PollModule extends ListenerAdapter implements Command {
             return;
         }
 
-        poll.status = "closed";
-        store.put(poll.guildId + ":" + poll.messageId, poll);
+        PollTally.Snapshot tally = close(poll);
 
         event.getGuild().getTextChannelById(poll.channelId)
             .retrieveMessageById(poll.messageId)
-            .queue(msg -> msg.editMessageEmbeds(buildPollEmbed(poll).build()).queue());
+            .queue(msg -> msg.editMessageEmbeds(buildPollEmbed(poll, tally).build()).queue());
 
         event.reply("✅ Umfrage beendet!").queue();
     }
 
     private void handleResults(SlashCommandInteraction event) {
         String pollId = event.getOption("id").getAsString();
-        PollData poll = findPollById(event.getGuild().getId(), pollId);
+        PollData poll = registry.find(event.getGuild().getId(), pollId);
 
         if (poll == null) {
             event.reply("❌ Umfrage nicht gefunden!").setEphemeral(true).queue();
@@ -288,23 +316,30 @@ public class PollModule extends ListenerAdapter implements Command {
         embed.setTitle("📊 Ergebnisse: " + poll.title);
         embed.setColor(Color.decode("#57F287"));
 
-        int totalVotes = poll.getTotalVotes();
+        if (poll.ranked) {
+            embed.setDescription(describeRunoff(poll, registry.ranked(poll).result()));
+            event.replyEmbeds(embed.build()).queue();
+            return;
+        }
+
+        PollTally.Snapshot tally = registry.tally(poll).snapshot();
+        int totalVotes = tally.total();
 
-        List<Map.Entry<String, Integer>> sorted = poll.totals.entrySet().stream()
-            .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-            .collect(Collectors.toList());
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < poll.options.size(); i++) sorted.add(i);
+        sorted.sort((a, b) -> Integer.compare(tally.votes(b), tally.votes(a)));
 
         StringBuilder desc = new StringBuilder();
         desc.append("**Gesamt: ").append(totalVotes).append(" Stimmen**\n\n");
 
         int rank = 1;
-        for (Map.Entry<String, Integer> entry : sorted) {
-            PollData.PollOption option = poll.getOptionById(entry.getKey());
-            double percent = PercentBarRenderer.calculatePercent(entry.getValue(), totalVotes);
+        for (int index : sorted) {
+            PollData.PollOption option = poll.options.get(index);
+            double percent = PercentBarRenderer.calculatePercent(tally.votes(index), totalVotes);
 
             String medal = rank == 1 ? "🥇 " : rank == 2 ? "🥈 " : rank == 3 ? "🥉 " : "";
             desc.append(medal).append("**").append(option.label).append("**\n");
-            desc.append(String.format("└ %.1f%% (%d Stimmen)\n\n", percent, entry.getValue()));
+            desc.append(String.format("└ %.1f%% (%d Stimmen)\n\n", percent, tally.votes(index)));
             rank++;
         }
 
@@ -312,88 +347,276 @@ public class PollModule extends ListenerAdapter implements Command {
         event.replyEmbeds(embed.build()).queue();
     }
 
+    // Runde für Runde: Stand, wer ausscheidet und wohin dessen Stimmen wandern
+    private static String describeRunoff(PollData poll, RankedTally.Result result) {
+        StringBuilder desc = new StringBuilder();
+        desc.append("**Gesamt: ").append(result.ballots()).append(" Stimmzettel · Instant-Runoff**\n\n");
+        if (result.winner() < 0) {
+            return desc.append("Noch keine Stimmen.").toString();
+        }
+
+        int round = 1;
+        for (RankedTally.Round r : result.rounds()) {
+            desc.append("**Runde ").append(round++).append("**\n");
+            StringJoiner counts = new StringJoiner(" · ");
+            for (int i = 0; i < poll.options.size(); i++) {
+                if (r.counts()[i] > 0 || i == r.eliminated()) counts.add(poll.options.get(i).id + ": " + r.counts()[i]);
+            }
+            desc.append(counts).append("\n");
+
+            if (r.eliminated() < 0) {
+                int active = Arrays.stream(r.counts()).sum();
+                desc.append("🏆 **").append(poll.options.get(result.winner()).label).append("** gewinnt mit ")
+                    .append(r.counts()[result.winner()]).append(" von ").append(active).append(" Stimmen\n");
+                break;
+            }
+
+            StringJoiner transfers = new StringJoiner(", ");
+            for (int i = 0; i < poll.options.size(); i++) {
+                if (r.transfers()[i] > 0) transfers.add("+" + r.transfers()[i] + " " + poll.options.get(i).id);
+            }
+            if (r.exhausted() > 0) transfers.add(r.exhausted() + " ohne weitere Wahl");
+            desc.append("➡️ **").append(poll.options.get(r.eliminated()).label).append("** scheidet aus");
+            if (transfers.length() > 0) desc.append(": ").append(transfers);
+            desc.append("\n\n");
+        }
+        return desc.toString();
+    }
+
     @Override
     public void onButtonInteraction(ButtonInteractionEvent event) {
-        String[] parts = event.getComponentId().split(":");
-        if (parts.length < 3 || !"poll".equals(parts[0])) return;
-
-        String action = parts[1];
-        String pollId = parts[2];
+        String componentId = event.getComponentId();
+        if (!componentId.startsWith("poll:") || event.getGuild() == null) return;
+
+        // Rangfolge-Auswahl läuft in einer ephemeren Nachricht, die ID der Poll-Nachricht steht im Button
+        if (componentId.startsWith("poll:rs:") || componentId.startsWith("poll:rr:")) {
+            String[] parts = componentId.split(":", -1);
+            PollData poll = rankedPoll(event.getGuild().getId(), parts[2]);
+            int[] ranking = poll != null ? parseRanking(poll, parts.length > 3 ? parts[3] : "") : null;
+            if (poll == null || ranking == null) {
+                event.editMessage("❌ Umfrage nicht gefunden!").setComponents().queue();
+            } else if (componentId.startsWith("poll:rr:")) {
+                event.editMessage(rankingPrompt(poll, new int[0])).setComponents(rankingRows(poll, new int[0])).queue();
+            } else {
+                submitRanking(event, poll, ranking);
+            }
+            return;
+        }
 
-        PollData poll = findPollById(event.getGuild().getId(), pollId);
-        if (poll == null) {
+        // Buttons hängen immer an der Poll-Nachricht, auch die alten mit Poll-ID im Namen
+        PollData poll = registry.byMessage(event.getMessageIdLong());
+        if (poll == null || !poll.guildId.equals(event.getGuild().getId())) {
             event.reply("❌ Umfrage nicht gefunden!").setEphemeral(true).queue();
             return;
         }
 
+        // neu: poll:v:<index>, poll:m, poll:e – alt: poll:vote:<pollId>:<optionId>, poll:myvote:<pollId>, poll:end:<pollId>
+        int actionEnd = componentId.indexOf(':', 5);
+        String action = componentId.substring(5, actionEnd < 0 ? componentId.length() : actionEnd);
         switch (action) {
-            case "vote":
-                if (parts.length < 4) return;
-                handleVote(event, poll, parts[3]);
-                break;
-            case "myvote":
-                handleMyVote(event, poll);
-                break;
-            case "end":
-                handleEndButton(event, poll);
-                break;
+            case "v" -> {
+                int index = parseIndex(componentId.substring(actionEnd + 1));
+                if (index >= 0 && index < poll.options.size() && !poll.ranked) handleVote(event, poll, index);
+            }
+            case "k" -> handleRankStart(event, poll);
+            case "vote" -> {
+                int index = poll.indexOf(componentId.substring(componentId.lastIndexOf(':') + 1));
+                if (index >= 0) handleVote(event, poll, index);
+            }
+            case "m", "myvote" -> handleMyVote(event, poll);
+            case "e", "end" -> handleEndButton(event, poll);
         }
     }
 
-    private void handleVote(ButtonInteractionEvent event, PollData poll, String optionId) {
+    @Override
+    public void onStringSelectInteraction(StringSelectInteractionEvent event) {
+        String componentId = event.getComponentId();
+        if (!componentId.startsWith("poll:r:") || event.getGuild() == null) return;
+
+        // poll:r:<Nachrichten-ID>:<bisherige Plätze als Options-Indizes>, der Zwischenstand lebt nur im Menü
+        String[] parts = componentId.split(":", -1);
+        PollData poll = rankedPoll(event.getGuild().getId(), parts[2]);
+        int[] ranking = poll != null ? parseRanking(poll, parts.length > 3 ? parts[3] : "") : null;
+        int next = event.getValues().isEmpty() ? -1 : parseIndex(event.getValues().get(0));
+        if (poll == null || ranking == null || next < 0 || next >= poll.options.size()) {
+            event.editMessage("❌ Umfrage nicht gefunden!").setComponents().queue();
+            return;
+        }
+
+        int[] extended = Arrays.copyOf(ranking, ranking.length + 1);
+        extended[ranking.length] = next;
+        if (parseRanking(poll, encodeRanking(extended)) == null) {
+            event.editMessage(rankingPrompt(poll, ranking)).setComponents(rankingRows(poll, ranking)).queue();
+            return;
+        }
+        if (extended.length == poll.options.size()) {
+            submitRanking(event, poll, extended);
+            return;
+        }
+        event.editMessage(rankingPrompt(poll, extended)).setComponents(rankingRows(poll, extended)).queue();
+    }
+
+    private void handleRankStart(ButtonInteractionEvent event, PollData poll) {
         if (!poll.isOpen()) {
             event.reply("❌ Diese Umfrage ist geschlossen!").setEphemeral(true).queue();
             return;
         }
+        event.reply(rankingPrompt(poll, new int[0])).setComponents(rankingRows(poll, new int[0])).setEphemeral(true).queue();
+    }
 
-        String userId = event.getUser().getId();
-        List<String> currentVotes = poll.votes.getOrDefault(userId, new ArrayList<>());
+    private void submitRanking(ComponentInteraction event, PollData poll, int[] ranking) {
+        if (!poll.isOpen()) {
+            event.editMessage("❌ Diese Umfrage ist geschlossen!").setComponents().queue();
+            return;
+        }
 
-        if (!poll.multi.enabled) {
-            for (String oldOption : currentVotes) {
-                poll.totals.put(oldOption, poll.totals.getOrDefault(oldOption, 1) - 1);
-            }
-            currentVotes.clear();
-            currentVotes.add(optionId);
-            poll.totals.put(optionId, poll.totals.getOrDefault(optionId, 0) + 1);
-        } else {
-            if (currentVotes.contains(optionId)) {
-                currentVotes.remove(optionId);
-                poll.totals.put(optionId, poll.totals.getOrDefault(optionId, 1) - 1);
-            } else {
-                if (currentVotes.size() >= poll.multi.maxChoices) {
-                    event.reply("❌ Max " + poll.multi.maxChoices + " Optionen!").setEphemeral(true).queue();
-                    return;
-                }
-                currentVotes.add(optionId);
-                poll.totals.put(optionId, poll.totals.getOrDefault(optionId, 0) + 1);
-            }
+        long userId = event.getUser().getIdLong();
+        List<String> optionIds = new ArrayList<>();
+        for (int index : ranking) optionIds.add(poll.options.get(index).id);
+        if (registry.ranked(poll).cast(userId, RankedTally.pack(poll, optionIds))) {
+            registry.recordVote(poll, userId);
+            scheduleRefresh(event.getMessageChannel(), poll);
         }
+        event.editMessage("✅ Gespeichert:\n" + rankingLabels(poll, ranking)).setComponents().queue();
+    }
 
-        poll.votes.put(userId, currentVotes);
-        store.put(poll.guildId + ":" + poll.messageId, poll);
+    private PollData rankedPoll(String guildId, String messageId) {
+        long id;
+        try {
+            id = Long.parseLong(messageId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        PollData poll = registry.byMessage(id);
+        return poll != null && poll.ranked && guildId.equals(poll.guildId) ? poll : null;
+    }
 
-        event.getMessage().editMessageEmbeds(buildPollEmbed(poll).build()).queue();
+    private static String rankingPrompt(PollData poll, int[] ranking) {
+        String head = ranking.length == 0 ? "🗳️ **Rangfolge für: " + poll.title + "**\n" : rankingLabels(poll, ranking) + "\n";
+        return head + "Wähle Platz " + (ranking.length + 1) + " – oder gib die bisherige Rangfolge ab.";
+    }
 
-        String labels = currentVotes.stream()
-            .map(id -> poll.getOptionById(id).label)
-            .collect(Collectors.joining(", "));
-        event.reply("✅ Gespeichert: " + labels).setEphemeral(true).queue();
+    // Menü mit den noch freien Optionen, darunter Abgeben/Neu anfangen; beide tragen den Zwischenstand in der ID
+    private static List<ActionRow> rankingRows(PollData poll, int[] ranking) {
+        String state = poll.messageId + ":" + encodeRanking(ranking);
+        StringSelectMenu.Builder menu = StringSelectMenu.create("poll:r:" + state)
+            .setPlaceholder("Platz " + (ranking.length + 1) + " wählen");
+        boolean[] taken = new boolean[poll.options.size()];
+        for (int index : ranking) taken[index] = true;
+        for (int i = 0; i < poll.options.size(); i++) {
+            if (taken[i]) continue;
+            PollData.PollOption option = poll.options.get(i);
+            String label = option.id + ": " + option.label;
+            menu.addOption(label.length() > 100 ? label.substring(0, 100) : label, String.valueOf(i));
+        }
+        return List.of(
+            ActionRow.of(menu.build()),
+            ActionRow.of(
+                Button.success("poll:rs:" + state, "✅ Abgeben").withDisabled(ranking.length == 0),
+                Button.secondary("poll:rr:" + poll.messageId, "↩️ Neu anfangen")));
+    }
+
+    private static String encodeRanking(int[] ranking) {
+        StringBuilder sb = new StringBuilder(ranking.length);
+        for (int index : ranking) sb.append((char) ('0' + index));
+        return sb.toString();
+    }
+
+    // null bei unbekannten oder doppelten Optionen
+    private static int[] parseRanking(PollData poll, String encoded) {
+        int[] ranking = new int[encoded.length()];
+        boolean[] seen = new boolean[poll.options.size()];
+        for (int i = 0; i < ranking.length; i++) {
+            int index = encoded.charAt(i) - '0';
+            if (index < 0 || index >= seen.length || seen[index]) return null;
+            seen[index] = true;
+            ranking[i] = index;
+        }
+        return ranking;
+    }
+
+    private static String rankingLabels(PollData poll, int[] ranking) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ranking.length; i++) {
+            sb.append(i + 1).append(". ").append(poll.options.get(ranking[i]).label).append("\n");
+        }
+        return sb.toString();
+    }
+
+    // Gerendert wird erst beim Feuern, also immer mit dem Stand am Ende des Fensters
+    private void scheduleRefresh(MessageChannel channel, PollData poll) {
+        refresher.submit(PollRegistry.key(poll), () -> channel
+            .editMessageEmbedsById(poll.messageId, buildPollEmbed(poll, registry.snapshot(poll)).build())
+            .queue(null, e -> {}));
+    }
+
+    // Endstand wird zusätzlich in totals festgehalten
+    private PollTally.Snapshot close(PollData poll) {
+        PollTally.Snapshot tally = registry.snapshot(poll);
+        poll.status = "closed";
+        poll.totals = new HashMap<>();
+        for (int i = 0; i < poll.options.size(); i++) poll.totals.put(poll.options.get(i).id, tally.votes(i));
+        registry.put(poll);
+        refresher.reset(PollRegistry.key(poll));
+        lineCache.forget(poll);
+        return tally;
+    }
+
+    private static int parseIndex(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void handleVote(ButtonInteractionEvent event, PollData poll, int option) {
+        if (!poll.isOpen()) {
+            event.reply("❌ Diese Umfrage ist geschlossen!").setEphemeral(true).queue();
+            return;
+        }
+
+        long userId = event.getUser().getIdLong();
+        PollTally tally = registry.tally(poll);
+        PollTally.Result result = tally.vote(userId, option);
+        if (result.outcome() == PollTally.Outcome.TOO_MANY) {
+            event.reply("❌ Max " + poll.multi.maxChoices + " Optionen!").setEphemeral(true).queue();
+            return;
+        }
+        if (result.outcome() == PollTally.Outcome.VOTED) {
+            registry.recordVote(poll, userId);
+            scheduleRefresh(event.getChannel(), poll);
+        }
+
+        event.reply("✅ Gespeichert: " + labels(poll, result.mask())).setEphemeral(true).queue();
     }
 
     private void handleMyVote(ButtonInteractionEvent event, PollData poll) {
-        List<String> votes = poll.votes.getOrDefault(event.getUser().getId(), new ArrayList<>());
+        if (poll.ranked) {
+            long ballot = registry.ranked(poll).ballotOf(event.getUser().getIdLong());
+            if (ballot == 0) {
+                event.reply("❌ Du hast noch nicht abgestimmt!").setEphemeral(true).queue();
+            } else {
+                event.reply("🗳️ **Deine Rangfolge:**\n" + rankingLabels(poll, RankedTally.unpack(ballot))).setEphemeral(true).queue();
+            }
+            return;
+        }
+
+        int mask = registry.tally(poll).choicesOf(event.getUser().getIdLong());
 
-        if (votes.isEmpty()) {
+        if (mask == 0) {
             event.reply("❌ Du hast noch nicht abgestimmt!").setEphemeral(true).queue();
             return;
         }
 
-        String labels = votes.stream()
+        event.reply("🗳️ **Deine Stimme(n):**\n" + labels(poll, mask)).setEphemeral(true).queue();
+    }
+
+    private static String labels(PollData poll, int mask) {
+        if (mask == 0) return "keine Auswahl";
+        return PollTally.optionIds(poll, mask).stream()
             .map(id -> poll.getOptionById(id).label)
             .collect(Collectors.joining(", "));
-
-        event.reply("🗳️ **Deine Stimme(n):**\n" + labels).setEphemeral(true).queue();
     }
 
     private void handleEndButton(ButtonInteractionEvent event, PollData poll) {
@@ -406,19 +629,11 @@ public class PollModule extends ListenerAdapter implements Command {
             return;
         }
 
-        poll.status = "closed";
-        store.put(poll.guildId + ":" + poll.messageId, poll);
-        event.getMessage().editMessageEmbeds(buildPollEmbed(poll).build()).queue();
+        PollTally.Snapshot tally = close(poll);
+        event.getMessage().editMessageEmbeds(buildPollEmbed(poll, tally).build()).queue();
         event.reply("✅ Umfrage beendet!").setEphemeral(true).queue();
     }
 
-    private PollData findPollById(String guildId, String pollId) {
-        return store.getByGuild(guildId).values().stream()
-            .filter(p -> p.id.equals(pollId) || pollId.equals(p.messageId))
-            .findFirst()
-            .orElse(null);
-    }
-
     @Override
     public CommandData getSlashCommandData() {
         return Commands.slash("poll", "Umfrage-System")
@@ -432,6 +647,7 @@ public class PollModule extends ListenerAdapter implements Command {
                                 .addOption(OptionType.STRING, "duration", "Dauer (z.B. 45m, 2h, 1d)", false)
                                 .addOption(OptionType.BOOLEAN, "multi", "Multi-Choice", false)
                                 .addOption(OptionType.INTEGER, "max-choices", "Max Auswahlen", false)
+                                .addOption(OptionType.BOOLEAN, "ranked", "Rangfolge mit Instant-Runoff", false)
                                 .addOption(OptionType.BOOLEAN, "anonymous", "Anonym", false)
                                 .addOption(OptionType.STRING, "visibility", "live/final", false),
                         new SubcommandData("close", "Beende Umfrage")
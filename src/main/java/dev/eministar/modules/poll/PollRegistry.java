@@ -0,0 +1,95 @@
+package dev.eministar.modules.poll;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Direkte Indizes über alle Polls: Nachricht -> Poll für Button-Klicks und (Guild, Poll-ID) -> Poll für
+ * Slash-Commands. Ein Klick kostet damit einen Map-Zugriff, egal wie viele alte Polls im Store liegen.
+ * Schreibzugriffe laufen über {@link #put}, damit Store und Index nicht auseinanderlaufen.
+ * <p>
+ * Pro Poll liegt hier auch die {@link PollTally} bzw. bei Rangfolge-Polls die {@link RankedTally}; Stimmen werden
+ * über {@link #recordVote} einzeln festgehalten.
+ */
+class PollRegistry {
+    private final PollRepository store;
+    private final Map<Long, PollData> byMessage = new ConcurrentHashMap<>();
+    private final Map<String, PollData> byId = new ConcurrentHashMap<>();
+    private final Map<PollData, PollTally> tallies = new ConcurrentHashMap<>();
+    private final Map<PollData, RankedTally> rankedTallies = new ConcurrentHashMap<>();
+
+    PollRegistry(PollRepository store) {
+        this.store = store;
+        store.getAll().values().forEach(this::index);
+    }
+
+    static String key(PollData poll) {
+        return poll.guildId + ":" + poll.messageId;
+    }
+
+    void put(PollData poll) {
+        store.put(key(poll), poll);
+        index(poll);
+    }
+
+    PollData byMessage(long messageId) {
+        return byMessage.get(messageId);
+    }
+
+    /** Sucht per Poll-ID oder Nachrichten-ID, wie sie im {@code id}-Feld der Commands angegeben werden darf. */
+    PollData find(String guildId, String idOrMessageId) {
+        PollData poll = byId.get(guildId + ":" + idOrMessageId);
+        if (poll != null) return poll;
+        try {
+            poll = byMessage.get(Long.parseLong(idOrMessageId));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return poll != null && guildId.equals(poll.guildId) ? poll : null;
+    }
+
+    PollTally tally(PollData poll) {
+        return tallies.computeIfAbsent(poll, p -> {
+            PollTally tally = PollTally.of(p);
+            p.tally = tally;
+            return tally;
+        });
+    }
+
+    RankedTally ranked(PollData poll) {
+        return rankedTallies.computeIfAbsent(poll, p -> {
+            RankedTally tally = RankedTally.of(p);
+            p.rankedTally = tally;
+            return tally;
+        });
+    }
+
+    /** Zähler fürs Embed; bei Rangfolge-Polls die Erststimmen. */
+    PollTally.Snapshot snapshot(PollData poll) {
+        if (!poll.ranked) return tally(poll).snapshot();
+        RankedTally.Result result = ranked(poll).result();
+        return new PollTally.Snapshot(result.version(), result.firstPreferences(), result.ballots(), result.ballots());
+    }
+
+    /**
+     * Hält die aktuelle Auswahl eines Users im Store fest. Pro User nacheinander, so landet bei parallelen Klicks
+     * immer der neueste Stand zuletzt.
+     */
+    void recordVote(PollData poll, long userId) {
+        String key = key(poll);
+        if (poll.ranked) {
+            // Reihenfolge der Options-IDs ist die Rangfolge
+            ranked(poll).withBallot(userId, ranking ->
+                    store.recordVote(key, Long.toString(userId), RankedTally.optionIds(poll, ranking)));
+        } else {
+            tally(poll).withChoices(userId, mask ->
+                    store.recordVote(key, Long.toString(userId), PollTally.optionIds(poll, mask)));
+        }
+        store.votesChanged(key, poll);
+    }
+
+    private void index(PollData poll) {
+        if (poll.messageId != null) byMessage.put(Long.parseLong(poll.messageId), poll);
+        byId.put(poll.guildId + ":" + poll.id, poll);
+    }
+}
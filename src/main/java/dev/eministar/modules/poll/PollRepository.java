@@ -0,0 +1,40 @@
+package dev.eministar.modules.poll;
+
+import dev.eministar.persistence.Database;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Speicher für Polls. Schlüssel ist {@code <guildId>:<messageId>}.
+ * Standard ist der JSON-{@link PollStore}, bei konfigurierter Datenbank {@link JdbcPollRepository}.
+ */
+public interface PollRepository {
+    String generateId();
+
+    void put(String key, PollData data);
+
+    PollData get(String key);
+
+    void remove(String key);
+
+    Map<String, PollData> getAll();
+
+    Map<String, PollData> getByGuild(String guildId);
+
+    /**
+     * Hält die neue Auswahl eines Users fest (leer = keine Stimme mehr). Wird pro User in der Reihenfolge der
+     * Änderungen aufgerufen; Stores mit eigenem Änderungslog schreiben hier nur diesen einen Eintrag.
+     */
+    default void recordVote(String key, String userId, List<String> optionIds) {
+    }
+
+    /** Nach jeder Stimmabgabe. Stores ohne eigenes Stimmen-Log speichern hier den ganzen Poll. */
+    default void votesChanged(String key, PollData data) {
+        put(key, data);
+    }
+
+    static PollRepository create(String jsonPath) {
+        return Database.isEnabled() ? new JdbcPollRepository(Database.get()) : new PollStore(jsonPath);
+    }
+}
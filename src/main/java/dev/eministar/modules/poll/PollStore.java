@@ -2,19 +2,30 @@ package dev.eministar.modules.poll;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import com.google.gson.reflect.TypeToken;
+import dev.eministar.persistence.Journal;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class PollStore {
+public class PollStore implements PollRepository {
+    private static final String OP_VOTE = "vote";
+
     private final String filePath;
     private final Gson gson;
     private final Map<String, PollData> polls;
+    private final Journal journal;
     private int sequence;
 
     public PollStore(String filePath) {
@@ -22,68 +33,121 @@ public class PollStore {
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.polls = new ConcurrentHashMap<>();
         this.sequence = 0;
+        this.journal = Journal.open(Paths.get(filePath), this::writeSnapshot, this::replay);
         load();
     }
 
     public synchronized void load() {
         File file = new File(filePath);
-        if (!file.exists()) {
+        if (file.exists()) {
+            try (Reader reader = new FileReader(file)) {
+                Type type = new TypeToken<StoreData>() {}.getType();
+                StoreData data = gson.fromJson(reader, type);
+                if (data != null) {
+                    this.sequence = data.seq;
+                    if (data.polls != null) {
+                        this.polls.putAll(data.polls);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to load polls: " + e.getMessage());
+            }
+        } else {
             file.getParentFile().mkdirs();
+        }
+
+        journal.recover();
+        if (!file.exists()) {
             save();
-            return;
         }
+    }
 
-        try (Reader reader = new FileReader(file)) {
-            Type type = new TypeToken<StoreData>() {}.getType();
-            StoreData data = gson.fromJson(reader, type);
-            if (data != null) {
-                this.sequence = data.seq;
-                if (data.polls != null) {
-                    this.polls.putAll(data.polls);
-                }
+    /** Erzwingt einen vollständigen Snapshot; normale Änderungen landen nur im Journal. */
+    public void save() {
+        journal.compact();
+    }
+
+    synchronized void writeSnapshot(Writer writer) {
+        StoreData data = new StoreData();
+        data.seq = sequence;
+        data.polls = new HashMap<>(polls);
+        data.polls.values().forEach(PollData::encodeVotes);
+        gson.toJson(data, writer);
+    }
+
+    private void replay(String op, String key, JsonElement value) {
+        switch (op) {
+            case Journal.OP_PUT -> polls.put(key, gson.fromJson(value, PollData.class));
+            case Journal.OP_DELETE -> polls.remove(key);
+            case "seq" -> sequence = Math.max(sequence, value.getAsInt());
+            case OP_VOTE -> {
+                PollData poll = polls.get(key);
+                if (poll == null) return;
+                JsonObject vote = value.getAsJsonObject();
+                List<String> optionIds = new ArrayList<>();
+                vote.getAsJsonArray("o").forEach(o -> optionIds.add(o.getAsString()));
+                // leere Liste bleibt stehen: sie hebt eine Stimme aus den Bitmaps auf
+                if (poll.votes == null) poll.votes = new HashMap<>();
+                poll.votes.put(vote.get("u").getAsString(), optionIds);
             }
-        } catch (Exception e) {
-            System.err.println("Failed to load polls: " + e.getMessage());
         }
     }
 
-    public synchronized void save() {
-        try (Writer writer = new FileWriter(filePath)) {
-            StoreData data = new StoreData();
-            data.seq = sequence;
-            data.polls = new HashMap<>(polls);
-            gson.toJson(data, writer);
-        } catch (Exception e) {
-            System.err.println("Failed to save polls: " + e.getMessage());
-        }
+    /**
+     * Eine Stimme als kleiner Journal-Eintrag statt des ganzen Polls; im nächsten Snapshot steckt sie in den Bitmaps.
+     * Auch bei anonymen Polls steht hier, solange sie offen sind, wer was gewählt hat – sonst ließe sich eine Stimme
+     * nach einem Neustart weder ändern noch zurückziehen. Beim Schließen wird kompaktiert (siehe {@link #put}).
+     */
+    @Override
+    public void recordVote(String key, String userId, List<String> optionIds) {
+        JsonObject vote = new JsonObject();
+        vote.addProperty("u", userId);
+        JsonArray options = new JsonArray();
+        optionIds.forEach(options::add);
+        vote.add("o", options);
+        journal.append(OP_VOTE, key, vote);
+    }
+
+    @Override
+    public void votesChanged(String key, PollData data) {
+        // steht schon im Journal
     }
 
-    public String generateId() {
+    @Override
+    public synchronized String generateId() {
         sequence++;
-        save();
+        journal.append("seq", "", new JsonPrimitive(sequence));
         return String.format("P-%s-%03d",
                 Instant.now().toString().substring(0, 10).replace("-", ""),
                 sequence % 1000);
     }
 
+    @Override
     public void put(String key, PollData data) {
+        data.encodeVotes();
         polls.put(key, data);
-        save();
+        journal.put(key, gson.toJsonTree(data));
+        // geschlossen und anonym: die Vote-Einträge mit User-IDs dürfen nicht bis zur nächsten Kompaktierung liegen bleiben
+        if (data.anonymous && data.isClosed()) journal.compactSoon();
     }
 
+    @Override
     public PollData get(String key) {
         return polls.get(key);
     }
 
+    @Override
     public void remove(String key) {
         polls.remove(key);
-        save();
+        journal.remove(key);
     }
 
+    @Override
     public Map<String, PollData> getAll() {
         return new HashMap<>(polls);
     }
 
+    @Override
     public Map<String, PollData> getByGuild(String guildId) {
         Map<String, PollData> result = new HashMap<>();
         polls.forEach((key, data) -> {
@@ -99,4 +163,3 @@ public class PollStore {
         Map<String, PollData> polls;
     }
 }
-
@@ -0,0 +1,384 @@
+package dev.eministar.modules.poll;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Stimmenzählung eines Polls ohne Locks auf dem Klick-Pfad.
+ * <p>
+ * Jeder Wähler bekommt beim ersten Klick einen fortlaufenden Index (Wörterbuch User-ID -> Index, offene Adressierung
+ * auf primitiven Arrays). Seine Auswahl ist eine Bitmaske über die Options-Indizes (max. 10 Optionen) in einem
+ * wachsenden {@link AtomicIntegerArray}; zusammen etwa 20 Byte pro Wähler. Eine Stimmabgabe liest die alte Maske,
+ * berechnet die neue und setzt sie per Compare-and-Swap; schlägt das fehl, weil derselbe User parallel geklickt hat,
+ * wird neu gerechnet. {@code maxChoices} wird dabei gegen die gelesene Maske geprüft und kann so nicht durch parallele
+ * Klicks überschritten werden. Erst nach dem CAS werden die Zähler pro Option angepasst.
+ * <p>
+ * {@link #snapshot()} liefert unveränderliche, versionierte Stände. Schreiber melden sich während der Zähler-Updates
+ * an, ein Snapshot wird nur übernommen, wenn währenddessen keiner aktiv war und sich die Version nicht geändert hat.
+ * <p>
+ * Gespeichert wird über {@link #encodeInto}: die Wähler-IDs sortiert als Varint-Deltas und pro Option eine
+ * {@link VoterBitmap} der Positionen in dieser Liste. Bei geschlossenen anonymen Polls entfallen die IDs, übrig bleiben nur die
+ * Bitmaps – die Ergebnisse, aber nicht mehr, wer was gewählt hat. Solange ein anonymer Poll offen ist, werden die IDs
+ * mitgespeichert, damit Stimmen auch nach einem Neustart geändert werden können; angezeigt werden sie nie.
+ */
+final class PollTally {
+    private static final int MAX_SNAPSHOT_ATTEMPTS = 64;
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int STRIPES = 64;
+
+    enum Outcome { VOTED, UNCHANGED, TOO_MANY }
+
+    record Result(Outcome outcome, int mask) {}
+
+    /** Stand der Zähler zu einer Version; {@code total} ist die Summe aller Stimmen. */
+    record Snapshot(long version, int[] totals, int total, int voters) {
+        int votes(int option) {
+            return totals[option];
+        }
+    }
+
+    private final int options;
+    private final boolean multi;
+    private final int maxChoices;
+    private final AtomicIntegerArray counts;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger writers = new AtomicInteger();
+    private final AtomicInteger voters = new AtomicInteger();
+    private final Object[] stripes = new Object[STRIPES];
+    private volatile Snapshot snapshot;
+
+    // Wörterbuch, Schreiben unter dem Write-Lock, Lesen optimistisch
+    private final StampedLock lock = new StampedLock();
+    private int[] slots = new int[64]; // Index + 1, 0 = frei
+    private long[] voterIds = new long[32];
+    private int voterCount;
+    private volatile AtomicIntegerArray[] masks = new AtomicIntegerArray[0];
+
+    PollTally(int options, boolean multi, int maxChoices) {
+        this.options = options;
+        this.multi = multi;
+        this.maxChoices = multi ? Math.max(1, maxChoices) : 1;
+        this.counts = new AtomicIntegerArray(options);
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Object();
+    }
+
+    /**
+     * Baut den Stand aus einem gespeicherten Poll auf: erst Wähler und Bitmaps, dann die Einzelstimmen aus
+     * {@link PollData#votes} (altes Format bzw. Journal seit dem letzten Snapshot; leere Liste = keine Stimme).
+     */
+    static PollTally of(PollData poll) {
+        PollTally tally = new PollTally(poll.options.size(), poll.multi.enabled, poll.multi.maxChoices);
+        long[] ids = poll.voters != null ? decodeIds(poll.voters) : null;
+        if (ids != null) {
+            for (long id : ids) tally.index(id, true);
+        }
+        if (poll.ballots != null) {
+            for (Map.Entry<String, String> ballot : poll.ballots.entrySet()) {
+                int option = poll.indexOf(ballot.getKey());
+                if (option < 0) continue;
+                VoterBitmap bitmap = VoterBitmap.fromBytes(Base64.getDecoder().decode(ballot.getValue()));
+                bitmap.forEach(voter -> tally.restore(voter, 1 << option));
+            }
+        }
+        if (poll.votes != null) {
+            poll.votes.forEach((userId, optionIds) -> {
+                int mask = 0;
+                for (String optionId : optionIds) {
+                    int index = poll.indexOf(optionId);
+                    if (index >= 0 && Integer.bitCount(mask) < tally.maxChoices) mask |= 1 << index;
+                }
+                tally.set(Long.parseLong(userId), mask);
+            });
+            poll.votes = null;
+        }
+        return tally;
+    }
+
+    /**
+     * Stimme für {@code option}: Single-Choice ersetzt die bisherige Auswahl, Multi-Choice schaltet die Option um.
+     */
+    Result vote(long userId, int option) {
+        if (option < 0 || option >= options) throw new IllegalArgumentException("Option " + option);
+        int bit = 1 << option;
+        int voter = index(userId, true);
+        AtomicIntegerArray chunk = chunk(voter);
+        int slot = voter & (CHUNK_SIZE - 1);
+        while (true) {
+            int old = chunk.get(slot);
+            int next;
+            if (!multi) {
+                next = bit;
+            } else if ((old & bit) != 0) {
+                next = old & ~bit;
+            } else if (Integer.bitCount(old) >= maxChoices) {
+                return new Result(Outcome.TOO_MANY, old);
+            } else {
+                next = old | bit;
+            }
+            if (next == old) return new Result(Outcome.UNCHANGED, old);
+            if (chunk.compareAndSet(slot, old, next)) {
+                apply(old, next);
+                return new Result(Outcome.VOTED, next);
+            }
+        }
+    }
+
+    /** Aktuelle Auswahl als Bitmaske, 0 wenn der User nicht abgestimmt hat. */
+    int choicesOf(long userId) {
+        int voter = index(userId, false);
+        return voter < 0 ? 0 : chunk(voter).get(voter & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Ruft {@code action} mit der aktuellen Auswahl des Users auf. Aufrufe für denselben User laufen nacheinander,
+     * die Reihenfolge der gelesenen Stände entspricht also der Reihenfolge der Änderungen (für das Stimmen-Log).
+     */
+    void withChoices(long userId, IntConsumer action) {
+        int voter = index(userId, false);
+        if (voter < 0) return;
+        synchronized (stripes[voter & (STRIPES - 1)]) {
+            action.accept(chunk(voter).get(voter & (CHUNK_SIZE - 1)));
+        }
+    }
+
+    /** Options-IDs einer Maske in Options-Reihenfolge. */
+    static List<String> optionIds(PollData poll, int mask) {
+        List<String> ids = new ArrayList<>(Integer.bitCount(mask));
+        for (int i = 0; i < poll.options.size(); i++) {
+            if ((mask & (1 << i)) != 0) ids.add(poll.options.get(i).id);
+        }
+        return ids;
+    }
+
+    Snapshot snapshot() {
+        Snapshot cached = snapshot;
+        if (cached != null && cached.version == version.get() && writers.get() == 0) return cached;
+
+        int[] totals = new int[options];
+        long v = 0;
+        for (int attempt = 0; attempt < MAX_SNAPSHOT_ATTEMPTS; attempt++) {
+            v = version.get();
+            if (writers.get() != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            for (int i = 0; i < options; i++) totals[i] = counts.get(i);
+            if (writers.get() == 0 && version.get() == v) break;
+        }
+        // nach zu vielen Versuchen (Dauerfeuer) gilt der letzte Stand; die Zähler selbst sind immer exakt
+        int total = 0;
+        for (int t : totals) total += t;
+        Snapshot fresh = new Snapshot(v, totals, total, voters.get());
+        if (cached == null || cached.version < v) snapshot = fresh;
+        return fresh;
+    }
+
+    /**
+     * Schreibt den aktuellen Stand in {@code voters}/{@code ballots} des Polls. Wähler-IDs fallen bei geschlossenen
+     * anonymen Polls weg.
+     */
+    void encodeInto(PollData poll) {
+        long[] ids;
+        int count;
+        long stamp = lock.readLock();
+        try {
+            count = voterCount;
+            ids = Arrays.copyOf(voterIds, count);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        // für die Ablage nach ID sortiert, dann sind die IDs als Deltas klein; die Bitmaps folgen der neuen Reihenfolge
+        boolean withIds = !(poll.anonymous && poll.isClosed());
+        long[] sorted = ids;
+        if (withIds) {
+            sorted = ids.clone();
+            Arrays.sort(sorted);
+        }
+
+        VoterBitmap[] bitmaps = new VoterBitmap[options];
+        for (int i = 0; i < options; i++) bitmaps[i] = new VoterBitmap();
+        for (int voter = 0; voter < count; voter++) {
+            int mask = chunk(voter).get(voter & (CHUNK_SIZE - 1));
+            if (mask == 0) continue;
+            int position = withIds ? Arrays.binarySearch(sorted, ids[voter]) : voter;
+            while (mask != 0) {
+                bitmaps[Integer.numberOfTrailingZeros(mask)].add(position);
+                mask &= mask - 1;
+            }
+        }
+
+        Map<String, String> ballots = new HashMap<>();
+        for (int i = 0; i < options; i++) {
+            if (bitmaps[i].cardinality() > 0) {
+                ballots.put(poll.options.get(i).id, Base64.getEncoder().encodeToString(bitmaps[i].toBytes()));
+            }
+        }
+        poll.ballots = ballots;
+        poll.voters = withIds ? encodeIds(sorted) : null;
+    }
+
+    // Index des Users im Wörterbuch; mit create wird er bei Bedarf angelegt, sonst -1
+    private int index(long userId, boolean create) {
+        long stamp = lock.tryOptimisticRead();
+        int found = probe(userId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = probe(userId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (found >= 0 || !create) return found;
+
+        stamp = lock.writeLock();
+        try {
+            found = probe(userId);
+            return found >= 0 ? found : insert(userId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int probe(long userId) {
+        int[] slots = this.slots;
+        long[] ids = this.voterIds;
+        int mask = slots.length - 1;
+        for (int slot = hash(userId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return -1;
+            // bei einem optimistischen Lesen während eines Resize kann entry kurz ins Leere zeigen
+            if (entry - 1 < ids.length && ids[entry - 1] == userId) return entry - 1;
+        }
+    }
+
+    private int insert(long userId) {
+        int voter = voterCount;
+        if (voter == voterIds.length) voterIds = Arrays.copyOf(voterIds, voter * 2);
+        voterIds[voter] = userId;
+        if ((voter + 1) * 2 > slots.length) rehash(slots.length * 2);
+        place(slots, userId, voter);
+        AtomicIntegerArray[] chunks = masks;
+        if (voter >> CHUNK_BITS >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = new AtomicIntegerArray(CHUNK_SIZE);
+            masks = chunks;
+        }
+        voterCount = voter + 1;
+        return voter;
+    }
+
+    private void rehash(int capacity) {
+        int[] grown = new int[capacity];
+        for (int voter = 0; voter < voterCount; voter++) place(grown, voterIds[voter], voter);
+        slots = grown;
+    }
+
+    private static void place(int[] slots, long userId, int voter) {
+        int mask = slots.length - 1;
+        int slot = hash(userId) & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        slots[slot] = voter + 1;
+    }
+
+    private static int hash(long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private AtomicIntegerArray chunk(int voter) {
+        return masks[voter >> CHUNK_BITS];
+    }
+
+    // beim Laden: Wähler ohne bekannte ID (anonym, geschlossen) bekommen einen Platzhalter ohne Wörterbucheintrag
+    private void restore(int voter, int bit) {
+        long stamp = lock.writeLock();
+        try {
+            while (voterCount <= voter) {
+                if (voterCount == voterIds.length) voterIds = Arrays.copyOf(voterIds, voterIds.length * 2);
+                voterCount++;
+                if ((voterCount - 1) >> CHUNK_BITS >= masks.length) {
+                    AtomicIntegerArray[] chunks = Arrays.copyOf(masks, masks.length + 1);
+                    chunks[chunks.length - 1] = new AtomicIntegerArray(CHUNK_SIZE);
+                    masks = chunks;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        int old = chunk(voter).getAndAccumulate(voter & (CHUNK_SIZE - 1), bit, (a, b) -> a | b);
+        apply(old, old | bit);
+    }
+
+    private void set(long userId, int mask) {
+        int voter = index(userId, mask != 0);
+        if (voter < 0) return;
+        int old = chunk(voter).getAndSet(voter & (CHUNK_SIZE - 1), mask);
+        apply(old, mask);
+    }
+
+    private void apply(int old, int next) {
+        writers.incrementAndGet();
+        try {
+            int removed = old & ~next;
+            int added = next & ~old;
+            for (int i = 0; i < options; i++) {
+                int bit = 1 << i;
+                if ((removed & bit) != 0) counts.decrementAndGet(i);
+                if ((added & bit) != 0) counts.incrementAndGet(i);
+            }
+            if (old == 0 && next != 0) voters.incrementAndGet();
+            else if (old != 0 && next == 0) voters.decrementAndGet();
+            version.incrementAndGet();
+        } finally {
+            writers.decrementAndGet();
+        }
+    }
+
+    // aufsteigende IDs als Varint-Deltas, bei Snowflakes etwa 5 statt 8 Byte pro Wähler
+    private static String encodeIds(long[] sortedIds) {
+        ByteBuffer out = ByteBuffer.allocate(sortedIds.length * 10);
+        long previous = 0;
+        for (long id : sortedIds) {
+            long delta = id - previous;
+            previous = id;
+            while ((delta & ~0x7FL) != 0) {
+                out.put((byte) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            out.put((byte) delta);
+        }
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(out.array(), out.position()));
+    }
+
+    private static long[] decodeIds(String encoded) {
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        long[] ids = new long[bytes.length];
+        int count = 0;
+        long previous = 0;
+        for (int i = 0; i < bytes.length; ) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[i++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            previous += delta;
+            ids[count++] = previous;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+}
@@ -0,0 +1,263 @@
+package dev.eministar.modules.poll;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Rangfolge-Polls mit Instant-Runoff.
+ * <p>
+ * Ein Stimmzettel ist eine Rangfolge von Options-Indizes, gepackt in ein {@code long} (4 Bit pro Platz, Index + 1,
+ * 0 = Ende). Gleiche Stimmzettel werden zu Gruppen mit Anzahl zusammengefasst; eine neue oder geänderte Stimme
+ * verschiebt nur einen Zähler zwischen zwei Gruppen. Die Auszählung arbeitet auf den Gruppen: jede liegt auf dem
+ * Stapel ihrer aktuell höchsten noch verbliebenen Option, und pro Runde werden nur die Gruppen vom Stapel der
+ * ausgeschiedenen Option weitergereicht. Das Ergebnis wird pro Version einmal berechnet und gecacht.
+ */
+final class RankedTally {
+    private static final int STRIPES = 64;
+
+    /**
+     * Eine Runde: Stimmen pro Option zu Beginn, ausgeschiedene Option (-1 in der letzten Runde) und wohin ihre
+     * Stimmen gewandert sind; {@code exhausted} sind Stimmzettel ohne weitere verbliebene Option.
+     */
+    record Round(int[] counts, int eliminated, int[] transfers, int exhausted) {}
+
+    /** {@code winner} ist -1, solange niemand abgestimmt hat. */
+    record Result(long version, List<Round> rounds, int winner, int ballots, int[] firstPreferences) {}
+
+    private final int options;
+    private final Map<Long, Long> ballots = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> groups = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Object[] stripes = new Object[STRIPES];
+    private volatile Result result;
+
+    RankedTally(int options) {
+        this.options = options;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Object();
+    }
+
+    /**
+     * Baut den Stand aus einem gespeicherten Poll auf: {@link PollData#rankings} bzw. bei geschlossenen anonymen
+     * Polls nur {@link PollData#rankingGroups}, danach die Einzelstimmen aus {@link PollData#votes}.
+     */
+    static RankedTally of(PollData poll) {
+        RankedTally tally = new RankedTally(poll.options.size());
+        if (poll.rankings != null) {
+            poll.rankings.forEach((userId, ranking) -> tally.cast(Long.parseLong(userId), pack(poll, List.of(ranking.split(",")))));
+        }
+        if (poll.rankingGroups != null) {
+            poll.rankingGroups.forEach((ranking, count) -> tally.group(pack(poll, List.of(ranking.split(",")))).addAndGet(count));
+        }
+        if (poll.votes != null) {
+            poll.votes.forEach((userId, optionIds) -> tally.cast(Long.parseLong(userId), pack(poll, optionIds)));
+            poll.votes = null;
+        }
+        return tally;
+    }
+
+    /**
+     * Setzt den Stimmzettel eines Users (0 = zurückziehen).
+     *
+     * @return false, wenn er schon genau so abgestimmt hatte
+     */
+    boolean cast(long userId, long ranking) {
+        while (true) {
+            Long old = ballots.get(userId);
+            if (old != null ? old == ranking : ranking == 0) return false;
+            boolean swapped;
+            if (old == null) swapped = ballots.putIfAbsent(userId, ranking) == null;
+            else if (ranking == 0) swapped = ballots.remove(userId, old);
+            else swapped = ballots.replace(userId, old, ranking);
+            if (!swapped) continue;
+            if (old != null) group(old).decrementAndGet();
+            if (ranking != 0) group(ranking).incrementAndGet();
+            version.incrementAndGet();
+            return true;
+        }
+    }
+
+    /** Gepackte Rangfolge des Users, 0 wenn er nicht abgestimmt hat. */
+    long ballotOf(long userId) {
+        Long ranking = ballots.get(userId);
+        return ranking != null ? ranking : 0;
+    }
+
+    /** Wie {@link PollTally#withChoices}: pro User nacheinander, für das Stimmen-Log. */
+    void withBallot(long userId, LongConsumer action) {
+        synchronized (stripes[Long.hashCode(userId) & (STRIPES - 1)]) {
+            action.accept(ballotOf(userId));
+        }
+    }
+
+    Result result() {
+        Result cached = result;
+        long v = version.get();
+        if (cached != null && cached.version == v) return cached;
+
+        List<long[]> rankings = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        groups.forEach((ranking, count) -> {
+            int n = count.get();
+            if (n > 0) {
+                rankings.add(new long[]{ranking});
+                counts.add(n);
+            }
+        });
+        long[] packed = new long[rankings.size()];
+        int[] sizes = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = rankings.get(i)[0];
+            sizes[i] = counts.get(i);
+        }
+        Result fresh = runoff(v, packed, sizes);
+        if (cached == null || cached.version < v) result = fresh;
+        return fresh;
+    }
+
+    // Instant-Runoff über Gruppen; Gleichstand beim Ausscheiden: weniger Erststimmen, dann die spätere Option
+    private Result runoff(long v, long[] rankings, int[] sizes) {
+        int groupCount = rankings.length;
+        int[] position = new int[groupCount];
+        int[][] pile = new int[options][];
+        int[] pileSize = new int[options];
+        int[] tally = new int[options];
+        boolean[] continuing = new boolean[options];
+        Arrays.fill(continuing, true);
+        for (int o = 0; o < options; o++) pile[o] = new int[4];
+
+        int ballots = 0;
+        int exhaustedTotal = 0;
+        for (int g = 0; g < groupCount; g++) {
+            ballots += sizes[g];
+            int top = next(rankings[g], position, g, continuing);
+            if (top < 0) {
+                exhaustedTotal += sizes[g];
+                continue;
+            }
+            push(pile, pileSize, top, g);
+            tally[top] += sizes[g];
+        }
+        int[] first = tally.clone();
+
+        List<Round> rounds = new ArrayList<>();
+        int remaining = options;
+        int winner = -1;
+        while (ballots > 0) {
+            int active = ballots - exhaustedTotal;
+            int leader = -1;
+            for (int o = 0; o < options; o++) {
+                if (continuing[o] && (leader < 0 || tally[o] > tally[leader])) leader = o;
+            }
+            if (remaining <= 1 || tally[leader] * 2L > active) {
+                rounds.add(new Round(tally.clone(), -1, new int[options], 0));
+                winner = leader;
+                break;
+            }
+
+            int loser = -1;
+            for (int o = options - 1; o >= 0; o--) {
+                if (!continuing[o]) continue;
+                if (loser < 0 || tally[o] < tally[loser] || (tally[o] == tally[loser] && first[o] < first[loser])) loser = o;
+            }
+            int[] counts = tally.clone();
+            continuing[loser] = false;
+            remaining--;
+
+            // nur der Stapel der ausgeschiedenen Option wird angefasst
+            int[] transfers = new int[options];
+            int exhausted = 0;
+            int[] moved = pile[loser];
+            for (int i = 0; i < pileSize[loser]; i++) {
+                int g = moved[i];
+                int to = next(rankings[g], position, g, continuing);
+                if (to < 0) {
+                    exhausted += sizes[g];
+                } else {
+                    push(pile, pileSize, to, g);
+                    tally[to] += sizes[g];
+                    transfers[to] += sizes[g];
+                }
+            }
+            tally[loser] = 0;
+            pileSize[loser] = 0;
+            exhaustedTotal += exhausted;
+            rounds.add(new Round(counts, loser, transfers, exhausted));
+        }
+        return new Result(v, rounds, winner, ballots, first);
+    }
+
+    // rückt die Gruppe auf ihre nächste noch verbliebene Option vor, -1 wenn keine mehr kommt
+    private static int next(long ranking, int[] position, int g, boolean[] continuing) {
+        while (true) {
+            int option = (int) (ranking >>> (position[g] * 4) & 0xF) - 1;
+            if (option < 0) return -1;
+            if (continuing[option]) return option;
+            position[g]++;
+        }
+    }
+
+    private static void push(int[][] pile, int[] pileSize, int option, int g) {
+        if (pileSize[option] == pile[option].length) pile[option] = Arrays.copyOf(pile[option], pileSize[option] * 2);
+        pile[option][pileSize[option]++] = g;
+    }
+
+    /** Options-IDs in Rangfolge → gepackt; unbekannte und doppelte Optionen werden übersprungen. */
+    static long pack(PollData poll, List<String> optionIds) {
+        long packed = 0;
+        int rank = 0;
+        int seen = 0;
+        for (String optionId : optionIds) {
+            int index = poll.indexOf(optionId.trim());
+            if (index < 0 || (seen & (1 << index)) != 0 || rank >= 15) continue;
+            seen |= 1 << index;
+            packed |= (long) (index + 1) << (rank++ * 4);
+        }
+        return packed;
+    }
+
+    /** Gepackte Rangfolge als Options-Indizes. */
+    static int[] unpack(long ranking) {
+        int[] indices = new int[16];
+        int n = 0;
+        for (int rank = 0; rank < 16; rank++) {
+            int option = (int) (ranking >>> (rank * 4) & 0xF) - 1;
+            if (option < 0) break;
+            indices[n++] = option;
+        }
+        return Arrays.copyOf(indices, n);
+    }
+
+    static List<String> optionIds(PollData poll, long ranking) {
+        List<String> ids = new ArrayList<>();
+        for (int index : unpack(ranking)) ids.add(poll.options.get(index).id);
+        return ids;
+    }
+
+    /** Speicherform; bei geschlossenen anonymen Polls nur die Gruppen ohne User-IDs. */
+    void encodeInto(PollData poll) {
+        if (poll.anonymous && poll.isClosed()) {
+            Map<String, Integer> grouped = new HashMap<>();
+            groups.forEach((ranking, count) -> {
+                if (count.get() > 0) grouped.put(String.join(",", optionIds(poll, ranking)), count.get());
+            });
+            poll.rankingGroups = grouped;
+            poll.rankings = null;
+            return;
+        }
+        Map<String, String> rankings = new HashMap<>();
+        ballots.forEach((userId, ranking) -> rankings.put(Long.toString(userId), String.join(",", optionIds(poll, ranking))));
+        poll.rankings = rankings;
+        poll.rankingGroups = null;
+    }
+
+    private AtomicInteger group(long ranking) {
+        return groups.computeIfAbsent(ranking, r -> new AtomicInteger());
+    }
+}
@@ -0,0 +1,159 @@
+package dev.eministar.modules.poll;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Komprimierte Menge nicht-negativer ints nach Roaring-Art: die oberen 16 Bit wählen einen Container, die unteren
+ * 16 Bit stehen darin entweder als sortiertes {@code char[]} (bis {@link #ARRAY_MAX} Werte) oder als Bitset mit
+ * 65536 Bit. Dünn besetzte Optionen kosten so 2 Byte pro Wähler, dicht besetzte ein Bit.
+ * <p>
+ * Nicht thread-safe; wird nur zum Speichern und Laden der Stimmen benutzt.
+ */
+final class VoterBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final byte TYPE_ARRAY = 0;
+    private static final byte TYPE_BITMAP = 1;
+
+    private char[] keys = new char[0];
+    private Object[] containers = new Object[0]; // char[] oder long[]
+    private int[] sizes = new int[0];
+
+    void add(int value) {
+        char key = (char) (value >>> 16);
+        char low = (char) value;
+        int i = Arrays.binarySearch(keys, key);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, key);
+        }
+        if (containers[i] instanceof long[] bits) {
+            long word = bits[low >>> 6];
+            long bit = 1L << low;
+            if ((word & bit) == 0) {
+                bits[low >>> 6] = word | bit;
+                sizes[i]++;
+            }
+            return;
+        }
+        char[] values = (char[]) containers[i];
+        int size = sizes[i];
+        int pos = Arrays.binarySearch(values, 0, size, low);
+        if (pos >= 0) return;
+        pos = -pos - 1;
+        if (size == ARRAY_MAX) {
+            containers[i] = toBitmap(values, size);
+            sizes[i] = size;
+            add(value);
+            return;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, size * 2)));
+            containers[i] = values;
+        }
+        System.arraycopy(values, pos, values, pos + 1, size - pos);
+        values[pos] = low;
+        sizes[i] = size + 1;
+    }
+
+    boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (i < 0) return false;
+        char low = (char) value;
+        if (containers[i] instanceof long[] bits) return (bits[low >>> 6] & (1L << low)) != 0;
+        return Arrays.binarySearch((char[]) containers[i], 0, sizes[i], low) >= 0;
+    }
+
+    int cardinality() {
+        int total = 0;
+        for (int size : sizes) total += size;
+        return total;
+    }
+
+    /** Alle Werte aufsteigend. */
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            int high = keys[i] << 16;
+            if (containers[i] instanceof long[] bits) {
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) containers[i];
+                for (int j = 0; j < sizes[i]; j++) action.accept(high | values[j]);
+            }
+        }
+    }
+
+    /** Format: Anzahl Container, dann je Schlüssel, Typ, Anzahl und Inhalt. */
+    byte[] toBytes() {
+        int length = 4;
+        for (int i = 0; i < keys.length; i++) {
+            length += 2 + 1 + 4 + (containers[i] instanceof long[] ? BITMAP_WORDS * 8 : sizes[i] * 2);
+        }
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.putInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            out.putChar(keys[i]);
+            if (containers[i] instanceof long[] bits) {
+                out.put(TYPE_BITMAP).putInt(sizes[i]);
+                for (long word : bits) out.putLong(word);
+            } else {
+                char[] values = (char[]) containers[i];
+                out.put(TYPE_ARRAY).putInt(sizes[i]);
+                for (int j = 0; j < sizes[i]; j++) out.putChar(values[j]);
+            }
+        }
+        return out.array();
+    }
+
+    static VoterBitmap fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        VoterBitmap bitmap = new VoterBitmap();
+        int count = in.getInt();
+        bitmap.keys = new char[count];
+        bitmap.containers = new Object[count];
+        bitmap.sizes = new int[count];
+        for (int i = 0; i < count; i++) {
+            bitmap.keys[i] = in.getChar();
+            byte type = in.get();
+            int size = in.getInt();
+            bitmap.sizes[i] = size;
+            if (type == TYPE_BITMAP) {
+                long[] bits = new long[BITMAP_WORDS];
+                for (int w = 0; w < BITMAP_WORDS; w++) bits[w] = in.getLong();
+                bitmap.containers[i] = bits;
+            } else {
+                char[] values = new char[size];
+                for (int j = 0; j < size; j++) values[j] = in.getChar();
+                bitmap.containers[i] = values;
+            }
+        }
+        return bitmap;
+    }
+
+    private void insertContainer(int i, char key) {
+        int n = keys.length;
+        keys = Arrays.copyOf(keys, n + 1);
+        containers = Arrays.copyOf(containers, n + 1);
+        sizes = Arrays.copyOf(sizes, n + 1);
+        System.arraycopy(keys, i, keys, i + 1, n - i);
+        System.arraycopy(containers, i, containers, i + 1, n - i);
+        System.arraycopy(sizes, i, sizes, i + 1, n - i);
+        keys[i] = key;
+        containers[i] = new char[4];
+        sizes[i] = 0;
+    }
+
+    private static long[] toBitmap(char[] values, int size) {
+        long[] bits = new long[BITMAP_WORDS];
+        for (int j = 0; j < size; j++) bits[values[j] >>> 6] |= 1L << values[j];
+        return bits;
+    }
+}
@@ -0,0 +1,184 @@
+package dev.eministar.modules.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Erzeugt aus allen {@code @BotModule}-Klassen die {@code dev.eministar.modules.GeneratedModuleRegistry}.
+ * <p>
+ * Wird in einer eigenen Compiler-Execution vor dem restlichen Code übersetzt (siehe pom.xml) und darf deshalb
+ * nur JDK-Klassen verwenden; Projekt-Typen werden über ihren Namen aufgelöst.
+ */
+@SupportedAnnotationTypes(BotModuleProcessor.ANNOTATION)
+@SupportedSourceVersion(SourceVersion.RELEASE_17)
+public class BotModuleProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "dev.eministar.modules.BotModule";
+    private static final String PACKAGE = "dev.eministar.modules";
+    private static final String CLASS_NAME = "GeneratedModuleRegistry";
+    private static final String COMMAND = "dev.eministar.command.Command";
+    private static final String LISTENER = "net.dv8tion.jda.api.hooks.ListenerAdapter";
+
+    private record Entry(String name, String enabledKey, boolean enabledByDefault, List<String> dependsOn,
+                         boolean command, boolean listener, String type, Element element) {
+    }
+
+    private boolean generated;
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || annotations.isEmpty()) return false;
+
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        Map<String, Entry> entries = new TreeMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            Entry entry = read(element);
+            if (entry == null) continue;
+            Entry previous = entries.putIfAbsent(entry.name(), entry);
+            if (previous != null) {
+                error(element, "Modulname '" + entry.name() + "' ist schon an " + previous.type() + " vergeben");
+            }
+        }
+
+        for (Entry entry : entries.values()) {
+            for (String dependency : entry.dependsOn()) {
+                if (!entries.containsKey(dependency)) {
+                    error(entry.element(), "Unbekannte Abhängigkeit '" + dependency + "'");
+                }
+            }
+        }
+
+        generated = true;
+        write(entries);
+        return true;
+    }
+
+    private Entry read(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            error(element, "@BotModule ist nur an Klassen erlaubt");
+            return null;
+        }
+        TypeElement type = (TypeElement) element;
+        Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)
+                || type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            error(element, "@BotModule-Klassen müssen öffentlich, nicht abstrakt und nicht innere Klassen sein");
+            return null;
+        }
+        boolean hasDefaultConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+        if (!hasDefaultConstructor) {
+            error(element, "@BotModule-Klassen brauchen einen öffentlichen parameterlosen Konstruktor");
+            return null;
+        }
+
+        boolean command = isSubtype(type, COMMAND);
+        boolean listener = isSubtype(type, LISTENER);
+        if (!command && !listener) {
+            error(element, "@BotModule-Klassen müssen Command implementieren oder ListenerAdapter erweitern");
+            return null;
+        }
+
+        String name = null;
+        String enabledKey = "";
+        boolean enabledByDefault = false;
+        List<String> dependsOn = new ArrayList<>();
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION)) continue;
+            Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                    processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : values.entrySet()) {
+                switch (e.getKey().getSimpleName().toString()) {
+                    case "value" -> name = (String) e.getValue().getValue();
+                    case "enabledKey" -> enabledKey = (String) e.getValue().getValue();
+                    case "enabledByDefault" -> enabledByDefault = (Boolean) e.getValue().getValue();
+                    case "dependsOn" -> {
+                        @SuppressWarnings("unchecked")
+                        List<? extends AnnotationValue> list = (List<? extends AnnotationValue>) e.getValue().getValue();
+                        list.forEach(v -> dependsOn.add((String) v.getValue()));
+                    }
+                }
+            }
+        }
+        if (name == null || name.isBlank()) {
+            error(element, "@BotModule braucht einen Namen");
+            return null;
+        }
+        return new Entry(name, enabledKey, enabledByDefault, dependsOn, command, listener,
+                type.getQualifiedName().toString(), element);
+    }
+
+    private boolean isSubtype(TypeElement type, String superType) {
+        TypeElement target = processingEnv.getElementUtils().getTypeElement(superType);
+        if (target == null) return false;
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(target.asType());
+        return processingEnv.getTypeUtils().isAssignable(type.asType(), erased);
+    }
+
+    private void write(Map<String, Entry> entries) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PACKAGE).append(";\n\n");
+        sb.append("import java.util.List;\n\n");
+        sb.append("@javax.annotation.processing.Generated(\"").append(BotModuleProcessor.class.getName()).append("\")\n");
+        sb.append("public final class ").append(CLASS_NAME).append(" implements ModuleRegistry {\n");
+        sb.append("    private static final List<ModuleDescriptor> MODULES = List.of(");
+        boolean first = true;
+        for (Entry e : entries.values()) {
+            sb.append(first ? "\n" : ",\n");
+            first = false;
+            sb.append("            new ModuleDescriptor(").append(literal(e.name())).append(", ")
+                    .append(literal(e.enabledKey())).append(", ")
+                    .append(e.enabledByDefault()).append(", List.of(");
+            for (int i = 0; i < e.dependsOn().size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(literal(e.dependsOn().get(i)));
+            }
+            sb.append("), ").append(e.command()).append(", ").append(e.listener()).append(", ")
+                    .append(e.type()).append("::new)");
+        }
+        sb.append("\n    );\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public List<ModuleDescriptor> modules() {\n");
+        sb.append("        return MODULES;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        Element[] origins = entries.values().stream().map(Entry::element).toArray(Element[]::new);
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(PACKAGE + "." + CLASS_NAME, origins);
+            try (Writer w = file.openWriter()) {
+                w.write(sb.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Konnte " + CLASS_NAME + " nicht schreiben: " + e);
+        }
+    }
+
+    private static String literal(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
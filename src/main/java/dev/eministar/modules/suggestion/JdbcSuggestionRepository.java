@@ -0,0 +1,104 @@
+package dev.eministar.modules.suggestion;
+
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.DocumentTable;
+
+import java.util.*;
+
+public class JdbcSuggestionRepository implements SuggestionRepository, DocumentTable.Mapping<Suggestion> {
+    private static final Comparator<Suggestion> NEWEST_FIRST = Comparator.comparingLong(Suggestion::getCreatedAt).reversed();
+
+    private final Database db;
+    private final DocumentTable<Suggestion> table;
+
+    public JdbcSuggestionRepository(Database db) {
+        this.db = db;
+        this.table = new DocumentTable<>(db, "suggestions", Suggestion.class, this);
+    }
+
+    @Override
+    public String id(Suggestion s) {
+        return s.getGuildId() + "/" + s.getSuggestionId();
+    }
+
+    @Override
+    public String guildId(Suggestion s) {
+        return s.getGuildId();
+    }
+
+    @Override
+    public String userId(Suggestion s) {
+        return s.getUserId();
+    }
+
+    @Override
+    public String refId(Suggestion s) {
+        return s.getMessageId();
+    }
+
+    @Override
+    public String status(Suggestion s) {
+        return s.getStatus().name();
+    }
+
+    @Override
+    public long score(Suggestion s) {
+        return s.getVoteScore();
+    }
+
+    @Override
+    public String nextSuggestionId() {
+        return "SUG-" + String.format("%04d", db.nextSequence("suggestions", 1000));
+    }
+
+    @Override
+    public void save(Suggestion suggestion) {
+        table.save(suggestion);
+    }
+
+    @Override
+    public void delete(String guildId, String suggestionId) {
+        table.delete(guildId + "/" + suggestionId);
+    }
+
+    @Override
+    public Optional<Suggestion> find(String guildId, String suggestionId) {
+        return table.find(guildId + "/" + suggestionId);
+    }
+
+    @Override
+    public Optional<Suggestion> findByMessage(String guildId, String messageId) {
+        return table.findByRef(guildId, messageId).stream().findFirst();
+    }
+
+    @Override
+    public List<Suggestion> findByGuild(String guildId) {
+        return table.findByGuild(guildId);
+    }
+
+    @Override
+    public List<Suggestion> findByUser(String guildId, String userId) {
+        List<Suggestion> result = table.findByUser(guildId, userId);
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    @Override
+    public List<Suggestion> findByStatus(String guildId, Suggestion.SuggestionStatus status) {
+        List<Suggestion> result = table.findByStatus(guildId, 0, status.name());
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    @Override
+    public List<Suggestion> findTop(String guildId, int limit) {
+        return table.findByStatus(guildId, limit, Suggestion.SuggestionStatus.PENDING.name());
+    }
+
+    @Override
+    public Map<Suggestion.SuggestionStatus, Long> countByStatus(String guildId) {
+        Map<Suggestion.SuggestionStatus, Long> result = new EnumMap<>(Suggestion.SuggestionStatus.class);
+        table.countByStatus(guildId).forEach((status, count) -> result.put(Suggestion.SuggestionStatus.valueOf(status), count));
+        return result;
+    }
+}
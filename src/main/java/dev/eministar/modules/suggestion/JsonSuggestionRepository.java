@@ -0,0 +1,158 @@
+package dev.eministar.modules.suggestion;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import dev.eministar.persistence.Journal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class JsonSuggestionRepository implements SuggestionRepository {
+    private static final Logger logger = LoggerFactory.getLogger(JsonSuggestionRepository.class);
+    private static final Path DATA_FILE = Paths.get("data/suggestions.json");
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Map<String, Map<String, Suggestion>> suggestions = new ConcurrentHashMap<>();
+    private int suggestionCounter = 1000;
+
+    private final Journal journal;
+
+    public JsonSuggestionRepository() {
+        this.journal = Journal.open(DATA_FILE, this::writeSnapshot, this::replay);
+        loadSuggestions();
+    }
+
+    private void loadSuggestions() {
+        try {
+            if (Files.exists(DATA_FILE)) {
+                try (Reader reader = new InputStreamReader(Files.newInputStream(DATA_FILE), StandardCharsets.UTF_8)) {
+                    Type type = new TypeToken<Map<String, Map<String, Suggestion>>>(){}.getType();
+                    Map<String, Map<String, Suggestion>> loaded = gson.fromJson(reader, type);
+                    if (loaded != null) {
+                        loaded.forEach((guildId, map) -> suggestions.put(guildId, new ConcurrentHashMap<>(map)));
+                    }
+                }
+            } else {
+                Files.createDirectories(DATA_FILE.getParent());
+            }
+
+            journal.recover();
+            if (!Files.exists(DATA_FILE)) {
+                journal.compact();
+            }
+
+            // Find highest suggestion ID
+            suggestions.values().stream()
+                    .flatMap(map -> map.values().stream())
+                    .map(Suggestion::getSuggestionId)
+                    .filter(id -> id.startsWith("SUG-"))
+                    .map(id -> id.substring(4))
+                    .mapToInt(Integer::parseInt)
+                    .max()
+                    .ifPresent(max -> suggestionCounter = max + 1);
+            logger.info("Loaded {} guilds with suggestions", suggestions.size());
+        } catch (Exception e) {
+            logger.error("Failed to load suggestions", e);
+        }
+    }
+
+    private void writeSnapshot(Writer writer) {
+        gson.toJson(suggestions, writer);
+    }
+
+    // Journal-Key: <guildId>/<suggestionId>, put enthält den kompletten Vorschlag
+    private void replay(String op, String key, JsonElement value) {
+        int slash = key.indexOf('/');
+        String guildId = key.substring(0, slash);
+        String suggestionId = key.substring(slash + 1);
+        switch (op) {
+            case Journal.OP_PUT -> suggestions.computeIfAbsent(guildId, k -> new ConcurrentHashMap<>())
+                    .put(suggestionId, gson.fromJson(value, Suggestion.class));
+            case Journal.OP_DELETE -> {
+                Map<String, Suggestion> guildSuggestions = suggestions.get(guildId);
+                if (guildSuggestions != null) guildSuggestions.remove(suggestionId);
+            }
+        }
+    }
+
+    @Override
+    public synchronized String nextSuggestionId() {
+        return "SUG-" + String.format("%04d", suggestionCounter++);
+    }
+
+    @Override
+    public void save(Suggestion suggestion) {
+        suggestions.computeIfAbsent(suggestion.getGuildId(), k -> new ConcurrentHashMap<>())
+                .put(suggestion.getSuggestionId(), suggestion);
+        journal.put(suggestion.getGuildId() + "/" + suggestion.getSuggestionId(), gson.toJsonTree(suggestion));
+    }
+
+    @Override
+    public void delete(String guildId, String suggestionId) {
+        Map<String, Suggestion> guildSuggestions = suggestions.get(guildId);
+        if (guildSuggestions != null && guildSuggestions.remove(suggestionId) != null) {
+            journal.remove(guildId + "/" + suggestionId);
+        }
+    }
+
+    @Override
+    public Optional<Suggestion> find(String guildId, String suggestionId) {
+        return Optional.ofNullable(suggestions.getOrDefault(guildId, Collections.emptyMap()).get(suggestionId));
+    }
+
+    @Override
+    public Optional<Suggestion> findByMessage(String guildId, String messageId) {
+        Map<String, Suggestion> guildSuggestions = suggestions.get(guildId);
+        if (guildSuggestions == null) return Optional.empty();
+
+        return guildSuggestions.values().stream()
+                .filter(s -> messageId.equals(s.getMessageId()))
+                .findFirst();
+    }
+
+    @Override
+    public List<Suggestion> findByGuild(String guildId) {
+        return new ArrayList<>(suggestions.getOrDefault(guildId, Collections.emptyMap()).values());
+    }
+
+    @Override
+    public List<Suggestion> findByUser(String guildId, String userId) {
+        return suggestions.getOrDefault(guildId, Collections.emptyMap()).values().stream()
+                .filter(s -> s.getUserId().equals(userId))
+                .sorted(Comparator.comparingLong(Suggestion::getCreatedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Suggestion> findByStatus(String guildId, Suggestion.SuggestionStatus status) {
+        return suggestions.getOrDefault(guildId, Collections.emptyMap()).values().stream()
+                .filter(s -> s.getStatus() == status)
+                .sorted(Comparator.comparingLong(Suggestion::getCreatedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Suggestion> findTop(String guildId, int limit) {
+        return suggestions.getOrDefault(guildId, Collections.emptyMap()).values().stream()
+                .filter(s -> s.getStatus() == Suggestion.SuggestionStatus.PENDING)
+                .sorted(Comparator.comparingInt(Suggestion::getVoteScore).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<Suggestion.SuggestionStatus, Long> countByStatus(String guildId) {
+        return suggestions.getOrDefault(guildId, Collections.emptyMap()).values().stream()
+                .collect(Collectors.groupingBy(Suggestion::getStatus, Collectors.counting()));
+    }
+}
@@ -2,6 +2,7 @@ package dev.eministar.modules.suggestion;
 
 import dev.eministar.command.Command;
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
@@ -20,6 +21,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+@BotModule("suggestion/suggestion")
 public class SuggestionCommand implements Command {
 
     @Override
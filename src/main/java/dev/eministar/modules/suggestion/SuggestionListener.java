@@ -1,6 +1,11 @@
 package dev.eministar.modules.suggestion;
 
 import dev.eministar.config.Config;
+import dev.eministar.event.EventRouter;
+import dev.eministar.event.RoutedListener;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.*;
@@ -15,12 +20,33 @@ import org.slf4j.LoggerFactory;
 
 import java.awt.Color;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
-public class SuggestionListener extends ListenerAdapter {
+@BotModule("suggestion")
+public class SuggestionListener extends ListenerAdapter implements RoutedListener {
     private static final Logger logger = LoggerFactory.getLogger(SuggestionListener.class);
     private static final String UPVOTE_EMOJI = "👍";
     private static final String DOWNVOTE_EMOJI = "👎";
+    private static final TaskGroup timers = Scheduler.group("suggestion");
+
+    private List<EventRouter.Handler> handlers = List.of();
+
+    // Nachrichten und Reaktionen bekommt der Listener nur aus dem Vorschlags-Channel
+    @Override
+    public void bind(EventRouter router) {
+        route(router, Config.getSuggestionChannelId());
+        // Channel lässt sich per Config-Reload ohne Neustart umstellen
+        Config.onChange((old, now) -> {
+            if (!old.suggestionChannelId().equals(now.suggestionChannelId())) route(router, now.suggestionChannelId());
+        });
+    }
+
+    private synchronized void route(EventRouter router, String channelId) {
+        handlers.forEach(router::unregister);
+        handlers = channelId.isEmpty() ? List.of() : router.registerChannel("suggestion", Long.parseLong(channelId), this);
+    }
 
     @Override
     public void onMessageReceived(MessageReceivedEvent event) {
@@ -28,12 +54,6 @@ public class SuggestionListener extends ListenerAdapter {
         if (event.getAuthor().isBot()) return;
         if (event.getGuild() == null) return;
 
-        String suggestionChannelId = Config.getSuggestionChannelId();
-        if (suggestionChannelId.isEmpty()) return;
-
-        // Check if message is in suggestion channel
-        if (!event.getChannel().getId().equals(suggestionChannelId)) return;
-
         // Delete original message
         String content = event.getMessage().getContentRaw();
         User author = event.getAuthor();
@@ -49,32 +69,14 @@ public class SuggestionListener extends ListenerAdapter {
         if (content.length() < 10) {
             channel.sendMessage(author.getAsMention() + " " + EmojiUtil.wrap("❌") +
                     " Dein Vorschlag ist zu kurz! Bitte schreibe mindestens 10 Zeichen.")
-                    .queue(msg -> {
-                        new Thread(() -> {
-                            try {
-                                Thread.sleep(5000);
-                                msg.delete().queue();
-                            } catch (Exception e) {
-                                // Ignore
-                            }
-                        }).start();
-                    });
+                    .queue(msg -> timers.schedule(() -> msg.delete().queue(null, e -> {}), 5, TimeUnit.SECONDS));
             return;
         }
 
         if (content.length() > 1500) {
             channel.sendMessage(author.getAsMention() + " " + EmojiUtil.wrap("❌") +
                     " Dein Vorschlag ist zu lang! Maximal 1500 Zeichen erlaubt.")
-                    .queue(msg -> {
-                        new Thread(() -> {
-                            try {
-                                Thread.sleep(5000);
-                                msg.delete().queue();
-                            } catch (Exception e) {
-                                // Ignore
-                            }
-                        }).start();
-                    });
+                    .queue(msg -> timers.schedule(() -> msg.delete().queue(null, e -> {}), 5, TimeUnit.SECONDS));
             return;
         }
 
@@ -0,0 +1,40 @@
+package dev.eministar.modules.suggestion;
+
+import dev.eministar.persistence.Database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Speicher für Vorschläge. Standard ist {@link JsonSuggestionRepository} (data/suggestions.json),
+ * bei konfigurierter Datenbank {@link JdbcSuggestionRepository}.
+ */
+public interface SuggestionRepository {
+    String nextSuggestionId();
+
+    void save(Suggestion suggestion);
+
+    void delete(String guildId, String suggestionId);
+
+    Optional<Suggestion> find(String guildId, String suggestionId);
+
+    Optional<Suggestion> findByMessage(String guildId, String messageId);
+
+    List<Suggestion> findByGuild(String guildId);
+
+    /** Neueste zuerst. */
+    List<Suggestion> findByUser(String guildId, String userId);
+
+    /** Neueste zuerst. */
+    List<Suggestion> findByStatus(String guildId, Suggestion.SuggestionStatus status);
+
+    /** Offene Vorschläge mit dem höchsten Vote-Score zuerst. */
+    List<Suggestion> findTop(String guildId, int limit);
+
+    Map<Suggestion.SuggestionStatus, Long> countByStatus(String guildId);
+
+    static SuggestionRepository create() {
+        return Database.isEnabled() ? new JdbcSuggestionRepository(Database.get()) : new JsonSuggestionRepository();
+    }
+}
@@ -1,7 +1,13 @@
 package dev.eministar.modules.tempvoice;
 
 import dev.eministar.config.Config;
+import dev.eministar.metrics.Metrics;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.ScheduledTask;
+import dev.eministar.scheduler.Scheduler;
+import dev.eministar.scheduler.TaskGroup;
 import dev.eministar.util.EmojiUtil;
+import dev.eministar.util.TextNormalizer;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
@@ -25,28 +31,37 @@ import org.slf4j.LoggerFactory;
 import java.awt.Color;
 import java.time.Instant;
 import java.util.Map;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+@BotModule(value = "tempvoice", enabledKey = "tempVoice.enabled")
 public class TempVoiceModule extends ListenerAdapter {
     private static final Logger logger = LoggerFactory.getLogger(TempVoiceModule.class);
 
     private static final String BANNER_URL = "https://yukicraft.net/bot/assets/tempvoice.gif";
     private static final int MAX_CHANNEL_NAME_LENGTH = 100;
+    private static final int SPEAKER_EMOJI = 0x1F5E3; // 🗣, steht im Standardnamen
 
     private final Map<String, String> ownerToChannel = new ConcurrentHashMap<>();
     private final Map<String, TempVoiceSettings> channelSettings = new ConcurrentHashMap<>();
-    private final Map<String, ScheduledFuture<?>> deleteTasks = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final Map<String, ScheduledTask> deleteTasks = new ConcurrentHashMap<>();
+    private final TaskGroup timers = Scheduler.group("tempvoice");
 
-    private boolean enabled;
-    private String sourceChannelId;
-    private String fallbackCategoryId;
-    private int deleteGraceSeconds;
-    private int defaultMaxMembers;
-    private int defaultBitrateKbps;
+    // volatile: werden beim Config-Reload von einem Scheduler-Worker neu gesetzt
+    private volatile boolean enabled;
+    private volatile String sourceChannelId;
+    private volatile String fallbackCategoryId;
+    private volatile int deleteGraceSeconds;
+    private volatile int defaultMaxMembers;
+    private volatile int defaultBitrateKbps;
 
     public TempVoiceModule() {
         loadConfig();
+        Config.onChange((old, now) -> {
+            if (!old.tempVoice().equals(now.tempVoice())) loadConfig();
+        });
+        Metrics.gauge(Metrics.PREFIX + "cache_entries", "Einträge in den In-Memory-Caches der Module",
+                channelSettings::size, "cache", "tempvoice_channels");
     }
 
     private void loadConfig() {
@@ -400,16 +415,15 @@ public class TempVoiceModule extends ListenerAdapter {
     private void scheduleChannelDeletion(String channelId) {
         cancelDeleteTask(channelId);
 
-        ScheduledFuture<?> task = scheduler.schedule(() -> deleteTempChannel(channelId), deleteGraceSeconds, TimeUnit.SECONDS);
+        ScheduledTask task = timers.schedule(() -> deleteTempChannel(channelId), deleteGraceSeconds, TimeUnit.SECONDS);
 
         deleteTasks.put(channelId, task);
         logger.debug("Scheduled deletion for channel {} in {} seconds", channelId, deleteGraceSeconds);
     }
 
     private void cancelDeleteTask(String channelId) {
-        ScheduledFuture<?> task = deleteTasks.remove(channelId);
-        if (task != null && !task.isDone()) {
-            task.cancel(false);
+        ScheduledTask task = deleteTasks.remove(channelId);
+        if (task != null && task.cancel()) {
             logger.debug("Cancelled deletion task for channel {}", channelId);
         }
     }
@@ -440,7 +454,7 @@ public class TempVoiceModule extends ListenerAdapter {
     }
 
     private String sanitizeChannelName(String name) {
-        String sanitized = name.replaceAll("[^\\p{L}\\p{N}\\p{P}\\p{Z}🗣]", "");
+        String sanitized = TextNormalizer.keepText(name, SPEAKER_EMOJI);
         if (sanitized.length() > MAX_CHANNEL_NAME_LENGTH) {
             sanitized = sanitized.substring(0, MAX_CHANNEL_NAME_LENGTH);
         }
@@ -457,14 +471,7 @@ public class TempVoiceModule extends ListenerAdapter {
     }
 
     public void shutdown() {
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
+        timers.cancelAll();
     }
 }
 
@@ -0,0 +1,77 @@
+package dev.eministar.modules.ticket;
+
+import dev.eministar.persistence.Database;
+import dev.eministar.persistence.DocumentTable;
+
+import java.util.List;
+import java.util.Optional;
+
+public class JdbcTicketRepository implements TicketRepository, DocumentTable.Mapping<Ticket> {
+    private final Database db;
+    private final DocumentTable<Ticket> table;
+
+    public JdbcTicketRepository(Database db) {
+        this.db = db;
+        this.table = new DocumentTable<>(db, "tickets", Ticket.class, this);
+    }
+
+    @Override
+    public String id(Ticket ticket) {
+        return ticket.getGuildId() + "/" + ticket.getTicketId();
+    }
+
+    @Override
+    public String guildId(Ticket ticket) {
+        return ticket.getGuildId();
+    }
+
+    @Override
+    public String userId(Ticket ticket) {
+        return ticket.getUserId();
+    }
+
+    @Override
+    public String refId(Ticket ticket) {
+        return ticket.getChannelId();
+    }
+
+    @Override
+    public String status(Ticket ticket) {
+        return ticket.getStatus().name();
+    }
+
+    @Override
+    public long score(Ticket ticket) {
+        return ticket.getCreatedAt();
+    }
+
+    @Override
+    public String nextTicketId() {
+        return String.format("TICKET-%04d", db.nextSequence("tickets", 1000));
+    }
+
+    @Override
+    public void save(Ticket ticket) {
+        table.save(ticket);
+    }
+
+    @Override
+    public Optional<Ticket> find(String guildId, String ticketId) {
+        return table.find(guildId + "/" + ticketId);
+    }
+
+    @Override
+    public Optional<Ticket> findByChannel(String guildId, String channelId) {
+        return table.findByRef(guildId, channelId).stream().findFirst();
+    }
+
+    @Override
+    public List<Ticket> findOpen(String guildId) {
+        return table.findByStatus(guildId, 0, Ticket.TicketStatus.OPEN.name(), Ticket.TicketStatus.CLAIMED.name());
+    }
+
+    @Override
+    public List<Ticket> findByUser(String guildId, String userId) {
+        return table.findByUser(guildId, userId);
+    }
+}
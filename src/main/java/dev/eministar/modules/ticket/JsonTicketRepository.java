@@ -0,0 +1,146 @@
+package dev.eministar.modules.ticket;
+
+import com.google.gson.*;
+import dev.eministar.metrics.Metrics;
+import dev.eministar.persistence.Journal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JsonTicketRepository implements TicketRepository {
+    private static final Logger logger = LoggerFactory.getLogger(JsonTicketRepository.class);
+    private static final Path DATA_PATH = Paths.get("data/tickets.json");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Map<String, Map<String, Ticket>> tickets = new ConcurrentHashMap<>();
+    // guildId -> ticketId -> Ticket
+
+    private int ticketCounter = 1000;
+
+    private final Path dataPath;
+    private final Journal journal;
+
+    public JsonTicketRepository() {
+        this(DATA_PATH);
+    }
+
+    /** Mit eigenem Pfad, z.B. für Benchmarks in einem Temp-Verzeichnis. */
+    JsonTicketRepository(Path dataPath) {
+        this.dataPath = dataPath;
+        this.journal = Journal.open(dataPath, this::writeSnapshot, this::replay);
+        load();
+        Metrics.gauge(Metrics.PREFIX + "cache_entries", "Einträge in den In-Memory-Caches der Module",
+                () -> tickets.values().stream().mapToInt(Map::size).sum(), "cache", "tickets");
+    }
+
+    private void load() {
+        try {
+            if (!Files.exists(dataPath)) {
+                Files.createDirectories(dataPath.getParent());
+                journal.recover();
+                if (!Files.exists(dataPath)) journal.compact();
+                return;
+            }
+
+            try (Reader r = Files.newBufferedReader(dataPath, StandardCharsets.UTF_8)) {
+                JsonObject root = GSON.fromJson(r, JsonObject.class);
+                if (root != null && root.has("ticketCounter")) {
+                    ticketCounter = root.get("ticketCounter").getAsInt();
+                }
+
+                if (root != null && root.has("tickets")) {
+                    JsonObject ticketsObj = root.getAsJsonObject("tickets");
+                    for (Map.Entry<String, JsonElement> guildEntry : ticketsObj.entrySet()) {
+                        String guildId = guildEntry.getKey();
+                        JsonObject guildTickets = guildEntry.getValue().getAsJsonObject();
+
+                        Map<String, Ticket> guildMap = new ConcurrentHashMap<>();
+                        for (Map.Entry<String, JsonElement> ticketEntry : guildTickets.entrySet()) {
+                            Ticket ticket = GSON.fromJson(ticketEntry.getValue(), Ticket.class);
+                            guildMap.put(ticketEntry.getKey(), ticket);
+                        }
+                        tickets.put(guildId, guildMap);
+                    }
+                }
+            }
+            journal.recover();
+        } catch (IOException e) {
+            logger.error("Failed to load tickets.json", e);
+        }
+    }
+
+    void writeSnapshot(Writer w) {
+        JsonObject root = new JsonObject();
+        root.addProperty("ticketCounter", ticketCounter);
+
+        JsonObject ticketsObj = new JsonObject();
+        for (Map.Entry<String, Map<String, Ticket>> guildEntry : tickets.entrySet()) {
+            JsonObject guildTickets = new JsonObject();
+            for (Map.Entry<String, Ticket> ticketEntry : guildEntry.getValue().entrySet()) {
+                guildTickets.add(ticketEntry.getKey(), GSON.toJsonTree(ticketEntry.getValue()));
+            }
+            ticketsObj.add(guildEntry.getKey(), guildTickets);
+        }
+        root.add("tickets", ticketsObj);
+        GSON.toJson(root, w);
+    }
+
+    // Journal-Einträge: put/<guildId>/<ticketId> mit dem kompletten Ticket, counter mit dem Zählerstand
+    private void replay(String op, String key, JsonElement value) {
+        switch (op) {
+            case Journal.OP_PUT -> {
+                Ticket ticket = GSON.fromJson(value, Ticket.class);
+                tickets.computeIfAbsent(ticket.getGuildId(), k -> new ConcurrentHashMap<>())
+                        .put(ticket.getTicketId(), ticket);
+            }
+            case "counter" -> ticketCounter = Math.max(ticketCounter, value.getAsInt());
+        }
+    }
+
+    @Override
+    public synchronized String nextTicketId() {
+        String id = String.format("TICKET-%04d", ticketCounter++);
+        journal.append("counter", "", new JsonPrimitive(ticketCounter));
+        return id;
+    }
+
+    @Override
+    public void save(Ticket ticket) {
+        tickets.computeIfAbsent(ticket.getGuildId(), k -> new ConcurrentHashMap<>())
+                .put(ticket.getTicketId(), ticket);
+        journal.put(ticket.getGuildId() + "/" + ticket.getTicketId(), GSON.toJsonTree(ticket));
+    }
+
+    @Override
+    public Optional<Ticket> find(String guildId, String ticketId) {
+        return Optional.ofNullable(tickets.getOrDefault(guildId, Collections.emptyMap()).get(ticketId));
+    }
+
+    @Override
+    public Optional<Ticket> findByChannel(String guildId, String channelId) {
+        return tickets.getOrDefault(guildId, Collections.emptyMap()).values().stream()
+                .filter(t -> channelId.equals(t.getChannelId()))
+                .findFirst();
+    }
+
+    @Override
+    public List<Ticket> findOpen(String guildId) {
+        return tickets.getOrDefault(guildId, Collections.emptyMap()).values().stream()
+                .filter(t -> t.getStatus() == Ticket.TicketStatus.OPEN || t.getStatus() == Ticket.TicketStatus.CLAIMED)
+                .toList();
+    }
+
+    @Override
+    public List<Ticket> findByUser(String guildId, String userId) {
+        return tickets.getOrDefault(guildId, Collections.emptyMap()).values().stream()
+                .filter(t -> t.getUserId().equals(userId))
+                .toList();
+    }
+}
@@ -1,6 +1,8 @@
 package dev.eministar.modules.ticket;
 
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
+import dev.eministar.scheduler.Scheduler;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
@@ -23,7 +25,9 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+@BotModule("ticket")
 public class TicketListener extends ListenerAdapter {
     private static final Logger logger = LoggerFactory.getLogger(TicketListener.class);
 
@@ -420,9 +424,8 @@ public class TicketListener extends ListenerAdapter {
             hook.editOriginalEmbeds(embed.build()).queue();
 
             // Close channel after 5 seconds
-            new Thread(() -> {
+            Scheduler.group("ticket").schedule(() -> {
                 try {
-                    Thread.sleep(5000);
                     logTicketClose(event.getGuild(), event.getUser(), ticket);
 
                     // Transcript als einfache Zusammenfassung in den Log-Kanal
@@ -453,7 +456,7 @@ public class TicketListener extends ListenerAdapter {
                 } catch (Exception e) {
                     logger.error("Error closing ticket channel", e);
                 }
-            }).start();
+            }, 5, TimeUnit.SECONDS);
         });
     }
 
@@ -0,0 +1,29 @@
+package dev.eministar.modules.ticket;
+
+import dev.eministar.persistence.Database;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Speicher für Tickets. Standard ist {@link JsonTicketRepository} (data/tickets.json),
+ * bei konfigurierter Datenbank {@link JdbcTicketRepository}.
+ */
+public interface TicketRepository {
+    String nextTicketId();
+
+    void save(Ticket ticket);
+
+    Optional<Ticket> find(String guildId, String ticketId);
+
+    Optional<Ticket> findByChannel(String guildId, String channelId);
+
+    /** Tickets mit Status OPEN oder CLAIMED. */
+    List<Ticket> findOpen(String guildId);
+
+    List<Ticket> findByUser(String guildId, String userId);
+
+    static TicketRepository create() {
+        return Database.isEnabled() ? new JdbcTicketRepository(Database.get()) : new JsonTicketRepository();
+    }
+}
@@ -1,6 +1,7 @@
 package dev.eministar.modules.welcome;
 
 import dev.eministar.config.Config;
+import dev.eministar.modules.BotModule;
 import dev.eministar.util.EmojiUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import java.awt.Color;
 import java.util.List;
 
+@BotModule("welcome")
 public class WelcomeListener extends ListenerAdapter {
     private static final Logger logger = LoggerFactory.getLogger(WelcomeListener.class);
 
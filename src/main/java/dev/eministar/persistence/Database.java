@@ -0,0 +1,284 @@
+package dev.eministar.persistence;
+
+import dev.eministar.config.Config;
+import dev.eministar.scheduler.ScheduledTask;
+import dev.eministar.scheduler.Scheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC-Backend für die Repositories, aktiv wenn {@code database.type} in der Config {@code h2} oder {@code mysql} ist.
+ * <p>
+ * Es gibt genau eine Verbindung, alle Zugriffe laufen über {@link #call(SqlCall)} und sind damit serialisiert.
+ * Prepared Statements werden pro SQL-Text gecacht und leben so lange wie die Verbindung.
+ * Schreibzugriffe der {@link DocumentTable}s werden gepuffert und periodisch gebündelt geschrieben.
+ */
+public final class Database {
+    private static final Logger logger = LoggerFactory.getLogger(Database.class);
+
+    private static final long FLUSH_INTERVAL_MS = 250;
+
+    @FunctionalInterface
+    public interface SqlCall<R> {
+        R run(Database db) throws SQLException;
+    }
+
+    private static Database instance;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final List<DocumentTable<?>> tables = new CopyOnWriteArrayList<>();
+    private final ScheduledTask flusher;
+    private Connection connection;
+
+    private Database(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.flusher = Scheduler.group("database").scheduleWithFixedDelay(this::flushAll, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** {@code true}, wenn statt der JSON-Dateien eine Datenbank konfiguriert ist. */
+    public static boolean isEnabled() {
+        return !"json".equals(Config.getDbType());
+    }
+
+    public static synchronized Database get() {
+        if (instance == null) {
+            instance = new Database(jdbcUrl(), Config.getDbUser(), Config.getDbPassword());
+            instance.init();
+        }
+        return instance;
+    }
+
+    private static String jdbcUrl() {
+        String url = Config.getDbUrl();
+        if (!url.isBlank()) return url;
+        return switch (Config.getDbType()) {
+            case "h2" -> "jdbc:h2:./data/lattendaddy;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+            case "mysql", "mariadb" -> "jdbc:mariadb://" + Config.getDbHost() + ":" + Config.getDbPort() + "/" + Config.getDbDatabase();
+            default -> throw new IllegalStateException("Unbekannter Datenbank-Typ: " + Config.getDbType());
+        };
+    }
+
+    private void init() {
+        call(db -> {
+            try (Statement st = connection().createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS sequences (name VARCHAR(64) NOT NULL PRIMARY KEY, value BIGINT NOT NULL)");
+                st.execute("CREATE TABLE IF NOT EXISTS settings (k VARCHAR(128) NOT NULL PRIMARY KEY, v TEXT NOT NULL)");
+            }
+            return null;
+        });
+        logger.info("Datenbank verbunden: {}", url.replaceAll("password=[^;&]*", "password=***"));
+    }
+
+    // ---- Verbindung / Statements (nur innerhalb von call() benutzen) ----
+
+    Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            statements.clear();
+            connection = user.isEmpty() ? DriverManager.getConnection(url) : DriverManager.getConnection(url, user, password);
+        }
+        return connection;
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null || ps.isClosed()) {
+            ps = connection().prepareStatement(sql);
+            statements.put(sql, ps);
+        }
+        return ps;
+    }
+
+    void execute(String sql) throws SQLException {
+        try (Statement st = connection().createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    /**
+     * Legt den Index an, falls es ihn noch nicht gibt. {@code CREATE INDEX IF NOT EXISTS} kennen nur H2 und MariaDB,
+     * nicht MySQL; daher wird vorher in den JDBC-Metadaten nachgesehen.
+     */
+    void createIndex(String table, String name, String columns) throws SQLException {
+        if (indexNames(table).contains(name.toLowerCase(Locale.ROOT))) return;
+        execute("CREATE INDEX " + name + " ON " + table + " " + columns);
+    }
+
+    private Set<String> indexNames(String table) throws SQLException {
+        Connection c = connection();
+        DatabaseMetaData meta = c.getMetaData();
+        Set<String> names = new HashSet<>();
+        // je nach Datenbank/Modus liegen Tabellennamen klein oder groß im Katalog
+        for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet rs = meta.getIndexInfo(c.getCatalog(), null, name, false, true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    if (index != null) names.add(index.toLowerCase(Locale.ROOT));
+                }
+            }
+            if (!names.isEmpty()) break;
+        }
+        return names;
+    }
+
+    /** Spaltentyp für große Dokumente: {@code TEXT} ist bei MySQL/MariaDB auf 64 KiB begrenzt, in H2 auf 1 Mio. Zeichen. */
+    String largeTextType() {
+        return url.startsWith("jdbc:h2:") ? "CLOB" : "LONGTEXT";
+    }
+
+    /** Typname der Spalte laut JDBC-Metadaten, null wenn es sie (noch) nicht gibt. */
+    String columnType(String table, String column) throws SQLException {
+        Connection c = connection();
+        DatabaseMetaData meta = c.getMetaData();
+        for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            for (String col : new String[]{column, column.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet rs = meta.getColumns(c.getCatalog(), null, name, col)) {
+                    if (rs.next()) return rs.getString("TYPE_NAME");
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Führt den Aufruf exklusiv auf der Verbindung aus. Ist die Verbindung zwischendurch weggebrochen,
+     * wird einmal neu verbunden und der Aufruf wiederholt.
+     */
+    public synchronized <R> R call(SqlCall<R> call) {
+        try {
+            return call.run(this);
+        } catch (SQLException e) {
+            if (!reconnectIfBroken()) throw new IllegalStateException("Datenbankfehler: " + e.getMessage(), e);
+            try {
+                return call.run(this);
+            } catch (SQLException retry) {
+                throw new IllegalStateException("Datenbankfehler: " + retry.getMessage(), retry);
+            }
+        }
+    }
+
+    private boolean reconnectIfBroken() {
+        try {
+            if (connection != null && connection.isValid(2)) return false;
+        } catch (SQLException ignored) {
+        }
+        logger.warn("Datenbankverbindung verloren, verbinde neu");
+        closeQuietly();
+        return true;
+    }
+
+    private void closeQuietly() {
+        statements.clear();
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+        connection = null;
+    }
+
+    void register(DocumentTable<?> table) {
+        tables.add(table);
+    }
+
+    private void flushAll() {
+        for (DocumentTable<?> table : tables) {
+            table.flush();
+        }
+    }
+
+    // ---- Sequenzen / Einstellungen ----
+
+    /**
+     * Liefert den nächsten Wert der Sequenz; beim allerersten Aufruf {@code initial}.
+     */
+    public long nextSequence(String name, long initial) {
+        return call(db -> {
+            PreparedStatement update = prepare("UPDATE sequences SET value = value + 1 WHERE name = ?");
+            update.setString(1, name);
+            if (update.executeUpdate() == 0) {
+                PreparedStatement insert = prepare("INSERT INTO sequences (name, value) VALUES (?, ?)");
+                insert.setString(1, name);
+                insert.setLong(2, initial);
+                insert.executeUpdate();
+                return initial;
+            }
+            PreparedStatement select = prepare("SELECT value FROM sequences WHERE name = ?");
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+    }
+
+    public String getSetting(String key, String def) {
+        return call(db -> {
+            PreparedStatement ps = prepare("SELECT v FROM settings WHERE k = ?");
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : def;
+            }
+        });
+    }
+
+    public Map<String, String> getSettings(String prefix) {
+        return call(db -> {
+            PreparedStatement ps = prepare("SELECT k, v FROM settings WHERE k LIKE ?");
+            ps.setString(1, prefix + "%");
+            Map<String, String> result = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) result.put(rs.getString(1), rs.getString(2));
+            }
+            return result;
+        });
+    }
+
+    public void setSetting(String key, String value) {
+        call(db -> {
+            PreparedStatement ps = prepare("INSERT INTO settings (k, v) VALUES (?, ?) ON DUPLICATE KEY UPDATE v = VALUES(v)");
+            ps.setString(1, key);
+            ps.setString(2, value);
+            ps.executeUpdate();
+            return null;
+        });
+    }
+
+    /**
+     * Schreibt alle gepufferten Änderungen und schließt die Verbindung. Wird vom Shutdown-Hook aufgerufen.
+     */
+    public static void shutdown() {
+        Database db;
+        synchronized (Database.class) {
+            db = instance;
+            instance = null;
+        }
+        if (db == null) return;
+        db.flusher.cancel();
+        db.flushAll();
+        synchronized (db) {
+            db.closeQuietly();
+        }
+        logger.info("Datenbank: gepufferte Änderungen geschrieben, Verbindung geschlossen");
+    }
+}
@@ -0,0 +1,363 @@
+package dev.eministar.persistence;
+
+import com.google.gson.Gson;
+import dev.eministar.metrics.Counter;
+import dev.eministar.metrics.Histogram;
+import dev.eministar.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tabelle, die ein Aggregat als JSON-Dokument plus einige indizierte Spalten speichert.
+ * <p>
+ * Schema: {@code id} (Primärschlüssel), {@code guild_id}, {@code user_id}, {@code ref_id} (Channel/Message),
+ * {@code status}, {@code score} und {@code data} (das Gson-Dokument). Indizes liegen auf
+ * {@code (guild_id, user_id)}, {@code (guild_id, ref_id)} und {@code (guild_id, status, score)}, damit
+ * Abfragen pro Guild/User/Status ohne Full-Scan auskommen.
+ * <p>
+ * {@link #save} und {@link #delete} serialisieren sofort, schreiben aber erst beim nächsten {@link #flush()}
+ * gebündelt als ein Batch in einer Transaktion. Jede Abfrage flusht vorher, damit eigene Schreibzugriffe
+ * sofort sichtbar sind. Mit {@link #saveLater} wird auch erst beim Flush serialisiert.
+ */
+public final class DocumentTable<T> {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentTable.class);
+    private static final Gson GSON = new Gson();
+
+    /** Optionale indizierte Spalten eines Aggregats. Nicht benötigte Spalten bleiben {@code null}/0. */
+    public interface Columns<T> {
+        default String userId(T entity) { return null; }
+
+        default String refId(T entity) { return null; }
+
+        default String status(T entity) { return null; }
+
+        default long score(T entity) { return 0; }
+
+        /** Direkt vor dem Serialisieren, z.B. um Laufzeitzustand in die gespeicherten Felder zu übertragen. */
+        default void beforeWrite(T entity) {}
+    }
+
+    /** Für Aggregate, die Schlüssel und Guild selbst kennen; dann reicht {@link #save(Object)}. */
+    public interface Mapping<T> extends Columns<T> {
+        String id(T entity);
+
+        String guildId(T entity);
+    }
+
+    private record Row(String id, String guildId, String userId, String refId, String status, long score, String data) {}
+
+    private record Deferred<T>(String guildId, T entity) {}
+
+    private final Database db;
+    private final String table;
+    private final Class<T> type;
+    private final Columns<T> columns;
+    private final Mapping<T> mapping; // null: nur save(id, guildId, entity)
+    private final String upsertSql;
+    private final String deleteSql;
+
+    // guarded by pending; null als Wert = löschen
+    private final Map<String, Row> pending = new LinkedHashMap<>();
+    // guarded by pending; erst beim Flush serialisiert, siehe saveLater
+    private final Map<String, Deferred<T>> deferred = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+
+    private final Histogram flushDuration;
+    private final Counter flushFailures;
+
+    public DocumentTable(Database db, String table, Class<T> type, Mapping<T> mapping) {
+        this(db, table, type, mapping, mapping);
+    }
+
+    /**
+     * Für Aggregate, die weder Schlüssel noch Guild kennen (z.B. eine Zeile pro Guild oder Channel); gespeichert wird
+     * dann nur über {@link #save(String, String, Object)}.
+     */
+    public DocumentTable(Database db, String table, Class<T> type, Columns<T> columns) {
+        this(db, table, type, columns, null);
+    }
+
+    private DocumentTable(Database db, String table, Class<T> type, Columns<T> columns, Mapping<T> mapping) {
+        this.db = db;
+        this.table = table;
+        this.type = type;
+        this.columns = columns;
+        this.mapping = mapping;
+        this.upsertSql = "INSERT INTO " + table + " (id, guild_id, user_id, ref_id, status, score, data) VALUES (?, ?, ?, ?, ?, ?, ?)"
+                + " ON DUPLICATE KEY UPDATE guild_id = VALUES(guild_id), user_id = VALUES(user_id), ref_id = VALUES(ref_id),"
+                + " status = VALUES(status), score = VALUES(score), data = VALUES(data)";
+        this.deleteSql = "DELETE FROM " + table + " WHERE id = ?";
+        this.flushDuration = Metrics.histogram(Metrics.PREFIX + "store_flush_seconds",
+                "Dauer eines Batch-Flushes in die Datenbank", "store", table);
+        this.flushFailures = Metrics.counter(Metrics.PREFIX + "store_flush_failures_total",
+                "Fehlgeschlagene Datenbank-Flushes", "store", table);
+        createSchema();
+        db.register(this);
+    }
+
+    private void createSchema() {
+        db.call(d -> {
+            d.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                    + "id VARCHAR(128) NOT NULL PRIMARY KEY, "
+                    + "guild_id VARCHAR(32) NOT NULL, "
+                    + "user_id VARCHAR(32), "
+                    + "ref_id VARCHAR(64), "
+                    + "status VARCHAR(32), "
+                    + "score BIGINT NOT NULL DEFAULT 0, "
+                    + "data " + d.largeTextType() + " NOT NULL)");
+            // Tabellen aus älteren Versionen hatten TEXT (MySQL) bzw. das daraus abgeleitete VARCHAR (H2)
+            String type = d.columnType(table, "data");
+            if ("TEXT".equalsIgnoreCase(type) || "CHARACTER VARYING".equalsIgnoreCase(type)) {
+                d.execute("ALTER TABLE " + table + " MODIFY data " + d.largeTextType() + " NOT NULL");
+            }
+            d.createIndex(table, table + "_guild_user", "(guild_id, user_id)");
+            d.createIndex(table, table + "_guild_ref", "(guild_id, ref_id)");
+            d.createIndex(table, table + "_guild_status_score", "(guild_id, status, score)");
+            return null;
+        });
+    }
+
+    // ---- Schreiben ----
+
+    public void save(T entity) {
+        save(mapping().id(entity), entity);
+    }
+
+    /** Speichert unter einem explizit vergebenen Schlüssel statt {@link Mapping#id}. */
+    public void save(String id, T entity) {
+        save(id, mapping().guildId(entity), entity);
+    }
+
+    /** Für Aggregate, die ihre Guild nicht selbst kennen. */
+    public void save(String id, String guildId, T entity) {
+        Row row = row(id, guildId, entity);
+        synchronized (pending) {
+            deferred.remove(id);
+            pending.remove(row.id());
+            pending.put(row.id(), row);
+        }
+    }
+
+    /**
+     * Merkt das Aggregat nur vor und serialisiert es erst beim nächsten {@link #flush()}: viele Änderungen an
+     * einem großen Dokument zwischen zwei Flushes kosten so ein Serialisieren statt eines pro Änderung. Das Objekt
+     * wird dabei in seinem Zustand zum Flush-Zeitpunkt geschrieben.
+     */
+    public void saveLater(String id, String guildId, T entity) {
+        synchronized (pending) {
+            deferred.put(id, new Deferred<>(guildId, entity));
+        }
+    }
+
+    private Row row(String id, String guildId, T entity) {
+        columns.beforeWrite(entity);
+        return new Row(id, guildId, columns.userId(entity), columns.refId(entity),
+                columns.status(entity), columns.score(entity), GSON.toJson(entity));
+    }
+
+    private Mapping<T> mapping() {
+        if (mapping == null) throw new IllegalStateException(table + ": ohne Mapping nur mit Schlüssel und Guild speicherbar");
+        return mapping;
+    }
+
+    public void delete(String id) {
+        synchronized (pending) {
+            deferred.remove(id);
+            pending.remove(id);
+            pending.put(id, null);
+        }
+    }
+
+    /**
+     * Schreibt alle gepufferten Änderungen als ein Batch. Schlägt das fehl, bleiben sie gepuffert,
+     * sofern sie nicht inzwischen durch neuere ersetzt wurden.
+     */
+    public void flush() {
+        // serialisiert Flushes, damit ein älterer Batch nie nach einem neueren geschrieben wird
+        synchronized (flushLock) {
+            flushLocked();
+        }
+    }
+
+    private void flushLocked() {
+        Map<String, Deferred<T>> later;
+        synchronized (pending) {
+            later = deferred.isEmpty() ? Map.of() : new LinkedHashMap<>(deferred);
+            deferred.clear();
+            // save()/delete() räumen deferred ab; steht beides da, ist der vorgemerkte Stand der neuere
+            later.keySet().forEach(pending::remove);
+        }
+        // außerhalb des Locks serialisieren, save()/saveLater() blockieren dabei nicht
+        later.forEach((id, d) -> {
+            Row row = row(id, d.guildId(), d.entity());
+            synchronized (pending) {
+                // ein neueres save() oder delete() seit dem Abholen hat Vorrang
+                if (!deferred.containsKey(id) && !pending.containsKey(id)) pending.put(id, row);
+            }
+        });
+        Map<String, Row> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) return;
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        long begin = System.nanoTime();
+        try {
+            db.call(d -> {
+                d.connection().setAutoCommit(false);
+                try {
+                    PreparedStatement upsert = d.prepare(upsertSql);
+                    PreparedStatement delete = d.prepare(deleteSql);
+                    boolean upserts = false, deletes = false;
+                    for (Map.Entry<String, Row> e : batch.entrySet()) {
+                        Row row = e.getValue();
+                        if (row == null) {
+                            delete.setString(1, e.getKey());
+                            delete.addBatch();
+                            deletes = true;
+                        } else {
+                            bindUpsert(upsert, row);
+                            upsert.addBatch();
+                            upserts = true;
+                        }
+                    }
+                    if (upserts) upsert.executeBatch();
+                    if (deletes) delete.executeBatch();
+                    d.connection().commit();
+                } catch (SQLException e) {
+                    d.connection().rollback();
+                    throw e;
+                } finally {
+                    d.connection().setAutoCommit(true);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            logger.error("Datenbank: {} Änderungen an {} konnten nicht geschrieben werden", batch.size(), table, e);
+            synchronized (pending) {
+                // neuere Änderungen (auch Löschungen, daher kein putIfAbsent) haben Vorrang
+                batch.forEach((id, row) -> {
+                    if (!pending.containsKey(id)) pending.put(id, row);
+                });
+            }
+        } finally {
+            flushDuration.record(System.nanoTime() - begin);
+        }
+    }
+
+    private static void bindUpsert(PreparedStatement ps, Row row) throws SQLException {
+        ps.setString(1, row.id());
+        ps.setString(2, row.guildId());
+        setNullable(ps, 3, row.userId());
+        setNullable(ps, 4, row.refId());
+        setNullable(ps, 5, row.status());
+        ps.setLong(6, row.score());
+        ps.setString(7, row.data());
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.VARCHAR);
+        else ps.setString(index, value);
+    }
+
+    // ---- Abfragen ----
+
+    public Optional<T> find(String id) {
+        List<T> result = query("SELECT id, data FROM " + table + " WHERE id = ?", id);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    public List<T> findAll() {
+        return query("SELECT id, data FROM " + table);
+    }
+
+    /** Wie {@link #findAll()}, aber mit den gespeicherten Schlüsseln. */
+    public Map<String, T> findAllById() {
+        return queryById("SELECT id, data FROM " + table);
+    }
+
+    public List<T> findByGuild(String guildId) {
+        return query("SELECT id, data FROM " + table + " WHERE guild_id = ?", guildId);
+    }
+
+    /** Wie {@link #findByGuild(String)}, aber mit den gespeicherten Schlüsseln. */
+    public Map<String, T> findByGuildById(String guildId) {
+        return queryById("SELECT id, data FROM " + table + " WHERE guild_id = ?", guildId);
+    }
+
+    public List<T> findByUser(String guildId, String userId) {
+        return query("SELECT id, data FROM " + table + " WHERE guild_id = ? AND user_id = ?", guildId, userId);
+    }
+
+    public List<T> findByRef(String guildId, String refId) {
+        return query("SELECT id, data FROM " + table + " WHERE guild_id = ? AND ref_id = ?", guildId, refId);
+    }
+
+    /** Einträge mit einem der Status, absteigend nach {@code score}; {@code limit <= 0} heißt unbegrenzt. */
+    public List<T> findByStatus(String guildId, int limit, String... statuses) {
+        StringBuilder sql = new StringBuilder("SELECT id, data FROM ").append(table).append(" WHERE guild_id = ? AND status IN (");
+        for (int i = 0; i < statuses.length; i++) sql.append(i == 0 ? "?" : ", ?");
+        sql.append(") ORDER BY score DESC");
+        Object[] params = new Object[statuses.length + (limit > 0 ? 2 : 1)];
+        params[0] = guildId;
+        System.arraycopy(statuses, 0, params, 1, statuses.length);
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            params[params.length - 1] = limit;
+        }
+        return query(sql.toString(), params);
+    }
+
+    public Map<String, Long> countByStatus(String guildId) {
+        flush();
+        try {
+            return db.call(d -> {
+                PreparedStatement ps = d.prepare("SELECT status, COUNT(*) FROM " + table + " WHERE guild_id = ? GROUP BY status");
+                ps.setString(1, guildId);
+                Map<String, Long> result = new HashMap<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) result.put(rs.getString(1), rs.getLong(2));
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            logger.error("Datenbank: Abfrage auf {} fehlgeschlagen", table, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private List<T> query(String sql, Object... params) {
+        return new ArrayList<>(queryById(sql, params).values());
+    }
+
+    private Map<String, T> queryById(String sql, Object... params) {
+        flush();
+        try {
+            return db.call(d -> {
+                PreparedStatement ps = d.prepare(sql);
+                for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+                Map<String, T> result = new LinkedHashMap<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) result.put(rs.getString(1), GSON.fromJson(rs.getString(2), type));
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            logger.error("Datenbank: Abfrage auf {} fehlgeschlagen", table, e);
+            return new LinkedHashMap<>();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package dev.eministar.persistence;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.eministar.metrics.Counter;
+import dev.eministar.metrics.Histogram;
+import dev.eministar.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only Änderungsjournal neben einer JSON-Snapshot-Datei.
+ * <p>
+ * Jede Mutation wird als eine kompakte JSON-Zeile {@code {"op":..,"k":..,"v":..}} angehängt, statt die komplette
+ * Datei neu zu schreiben. Der {@link PersistenceEngine}-Writer bündelt die Zeilen (Group Commit) und schreibt
+ * regelmäßig einen kompaktierten Snapshot (tmp-Datei + atomarer Rename), danach wird das Journal geleert.
+ * <p>
+ * Einträge müssen idempotent sein (Zustand setzen statt Delta), da beim Recovery Einträge erneut angewendet
+ * werden können, die bereits im Snapshot enthalten sind.
+ */
+public final class Journal {
+    private static final Logger logger = LoggerFactory.getLogger(Journal.class);
+
+    static final int COMPACT_AFTER_ENTRIES = 2000;
+    static final long COMPACT_MIN_INTERVAL_MS = TimeUnit.SECONDS.toMillis(10);
+    static final long COMPACT_MAX_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    public static final String OP_PUT = "put";
+    public static final String OP_DELETE = "del";
+
+    @FunctionalInterface
+    public interface Replayer {
+        void apply(String op, String key, JsonElement value);
+    }
+
+    @FunctionalInterface
+    public interface SnapshotWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final SnapshotWriter snapshotWriter;
+    private final Replayer replayer;
+    private final Histogram syncDuration;
+    private final Histogram snapshotDuration;
+    private final Counter snapshotFailures;
+
+    // guarded by this
+    private FileChannel channel;
+    private Writer out;
+    private int entriesSinceSnapshot;
+    private long lastSnapshotAt = System.currentTimeMillis();
+
+    private Journal(Path snapshotPath, SnapshotWriter snapshotWriter, Replayer replayer) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPathFor(snapshotPath);
+        this.snapshotWriter = snapshotWriter;
+        this.replayer = replayer;
+        String store = snapshotPath.getFileName().toString();
+        this.syncDuration = Metrics.histogram(Metrics.PREFIX + "store_sync_seconds",
+                "Dauer von flush+fsync eines Journals", "store", store);
+        this.snapshotDuration = Metrics.histogram(Metrics.PREFIX + "store_snapshot_seconds",
+                "Dauer eines vollständigen Snapshots (Kompaktierung)", "store", store);
+        this.snapshotFailures = Metrics.counter(Metrics.PREFIX + "store_snapshot_failures_total",
+                "Fehlgeschlagene Snapshots", "store", store);
+    }
+
+    /**
+     * Erstellt ein Journal für die gegebene Snapshot-Datei und meldet es beim Writer an.
+     * Der Store lädt zuerst seinen Snapshot und ruft danach {@link #recover()} auf.
+     */
+    public static Journal open(Path snapshotPath, SnapshotWriter snapshotWriter, Replayer replayer) {
+        Journal journal = new Journal(snapshotPath, snapshotWriter, replayer);
+        PersistenceEngine.register(journal);
+        return journal;
+    }
+
+    private static Path journalPathFor(Path snapshotPath) {
+        String name = snapshotPath.getFileName().toString();
+        if (name.endsWith(".json")) name = name.substring(0, name.length() - ".json".length());
+        return snapshotPath.resolveSibling(name + ".journal");
+    }
+
+    // ---- Schreiben ----
+
+    public void put(String key, JsonElement value) {
+        append(OP_PUT, key, value);
+    }
+
+    public void remove(String key) {
+        append(OP_DELETE, key, null);
+    }
+
+    public void append(String op, String key, JsonElement value) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("op", op);
+        entry.addProperty("k", key);
+        if (value != null) entry.add("v", value);
+        PersistenceEngine.enqueue(this, entry.toString());
+    }
+
+    /**
+     * Kompaktiert, sobald alle bis jetzt eingereihten Einträge geschrieben sind. Danach steht nichts davon mehr im
+     * Journal, nur noch der Snapshot.
+     */
+    public void compactSoon() {
+        PersistenceEngine.enqueueCompaction(this);
+    }
+
+    synchronized void write(String line) throws IOException {
+        if (out == null) {
+            Path parent = journalPath.getParent();
+            if (parent != null) Files.createDirectories(parent);
+            channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+        }
+        out.write(line);
+        out.write('\n');
+        entriesSinceSnapshot++;
+    }
+
+    synchronized void sync() throws IOException {
+        if (out == null) return;
+        long begin = System.nanoTime();
+        out.flush();
+        channel.force(false);
+        syncDuration.record(System.nanoTime() - begin);
+    }
+
+    private void closeWriter() {
+        if (out == null) return;
+        try {
+            out.flush();
+            channel.force(false);
+            out.close();
+        } catch (IOException e) {
+            logger.warn("Journal {} konnte nicht sauber geschlossen werden", journalPath, e);
+        }
+        out = null;
+        channel = null;
+    }
+
+    // ---- Snapshot / Recovery ----
+
+    synchronized boolean needsCompaction(long now) {
+        if (entriesSinceSnapshot == 0) return false;
+        long sinceLast = now - lastSnapshotAt;
+        if (entriesSinceSnapshot >= COMPACT_AFTER_ENTRIES && sinceLast >= COMPACT_MIN_INTERVAL_MS) return true;
+        return sinceLast >= COMPACT_MAX_INTERVAL_MS;
+    }
+
+    /**
+     * Schreibt einen vollständigen Snapshot (tmp-Datei, fsync, atomarer Rename) und leert danach das Journal.
+     * Schlägt der Snapshot fehl, bleibt das Journal erhalten.
+     */
+    public synchronized void compact() {
+        long begin = System.nanoTime();
+        lastSnapshotAt = System.currentTimeMillis();
+        closeWriter();
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            Path parent = snapshotPath.getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                Writer w = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8));
+                snapshotWriter.write(w);
+                w.flush();
+                ch.force(true);
+            }
+            try {
+                Files.move(tmp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(journalPath);
+            entriesSinceSnapshot = 0;
+        } catch (Exception e) {
+            snapshotFailures.increment();
+            logger.error("Snapshot für {} fehlgeschlagen, Journal bleibt erhalten", snapshotPath, e);
+        } finally {
+            snapshotDuration.record(System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Spielt das Journal nach einem Neustart/Crash auf den bereits geladenen Snapshot ein.
+     * Eine abgeschnittene letzte Zeile (Crash mitten im Schreiben) wird verworfen.
+     * Danach wird sofort kompaktiert, damit das Journal wieder leer beginnt.
+     */
+    public synchronized int recover() {
+        if (!Files.exists(journalPath)) return 0;
+        int applied = 0;
+        try (BufferedReader r = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank()) continue;
+                JsonObject entry;
+                try {
+                    entry = JsonParser.parseString(line).getAsJsonObject();
+                } catch (Exception e) {
+                    logger.warn("Journal {}: beschädigter Eintrag nach {} Einträgen, Rest wird verworfen", journalPath, applied);
+                    break;
+                }
+                try {
+                    replayer.apply(entry.get("op").getAsString(), entry.get("k").getAsString(), entry.get("v"));
+                    applied++;
+                } catch (Exception e) {
+                    logger.warn("Journal {}: Eintrag konnte nicht angewendet werden: {}", journalPath, line, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Journal {} konnte nicht gelesen werden", journalPath, e);
+            return applied;
+        }
+        logger.info("Journal {}: {} Einträge wiederhergestellt", journalPath, applied);
+        compact();
+        return applied;
+    }
+
+    @Override
+    public String toString() {
+        return journalPath.toString();
+    }
+}
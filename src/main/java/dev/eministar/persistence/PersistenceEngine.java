@@ -0,0 +1,187 @@
+package dev.eministar.persistence;
+
+import dev.eministar.metrics.Counter;
+import dev.eministar.metrics.Histogram;
+import dev.eministar.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gemeinsamer Write-Behind-Writer für alle {@link Journal}e.
+ * <p>
+ * Aufrufer (JDA-Threads) legen nur eine Zeile in die Queue. Ein einzelner Writer-Thread nimmt alles, was
+ * gerade ansteht, schreibt es in einem Rutsch und macht pro betroffenem Journal genau ein fsync (Group Commit).
+ * Zwischendurch werden Journale kompaktiert, sobald sie groß oder alt genug sind.
+ */
+public final class PersistenceEngine {
+    private static final Logger logger = LoggerFactory.getLogger(PersistenceEngine.class);
+
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_POLL_MS = 1000;
+
+    // line == null ohne barrier: Journal nach den davor eingereihten Einträgen kompaktieren
+    private record Pending(Journal journal, String line, CountDownLatch barrier) {}
+
+    private static final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private static final List<Journal> journals = new CopyOnWriteArrayList<>();
+    private static volatile boolean running = true;
+    private static final Thread writer = startWriter();
+
+    private static final Histogram batchDuration = Metrics.histogram(Metrics.PREFIX + "persistence_batch_seconds",
+            "Dauer eines Group Commits (Schreiben aller Zeilen plus fsync)");
+    private static final Counter entriesWritten = Metrics.counter(Metrics.PREFIX + "persistence_entries_total",
+            "In Journale geschriebene Einträge");
+
+    static {
+        Metrics.gauge(Metrics.PREFIX + "persistence_queue_depth", "Journal-Einträge, die auf den Writer warten", queue::size);
+    }
+
+    private PersistenceEngine() {}
+
+    private static Thread startWriter() {
+        Thread t = new Thread(PersistenceEngine::run, "persistence-writer");
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    static void register(Journal journal) {
+        journals.add(journal);
+    }
+
+    static void enqueue(Journal journal, String line) {
+        if (!running) {
+            // nach dem Shutdown direkt schreiben, damit späte Callbacks nichts verlieren
+            try {
+                journal.write(line);
+                journal.sync();
+            } catch (IOException e) {
+                logger.error("Persistenz: Schreiben nach Shutdown in {} fehlgeschlagen", journal, e);
+            }
+            return;
+        }
+        queue.add(new Pending(journal, line, null));
+    }
+
+    static void enqueueCompaction(Journal journal) {
+        if (!running) {
+            journal.compact();
+            return;
+        }
+        queue.add(new Pending(journal, null, null));
+    }
+
+    /**
+     * Wartet, bis alle bis jetzt eingereihten Einträge geschrieben und auf Platte gesynct sind.
+     */
+    public static boolean flush(long timeout, TimeUnit unit) {
+        if (!running) return true;
+        CountDownLatch barrier = new CountDownLatch(1);
+        queue.add(new Pending(null, null, barrier));
+        try {
+            return barrier.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Leert die Queue, stoppt den Writer und schreibt für jedes Journal einen finalen Snapshot.
+     */
+    public static void shutdown() {
+        if (!running) return;
+        logger.info("Persistenz: Flush beim Herunterfahren ({} Einträge ausstehend)", queue.size());
+        flush(10, TimeUnit.SECONDS);
+        running = false;
+        try {
+            writer.join(IDLE_POLL_MS * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        writeBatch(rest, new LinkedHashSet<>());
+        for (Journal journal : journals) {
+            journal.compact();
+        }
+        logger.info("Persistenz: {} Stores gesichert", journals.size());
+    }
+
+    private static void run() {
+        List<Pending> batch = new ArrayList<>();
+        Set<Journal> touched = new LinkedHashSet<>();
+        while (running) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    writeBatch(batch, touched);
+                    batch.clear();
+                    touched.clear();
+                }
+                long now = System.currentTimeMillis();
+                for (Journal journal : journals) {
+                    if (journal.needsCompaction(now)) journal.compact();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Persistenz: Fehler im Writer-Thread", e);
+            }
+        }
+    }
+
+    private static void writeBatch(List<Pending> batch, Set<Journal> touched) {
+        long begin = System.nanoTime();
+        int written = 0;
+        List<CountDownLatch> barriers = null;
+        Set<Journal> compactions = null;
+        for (Pending p : batch) {
+            if (p.barrier() != null) {
+                if (barriers == null) barriers = new ArrayList<>();
+                barriers.add(p.barrier());
+                continue;
+            }
+            if (p.line() == null) {
+                if (compactions == null) compactions = new LinkedHashSet<>();
+                compactions.add(p.journal());
+                continue;
+            }
+            try {
+                p.journal().write(p.line());
+                touched.add(p.journal());
+                written++;
+            } catch (IOException e) {
+                logger.error("Persistenz: Schreiben in {} fehlgeschlagen", p.journal(), e);
+            }
+        }
+        for (Journal journal : touched) {
+            try {
+                journal.sync();
+            } catch (IOException e) {
+                logger.error("Persistenz: fsync für {} fehlgeschlagen", journal, e);
+            }
+        }
+        if (written > 0) {
+            entriesWritten.add(written);
+            batchDuration.record(System.nanoTime() - begin);
+        }
+        // der Snapshot kommt aus dem Speicher und deckt damit auch spätere Zeilen desselben Batches ab
+        if (compactions != null) compactions.forEach(Journal::compact);
+        if (barriers != null) barriers.forEach(CountDownLatch::countDown);
+    }
+}
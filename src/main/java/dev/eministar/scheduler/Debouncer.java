@@ -0,0 +1,47 @@
+package dev.eministar.scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fasst Aktionen pro Schlüssel zusammen: die erste plant einen Lauf nach {@code delayMs}, alle weiteren bis dahin
+ * ersetzen nur die Aktion. Es läuft also höchstens eine Aktion pro Fenster, und immer die zuletzt eingereichte
+ * (Trailing Edge) – die letzte Änderung geht nie verloren.
+ */
+public class Debouncer {
+    private final Map<String, Runnable> pending;
+    private final long delayMs;
+    private final TaskGroup timers;
+
+    public Debouncer(long delayMs) {
+        this(delayMs, Scheduler.group("debounce"));
+    }
+
+    public Debouncer(long delayMs, TaskGroup timers) {
+        this.delayMs = delayMs;
+        this.timers = timers;
+        this.pending = new ConcurrentHashMap<>();
+    }
+
+    public void submit(String key, Runnable action) {
+        // nur wer das Fenster öffnet, plant den Lauf
+        if (pending.put(key, action) == null) {
+            timers.schedule(() -> fire(key), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void fire(String key) {
+        Runnable action = pending.remove(key);
+        if (action != null) action.run();
+    }
+
+    /** Verwirft eine noch ausstehende Aktion. */
+    public void reset(String key) {
+        pending.remove(key);
+    }
+
+    public void clear() {
+        pending.clear();
+    }
+}
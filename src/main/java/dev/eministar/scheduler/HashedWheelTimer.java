@@ -0,0 +1,255 @@
+package dev.eministar.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed Timing Wheel (Varghese/Lauck): ein Ring aus {@code wheelSize} Buckets, ein Thread rückt alle
+ * {@code tickNanos} um einen Bucket weiter. Einplanen und Abbrechen kosten O(1) und landen nur in lock-freien
+ * Queues, die der Tick-Thread abarbeitet; Hunderttausende ausstehende Timeouts kosten also nur Speicher.
+ * Fällige Aufgaben laufen auf einem kleinen Worker-Pool, damit langsame Tasks das Rad nicht aufhalten.
+ * <p>
+ * Auflösung ist ein Tick: Aufgaben laufen frühestens zur Deadline, höchstens etwa einen Tick später.
+ */
+final class HashedWheelTimer {
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private static final int ST_INIT = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final ExecutorService executor;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final long startTime;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private long tick; // nur Tick-Thread
+
+    HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, ExecutorService executor) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) wheel[i] = new Bucket();
+        this.mask = size - 1;
+        this.executor = executor;
+        this.startTime = System.nanoTime();
+        this.thread = new Thread(this::run, "timer-wheel");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @param tracked {@code false} für die internen Timeouts periodischer Tasks, die ihre Gruppe selbst pflegen
+     */
+    Timeout newTimeout(TaskGroup group, Runnable task, long delayNanos, boolean tracked) {
+        Timeout timeout = prepare(group, task, delayNanos, tracked);
+        arm(timeout);
+        return timeout;
+    }
+
+    /**
+     * Legt den Timeout nur an; fällig wird er erst mit {@link #arm}. So kann die Gruppe ihn vorher registrieren und
+     * ein sehr kurzer Timeout nicht schon fertig sein, bevor er eingetragen ist.
+     */
+    Timeout prepare(TaskGroup group, Runnable task, long delayNanos, boolean tracked) {
+        if (!running) throw new RejectedExecutionException("Scheduler wurde beendet");
+        long deadline = System.nanoTime() - startTime + Math.max(0, delayNanos);
+        return new Timeout(this, group, task, deadline, tracked);
+    }
+
+    // ein vorher abgebrochener Timeout wird beim Übernehmen verworfen, pending gleicht sich dabei aus
+    void arm(Timeout timeout) {
+        pending.incrementAndGet();
+        incoming.add(timeout);
+    }
+
+    long pending() {
+        return pending.get();
+    }
+
+    long tickNanos() {
+        return tickNanos;
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---- Tick-Thread ----
+
+    private void run() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) break;
+            processCancellations();
+            transferIncoming();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            long sleep = deadline - now;
+            if (sleep <= 0) return now;
+            if (!running) return -1;
+            LockSupport.parkNanos(this, sleep);
+        }
+    }
+
+    private void transferIncoming() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = incoming.poll();
+            if (timeout == null) return;
+            if (timeout.state.get() == ST_CANCELLED) continue;
+
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick); // schon überfällig: in den aktuellen Bucket
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancellations() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) timeout.bucket.remove(timeout);
+        }
+    }
+
+    private void dispatch(Timeout timeout) {
+        if (!timeout.state.compareAndSet(ST_INIT, ST_EXPIRED)) return;
+        pending.decrementAndGet();
+        long lag = Math.max(0, System.nanoTime() - startTime - timeout.deadline);
+        try {
+            executor.execute(() -> {
+                timeout.group.run(timeout.task, lag);
+                if (timeout.tracked) timeout.group.onDone(timeout);
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Timer-Aufgabe in Gruppe {} verworfen (Scheduler beendet)", timeout.group.name());
+        }
+    }
+
+    /** Ein einzelner Wheel-Eintrag; doppelt verkettet, damit Abbrechen O(1) ist. */
+    static final class Timeout implements ScheduledTask {
+        private final HashedWheelTimer timer;
+        private final TaskGroup group;
+        private final Runnable task;
+        private final long deadline; // relativ zu startTime
+        private final boolean tracked;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // nur Tick-Thread
+        long remainingRounds;
+        Bucket bucket;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(HashedWheelTimer timer, TaskGroup group, Runnable task, long deadline, boolean tracked) {
+            this.timer = timer;
+            this.group = group;
+            this.task = task;
+            this.deadline = deadline;
+            this.tracked = tracked;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) return false;
+            timer.pending.decrementAndGet();
+            timer.cancellations.add(this);
+            if (tracked) group.onCancelled(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state.get() != ST_INIT;
+        }
+
+        @Override
+        public TaskGroup group() {
+            return group;
+        }
+    }
+
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        dispatch(timeout);
+                    } else {
+                        // darf nicht passieren: falscher Bucket
+                        logger.error("Timer: Deadline {} > Tick {}", timeout.deadline, deadline);
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) return;
+            Timeout next = timeout.next;
+            if (timeout.prev != null) timeout.prev.next = next;
+            if (next != null) next.prev = timeout.prev;
+            if (timeout == head) head = next;
+            if (timeout == tail) tail = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
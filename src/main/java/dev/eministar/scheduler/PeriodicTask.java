@@ -0,0 +1,74 @@
+package dev.eministar.scheduler;
+
+/**
+ * Wiederkehrende Aufgabe: plant sich nach jedem Lauf mit einem neuen Wheel-Timeout selbst neu ein.
+ */
+final class PeriodicTask implements ScheduledTask {
+    private final TaskGroup group;
+    private final Runnable task;
+    private final long periodNanos;
+    private final boolean fixedRate;
+
+    private volatile boolean cancelled;
+    private volatile HashedWheelTimer.Timeout current;
+    private long nextDeadline; // nur Fixed-Rate, System.nanoTime()-Basis
+
+    PeriodicTask(TaskGroup group, Runnable task, long periodNanos, boolean fixedRate) {
+        if (periodNanos <= 0) throw new IllegalArgumentException("period must be > 0");
+        this.group = group;
+        this.task = task;
+        this.periodNanos = periodNanos;
+        this.fixedRate = fixedRate;
+    }
+
+    void start(long initialDelayNanos) {
+        nextDeadline = System.nanoTime() + initialDelayNanos;
+        current = group.timer().newTimeout(group, this::runOnce, initialDelayNanos, false);
+    }
+
+    private void runOnce() {
+        if (cancelled) return;
+        try {
+            task.run();
+        } finally {
+            if (!cancelled) {
+                long delay;
+                if (fixedRate) {
+                    nextDeadline += periodNanos;
+                    delay = Math.max(0, nextDeadline - System.nanoTime());
+                } else {
+                    delay = periodNanos;
+                }
+                group.onRescheduled();
+                current = group.timer().newTimeout(group, this::runOnce, delay, false);
+                // cancel() kann zwischen Prüfung und Neuplanung gelaufen sein
+                if (cancelled) current.cancel();
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel() {
+        if (cancelled) return false;
+        cancelled = true;
+        HashedWheelTimer.Timeout timeout = current;
+        if (timeout != null) timeout.cancel();
+        group.onCancelled(this);
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return cancelled;
+    }
+
+    @Override
+    public TaskGroup group() {
+        return group;
+    }
+}
@@ -0,0 +1,18 @@
+package dev.eministar.scheduler;
+
+/**
+ * Handle auf eine geplante Aufgabe des {@link Scheduler}s (einmalig oder periodisch).
+ */
+public interface ScheduledTask {
+    /**
+     * Bricht die Aufgabe ab. Liefert {@code false}, wenn sie schon lief bzw. schon abgebrochen war.
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    /** Einmalige Aufgabe wurde ausgeführt oder abgebrochen; periodische nur nach {@link #cancel()}. */
+    boolean isDone();
+
+    TaskGroup group();
+}
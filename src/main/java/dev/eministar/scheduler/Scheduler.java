@@ -0,0 +1,103 @@
+package dev.eministar.scheduler;
+
+import dev.eministar.metrics.MetricWriter;
+import dev.eministar.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gemeinsamer Timer-Dienst für alle Module: ein {@link HashedWheelTimer}-Thread (10 ms Tick) und ein
+ * kleiner Worker-Pool statt eigener Executors und schlafender Threads pro Modul.
+ * <p>
+ * Geplant wird über benannte Gruppen: {@code Scheduler.group("tempvoice").schedule(...)}.
+ */
+public final class Scheduler {
+    private static final Logger logger = LoggerFactory.getLogger(Scheduler.class);
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 1024; // ~10 s pro Umdrehung
+    private static final int WORKERS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final ExecutorService workers = Executors.newFixedThreadPool(WORKERS, new ThreadFactory());
+    private static final HashedWheelTimer timer = new HashedWheelTimer(TICK_MS, TimeUnit.MILLISECONDS, WHEEL_SIZE, workers);
+    private static final Map<String, TaskGroup> groups = new ConcurrentHashMap<>();
+
+    static {
+        Metrics.collector(Scheduler::collect);
+    }
+
+    private Scheduler() {}
+
+    public static TaskGroup group(String name) {
+        return groups.computeIfAbsent(name, n -> new TaskGroup(n, timer));
+    }
+
+    public static Collection<TaskGroup> groups() {
+        return List.copyOf(groups.values());
+    }
+
+    /** Anzahl aller noch nicht fälligen Timeouts im Rad. */
+    public static long pending() {
+        return timer.pending();
+    }
+
+    public static long tickMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(timer.tickNanos());
+    }
+
+    /**
+     * Stoppt das Rad und lässt laufende Aufgaben noch zu Ende laufen; noch nicht fällige verfallen.
+     */
+    public static void shutdown() {
+        timer.stop();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Scheduler beendet");
+    }
+
+    private static void collect(MetricWriter out) {
+        out.family(Metrics.PREFIX + "scheduler_pending_timeouts", "gauge", "Noch nicht fällige Timeouts im Timer-Rad")
+                .sample(Metrics.PREFIX + "scheduler_pending_timeouts", timer.pending());
+
+        String lag = Metrics.PREFIX + "scheduler_lag_seconds";
+        out.family(lag, "histogram", "Verspätung gegenüber der geplanten Deadline pro Timer-Gruppe");
+        groups.forEach((name, g) -> out.histogram(lag, g.lag(), "group", name));
+        String pending = Metrics.PREFIX + "scheduler_tasks_pending";
+        out.family(pending, "gauge", "Ausstehende Aufgaben pro Timer-Gruppe");
+        groups.forEach((name, g) -> out.sample(pending, g.pending(), "group", name));
+        String tasks = Metrics.PREFIX + "scheduler_tasks_total";
+        out.family(tasks, "counter", "Aufgaben pro Timer-Gruppe nach Ergebnis");
+        groups.forEach((name, g) -> {
+            out.sample(tasks, g.scheduled(), "group", name, "outcome", "scheduled");
+            out.sample(tasks, g.cancelled(), "group", name, "outcome", "cancelled");
+            out.sample(tasks, g.failed(), "group", name, "outcome", "failed");
+        });
+    }
+
+    private static final class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "timer-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package dev.eministar.scheduler;
+
+import dev.eministar.metrics.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benannte Gruppe von Timern (z.B. "flagquiz", "tempvoice"). Über die Gruppe wird geplant, sie zählt
+ * Ausführungen, Fehler und die Verspätung (Lag) gegenüber der Deadline und kann alles Ausstehende abbrechen.
+ */
+public final class TaskGroup {
+    private static final Logger logger = LoggerFactory.getLogger(TaskGroup.class);
+
+    private final String name;
+    private final HashedWheelTimer timer;
+    private final Set<ScheduledTask> live = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Histogram lag = new Histogram();
+
+    TaskGroup(String name, HashedWheelTimer timer) {
+        this.name = name;
+        this.timer = timer;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Führt {@code task} einmal nach {@code delay} aus.
+     */
+    public ScheduledTask schedule(Runnable task, long delay, TimeUnit unit) {
+        scheduled.increment();
+        HashedWheelTimer.Timeout timeout = timer.prepare(this, task, unit.toNanos(delay), true);
+        // erst eintragen, dann scharf schalten: sonst kann onDone/onCancelled vor dem add laufen
+        live.add(timeout);
+        timer.arm(timeout);
+        return timeout;
+    }
+
+    /**
+     * Führt {@code task} nach {@code initialDelay} und danach jeweils {@code delay} nach dem Ende des
+     * vorherigen Laufs aus, bis der Task abgebrochen wird.
+     */
+    public ScheduledTask scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        PeriodicTask periodic = new PeriodicTask(this, task, unit.toNanos(delay), false);
+        live.add(periodic);
+        periodic.start(unit.toNanos(initialDelay));
+        return periodic;
+    }
+
+    /**
+     * Wie {@link #scheduleWithFixedDelay}, die Abstände beziehen sich aber auf die geplanten Startzeitpunkte.
+     */
+    public ScheduledTask scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        PeriodicTask periodic = new PeriodicTask(this, task, unit.toNanos(period), true);
+        live.add(periodic);
+        periodic.start(unit.toNanos(initialDelay));
+        return periodic;
+    }
+
+    /**
+     * Bricht alle ausstehenden Aufgaben dieser Gruppe ab.
+     */
+    public int cancelAll() {
+        int n = 0;
+        for (ScheduledTask task : live) {
+            if (task.cancel()) n++;
+        }
+        return n;
+    }
+
+    // ---- vom Timer aufgerufen ----
+
+    HashedWheelTimer timer() {
+        return timer;
+    }
+
+    void run(Runnable task, long lagNanos) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            failed.increment();
+            logger.error("Timer-Aufgabe in Gruppe {} fehlgeschlagen", name, t);
+        } finally {
+            lag.record(lagNanos);
+        }
+    }
+
+    void onCancelled(ScheduledTask task) {
+        cancelled.increment();
+        live.remove(task);
+    }
+
+    void onDone(ScheduledTask task) {
+        live.remove(task);
+    }
+
+    void onRescheduled() {
+        scheduled.increment();
+    }
+
+    // ---- Metriken ----
+
+    public int pending() { return live.size(); }
+    public long scheduled() { return scheduled.sum(); }
+    public long executed() { return lag.count(); }
+    public long cancelled() { return cancelled.sum(); }
+    public long failed() { return failed.sum(); }
+    public long maxLagNanos() { return lag.maxNanos(); }
+    public long averageLagNanos() { return lag.averageNanos(); }
+    public Histogram lag() { return lag; }
+}
@@ -0,0 +1,152 @@
+package dev.eministar.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Textnormalisierung in einem Durchlauf statt Regex-Ketten.
+ * <p>
+ * Für die ersten 0x250 Zeichen (Latin-1 und Latin Extended A/B) steht in einer Tabelle, worauf sie gefaltet werden:
+ * Kleinbuchstabe ohne Akzent ({@code É -> e}), Ersatz für Ligaturen und Sonderbuchstaben ({@code ß -> ss},
+ * {@code æ -> ae}, {@code ø -> o}) oder Trenner. Alles darüber geht den langsamen Weg über NFD. Geschrieben wird in
+ * einen Puffer pro Thread; ist das Ergebnis gleich der Eingabe, wird die Eingabe selbst zurückgegeben.
+ */
+public final class TextNormalizer {
+    private static final int TABLE_SIZE = 0x250;
+    private static final String[] FOLD = new String[TABLE_SIZE]; // null = Trenner
+    private static final int MAX_BUFFER = 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    // Buchstaben, Ziffern, Satzzeichen, Leerraum (Unicode-Kategorien L, N, P, Z)
+    private static final int TEXT_TYPES = 1 << Character.UPPERCASE_LETTER | 1 << Character.LOWERCASE_LETTER
+            | 1 << Character.TITLECASE_LETTER | 1 << Character.MODIFIER_LETTER | 1 << Character.OTHER_LETTER
+            | 1 << Character.DECIMAL_DIGIT_NUMBER | 1 << Character.LETTER_NUMBER | 1 << Character.OTHER_NUMBER
+            | 1 << Character.CONNECTOR_PUNCTUATION | 1 << Character.DASH_PUNCTUATION | 1 << Character.START_PUNCTUATION
+            | 1 << Character.END_PUNCTUATION | 1 << Character.INITIAL_QUOTE_PUNCTUATION
+            | 1 << Character.FINAL_QUOTE_PUNCTUATION | 1 << Character.OTHER_PUNCTUATION
+            | 1 << Character.SPACE_SEPARATOR | 1 << Character.LINE_SEPARATOR | 1 << Character.PARAGRAPH_SEPARATOR;
+
+    static {
+        for (char c = 0; c < TABLE_SIZE; c++) FOLD[c] = decompose(c);
+        // NFD zerlegt diese nicht, ohne Eintrag würden sie zum Trenner
+        fold("ß", "ss");
+        fold("æÆ", "ae");
+        fold("œŒ", "oe");
+        fold("øØ", "o");
+        fold("đĐ", "d");
+        fold("łŁ", "l");
+        fold("þÞ", "th");
+        fold("ı", "i");
+    }
+
+    private TextNormalizer() {}
+
+    /**
+     * Vergleichsschlüssel: Kleinbuchstaben ohne Akzente, alles außer a-z/0-9 wird zu einem einzelnen Leerzeichen,
+     * ohne Leerzeichen am Rand ({@code "  Côte d'Ivoire!" -> "cote d ivoire"}).
+     */
+    public static String fold(String s) {
+        return fold(s, ' ');
+    }
+
+    /** Wie {@link #fold}, aber mit Bindestrichen, z.B. für Kanalnamen ({@code "DPQ 7 Jürgen_" -> "dpq-7-jurgen"}). */
+    public static String slug(String s) {
+        return fold(s, '-');
+    }
+
+    /** Entfernt allen Leerraum; ohne Leerraum kommt die Eingabe unverändert zurück. */
+    public static String removeWhitespace(String s) {
+        int i = 0;
+        int n = s.length();
+        while (i < n && !Character.isWhitespace(s.charAt(i))) i++;
+        if (i == n) return s;
+        StringBuilder out = buffer();
+        out.append(s, 0, i);
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if (!Character.isWhitespace(c)) out.append(c);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Behält nur Buchstaben, Ziffern, Satzzeichen, Leerraum und die angegebenen Code Points (z.B. ein Emoji, das im
+     * Namen stehen darf); alle anderen Symbole und Steuerzeichen fallen weg.
+     */
+    public static String keepText(String s, int... allowed) {
+        StringBuilder out = buffer();
+        boolean changed = false;
+        for (int i = 0; i < s.length(); ) {
+            int cp = s.codePointAt(i);
+            int len = Character.charCount(cp);
+            if ((TEXT_TYPES & (1 << Character.getType(cp))) != 0 || contains(allowed, cp)) {
+                out.appendCodePoint(cp);
+            } else {
+                changed = true;
+            }
+            i += len;
+        }
+        return changed ? out.toString() : s;
+    }
+
+    private static String fold(String s, char separator) {
+        StringBuilder out = buffer();
+        boolean gap = false;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                // ASCII ohne Tabelle
+                if (c >= 'A' && c <= 'Z') c = (char) (c + ('a' - 'A'));
+                else if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9')) {
+                    gap = true;
+                    continue;
+                }
+                if (gap && out.length() > 0) out.append(separator);
+                gap = false;
+                out.append(c);
+                continue;
+            }
+            String folded = c < TABLE_SIZE ? FOLD[c] : Character.isSurrogate(c) ? null : decompose(c);
+            if (folded == null) {
+                gap = true;
+                continue;
+            }
+            if (gap && out.length() > 0) out.append(separator);
+            gap = false;
+            out.append(folded);
+        }
+        return s.contentEquals(out) ? s : out.toString();
+    }
+
+    // langsamer Weg: klein schreiben, per NFD zerlegen, nur a-z/0-9 behalten
+    private static String decompose(char c) {
+        if (!Character.isLetterOrDigit(c)) return null;
+        String decomposed = Normalizer.normalize(String.valueOf(c).toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(2);
+        for (int i = 0; i < decomposed.length(); i++) {
+            char d = decomposed.charAt(i);
+            if ((d >= 'a' && d <= 'z') || (d >= '0' && d <= '9')) sb.append(d);
+        }
+        return sb.isEmpty() ? null : sb.toString();
+    }
+
+    private static void fold(String chars, String to) {
+        for (int i = 0; i < chars.length(); i++) FOLD[chars.charAt(i)] = to;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) if (v == value) return true;
+        return false;
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder sb = BUFFER.get();
+        if (sb.capacity() > MAX_BUFFER) {
+            // einzelne Riesen-Nachrichten sollen den Puffer nicht dauerhaft aufblähen
+            sb = new StringBuilder(64);
+            BUFFER.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
+}